@@ -2,31 +2,79 @@ package com.resumebuilder.ai_resume_api.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumebuilder.ai_resume_api.ai.json.TolerantJsonReader;
 import com.resumebuilder.ai_resume_api.ai.prompts.PromptRegistry;
 import com.resumebuilder.ai_resume_api.ai.prompts.PromptTemplate;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class AIOrchestrator {
 
     private static final Logger log = LoggerFactory.getLogger(AIOrchestrator.class);
 
+    private static final String REPAIR_PROMPT_ID = "json_repair_v1";
+    private static final int REPAIR_OUTPUT_MAX_CHARS = 4000;
+
     private final List<AiProvider> providers;
     private final PromptRegistry prompts;
     private final ModelSelector modelSelector;
     private final ObjectMapper mapper = new ObjectMapper();
+    private final int repairAttempts;
+    private final ModelLatencyTracker latency;
+    private final TokenBudgeter budgeter;
+    private final CascadeTracker cascadeTracker;
+    private final AiMetrics metrics;
+    private final SemanticCache semanticCache;
+    private final boolean cascadeEnabled;
+    private final Set<String> cascadePrompts;
+    private final int cascadeMaxPromptChars;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor(); // hedges, cache audits
 
-    public AIOrchestrator(List<AiProvider> providers, PromptRegistry prompts, ModelSelector modelSelector) {
+    public AIOrchestrator(List<AiProvider> providers, PromptRegistry prompts, ModelSelector modelSelector,
+            ModelLatencyTracker latency, TokenBudgeter budgeter, CascadeTracker cascadeTracker, AiMetrics metrics,
+            SemanticCache semanticCache,
+            @Value("${ai.structured.repair-attempts:1}") int repairAttempts,
+            @Value("${ai.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${ai.hedge.min-delay-ms:1000}") long hedgeMinDelayMs,
+            @Value("${ai.cascade.enabled:false}") boolean cascadeEnabled,
+            @Value("${ai.cascade.prompts:bullet_rewrite_json_v1,tailor_single_patch_json_v1,tailor_patch_json_v1}") Set<String> cascadePrompts,
+            @Value("${ai.cascade.max-prompt-chars:6000}") int cascadeMaxPromptChars) {
         this.providers = providers;
         this.prompts = prompts;
         this.modelSelector = modelSelector;
+        this.latency = latency;
+        this.budgeter = budgeter;
+        this.cascadeTracker = cascadeTracker;
+        this.metrics = metrics;
+        this.semanticCache = semanticCache;
+        this.cascadeEnabled = cascadeEnabled;
+        this.cascadePrompts = cascadePrompts;
+        this.cascadeMaxPromptChars = cascadeMaxPromptChars;
+        this.repairAttempts = repairAttempts;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
     }
 
     /**
@@ -40,47 +88,80 @@ public class AIOrchestrator {
             String preferredModel,
             Map<String, Object> options,
             boolean expectJson) {
+        return generate(promptId, variables, preferredModel, options, expectJson, null);
+    }
+
+    /**
+     * As above; check validates the answer. For prompt ids in ai.cascade.prompts with no
+     * preferred model, the smallest model is tried first and the call escalates to the next
+     * larger one only when the output is invalid JSON or check reports problems. Prompt ids
+     * in ai.semantic-cache.prompts may be answered from {@link SemanticCache}; only answers
+     * that pass check are cached.
+     */
+    public AiTextResult generate(String promptId,
+            Map<String, Object> variables,
+            String preferredModel,
+            Map<String, Object> options,
+            boolean expectJson,
+            OutputCheck check) {
 
         PromptTemplate pt = prompts.get(promptId);
         String prompt = pt.render(variables);
-        var provider = selectProvider();
 
-        List<String> candidates = modelSelector.ordered(preferredModel);
+        var cacheLookup = semanticCache.lookup(pt, variables, preferredModel, options);
+        if (cacheLookup != null && cacheLookup.hit() != null) {
+            if (semanticCache.shouldAudit(cacheLookup))
+                executor.submit(() -> audit(cacheLookup, pt, prompt, preferredModel, options, expectJson, check));
+            return cacheLookup.hit();
+        }
+
+        AiTextResult res = generateUncached(pt, prompt, preferredModel, options, expectJson, check);
+        if (cacheLookup != null && acceptable(res, expectJson, check))
+            semanticCache.put(cacheLookup, res);
+        return res;
+    }
+
+    private AiTextResult generateUncached(PromptTemplate pt, String prompt, String preferredModel,
+            Map<String, Object> options, boolean expectJson, OutputCheck check) {
+        String promptId = pt.id();
+        if (check != null && cascadeEnabled && cascadePrompts.contains(promptId)
+                && (preferredModel == null || preferredModel.isBlank())
+                && prompt.length() <= cascadeMaxPromptChars)
+            return cascade(pt, prompt, options, expectJson, check);
+
+        List<String> candidates = modelSelector.ordered(preferredModel, promptId);
         RuntimeException lastError = null;
 
-        for (String model : candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            String model = candidates.get(i);
+            String backup = i + 1 < candidates.size() ? candidates.get(i + 1) : null;
             try {
-                var req = new AiTextRequest(model, prompt, false, expectJson ? "json" : null,
-                        Map.of("promptId", promptId, "promptVersion", pt.version()));
-
-                log.debug("AI generate: provider={}, promptId={}, version={}, tryModel={}",
-                        provider.providerName(), promptId, pt.version(), model);
-
-                AiTextResult res = provider.generate(req, options);
-
-                String content = res.content();
-                if (expectJson) {
-                    try {
-                        validateJson(content);
-                    } catch (Exception bad) {
-                        // Attempt a single repair pass
-                        String repaired = com.resumebuilder.ai_resume_api.util.JsonRepairUtil.tryRepair(content);
-                        validateJson(repaired); // throws if still invalid
-                        content = repaired;
-                    }
-                }
+                long hedgeAfterMs = hedgeDelay(model, promptId, backup);
+                AiTextResult res = hedgeAfterMs > 0
+                        ? hedged(pt, prompt, model, backup, hedgeAfterMs, options, expectJson)
+                        : attempt(pt, prompt, model, options, expectJson, new AtomicBoolean());
 
                 // success
                 return new AiTextResult(
-                        content,
+                        res.content(),
                         res.raw(),
                         res.provider(),
-                        model,
+                        res.model(),
                         res.latencyMs(),
                         false,
                         res.providerMeta(),
-                        res.warnings());
+                        res.warnings(),
+                        res.json(),
+                        pt.version());
+            } catch (HedgeFailure ex) {
+                metrics.fallback(promptId, model);
+                metrics.fallback(promptId, backup);
+                i++; // the backup was raced and failed too
+                lastError = new RuntimeException("Models failed: " + model + ", " + backup + " -> "
+                        + ex.getCause().getMessage(), ex.getCause());
+                log.warn("Hedged attempt failed for models {} and {}. Trying next if available.", model, backup);
             } catch (Exception ex) {
+                metrics.fallback(promptId, model);
                 lastError = new RuntimeException("Model failed: " + model + " -> " + ex.getMessage(), ex);
                 log.warn("AI attempt failed for model {}. Trying next if available. Cause={}", model, ex.toString());
             }
@@ -89,22 +170,289 @@ public class AIOrchestrator {
         throw (lastError != null ? lastError : new IllegalStateException("All models failed"));
     }
 
-    private AiProvider selectProvider() {
-        return providers.stream()
-                .filter(AiProvider::isHealthy)
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("No healthy AI provider available"));
+    private static boolean acceptable(AiTextResult res, boolean expectJson, OutputCheck check) {
+        return (!expectJson || res.json() != null) && (check == null || check.problems(res).isEmpty());
+    }
+
+    private void audit(SemanticCache.Lookup hit, PromptTemplate pt, String prompt, String preferredModel,
+            Map<String, Object> options, boolean expectJson, OutputCheck check) {
+        try {
+            AiTextResult fresh = generateUncached(pt, prompt, preferredModel, options, expectJson, check);
+            if (acceptable(fresh, expectJson, check))
+                semanticCache.audit(hit, fresh);
+        } catch (Exception ex) {
+            log.debug("Semantic cache audit generation failed for promptId={}: {}", pt.id(), ex.toString());
+        }
     }
 
-    private void validateJson(String body) {
+    private AiTextResult cascade(PromptTemplate pt, String prompt, Map<String, Object> options, boolean expectJson,
+            OutputCheck check) {
+        List<String> models = modelSelector.smallestFirst();
+        if (models.isEmpty())
+            throw new IllegalStateException("No models configured");
+        long start = System.currentTimeMillis();
+        var primarySnap = latency.snapshot(models.get(models.size() - 1), pt.id());
+        long primaryP50 = primarySnap == null ? -1 : primarySnap.p50();
+
+        AiTextResult best = null;
+        List<String> bestProblems = List.of();
+        RuntimeException lastError = null;
+        int escalations = 0;
+        for (String model : models) {
+            try {
+                AiTextResult res = attempt(pt, prompt, model, options, expectJson, new AtomicBoolean());
+                List<String> problems = check.problems(res);
+                if (problems.isEmpty()) {
+                    long total = System.currentTimeMillis() - start;
+                    cascadeTracker.record(pt.id(), model, escalations, true, total, primaryP50);
+                    log.debug("Cascade accepted {} for promptId={} after {} escalation(s)", model, pt.id(), escalations);
+                    return withTotalLatency(res, pt.version(), total, escalations == 0 ? List.of()
+                            : List.of("Cascade escalated " + escalations + " time(s) to " + model));
+                }
+                metrics.validationFailure(pt.id(), model, "check");
+                log.info("Cascade rejected {} for promptId={}: {}", model, pt.id(), problems);
+                best = res;
+                bestProblems = problems;
+            } catch (Exception ex) {
+                metrics.fallback(pt.id(), model);
+                lastError = new RuntimeException("Model failed: " + model + " -> " + ex.getMessage(), ex);
+                log.warn("Cascade attempt failed for model {}: {}", model, ex.toString());
+            }
+            escalations++;
+        }
+
+        long total = System.currentTimeMillis() - start;
+        if (best == null)
+            throw (lastError != null ? lastError : new IllegalStateException("All models failed"));
+        // nothing passed: hand back the largest model's answer and let the caller's own checks report it
+        cascadeTracker.record(pt.id(), best.model(), escalations - 1, false, total, primaryP50);
+        List<String> extra = new ArrayList<>();
+        extra.add("Cascade: no model passed validation");
+        extra.addAll(bestProblems);
+        return withTotalLatency(best, pt.version(), total, extra);
+    }
+
+    private static AiTextResult withTotalLatency(AiTextResult res, String promptVersion, long latencyMs, List<String> extraWarnings) {
+        List<String> warnings = new ArrayList<>(res.warnings() == null ? List.of() : res.warnings());
+        warnings.addAll(extraWarnings);
+        return new AiTextResult(res.content(), res.raw(), res.provider(), res.model(), latencyMs, false,
+                res.providerMeta(), warnings, res.json(), promptVersion);
+    }
+
+    /**
+     * One call on one model, recorded in the latency tracker. Setting cancelled abandons the
+     * call (a streamed one is cut at the next chunk); abandoned calls count as latency only.
+     */
+    private AiTextResult attempt(PromptTemplate pt, String prompt, String model, Map<String, Object> options,
+            boolean expectJson, AtomicBoolean cancelled) throws Exception {
+        var provider = selectProvider(model);
+        log.debug("AI generate: provider={}, promptId={}, version={}, tryModel={}",
+                provider.providerName(), pt.id(), pt.version(), model);
+
+        var budget = budgeter.plan(pt.id(), model, prompt, options);
+        long start = System.currentTimeMillis();
+        long timer = metrics.generationStarted();
         try {
-            JsonNode node = mapper.readTree(body);
-            if (!node.isObject()) {
-                throw new IllegalStateException("Expected JSON object at root");
+            AiTextResult res;
+            if (expectJson) {
+                res = generateStructured(provider, pt, prompt, model, budget.options(), cancelled);
+            } else {
+                var req = new AiTextRequest(model, prompt, false, null,
+                        Map.of("promptId", pt.id(), "promptVersion", pt.version()));
+                res = provider.generate(req, budget.options());
             }
-        } catch (Exception e) {
-            throw new IllegalStateException("Provider did not return valid JSON: " + e.getMessage(), e);
+            if (cancelled.get())
+                throw new CancellationException("Superseded by hedged request");
+            latency.recordSuccess(model, pt.id(), System.currentTimeMillis() - start);
+            budgeter.record(pt.id(), model, prompt.length(), budget, res);
+            metrics.generationFinished(timer, pt.id(), model, provider.providerName(), "success", res.providerMeta());
+            return res;
+        } catch (Exception ex) {
+            metrics.generationFinished(timer, pt.id(), model, provider.providerName(),
+                    cancelled.get() ? "cancelled" : "failure", null);
+            long elapsed = System.currentTimeMillis() - start;
+            if (cancelled.get())
+                latency.recordAbandoned(model, pt.id(), elapsed);
+            else
+                latency.recordFailure(model, pt.id(), elapsed);
+            throw ex;
+        }
+    }
+
+    /** Delay before hedging to the backup model: the model's p95 for this prompt, or 0 for no hedge. */
+    private long hedgeDelay(String model, String promptId, String backup) {
+        if (!hedgeEnabled || backup == null)
+            return 0;
+        var snap = latency.snapshot(model, promptId);
+        if (snap == null || snap.p95() < 0)
+            return 0;
+        return Math.max(snap.p95(), hedgeMinDelayMs);
+    }
+
+    /**
+     * Runs the model and, if it has not answered within delayMs, races the backup model
+     * against it. The first valid answer wins and the other call is cancelled. If the
+     * model fails before the delay, that error is thrown as for an unhedged call.
+     */
+    private AiTextResult hedged(PromptTemplate pt, String prompt, String model, String backup, long delayMs,
+            Map<String, Object> options, boolean expectJson) throws Exception {
+        var primaryCancelled = new AtomicBoolean();
+        var backupCancelled = new AtomicBoolean();
+        var race = new ExecutorCompletionService<AiTextResult>(executor);
+        Future<AiTextResult> primary = race
+                .submit(() -> attempt(pt, prompt, model, options, expectJson, primaryCancelled));
+        Future<AiTextResult> second = null;
+        try {
+            Future<AiTextResult> done = race.poll(delayMs, TimeUnit.MILLISECONDS);
+            if (done != null)
+                return resultOf(done);
+
+            log.info("Hedging promptId={}: {} exceeded p95 {}ms, also trying {}", pt.id(), model, delayMs, backup);
+            second = race.submit(() -> attempt(pt, prompt, backup, options, expectJson, backupCancelled));
+
+            Exception error = null;
+            for (int n = 0; n < 2; n++) {
+                Future<AiTextResult> f = race.take();
+                try {
+                    AiTextResult res = f.get();
+                    String winner = f == primary ? model : backup;
+                    String loser = f == primary ? backup : model;
+                    log.info("Hedge won by {} for promptId={}; cancelling {}", winner, pt.id(), loser);
+                    return withWarning(res, "Hedged request: " + winner + " answered before " + loser);
+                } catch (ExecutionException e) {
+                    error = e.getCause() instanceof Exception ex ? ex : e;
+                }
+            }
+            throw new HedgeFailure(error);
+        } finally {
+            // no-op for the winner, which has already returned
+            primaryCancelled.set(true);
+            backupCancelled.set(true);
+            primary.cancel(true);
+            if (second != null)
+                second.cancel(true);
+        }
+    }
+
+    private static AiTextResult resultOf(Future<AiTextResult> done) throws Exception {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+
+    private static AiTextResult withWarning(AiTextResult res, String warning) {
+        List<String> warnings = new ArrayList<>(res.warnings() == null ? List.of() : res.warnings());
+        warnings.add(warning);
+        return new AiTextResult(res.content(), res.raw(), res.provider(), res.model(), res.latencyMs(),
+                res.cached(), res.providerMeta(), warnings, res.json(), res.promptVersion());
+    }
+
+    /** Both the model and its hedge failed. */
+    private static final class HedgeFailure extends Exception {
+        HedgeFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Streams a JSON generation through the tolerant reader and the prompt's schema, cancelling
+     * it as soon as the output diverges. A short repair prompt on the same model is tried
+     * before the caller falls back to the next model.
+     */
+    private AiTextResult generateStructured(AiProvider provider, PromptTemplate pt, String prompt, String model,
+            Map<String, Object> options, AtomicBoolean cancelled) throws Exception {
+        var req = new AiTextRequest(model, prompt, true, "json",
+                Map.of("promptId", pt.id(), "promptVersion", pt.version()));
+
+        var reader = new TolerantJsonReader(pt.schema());
+        AiTextResult res = provider.generateStream(req, options,
+                chunk -> !cancelled.get() && !reader.feed(chunk).failed());
+        if (cancelled.get())
+            throw new CancellationException("Superseded by hedged request");
+        JsonNode json = reader.failed() ? null : reader.finish();
+        if (json != null && !reader.truncated())
+            return withJson(res, json, res.latencyMs(), List.of());
+
+        String problem = problemOf(reader, json);
+        long spent = res.latencyMs();
+        String output = res.raw() == null ? "" : res.raw();
+        metrics.validationFailure(pt.id(), model, "schema");
+        log.warn("Structured output rejected: promptId={}, model={}, chars={}, latency={}ms, problem={}",
+                pt.id(), model, output.length(), spent, problem);
+
+        PromptTemplate repair = prompts.get(REPAIR_PROMPT_ID);
+        for (int attempt = 1; attempt <= repairAttempts; attempt++) {
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("error", problem);
+            vars.put("schema", pt.schema() != null ? pt.schema().source() : "{ \"type\": \"object\" }");
+            vars.put("output", output.length() <= REPAIR_OUTPUT_MAX_CHARS ? output
+                    : output.substring(0, REPAIR_OUTPUT_MAX_CHARS));
+
+            Map<String, Object> repairOptions = new HashMap<>(options == null ? Map.of() : options);
+            repairOptions.put("temperature", 0.0);
+
+            var repairReq = new AiTextRequest(model, repair.render(vars), true, "json",
+                    Map.of("promptId", repair.id(), "promptVersion", repair.version(), "repairOf", pt.id()));
+            var repairReader = new TolerantJsonReader(pt.schema());
+            AiTextResult fixed = provider.generateStream(repairReq, repairOptions,
+                    chunk -> !cancelled.get() && !repairReader.feed(chunk).failed());
+            if (cancelled.get())
+                throw new CancellationException("Superseded by hedged request");
+            spent += fixed.latencyMs();
+
+            JsonNode fixedJson = repairReader.failed() ? null : repairReader.finish();
+            boolean repaired = fixedJson != null && !repairReader.truncated();
+            metrics.jsonRepair(pt.id(), model, repaired);
+            if (repaired) {
+                log.info("Structured output repaired: promptId={}, model={}, attempt={}, totalLatency={}ms",
+                        pt.id(), model, attempt, spent);
+                return withJson(fixed, fixedJson, spent, List.of("Output repaired with " + repair.id()));
+            }
+            problem = problemOf(repairReader, fixedJson);
+            output = fixed.raw() == null ? "" : fixed.raw();
+            log.warn("Repair attempt {} failed for promptId={}, model={}: {}", attempt, pt.id(), model, problem);
         }
+
+        throw new IllegalStateException("Provider did not return valid JSON: " + problem);
+    }
+
+    private AiTextResult withJson(AiTextResult res, JsonNode json, long latencyMs, List<String> extraWarnings)
+            throws Exception {
+        List<String> warnings = new ArrayList<>(res.warnings() == null ? List.of() : res.warnings());
+        warnings.addAll(extraWarnings);
+        return new AiTextResult(
+                mapper.writeValueAsString(json),
+                res.raw(),
+                res.provider(),
+                res.model(),
+                latencyMs,
+                res.cached(),
+                res.providerMeta(),
+                warnings,
+                json,
+                res.promptVersion());
+    }
+
+    private String problemOf(TolerantJsonReader reader, JsonNode json) {
+        if (reader.failed())
+            return reader.error();
+        return json == null ? "No JSON object found in output" : "JSON output is truncated";
+    }
+
+    /** First healthy provider serving the model, in @Order precedence. */
+    private AiProvider selectProvider(String model) {
+        return providers.stream()
+                .filter(p -> p.supports(model))
+                .filter(AiProvider::isHealthy)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No healthy AI provider available for " + model));
     }
 
     public static String hashKey(String input) {
@@ -116,4 +464,4 @@ public class AIOrchestrator {
             return Integer.toHexString(input.hashCode());
         }
     }
-}
\ No newline at end of file
+}
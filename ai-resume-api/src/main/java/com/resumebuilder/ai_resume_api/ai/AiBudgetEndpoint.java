@@ -0,0 +1,27 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/aibudget: latency and truncation rate per prompt id, fixed budgets vs learned.
+ * Exposed only when listed in management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "aibudget")
+public class AiBudgetEndpoint {
+
+    private final TokenBudgeter budgeter;
+
+    public AiBudgetEndpoint(TokenBudgeter budgeter) {
+        this.budgeter = budgeter;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> report() {
+        return budgeter.report();
+    }
+}
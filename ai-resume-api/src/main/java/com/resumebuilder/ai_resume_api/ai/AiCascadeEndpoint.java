@@ -0,0 +1,27 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/aicascade: escalation rate and latency saved per cascaded prompt id.
+ * Exposed only when listed in management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "aicascade")
+public class AiCascadeEndpoint {
+
+    private final CascadeTracker tracker;
+
+    public AiCascadeEndpoint(CascadeTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> report() {
+        return tracker.report();
+    }
+}
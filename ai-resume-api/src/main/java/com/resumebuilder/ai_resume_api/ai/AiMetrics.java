@@ -0,0 +1,164 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Micrometer meters for the AI pipeline (scraped via /actuator/prometheus):
+ *
+ * ai.generation            timer: prompt, model, provider, outcome (success|failure|cancelled)
+ * ai.generation.tokens     summary of eval_count: prompt, model, provider
+ * ai.generation.tokens.per.second  eval_count / eval_duration: model, provider
+ * ai.generation.in.flight  gauge of generations waiting on a provider
+ * ai.fallbacks             counter: prompt, model (the one that failed over)
+ * ai.json.repairs          counter: prompt, model, outcome (success|failure)
+ * ai.validation.failures   counter: prompt, model, kind (schema|check)
+ * ai.tailor.stage          timer: stage (reindex|embed|retrieve|generate|augment|score)
+ * ai.semantic.cache        counter: prompt, outcome (exact_hit|hit|miss)
+ * ai.semantic.cache.audits counter: prompt, outcome (ok|false_hit)
+ * ai.semantic.cache.audit.similarity  summary of cached vs regenerated answer similarity: prompt
+ * ai.semantic.cache.size   gauge of cached entries
+ *
+ * Prompt ids come from configuration and model ids pass through {@link KnownModels#key}, so
+ * tag cardinality stays bounded.
+ */
+@Component
+public class AiMetrics {
+
+    private final MeterRegistry registry;
+    private final KnownModels models;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AiMetrics(MeterRegistry registry, KnownModels models) {
+        this.registry = registry;
+        this.models = models;
+        Gauge.builder("ai.generation.in.flight", inFlight, AtomicInteger::get)
+                .description("Generations currently waiting on a provider")
+                .register(registry);
+    }
+
+    /** Marks a generation as in flight; pair with {@link #generationFinished}. */
+    public long generationStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void generationFinished(long startNanos, String promptId, String model, String provider, String outcome,
+            Map<String, Object> providerMeta) {
+        inFlight.decrementAndGet();
+        model = models.key(model);
+        Timer.builder("ai.generation")
+                .description("Time for one generation attempt on one model")
+                .tags("prompt", promptId, "model", model, "provider", provider, "outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(3))
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        if (providerMeta == null || !(providerMeta.get("eval_count") instanceof Number evalCount))
+            return;
+        DistributionSummary.builder("ai.generation.tokens")
+                .description("Generated tokens (eval_count) per call")
+                .baseUnit("tokens")
+                .tags("prompt", promptId, "model", model, "provider", provider)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(evalCount.doubleValue());
+        // eval_duration is in nanoseconds and covers generation only, so this excludes prompt processing
+        if (providerMeta.get("eval_duration") instanceof Number evalNanos && evalNanos.longValue() > 0) {
+            DistributionSummary.builder("ai.generation.tokens.per.second")
+                    .description("Decode throughput from eval_count / eval_duration")
+                    .tags("model", model, "provider", provider)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(evalCount.doubleValue() * 1e9 / evalNanos.doubleValue());
+        }
+    }
+
+    public void fallback(String promptId, String model) {
+        Counter.builder("ai.fallbacks")
+                .description("Attempts that failed over to another model")
+                .tags("prompt", promptId, "model", models.key(model))
+                .register(registry)
+                .increment();
+    }
+
+    public void jsonRepair(String promptId, String model, boolean success) {
+        Counter.builder("ai.json.repairs")
+                .description("Repair prompts run for rejected structured output")
+                .tags("prompt", promptId, "model", models.key(model), "outcome", success ? "success" : "failure")
+                .register(registry)
+                .increment();
+    }
+
+    public void validationFailure(String promptId, String model, String kind) {
+        Counter.builder("ai.validation.failures")
+                .description("Outputs rejected by the JSON schema or a caller check")
+                .tags("prompt", promptId, "model", models.key(model), "kind", kind)
+                .register(registry)
+                .increment();
+    }
+
+    public void semanticCache(String promptId, String outcome) {
+        Counter.builder("ai.semantic.cache")
+                .description("Semantic cache lookups; hit rate = (exact_hit + hit) / all")
+                .tags("prompt", promptId, "outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void semanticCacheAudit(String promptId, boolean falseHit, double similarity) {
+        Counter.builder("ai.semantic.cache.audits")
+                .description("Sampled cache hits regenerated and compared with the cached answer")
+                .tags("prompt", promptId, "outcome", falseHit ? "false_hit" : "ok")
+                .register(registry)
+                .increment();
+        DistributionSummary.builder("ai.semantic.cache.audit.similarity")
+                .description("Cosine similarity of cached vs regenerated answers")
+                .tags("prompt", promptId)
+                .register(registry)
+                .record(similarity);
+    }
+
+    public void semanticCacheSize(IntSupplier size) {
+        Gauge.builder("ai.semantic.cache.size", size::getAsInt)
+                .description("Entries in the semantic response cache")
+                .register(registry);
+    }
+
+    public void chunksIndexed(String section, String chunking, int chunks, int chars) {
+        Counter.builder("ai.chunks.indexed")
+                .description("Chunks written to the retrieval index, by section and chunking strategy chain")
+                .tags("section", section, "chunking", chunking)
+                .register(registry)
+                .increment(chunks);
+        DistributionSummary.builder("ai.chunks.size")
+                .description("Characters per section indexed, by chunking strategy chain")
+                .baseUnit("chars")
+                .tags("section", section, "chunking", chunking)
+                .register(registry)
+                .record(chars);
+    }
+
+    public Timer.Sample startStage() {
+        return Timer.start(registry);
+    }
+
+    public void endStage(Timer.Sample sample, String stage) {
+        sample.stop(Timer.builder("ai.tailor.stage")
+                .description("Time per stage of TailoringService.tailor")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
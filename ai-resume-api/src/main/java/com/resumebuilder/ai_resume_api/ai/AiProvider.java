@@ -1,11 +1,29 @@
 package com.resumebuilder.ai_resume_api.ai;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 public interface AiProvider {
     AiTextResult generate(AiTextRequest req, Map<String, Object> options);
 
+    /**
+     * Streams a generation, handing each text fragment to onChunk as it arrives.
+     * Returning false from onChunk cancels the generation on the provider side; the
+     * result then carries the text received so far. Providers without streaming
+     * support deliver the whole response as a single fragment.
+     */
+    default AiTextResult generateStream(AiTextRequest req, Map<String, Object> options, Predicate<String> onChunk) {
+        AiTextResult res = generate(req, options);
+        onChunk.test(res.content());
+        return res;
+    }
+
     String providerName();
 
+    /** Whether this provider serves the model id; the orchestrator routes each candidate model by it. */
+    default boolean supports(String model) {
+        return true;
+    }
+
     boolean isHealthy();
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.resumebuilder.ai_resume_api.ai;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.List;
 import java.util.Map;
 
@@ -11,5 +13,7 @@ public record AiTextResult(
         long latencyMs,
         boolean cached,
         Map<String, Object> providerMeta, // eval_count, durations etc.
-        List<String> warnings) {
+        List<String> warnings,
+        JsonNode json, // parsed tree when JSON was requested, null otherwise
+        String promptVersion) { // version of the prompt file used; set by AIOrchestrator
 }   
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per prompt id outcome of cascaded calls: how often the small model was not enough, which
+ * model ended up answering, and the latency saved against the primary model's p50 (negative
+ * when escalations cost more than starting big would have).
+ */
+@Component
+public class CascadeTracker {
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public void record(String promptId, String answeredBy, int escalations, boolean accepted, long latencyMs,
+            long primaryP50Ms) {
+        stats.computeIfAbsent(promptId, k -> new Stats())
+                .record(answeredBy, escalations, accepted, latencyMs, primaryP50Ms);
+    }
+
+    public Map<String, Map<String, Object>> report() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        stats.forEach((promptId, s) -> out.put(promptId, s.summary()));
+        return out;
+    }
+
+    private static final class Stats {
+        private long calls;
+        private long escalated;
+        private long rejectedEverywhere;
+        private long latencyMs;
+        private long savedMs;
+        private long savedSamples;
+        private final Map<String, Long> answeredBy = new TreeMap<>();
+
+        synchronized void record(String model, int escalations, boolean accepted, long latency, long primaryP50) {
+            calls++;
+            if (escalations > 0)
+                escalated++;
+            if (!accepted)
+                rejectedEverywhere++;
+            latencyMs += latency;
+            if (primaryP50 > 0) {
+                savedMs += primaryP50 - latency;
+                savedSamples++;
+            }
+            answeredBy.merge(model, 1L, Long::sum);
+        }
+
+        synchronized Map<String, Object> summary() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("calls", calls);
+            m.put("escalationRate", calls == 0 ? 0.0 : (double) escalated / calls);
+            m.put("rejectedByAllModels", rejectedEverywhere);
+            m.put("avgLatencyMs", calls == 0 ? 0 : latencyMs / calls);
+            m.put("avgLatencySavedMs", savedSamples == 0 ? 0 : savedMs / savedSamples);
+            m.put("answeredBy", new LinkedHashMap<>(answeredBy));
+            return m;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The model ids this service is configured with: the ai.ollama.model.* slots, the models
+ * listed per Ollama endpoint and ai.openai.models. A client may still ask for any raw id, but
+ * meters and the per-model trackers see such ids as {@link #OTHER}, so their size stays bounded
+ * by configuration rather than by what callers send.
+ */
+@Component
+public class KnownModels {
+
+    public static final String OTHER = "other";
+
+    private final Set<String> ids = new HashSet<>();
+
+    public KnownModels(OllamaEndpointsProperties ollama, OpenAiCompatProperties openAi,
+            @Value("${ai.ollama.model.primary:qwen2.5:3b-instruct}") String primary,
+            @Value("${ai.ollama.model.secondary:gemma2:2b}") String secondary,
+            @Value("${ai.ollama.model.fallback:llama3.2:1b}") String fallback,
+            @Value("${ai.ollama.model.tiny:tinyllama:1.1b}") String tiny) {
+        add(Arrays.asList(primary, secondary, fallback, tiny));
+        ollama.getEndpoints().forEach(e -> add(e.getModels()));
+        add(openAi.getModels());
+    }
+
+    private void add(List<String> models) {
+        for (String m : models) {
+            if (m != null && !m.isBlank())
+                ids.add(m);
+        }
+    }
+
+    public boolean contains(String model) {
+        return model != null && ids.contains(model);
+    }
+
+    /** The id itself when configured, else {@link #OTHER}; use it for tags and tracker keys. */
+    public String key(String model) {
+        return contains(model) ? model : OTHER;
+    }
+}
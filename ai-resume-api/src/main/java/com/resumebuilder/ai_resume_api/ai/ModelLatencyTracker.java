@@ -0,0 +1,114 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling latency and success statistics per (model, prompt id). Keeps the last
+ * ai.routing.window latencies for p50/p95 and an exponentially weighted
+ * success rate. In memory only; it relearns after a restart.
+ * Model ids outside {@link KnownModels} are tracked together as "other".
+ */
+@Component
+public class ModelLatencyTracker {
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final KnownModels models;
+    private final int window;
+    private final int minSamples;
+
+    public ModelLatencyTracker(KnownModels models,
+            @Value("${ai.routing.window:64}") int window,
+            @Value("${ai.routing.min-samples:5}") int minSamples) {
+        this.models = models;
+        this.window = Math.max(4, window);
+        this.minSamples = Math.max(1, minSamples);
+    }
+
+    public void recordSuccess(String model, String promptId, long latencyMs) {
+        stats(model, promptId).record(latencyMs, true);
+    }
+
+    public void recordFailure(String model, String promptId, long latencyMs) {
+        stats(model, promptId).record(latencyMs, false);
+    }
+
+    /**
+     * A call cancelled after elapsedMs, e.g. a losing hedge. Its real latency is at least that,
+     * so it is kept as a latency sample; otherwise a model that always loses would never look slow.
+     */
+    public void recordAbandoned(String model, String promptId, long elapsedMs) {
+        stats(model, promptId).sample(elapsedMs);
+    }
+
+    /** Snapshot for the pair, or null until min-samples calls have been seen. */
+    public Snapshot snapshot(String model, String promptId) {
+        Stats s = stats.get(key(model, promptId));
+        return s == null ? null : s.snapshot(minSamples);
+    }
+
+    private Stats stats(String model, String promptId) {
+        return stats.computeIfAbsent(key(model, promptId), k -> new Stats(window));
+    }
+
+    // unconfigured ids share one entry per prompt so callers cannot grow the map
+    private String key(String model, String promptId) {
+        return models.key(model) + '|' + promptId;
+    }
+
+    /**
+     * p50/p95 over recent successful or abandoned calls (-1 when there are none yet) and the
+     * smoothed success rate over all completed calls.
+     */
+    public record Snapshot(long p50, long p95, double successRate, long calls) {
+
+        /** Expected time to a usable answer: latency inflated by the chance of having to retry. */
+        public double cost() {
+            return (p50 < 0 ? Double.MAX_VALUE / 4 : p50) / Math.max(successRate, 0.05);
+        }
+    }
+
+    private static final class Stats {
+        private final long[] ring;
+        private int size;
+        private int next;
+        private long calls;
+        private double successRate = 1.0;
+
+        Stats(int window) {
+            this.ring = new long[window];
+        }
+
+        synchronized void record(long latencyMs, boolean success) {
+            calls++;
+            successRate = 0.9 * successRate + (success ? 0.1 : 0.0);
+            if (success)
+                sample(latencyMs);
+        }
+
+        synchronized void sample(long latencyMs) {
+            ring[next] = latencyMs;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        synchronized Snapshot snapshot(int minSamples) {
+            if (calls < minSamples)
+                return null;
+            if (size == 0)
+                return new Snapshot(-1, -1, successRate, calls);
+            long[] sorted = Arrays.copyOf(ring, size);
+            Arrays.sort(sorted);
+            return new Snapshot(percentile(sorted, 0.50), percentile(sorted, 0.95), successRate, calls);
+        }
+
+        private static long percentile(long[] sorted, double q) {
+            int idx = (int) Math.ceil(q * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+        }
+    }
+}
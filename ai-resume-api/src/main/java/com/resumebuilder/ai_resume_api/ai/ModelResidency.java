@@ -0,0 +1,10 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+/**
+ * Load state of models on the inference backend, so routing can favour models that are
+ * already in memory over ones that would have to be loaded first.
+ */
+public interface ModelResidency {
+
+    boolean isResident(String model);
+}
@@ -1,11 +1,16 @@
 package com.resumebuilder.ai_resume_api.ai;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Component
@@ -15,8 +20,10 @@ public class ModelSelector {
     private final String secondary;
     private final String fallback;
     private final String tiny;
+    private final ModelLatencyTracker latency;
+    private final ModelResidency residency;
 
-    public ModelSelector(
+    public ModelSelector(ModelLatencyTracker latency, ObjectProvider<ModelResidency> residency,
             @Value("${ai.ollama.model.primary:qwen2.5:3b-instruct}") String primary,
             @Value("${ai.ollama.model.secondary:gemma2:2b}") String secondary,
             @Value("${ai.ollama.model.fallback:llama3.2:1b}") String fallback,
@@ -25,16 +32,81 @@ public class ModelSelector {
         this.secondary = secondary;
         this.fallback = fallback;
         this.tiny = tiny;
+        this.latency = latency;
+        this.residency = residency.getIfAvailable(() -> model -> true);
     }
 
     /**
      * Build an ordered list of model IDs to try.
      * preferred can be:
      * - "primary" | "secondary" | "fallback" | "tiny"
-     * - a raw model id (e.g., "qwen2.5:3b-instruct")
+     * - a raw model id (e.g., "qwen2.5:3b-instruct"); ids that are not configured are still
+     *   tried but recorded as "other" (see {@link KnownModels})
      * - null (default order)
+     * Ids are provider-neutral: AIOrchestrator sends each one to the provider that serves it,
+     * so a slot can name an ai.openai.models id as well as an Ollama tag.
      */
     public List<String> ordered(String preferred) {
+        return ordered(preferred, null);
+    }
+
+    /**
+     * Same candidates, reordered by what has been observed for this prompt: models with enough
+     * samples are sorted by expected time to a usable answer (p50 / success rate) among the
+     * slots they occupy; models without data keep their configured position. An explicitly
+     * preferred model always stays first.
+     */
+    public List<String> ordered(String preferred, String promptId) {
+        List<String> order = configured(preferred);
+        if (promptId == null)
+            return preferResident(order);
+
+        int from = (preferred != null && !preferred.isBlank()) ? 1 : 0;
+        List<Integer> slots = new ArrayList<>();
+        List<String> tracked = new ArrayList<>();
+        Map<String, Double> cost = new HashMap<>();
+        for (int i = from; i < order.size(); i++) {
+            var snap = latency.snapshot(order.get(i), promptId);
+            if (snap == null)
+                continue;
+            slots.add(i);
+            tracked.add(order.get(i));
+            cost.put(order.get(i), snap.cost());
+        }
+        tracked.sort(Comparator.comparingDouble(cost::get));
+        for (int i = 0; i < slots.size(); i++)
+            order.set(slots.get(i), tracked.get(i));
+        return preferResident(order);
+    }
+
+    /** Configured models from smallest to largest (tiny, fallback, secondary, primary) for the cascade. */
+    public List<String> smallestFirst() {
+        List<String> order = configured(null);
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Keeps the first candidate, then moves fallbacks that are already loaded ahead of those
+     * that are not, so a failure does not load (and evict) models one after another.
+     */
+    private List<String> preferResident(List<String> order) {
+        if (order.size() < 3)
+            return order;
+        List<String> out = new ArrayList<>(order.size());
+        out.add(order.get(0));
+        List<String> cold = new ArrayList<>();
+        for (String model : order.subList(1, order.size())) {
+            if (residency.isResident(model))
+                out.add(model);
+            else
+                cold.add(model);
+        }
+        out.addAll(cold);
+        return out;
+    }
+
+    private List<String> configured(String preferred) {
         Set<String> order = new LinkedHashSet<>();
         if (preferred != null && !preferred.isBlank()) {
             switch (preferred.toLowerCase()) {
@@ -0,0 +1,13 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import java.util.List;
+
+/**
+ * Caller-side validation of a generation, used by the cascade to decide whether a small
+ * model's answer is good enough. Returns the problems found; empty means accept.
+ */
+@FunctionalInterface
+public interface OutputCheck {
+
+    List<String> problems(AiTextResult result);
+}
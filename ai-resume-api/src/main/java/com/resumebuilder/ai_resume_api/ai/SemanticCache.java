@@ -0,0 +1,258 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptTemplate;
+import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Near-duplicate response cache for low-risk prompt ids (ai.semantic-cache.prompts).
+ *
+ * Calls are partitioned by user, prompt version, model preference and options; the cached
+ * prompts carry resume text, so one user's answers are never served to another, and calls
+ * without an authenticated user bypass the cache. Within a partition the prompt variables
+ * are normalized (case, whitespace) and an exact match on that text is a hit without further
+ * work. Otherwise the normalized text is embedded and the closest earlier call at or above
+ * ai.semantic-cache.threshold (cosine) is a hit. Inputs must also contain the same numbers,
+ * so "5 years" never answers "7 years".
+ *
+ * Entries live for ai.semantic-cache.ttl-minutes in an LRU map of max-entries. A sample of
+ * semantic hits (audit-rate) is regenerated in the background: if the fresh answer is less
+ * similar to the cached one than audit-min-similarity, it counts as a false hit and the
+ * entry is dropped. Hit rate and false hits are in the ai.semantic.cache* meters.
+ */
+@Component
+public class SemanticCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SemanticCache.class);
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+(?:[.,]\\d+)*");
+
+    private final TextEmbedder embedder;
+    private final AiMetrics metrics;
+    private final boolean enabled;
+    private final Set<String> promptIds;
+    private final double threshold;
+    private final long ttlMs;
+    private final double auditRate;
+    private final double auditMinSimilarity;
+    private final LinkedHashMap<String, Entry> entries; // access order; guarded by itself
+
+    public SemanticCache(TextEmbedder embedder, AiMetrics metrics,
+            @Value("${ai.semantic-cache.enabled:false}") boolean enabled,
+            @Value("${ai.semantic-cache.prompts:bullet_rewrite_json_v1,ats_critique_json_v1}") Set<String> promptIds,
+            @Value("${ai.semantic-cache.threshold:0.97}") double threshold,
+            @Value("${ai.semantic-cache.max-entries:2000}") int maxEntries,
+            @Value("${ai.semantic-cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${ai.semantic-cache.audit-rate:0.05}") double auditRate,
+            @Value("${ai.semantic-cache.audit-min-similarity:0.85}") double auditMinSimilarity) {
+        this.embedder = embedder;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.promptIds = promptIds;
+        this.threshold = threshold;
+        this.ttlMs = ttlMinutes * 60_000;
+        this.auditRate = auditRate;
+        this.auditMinSimilarity = auditMinSimilarity;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        metrics.semanticCacheSize(this::size);
+    }
+
+    /** A cacheable call: hit() is the cached answer, or null when the caller must generate and {@link #put}. */
+    public static final class Lookup {
+        private final String promptId;
+        private final String partition;
+        private final String exactKey;
+        private final String numbers;
+        private float[] vector; // unit length; null until embedded or when embedding failed
+        private AiTextResult hit;
+        private String hitKey;
+        private double similarity;
+
+        private Lookup(String promptId, String partition, String exactKey, String numbers) {
+            this.promptId = promptId;
+            this.partition = partition;
+            this.exactKey = exactKey;
+            this.numbers = numbers;
+        }
+
+        public AiTextResult hit() {
+            return hit;
+        }
+
+        public double similarity() {
+            return similarity;
+        }
+    }
+
+    private record Entry(String partition, String numbers, float[] vector, AiTextResult result, long createdAt) {
+    }
+
+    /** Null when the prompt id is not cached, there is no authenticated user, or the cache is off. */
+    public Lookup lookup(PromptTemplate pt, Map<String, Object> variables, String preferredModel,
+            Map<String, Object> options) {
+        if (!enabled || !promptIds.contains(pt.id()))
+            return null;
+        Long userId = SecurityUtil.currentUserId();
+        if (userId == null)
+            return null;
+
+        long start = System.currentTimeMillis();
+        String text = normalize(variables);
+        String partition = userId + "|" + pt.id() + "|" + pt.version() + "|" + (preferredModel == null ? "" : preferredModel)
+                + "|" + new TreeMap<>(options == null ? Map.of() : options);
+        var lookup = new Lookup(pt.id(), partition, AIOrchestrator.hashKey(partition + "\n" + text), numbers(text));
+
+        Entry exact;
+        synchronized (entries) {
+            exact = live(entries.get(lookup.exactKey));
+        }
+        if (exact != null) {
+            metrics.semanticCache(pt.id(), "exact_hit");
+            return hit(lookup, lookup.exactKey, exact, 1.0, start);
+        }
+
+        try {
+            lookup.vector = unit(embedder.embed(text));
+        } catch (Exception ex) {
+            log.debug("Semantic cache embedding failed for promptId={}: {}", pt.id(), ex.toString());
+            metrics.semanticCache(pt.id(), "miss");
+            return lookup;
+        }
+
+        String bestKey = null;
+        Entry best = null;
+        double bestSim = threshold;
+        synchronized (entries) {
+            for (var e : entries.entrySet()) {
+                Entry c = e.getValue();
+                if (!c.partition().equals(partition) || !c.numbers().equals(lookup.numbers) || live(c) == null
+                        || c.vector().length != lookup.vector.length)
+                    continue;
+                double sim = dot(c.vector(), lookup.vector);
+                if (sim >= bestSim) {
+                    bestSim = sim;
+                    best = c;
+                    bestKey = e.getKey();
+                }
+            }
+            if (bestKey != null)
+                entries.get(bestKey); // refresh LRU position
+        }
+        if (best == null) {
+            metrics.semanticCache(pt.id(), "miss");
+            return lookup;
+        }
+        metrics.semanticCache(pt.id(), "hit");
+        return hit(lookup, bestKey, best, bestSim, start);
+    }
+
+    public void put(Lookup lookup, AiTextResult result) {
+        if (lookup.vector == null)
+            return; // embedding failed; the next lookup would have to embed again anyway
+        synchronized (entries) {
+            entries.put(lookup.exactKey, new Entry(lookup.partition, lookup.numbers, lookup.vector, result,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    /** Whether to regenerate this hit in the background and compare; exact hits are never audited. */
+    public boolean shouldAudit(Lookup lookup) {
+        return lookup.hit != null && lookup.similarity < 1.0 && ThreadLocalRandom.current().nextDouble() < auditRate;
+    }
+
+    /** Compares a fresh answer with the cached one it was served instead of. */
+    public void audit(Lookup lookup, AiTextResult fresh) {
+        double sim;
+        try {
+            sim = dot(unit(embedder.embed(lookup.hit.content())), unit(embedder.embed(fresh.content())));
+        } catch (Exception ex) {
+            log.debug("Semantic cache audit skipped for promptId={}: {}", lookup.promptId, ex.toString());
+            return;
+        }
+        boolean falseHit = sim < auditMinSimilarity;
+        metrics.semanticCacheAudit(lookup.promptId, falseHit, sim);
+        if (falseHit) {
+            log.warn("Semantic cache false hit for promptId={}: input similarity {}, answer similarity {}",
+                    lookup.promptId, String.format("%.3f", lookup.similarity), String.format("%.3f", sim));
+            synchronized (entries) {
+                entries.remove(lookup.hitKey);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Lookup hit(Lookup lookup, String key, Entry entry, double similarity, long start) {
+        AiTextResult r = entry.result();
+        Map<String, Object> meta = new HashMap<>(r.providerMeta() == null ? Map.of() : r.providerMeta());
+        meta.put("semantic_similarity", similarity);
+        lookup.hitKey = key;
+        lookup.similarity = similarity;
+        lookup.hit = new AiTextResult(r.content(), r.raw(), r.provider(), r.model(),
+                System.currentTimeMillis() - start, true, meta, r.warnings(), r.json(), r.promptVersion());
+        return lookup;
+    }
+
+    private Entry live(Entry e) {
+        return e == null || System.currentTimeMillis() - e.createdAt() > ttlMs ? null : e;
+    }
+
+    static String normalize(Map<String, Object> variables) {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(variables == null ? Map.<String, Object>of() : variables).forEach((k, v) -> sb.append(k)
+                .append(": ")
+                .append(String.valueOf(v).toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim())
+                .append('\n'));
+        return sb.toString();
+    }
+
+    private static String numbers(String text) {
+        StringBuilder sb = new StringBuilder();
+        Matcher m = NUMBER.matcher(text);
+        while (m.find())
+            sb.append(m.group()).append(',');
+        return sb.toString();
+    }
+
+    private static float[] unit(float[] v) {
+        double norm = 0;
+        for (float x : v)
+            norm += x * x;
+        norm = Math.sqrt(norm);
+        float[] out = new float[v.length];
+        if (norm == 0)
+            return out;
+        for (int i = 0; i < v.length; i++)
+            out[i] = (float) (v[i] / norm);
+        return out;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++)
+            s += a[i] * b[i];
+        return s;
+    }
+}
@@ -0,0 +1,10 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+/**
+ * Turns text into an embedding vector, for components in this package that compare inputs
+ * by meaning rather than by exact text.
+ */
+public interface TextEmbedder {
+
+    float[] embed(String text);
+}
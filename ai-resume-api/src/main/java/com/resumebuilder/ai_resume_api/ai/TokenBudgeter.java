@@ -0,0 +1,189 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-request num_predict / num_ctx budgets.
+ *
+ * num_predict: the p95 of eval_count seen for the prompt id (plus headroom), never above the
+ * value the calling service passes, which now acts as a ceiling. A generation cut off by a
+ * learned budget is recorded as 1.5x that budget, so the estimate grows until it stops
+ * truncating.
+ *
+ * num_ctx: estimated prompt tokens + num_predict, rounded up to one of ai.budget.ctx-buckets.
+ * Ollama reloads a model when num_ctx changes, so a few coarse buckets beat a tight value.
+ * Characters per token are learned per model from prompt_eval_count; unconfigured model ids
+ * share one estimate (see {@link KnownModels}).
+ *
+ * Until min-samples generations have been seen for a prompt id the caller's options are used
+ * unchanged; those calls form the "fixed" baseline in {@link #report()}.
+ */
+@Component
+public class TokenBudgeter {
+
+    private static final double DEFAULT_CHARS_PER_TOKEN = 4.0;
+
+    private final KnownModels models;
+    private final boolean enabled;
+    private final int minSamples;
+    private final double headroom;
+    private final int minPredict;
+    private final int defaultCeiling;
+    private final int[] ctxBuckets;
+
+    private final Map<String, Samples> evalCounts = new ConcurrentHashMap<>();
+    private final Map<String, Double> charsPerToken = new ConcurrentHashMap<>();
+    private final Map<String, Outcomes> outcomes = new ConcurrentHashMap<>();
+
+    public TokenBudgeter(KnownModels models,
+            @Value("${ai.budget.enabled:true}") boolean enabled,
+            @Value("${ai.budget.min-samples:10}") int minSamples,
+            @Value("${ai.budget.headroom:1.2}") double headroom,
+            @Value("${ai.budget.min-predict:64}") int minPredict,
+            @Value("${ai.budget.default-ceiling:1024}") int defaultCeiling,
+            @Value("${ai.budget.ctx-buckets:2048,4096,8192,16384}") int[] ctxBuckets) {
+        this.models = models;
+        this.enabled = enabled;
+        this.minSamples = Math.max(1, minSamples);
+        this.headroom = Math.max(1.0, headroom);
+        this.minPredict = minPredict;
+        this.defaultCeiling = defaultCeiling;
+        this.ctxBuckets = ctxBuckets.clone();
+        Arrays.sort(this.ctxBuckets);
+    }
+
+    /** Budget for one call: options to send and whether they were learned. */
+    public record Budget(Map<String, Object> options, boolean adaptive, int numPredict) {
+    }
+
+    public Budget plan(String promptId, String model, String prompt, Map<String, Object> options) {
+        Map<String, Object> out = new HashMap<>(options == null ? Map.of() : options);
+        int ceiling = out.get("num_predict") instanceof Number n ? n.intValue() : defaultCeiling;
+        Samples samples = evalCounts.get(promptId);
+        Integer p95 = samples == null ? null : samples.p95(minSamples);
+        if (!enabled || p95 == null)
+            return new Budget(options, false, ceiling);
+
+        int numPredict = Math.max(minPredict, Math.min(ceiling, (int) Math.ceil(p95 * headroom) + 16));
+        out.put("num_predict", numPredict);
+        if (!out.containsKey("num_ctx")) {
+            int promptTokens = (int) Math.ceil(prompt.length() / charsPerToken(model));
+            out.put("num_ctx", bucket(promptTokens + numPredict + 64));
+        }
+        return new Budget(out, true, numPredict);
+    }
+
+    /** Learns from a finished (not cancelled) generation and updates the report. */
+    public void record(String promptId, String model, int promptChars, Budget budget, AiTextResult res) {
+        Map<String, Object> meta = res.providerMeta() == null ? Map.of() : res.providerMeta();
+        if (Boolean.TRUE.equals(meta.get("cancelled")))
+            return;
+        boolean truncated = "length".equals(meta.get("done_reason"));
+        outcomes.computeIfAbsent(promptId, k -> new Outcomes())
+                .record(budget.adaptive(), truncated, res.latencyMs(), meta.get("eval_count"));
+
+        if (meta.get("eval_count") instanceof Number evalCount) {
+            int sample = truncated && budget.adaptive() ? (int) (budget.numPredict() * 1.5) : evalCount.intValue();
+            evalCounts.computeIfAbsent(promptId, k -> new Samples()).add(sample);
+        }
+        if (meta.get("prompt_eval_count") instanceof Number promptTokens && promptTokens.intValue() > 0) {
+            double observed = (double) promptChars / promptTokens.intValue();
+            charsPerToken.merge(models.key(model), observed, (old, now) -> 0.9 * old + 0.1 * now);
+        }
+    }
+
+    /** Characters per token learned for the model; a conservative default until observed. */
+    public double charsPerToken(String model) {
+        return model == null ? DEFAULT_CHARS_PER_TOKEN : charsPerToken.getOrDefault(models.key(model), DEFAULT_CHARS_PER_TOKEN);
+    }
+
+    /** Per prompt id: fixed-budget baseline vs learned budgets. */
+    public Map<String, Map<String, Object>> report() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        outcomes.forEach((promptId, o) -> out.put(promptId, o.summary()));
+        return out;
+    }
+
+    private int bucket(int tokens) {
+        for (int b : ctxBuckets) {
+            if (b >= tokens)
+                return b;
+        }
+        return ctxBuckets[ctxBuckets.length - 1];
+    }
+
+    private static final class Samples {
+        private final int[] ring = new int[128];
+        private int size;
+        private int next;
+
+        synchronized void add(int v) {
+            ring[next] = v;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        synchronized Integer p95(int minSamples) {
+            if (size < minSamples)
+                return null;
+            int[] sorted = Arrays.copyOf(ring, size);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(0.95 * size) - 1)];
+        }
+    }
+
+    private static final class Outcomes {
+        private final Mode fixed = new Mode();
+        private final Mode adaptive = new Mode();
+
+        void record(boolean isAdaptive, boolean truncated, long latencyMs, Object evalCount) {
+            (isAdaptive ? adaptive : fixed).record(truncated, latencyMs, evalCount);
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("fixed", fixed.summary());
+            m.put("adaptive", adaptive.summary());
+            return m;
+        }
+    }
+
+    private static final class Mode {
+        private long calls;
+        private long truncated;
+        private long evalTokens;
+        private final List<Long> latencies = new ArrayList<>();
+
+        synchronized void record(boolean wasTruncated, long latencyMs, Object evalCount) {
+            calls++;
+            if (wasTruncated)
+                truncated++;
+            if (evalCount instanceof Number n)
+                evalTokens += n.longValue();
+            if (latencies.size() == 256)
+                latencies.remove(0);
+            latencies.add(latencyMs);
+        }
+
+        synchronized Map<String, Object> summary() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("calls", calls);
+            m.put("truncationRate", calls == 0 ? 0.0 : (double) truncated / calls);
+            m.put("avgEvalCount", calls == 0 ? 0 : evalTokens / calls);
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            m.put("p50LatencyMs", sorted.length == 0 ? 0 : sorted[(sorted.length - 1) / 2]);
+            m.put("p95LatencyMs", sorted.length == 0 ? 0 : sorted[Math.max(0, (int) Math.ceil(0.95 * sorted.length) - 1)]);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.resumebuilder.ai_resume_api.ai.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The subset of JSON Schema needed to describe prompt outputs:
+ * type (single or list), enum, properties, required, additionalProperties (boolean),
+ * items, minItems, maxItems and maxLength.
+ *
+ * Checks are split per node so {@link TolerantJsonReader} can apply them while a
+ * response is still streaming instead of after the whole document has arrived.
+ */
+public final class JsonSchema {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String source;
+    private final Set<String> types = new LinkedHashSet<>();
+    private Set<JsonNode> allowed;
+    private final Map<String, JsonSchema> properties = new HashMap<>();
+    private final Set<String> required = new LinkedHashSet<>();
+    private boolean additionalProperties = true;
+    private JsonSchema items;
+    private Integer minItems;
+    private Integer maxItems;
+    private Integer maxLength;
+
+    private JsonSchema(String source) {
+        this.source = source;
+    }
+
+    public static JsonSchema parse(String json) {
+        try {
+            return from(MAPPER.readTree(json), json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JSON schema: " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonSchema from(JsonNode node, String source) {
+        JsonSchema s = new JsonSchema(source);
+        JsonNode type = node.path("type");
+        if (type.isTextual())
+            s.types.add(type.asText());
+        else if (type.isArray())
+            type.forEach(t -> s.types.add(t.asText()));
+        if (node.path("enum").isArray()) {
+            s.allowed = new LinkedHashSet<>();
+            node.path("enum").forEach(s.allowed::add);
+        }
+        node.path("properties").properties()
+                .forEach(e -> s.properties.put(e.getKey(), from(e.getValue(), null)));
+        node.path("required").forEach(r -> s.required.add(r.asText()));
+        if (node.path("additionalProperties").isBoolean())
+            s.additionalProperties = node.path("additionalProperties").asBoolean();
+        if (node.hasNonNull("items"))
+            s.items = from(node.path("items"), null);
+        if (node.hasNonNull("minItems"))
+            s.minItems = node.path("minItems").asInt();
+        if (node.hasNonNull("maxItems"))
+            s.maxItems = node.path("maxItems").asInt();
+        if (node.hasNonNull("maxLength"))
+            s.maxLength = node.path("maxLength").asInt();
+        return s;
+    }
+
+    /** Original schema text (root schema only); embedded into repair prompts. */
+    public String source() {
+        return source;
+    }
+
+    /** Schema of a member, or null when the member is unconstrained. */
+    public JsonSchema property(String name) {
+        return properties.get(name);
+    }
+
+    /** Schema of array elements, or null when unconstrained. */
+    public JsonSchema items() {
+        return items;
+    }
+
+    public Integer maxLength() {
+        return maxLength;
+    }
+
+    public boolean allowsProperty(String name) {
+        return additionalProperties || properties.containsKey(name);
+    }
+
+    /** Returns a violation message for the node's own type, or null when it is acceptable. */
+    public String checkType(JsonNode node) {
+        if (types.isEmpty())
+            return null;
+        String actual = typeOf(node);
+        if (types.contains(actual))
+            return null;
+        if (actual.equals("integer") && types.contains("number"))
+            return null;
+        return "expected " + String.join("|", types) + " but got " + actual;
+    }
+
+    /** Returns a violation message when the value is not one of enum, else null. */
+    public String checkEnum(JsonNode node) {
+        return (allowed != null && !allowed.contains(node)) ? node + " is not one of " + allowed : null;
+    }
+
+    /** Returns a violation message when a string value exceeds maxLength, else null. */
+    public String checkLength(int length) {
+        return (maxLength != null && length > maxLength) ? "string longer than " + maxLength : null;
+    }
+
+    /** Returns a violation message when adding another element would exceed maxItems, else null. */
+    public String checkAppend(int currentSize) {
+        return (maxItems != null && currentSize >= maxItems) ? "more than " + maxItems + " items" : null;
+    }
+
+    /** Checks that only make sense once a container is closed (required members, minItems). */
+    public String checkComplete(JsonNode node) {
+        if (node.isObject()) {
+            for (String r : required) {
+                if (!node.has(r))
+                    return "missing required \"" + r + "\"";
+            }
+        } else if (node.isArray() && minItems != null && node.size() < minItems) {
+            return "fewer than " + minItems + " items";
+        }
+        return null;
+    }
+
+    private static String typeOf(JsonNode node) {
+        if (node.isObject())
+            return "object";
+        if (node.isArray())
+            return "array";
+        if (node.isTextual())
+            return "string";
+        if (node.isBoolean())
+            return "boolean";
+        if (node.isNull())
+            return "null";
+        if (node.isIntegralNumber() || (node.isNumber() && node.asDouble() == Math.rint(node.asDouble())))
+            return "integer";
+        if (node.isNumber())
+            return "number";
+        return "unknown";
+    }
+}
@@ -0,0 +1,526 @@
+package com.resumebuilder.ai_resume_api.ai.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Single-pass, error-tolerant JSON reader for model output.
+ *
+ * Text can be fed in one piece or token by token (streaming). The reader builds a
+ * Jackson tree as it goes and repairs the usual LLM mistakes on the fly:
+ * - prose and ``` fences before the first '{' and after the root object closes are skipped
+ * - smart quotes and single-quoted strings
+ * - // and block comments copied from the prompt's example shape
+ * - trailing, doubled and missing commas
+ * - bare words (True/None, unquoted keys, unquoted text such as URLs)
+ * - mismatched closers ("]" where "}" was expected)
+ *
+ * Anything that cannot be repaired (e.g. ':' inside an array) stops the reader;
+ * {@link #failed()} flips immediately so a streamed generation can be abandoned early.
+ * When a {@link JsonSchema} is supplied, off-schema output (wrong types or values, unknown members,
+ * too many items, runaway strings, missing required members) stops it the same way.
+ */
+public final class TolerantJsonReader {
+
+    private enum Mode {
+        PREAMBLE, STRUCTURE, STRING, LITERAL, LINE_COMMENT, BLOCK_COMMENT, DONE, FAILED
+    }
+
+    private enum Expect {
+        KEY, COLON, VALUE, NEXT
+    }
+
+    private static final class Frame {
+        final JsonNode node;
+        final boolean object;
+        final JsonSchema shape;
+        String key;
+        Expect expect;
+
+        Frame(JsonNode node, boolean object, JsonSchema shape) {
+            this.node = node;
+            this.object = object;
+            this.shape = shape;
+            this.expect = object ? Expect.KEY : Expect.VALUE;
+        }
+
+        /** Schema of the value about to be attached to this frame (member or element). */
+        JsonSchema childShape() {
+            if (shape == null)
+                return null;
+            return object ? (key == null ? null : shape.property(key)) : shape.items();
+        }
+    }
+
+    private final JsonNodeFactory nodes = JsonNodeFactory.instance;
+    private final JsonSchema schema;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private final StringBuilder token = new StringBuilder();
+
+    private Mode mode = Mode.PREAMBLE;
+    private ObjectNode root;
+    private String error;
+    private boolean repaired;
+    private boolean truncated;
+    private long position;
+
+    // string / comment lexer state
+    private char quote;
+    private boolean smartQuoted;
+    private boolean escape;
+    private int unicodeLeft;
+    private final StringBuilder unicode = new StringBuilder(4);
+    private boolean slashPending;
+    private boolean starPending;
+    private boolean literalKey;
+    private JsonSchema stringShape;
+
+    public TolerantJsonReader() {
+        this(null);
+    }
+
+    public TolerantJsonReader(JsonSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Reads a complete response in one pass. Returns the root object, or throws when no
+     * object was found, the structure could not be repaired, or the output was cut off.
+     */
+    public static ObjectNode readObject(String text) {
+        return readObject(text, null);
+    }
+
+    public static ObjectNode readObject(String text, JsonSchema schema) {
+        var reader = new TolerantJsonReader(schema).feed(text);
+        if (reader.failed())
+            throw new IllegalStateException(reader.error());
+        ObjectNode node = reader.finish();
+        if (node == null)
+            throw new IllegalStateException("No JSON object found in output");
+        if (reader.truncated())
+            throw new IllegalStateException("JSON output is truncated");
+        return node;
+    }
+
+    public TolerantJsonReader feed(CharSequence chunk) {
+        if (chunk == null)
+            return this;
+        for (int i = 0; i < chunk.length() && mode != Mode.FAILED; i++) {
+            accept(chunk.charAt(i));
+            position++;
+        }
+        return this;
+    }
+
+    /** True once the root object has been closed. */
+    public boolean complete() {
+        return mode == Mode.DONE;
+    }
+
+    /** True when the input diverged from anything that can be read as a JSON object. */
+    public boolean failed() {
+        return mode == Mode.FAILED;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    /** True when at least one repair (fence, quote, comma, comment, bare word...) was applied. */
+    public boolean repaired() {
+        return repaired;
+    }
+
+    /** True when {@link #finish()} had to close containers the input never closed. */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    /** Current nesting depth; 1 while inside the root object. */
+    public int depth() {
+        return stack.size();
+    }
+
+    /**
+     * Closes whatever is still open and returns the root object (null when no '{' was seen
+     * or the reader failed). Safe to call on a partial stream to inspect what arrived so far.
+     */
+    public ObjectNode finish() {
+        if (mode == Mode.FAILED)
+            return null;
+        if (mode == Mode.STRING) {
+            truncated = true;
+            endString();
+        } else if (mode == Mode.LITERAL) {
+            endLiteral();
+        }
+        if (!stack.isEmpty()) {
+            truncated = true;
+            stack.clear();
+        }
+        if (root != null)
+            mode = Mode.DONE;
+        return root;
+    }
+
+    /* ---------- lexer ---------- */
+
+    private void accept(char c) {
+        switch (mode) {
+            case PREAMBLE -> {
+                if (c == '{') {
+                    push(true);
+                    mode = Mode.STRUCTURE;
+                } else if (!Character.isWhitespace(c)) {
+                    repaired = true; // fences or commentary before the object
+                }
+            }
+            case STRUCTURE -> structural(c);
+            case STRING -> string(c);
+            case LITERAL -> {
+                // ':' ends an unquoted key but belongs to an unquoted value ("https://...")
+                if (isLiteralChar(c) || (c == ':' && !literalKey)) {
+                    token.append(c);
+                } else {
+                    endLiteral();
+                    if (mode == Mode.STRUCTURE)
+                        structural(c);
+                }
+            }
+            case LINE_COMMENT -> {
+                if (c == '\n' || c == '\r')
+                    mode = Mode.STRUCTURE;
+            }
+            case BLOCK_COMMENT -> {
+                if (starPending && c == '/')
+                    mode = Mode.STRUCTURE;
+                starPending = c == '*';
+            }
+            case DONE -> {
+                if (!Character.isWhitespace(c))
+                    repaired = true; // trailing fence or commentary
+            }
+            case FAILED -> {
+            }
+        }
+    }
+
+    private void structural(char c) {
+        if (slashPending) {
+            slashPending = false;
+            if (c == '/') {
+                mode = Mode.LINE_COMMENT;
+                repaired = true;
+                return;
+            }
+            if (c == '*') {
+                mode = Mode.BLOCK_COMMENT;
+                starPending = false;
+                repaired = true;
+                return;
+            }
+            fail("Unexpected '/'");
+            return;
+        }
+        if (Character.isWhitespace(c))
+            return;
+        if (c == '/') {
+            slashPending = true;
+            return;
+        }
+
+        Frame top = stack.peek();
+        switch (top.expect) {
+            case KEY -> {
+                if (isQuote(c)) {
+                    startString(c);
+                } else if (c == '}' || c == ']') {
+                    if (c == ']' || !top.node.isEmpty())
+                        repaired = true; // trailing comma or wrong closer
+                    close(true);
+                } else if (c == ',') {
+                    repaired = true;
+                } else if (isLiteralChar(c)) {
+                    repaired = true; // unquoted key
+                    startLiteral(c);
+                } else {
+                    fail("Expected a key");
+                }
+            }
+            case COLON -> {
+                if (c == ':') {
+                    top.expect = Expect.VALUE;
+                } else if (c == '=') {
+                    repaired = true;
+                    top.expect = Expect.VALUE;
+                } else {
+                    fail("Expected ':' after key \"" + top.key + "\"");
+                }
+            }
+            case VALUE -> value(top, c);
+            case NEXT -> {
+                if (c == ',') {
+                    top.expect = top.object ? Expect.KEY : Expect.VALUE;
+                } else if (c == '}' || c == ']') {
+                    close(c == '}');
+                } else if (top.object && isQuote(c)) {
+                    repaired = true; // missing comma between members
+                    top.expect = Expect.KEY;
+                    startString(c);
+                } else if (!top.object && (isQuote(c) || c == '{' || c == '[' || isLiteralChar(c))) {
+                    repaired = true; // missing comma between elements
+                    top.expect = Expect.VALUE;
+                    value(top, c);
+                } else {
+                    fail("Expected ',' or a closing bracket");
+                }
+            }
+        }
+    }
+
+    private void value(Frame top, char c) {
+        if (c == '{') {
+            push(true);
+        } else if (c == '[') {
+            push(false);
+        } else if (isQuote(c)) {
+            startString(c);
+        } else if (c == '}' || c == ']') {
+            repaired = true; // trailing comma or member without value
+            top.key = null;
+            close(c == '}');
+        } else if (c == ',') {
+            repaired = true;
+            if (top.object) {
+                top.key = null;
+                top.expect = Expect.KEY;
+            }
+        } else if (isLiteralChar(c)) {
+            startLiteral(c);
+        } else {
+            fail("Expected a value");
+        }
+    }
+
+    private void startString(char c) {
+        if (c != '"')
+            repaired = true;
+        quote = c == '\'' ? '\'' : '"';
+        Frame top = stack.peek();
+        stringShape = (top.object && top.expect == Expect.KEY) ? null : top.childShape();
+        // a smart opening quote may be closed by either kind; plain strings keep smart quotes as text
+        smartQuoted = c == '“' || c == '”';
+        escape = false;
+        unicodeLeft = 0;
+        token.setLength(0);
+        mode = Mode.STRING;
+    }
+
+    private void string(char c) {
+        if (unicodeLeft > 0) {
+            unicode.append(c);
+            if (--unicodeLeft == 0) {
+                try {
+                    token.append((char) Integer.parseInt(unicode.toString(), 16));
+                } catch (NumberFormatException e) {
+                    repaired = true;
+                    token.append("\\u").append(unicode);
+                }
+            }
+            return;
+        }
+        if (escape) {
+            escape = false;
+            switch (c) {
+                case 'n' -> token.append('\n');
+                case 't' -> token.append('\t');
+                case 'r' -> token.append('\r');
+                case 'b' -> token.append('\b');
+                case 'f' -> token.append('\f');
+                case 'u' -> {
+                    unicode.setLength(0);
+                    unicodeLeft = 4;
+                }
+                default -> token.append(c); // \" \\ \/ and unknown escapes keep the char
+            }
+            return;
+        }
+        if (c == '\\') {
+            escape = true;
+        } else if (c == quote || (smartQuoted && (c == '”' || c == '“'))) {
+            endString();
+        } else if (stringShape == null || !violation(stringShape.checkLength(token.length() + 1))) {
+            token.append(c); // runaway strings are cut off here, not after the model finishes
+        }
+    }
+
+    private void endString() {
+        String text = token.toString();
+        token.setLength(0);
+        mode = Mode.STRUCTURE;
+        Frame top = stack.peek();
+        if (top == null)
+            return;
+        if (top.object && top.expect == Expect.KEY) {
+            key(top, text);
+        } else {
+            attach(top, nodes.textNode(text));
+        }
+    }
+
+    private void key(Frame top, String name) {
+        if (top.shape != null && !top.shape.allowsProperty(name)) {
+            violation("unexpected member \"" + name + "\"");
+            return;
+        }
+        top.key = name;
+        top.expect = Expect.COLON;
+    }
+
+    private void startLiteral(char c) {
+        Frame top = stack.peek();
+        literalKey = top.object && top.expect == Expect.KEY;
+        token.setLength(0);
+        token.append(c);
+        mode = Mode.LITERAL;
+    }
+
+    private void endLiteral() {
+        String text = token.toString();
+        token.setLength(0);
+        mode = Mode.STRUCTURE;
+        Frame top = stack.peek();
+        if (top == null)
+            return;
+        if (top.object && top.expect == Expect.KEY) {
+            key(top, text);
+        } else {
+            attach(top, literal(text));
+        }
+    }
+
+    private JsonNode literal(String text) {
+        switch (text) {
+            case "true":
+                return nodes.booleanNode(true);
+            case "false":
+                return nodes.booleanNode(false);
+            case "null":
+                return nodes.nullNode();
+            case "True":
+                repaired = true;
+                return nodes.booleanNode(true);
+            case "False":
+                repaired = true;
+                return nodes.booleanNode(false);
+            case "None":
+            case "undefined":
+                repaired = true;
+                return nodes.nullNode();
+            default:
+                break;
+        }
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                long l = Long.parseLong(text);
+                return (l == (int) l) ? nodes.numberNode((int) l) : nodes.numberNode(l);
+            }
+            return nodes.numberNode(Double.parseDouble(text));
+        } catch (NumberFormatException e) {
+            repaired = true; // unquoted text such as "~10%"
+            return nodes.textNode(text);
+        }
+    }
+
+    /* ---------- tree ---------- */
+
+    private void push(boolean object) {
+        JsonNode node = object ? nodes.objectNode() : nodes.arrayNode();
+        Frame parent = stack.peek();
+        JsonSchema shape;
+        if (parent == null) {
+            shape = schema;
+            if (shape != null && violation(shape.checkType(node)))
+                return;
+            root = (ObjectNode) node;
+        } else {
+            shape = parent.childShape();
+            if (!attach(parent, node))
+                return;
+        }
+        stack.push(new Frame(node, object, shape));
+    }
+
+    private boolean attach(Frame frame, JsonNode value) {
+        JsonSchema shape = frame.childShape();
+        if (shape != null && (violation(shape.checkType(value)) || violation(shape.checkEnum(value))))
+            return false;
+        if (!frame.object && frame.shape != null && violation(frame.shape.checkAppend(frame.node.size())))
+            return false;
+        if (frame.object) {
+            if (frame.key != null)
+                ((ObjectNode) frame.node).set(frame.key, value);
+            frame.key = null;
+        } else {
+            ((ArrayNode) frame.node).add(value);
+        }
+        frame.expect = Expect.NEXT;
+        return true;
+    }
+
+    /**
+     * Closes up to and including the nearest frame of the requested kind, or just the
+     * innermost frame when none of that kind is open.
+     */
+    private void close(boolean object) {
+        boolean found = false;
+        for (Frame f : stack) {
+            if (f.object == object) {
+                found = true;
+                break;
+            }
+        }
+        if (!found) {
+            repaired = true; // a closer of the wrong kind closes the innermost container
+            object = stack.peek().object;
+        }
+        while (true) {
+            Frame f = stack.pop();
+            if (f.shape != null && violation(f.shape.checkComplete(f.node)))
+                return;
+            if (f.object == object)
+                break;
+            repaired = true; // an inner container was never closed
+        }
+        if (stack.isEmpty())
+            mode = Mode.DONE;
+    }
+
+    /** Fails with a schema message when one is given; returns true if the reader stopped. */
+    private boolean violation(String message) {
+        if (message == null)
+            return false;
+        fail("Off-schema output: " + message);
+        return true;
+    }
+
+    private void fail(String message) {
+        error = message + " at offset " + position;
+        mode = Mode.FAILED;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'' || c == '“' || c == '”';
+    }
+
+    private static boolean isLiteralChar(char c) {
+        return !Character.isWhitespace(c) && c != ',' && c != ':' && c != '{' && c != '}'
+                && c != '[' && c != ']' && c != '"';
+    }
+}
@@ -1,173 +1,62 @@
 package com.resumebuilder.ai_resume_api.ai.prompts;
 
+import com.resumebuilder.ai_resume_api.ai.json.JsonSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Prompts are files: classpath:prompts/<id>.prompt, with an optional <id>.schema.json next to
+ * it. A .prompt file is a short header, a "---" line, then the template:
+ *
+ * id: bullet_rewrite_json_v1
+ * name: Bullet Rewrite JSON
+ * version: 1.0
+ * schema: bullet_rewrite_json_v1.schema.json
+ * ---
+ * You are an expert resume writer. ...
+ *
+ * When ai.prompts.dir is set, .prompt files there override the bundled ones by id and are
+ * re-read every ai.prompts.reload-ms when they (or their schema) change, so a prompt can be
+ * tuned without a restart. A file that fails to parse leaves the previous version in place;
+ * deleting an override restores the bundled prompt. Bump the version on every change: it is
+ * recorded on each AI result.
+ */
 @Service
 public class PromptRegistry {
 
-    private final Map<String, PromptTemplate> registry = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(PromptRegistry.class);
 
-    public PromptRegistry() {
-        loadDefaults();
-    }
+    private static final String BUNDLED = "prompts/";
+    private static final String HEADER_END = "---";
+
+    private final Map<String, PromptTemplate> registry = new ConcurrentHashMap<>();
+    private final Map<String, PromptTemplate> bundled = new HashMap<>();
+    private final Map<Path, String> overrideStamps = new ConcurrentHashMap<>();
+    private final Map<Path, String> overrideIds = new ConcurrentHashMap<>();
+    private final Path overrideDir;
 
-    private void loadDefaults() {
-        // JSON-safe bullet rewrite (strict)
-        String bulletJson = """
-                You are an expert resume writer. Rewrite the provided draft into exactly 3 action-oriented bullets.
-
-                Constraints:
-                - Strong action verb first
-                - Past tense unless ongoing is explicitly stated
-                - Avoid first-person ("I", "we")
-                - Prefer metrics; if unknown, set metricSuggestion with "~" range
-                - Keep each bullet <= 28 words
-                - Preserve truth; do not fabricate
-
-                Return STRICT JSON only, no commentary:
-                {
-                  "bullets": [
-                     { "text":"...", "actionVerb":"...", "impact":"...", "metricSuggestion":"~10%", "confidence":"MED", "requiresUserInput": false },
-                     { "text":"...", "actionVerb":"...", "impact":"...", "metricSuggestion":null,   "confidence":"MED", "requiresUserInput": true },
-                     { "text":"...", "actionVerb":"...", "impact":"...", "metricSuggestion":"~5%",  "confidence":"LOW", "requiresUserInput": false }
-                  ]
-                }
-
-                JobTitle: {{jobTitle}}
-                Draft: "{{draft}}"
-                """;
-
-        registry.put("bullet_rewrite_json_v1",
-                new PromptTemplate("bullet_rewrite_json_v1", "Bullet Rewrite JSON", "1.0", bulletJson));
-
-        String atsCritique = """
-                You are an ATS and resume optimization expert.
-
-                Job Title: {{jobTitle}}
-
-                Job Description:
-                {{jobDescription}}
-
-                Candidate Resume (truncated text):
-                {{resumeText}}
-
-                Based on common ATS patterns and recruiter best practices, provide a JSON object with improvement suggestions.
-                Produce STRICT JSON only (double quotes only, no trailing commas), no commentary, at most 4 items:
-
-                {
-                  "suggestions": [
-                    {
-                      "title": "Concise, actionable title",
-                      "description": "Explain what to change and why in 1-2 sentences.",
-                      "before": "Optional short snippet before",
-                      "after": "Optional improved snippet",
-                      "benefit": "Describe expected impact (e.g., 'Improves keyword match by ~8%')"
-                    }
-                  ]
-                }
-
-                Constraints:
-                - Do not fabricate experiences; keep changes realistic.
-                - Prefer specific, measurable outcomes and relevant keywords.
-                - Keep 'after' snippets 1-2 lines each.
-                - Focus on top 3-5 changes with biggest impact.
-                """;
-        registry.put("ats_critique_json_v1",
-                new PromptTemplate("ats_critique_json_v1", "ATS Critique JSON", "1.0", atsCritique));
-
-        String tailorPatch = """
-                You are a resume optimization expert. Tailor the resume to the job below using ONLY the provided context (do not invent experience).
-
-                Job Description:
-                {{jobDescription}}
-
-                Target keywords (highest priority to include naturally in bullets):
-                {{targetKeywords}}
-
-                Relevant Resume Chunks (ranked; each line shows section/refType plus id=<entityId> and idx=<bulletIndex> when applicable):
-                {{context}}
-
-                Produce STRICT JSON only (double quotes only, no trailing commas).
-                Requirements:
-                - Return between 3 and 5 bulletPatches when at least one EXPERIENCE or PROJECT line exists.
-                - Each bulletPatch must use a distinct original (no duplicates).
-                - Prefer bullet-like context lines (EXPERIENCE_BULLET or EXPERIENCE_ACHIEVEMENT). If none, you may derive from HEADER/TECH_STACK/DESC lines.
-                - atsScoreBefore and atsScoreAfter must be integers 0–100 (best estimate).
-                - Each bullet patch must include 2–3 concise variants.
-                - Each variant must naturally include at least one of: {{targetKeywords}} (or a highly relevant term from the job description).
-                - Only include "entityId" and "bulletIndex" if they appear exactly in the context as id=<number> and idx=<number>; otherwise omit bulletIndex.
-                - Include "sourceRanks": [rankNumbers] to indicate which context lines you used for each patch.
-                - Do not fabricate new experiences.
-                - Do not create patches from HEADER lines (refType ending in "_HEADER"); skip those lines entirely.
-                - Do not create patches from TECH_STACK lines (refType ending in “_TECH_STACK”) or identity lines (HEADER). Use only narrative sources (bullets/achievements/descriptions/features/outcomes).
-
-                JSON shape:
-                {
-                  "atsScoreBefore": 90,
-                  "atsScoreAfter": 90,
-                  "globalKeywordsToAdd": ["keyword1","keyword2"],
-                  "globalKeywordsMissing": ["keyword3"],
-                  "bulletPatches": [
-                    {
-                      "section": "EXPERIENCE",
-                      "entityId": 123,          // only if id tag present
-                      "bulletIndex": 0,         // only if idx tag present
-                      "original": "Original bullet from context",
-                      "variants": [
-                        "Action-first bullet that includes one target keyword naturally.",
-                        "Second variant, also includes one target keyword."
-                      ],
-                      "keywordsAdded": ["keyword4","keyword5"],
-                      "sourceRanks": [1, 3]
-                    }
-                  ],
-                  "sectionOrderSuggested": ["SUMMARY","EXPERIENCE","PROJECTS","EDUCATION","SKILLS"]
-                }
-                """;
-        registry.put("tailor_patch_json_v1",
-                new PromptTemplate("tailor_patch_json_v1", "Tailor Patch JSON", "1.2", tailorPatch));
-
-        String tailorSingle = """
-                You are a resume tailoring assistant.
-
-                Job Description:
-                {{jobDescription}}
-
-                Target keywords (prioritize natural inclusion):
-                {{targetKeywords}}
-
-                Context line (ranked) with tags:
-                {{lineTag}}
-                Text:
-                "{{content}}"
-
-                Produce STRICT JSON only (double quotes only, no trailing commas). Create ONE bullet patch from this line.
-                Requirements:
-                - 2 concise bullet variants (<= 28 words each).
-                - Each variant must naturally include at least one of: {{targetKeywords}} (or a clearly equivalent term from the JD).
-                - If the line shows id=<entityId> and idx=<bulletIndex>, include them; otherwise omit bulletIndex.
-                - Do NOT include meta words or placeholders like "Action-first", "=>", "words", "less than", or any commentary.
-
-                {
-                  "patch": {
-                    "section": "EXPERIENCE",
-                    "entityId": 123,          // include ONLY if id tag present
-                    "bulletIndex": 0,         // include ONLY if idx tag present
-                    "original": "{{content}}",
-                    "variants": [
-                      "Impact-focused bullet that naturally includes a target keyword.",
-                      "Second bullet variant that also includes a target keyword."
-                    ],
-                    "keywordsAdded": ["python","flask"],
-                    "sourceRanks": [{{rank}}]
-                  }
-                }
-                """;
-        registry.put("tailor_single_patch_json_v1",
-                new PromptTemplate("tailor_single_patch_json_v1", "Tailor Single Patch JSON", "1.1", tailorSingle));
+    public PromptRegistry(@Value("${ai.prompts.dir:}") String overrideDir) {
+        loadBundled();
+        registry.putAll(bundled);
+        this.overrideDir = overrideDir == null || overrideDir.isBlank() ? null : Path.of(overrideDir);
+        reloadOverrides();
     }
 
     public PromptTemplate get(String id) {
@@ -180,4 +69,131 @@ public class PromptRegistry {
     public Map<String, PromptTemplate> all() {
         return Map.copyOf(registry);
     }
-}
\ No newline at end of file
+
+    @Scheduled(fixedDelayString = "${ai.prompts.reload-ms:5000}", initialDelayString = "${ai.prompts.reload-ms:5000}")
+    public void reloadOverrides() {
+        if (overrideDir == null || !Files.isDirectory(overrideDir))
+            return;
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(overrideDir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".prompt")).toList();
+        } catch (IOException e) {
+            log.warn("Cannot list prompt overrides in {}: {}", overrideDir, e.toString());
+            return;
+        }
+
+        for (Path file : files) {
+            String stamp = stamp(file);
+            if (stamp.equals(overrideStamps.get(file)))
+                continue;
+            overrideStamps.put(file, stamp);
+            try {
+                PromptTemplate pt = parse(Files.readString(file), schemaFile -> read(overrideDir.resolve(schemaFile)));
+                PromptTemplate previous = registry.put(pt.id(), pt);
+                overrideIds.put(file, pt.id());
+                if (previous != null && previous.version().equals(pt.version())
+                        && !previous.template().equals(pt.template()))
+                    log.warn("Prompt {} changed without a version bump (still {})", pt.id(), pt.version());
+                log.info("Loaded prompt override {} v{} from {}", pt.id(), pt.version(), file);
+            } catch (Exception e) {
+                log.error("Ignoring invalid prompt file {} (keeping previous version): {}", file, e.getMessage());
+            }
+        }
+
+        // overrides that were deleted fall back to the bundled prompt
+        for (var it = overrideIds.entrySet().iterator(); it.hasNext();) {
+            var e = it.next();
+            if (files.contains(e.getKey()))
+                continue;
+            it.remove();
+            overrideStamps.remove(e.getKey());
+            PromptTemplate original = bundled.get(e.getValue());
+            if (original != null) {
+                registry.put(original.id(), original);
+                log.info("Prompt override {} removed; restored bundled v{}", original.id(), original.version());
+            }
+        }
+    }
+
+    private void loadBundled() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver(getClass().getClassLoader())
+                    .getResources("classpath*:" + BUNDLED + "*.prompt");
+            for (Resource r : resources) {
+                PromptTemplate pt = parse(r.getContentAsString(StandardCharsets.UTF_8),
+                        schemaFile -> readClasspath(BUNDLED + schemaFile));
+                bundled.put(pt.id(), pt);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load bundled prompts", e);
+        }
+        if (bundled.isEmpty())
+            throw new IllegalStateException("No prompts found under classpath:" + BUNDLED);
+    }
+
+    static PromptTemplate parse(String source, Function<String, String> schemaLoader) {
+        Map<String, String> header = new HashMap<>();
+        int pos = 0;
+        while (true) {
+            int eol = source.indexOf('\n', pos);
+            if (eol < 0)
+                throw new IllegalArgumentException("Missing '" + HEADER_END + "' line after the header");
+            String line = source.substring(pos, eol).strip();
+            pos = eol + 1;
+            if (line.equals(HEADER_END))
+                break;
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            int colon = line.indexOf(':');
+            if (colon < 0)
+                throw new IllegalArgumentException("Bad header line: " + line);
+            header.put(line.substring(0, colon).strip(), line.substring(colon + 1).strip());
+        }
+        String id = require(header, "id");
+        String version = require(header, "version");
+        String schemaFile = header.get("schema");
+        JsonSchema schema = schemaFile == null ? null : JsonSchema.parse(schemaLoader.apply(schemaFile));
+        return new PromptTemplate(id, header.getOrDefault("name", id), version, source.substring(pos), schema);
+    }
+
+    private static String require(Map<String, String> header, String key) {
+        String v = header.get(key);
+        if (v == null || v.isBlank())
+            throw new IllegalArgumentException("Missing '" + key + "' in prompt header");
+        return v;
+    }
+
+    // Changes when the prompt file or its conventionally named schema file changes
+    private static String stamp(Path file) {
+        String name = file.getFileName().toString();
+        Path schema = file.resolveSibling(name.substring(0, name.length() - ".prompt".length()) + ".schema.json");
+        return modified(file) + ":" + modified(schema);
+    }
+
+    private static long modified(Path p) {
+        try {
+            return Files.exists(p) ? Files.getLastModifiedTime(p).toMillis() : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String read(Path p) {
+        try {
+            return Files.readString(p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String readClasspath(String path) {
+        try (var in = getClass().getClassLoader().getResourceAsStream(path)) {
+            if (in == null)
+                throw new IllegalArgumentException("Schema not found: classpath:" + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,31 +1,85 @@
 package com.resumebuilder.ai_resume_api.ai.prompts;
 
+import com.resumebuilder.ai_resume_api.ai.json.JsonSchema;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * A prompt compiled once into alternating literal and {{placeholder}} segments. Rendering is
+ * a single pass into one builder sized up front; substituted values are never rescanned, so
+ * a value containing "{{x}}" stays as written. Placeholders without a variable are kept
+ * verbatim.
+ */
 public class PromptTemplate {
-    private String id;
-    private String name;
-    private String version;
-    private String template;
+    private final String id;
+    private final String name;
+    private final String version;
+    private final String template;
+    private final JsonSchema schema; // expected output shape for JSON prompts, null for free text
 
-    public PromptTemplate() {
-    }
+    private final String[] literals; // literals.length == names.length + 1
+    private final String[] names;
+    private final int literalChars;
 
     public PromptTemplate(String id, String name, String version, String template) {
+        this(id, name, version, template, null);
+    }
+
+    public PromptTemplate(String id, String name, String version, String template, JsonSchema schema) {
         this.id = id;
         this.name = name;
         this.version = version;
         this.template = template;
+        this.schema = schema;
+
+        List<String> lits = new ArrayList<>();
+        List<String> vars = new ArrayList<>();
+        int literalStart = 0;
+        int from = 0;
+        int open;
+        while ((open = template.indexOf("{{", from)) >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0)
+                break;
+            String key = template.substring(open + 2, close);
+            if (!isName(key)) {
+                // not a placeholder (e.g. literal JSON braces); keep scanning after this "{{"
+                from = open + 1;
+                continue;
+            }
+            lits.add(template.substring(literalStart, open));
+            vars.add(key);
+            literalStart = from = close + 2;
+        }
+        lits.add(template.substring(literalStart));
+        this.literals = lits.toArray(String[]::new);
+        this.names = vars.toArray(String[]::new);
+        int chars = 0;
+        for (String l : literals)
+            chars += l.length();
+        this.literalChars = chars;
     }
 
     public String render(Map<String, Object> vars) {
-        String out = template;
-        if (vars != null) {
-            for (var e : vars.entrySet()) {
-                out = out.replace("{{" + e.getKey() + "}}", String.valueOf(e.getValue()));
-            }
+        String[] values = new String[names.length];
+        int size = literalChars;
+        for (int i = 0; i < names.length; i++) {
+            if (vars != null && vars.containsKey(names[i]))
+                values[i] = String.valueOf(vars.get(names[i]));
+            size += values[i] != null ? values[i].length() : names[i].length() + 4;
         }
-        return out;
+
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            if (values[i] != null)
+                sb.append(values[i]);
+            else
+                sb.append("{{").append(names[i]).append("}}");
+        }
+        return sb.append(literals[names.length]).toString();
     }
 
     public String id() {
@@ -39,4 +93,23 @@ public class PromptTemplate {
     public String version() {
         return version;
     }
-}
\ No newline at end of file
+
+    public String template() {
+        return template;
+    }
+
+    public JsonSchema schema() {
+        return schema;
+    }
+
+    private static boolean isName(String key) {
+        if (key.isEmpty())
+            return false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_')
+                return false;
+        }
+        return true;
+    }
+}
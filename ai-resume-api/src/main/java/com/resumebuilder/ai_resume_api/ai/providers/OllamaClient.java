@@ -0,0 +1,58 @@
+package com.resumebuilder.ai_resume_api.ai.providers;
+
+import com.resumebuilder.ai_resume_api.config.OllamaHttpProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+
+/**
+ * Entry point for all Ollama HTTP calls. Wraps the pooled ollamaWebClient and applies the
+ * per-endpoint response timeout from {@link OllamaHttpProperties} to each request.
+ * The base URL comes from an {@link OllamaEndpointPool} lease, so every Ollama server
+ * shares the same connection pool.
+ */
+@Component
+public class OllamaClient {
+
+    public static final String GENERATE = "/api/generate";
+    public static final String EMBEDDINGS = "/api/embeddings";
+    public static final String TAGS = "/api/tags";
+
+    private final WebClient client;
+    private final OllamaHttpProperties props;
+
+    public OllamaClient(@Qualifier("ollamaWebClient") WebClient client, OllamaHttpProperties props) {
+        this.client = client;
+        this.props = props;
+    }
+
+    public WebClient.RequestHeadersSpec<?> postJson(String baseUrl, String path, Object body, Duration timeout) {
+        return client.post()
+                .uri(baseUrl + path)
+                .httpRequest(r -> r.<HttpClientRequest>getNativeRequest().responseTimeout(timeout))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+
+    public WebClient.RequestHeadersSpec<?> get(String baseUrl, String path, Duration timeout) {
+        return client.get()
+                .uri(baseUrl + path)
+                .httpRequest(r -> r.<HttpClientRequest>getNativeRequest().responseTimeout(timeout));
+    }
+
+    public Duration generateTimeout() {
+        return props.getTimeouts().generate();
+    }
+
+    public Duration embedTimeout() {
+        return props.getTimeouts().embed();
+    }
+
+    public Duration healthTimeout() {
+        return props.getTimeouts().health();
+    }
+}
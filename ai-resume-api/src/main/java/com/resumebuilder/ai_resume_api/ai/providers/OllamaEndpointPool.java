@@ -0,0 +1,208 @@
+package com.resumebuilder.ai_resume_api.ai.providers;
+
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes Ollama calls across the configured endpoints.
+ *
+ * Selection: endpoints that are not ejected, preferring those where the model is resident
+ * (loaded per /api/ps, configured, or observed to serve it), then the fewest outstanding requests, then the
+ * lowest smoothed latency. Failures and calls slower than ai.ollama.ejection.slow-call-ms
+ * count as strikes; consecutive strikes eject the endpoint for ai.ollama.ejection.eject-ms.
+ * When every endpoint is ejected the one closest to re-admission is used (fail open).
+ */
+@Component
+public class OllamaEndpointPool {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaEndpointPool.class);
+
+    private final List<Endpoint> endpoints;
+    private final OllamaEndpointsProperties.Ejection ejection;
+
+    public OllamaEndpointPool(OllamaEndpointsProperties props) {
+        List<Endpoint> list = new ArrayList<>();
+        for (var e : props.getEndpoints()) {
+            if (e.getUrl() != null && !e.getUrl().isBlank())
+                list.add(new Endpoint(trimSlash(e.getUrl()), e.getModels()));
+        }
+        if (list.isEmpty())
+            list.add(new Endpoint(trimSlash(props.getBase()), List.of()));
+        this.endpoints = List.copyOf(list);
+        this.ejection = props.getEjection();
+        log.info("Ollama endpoint pool: {}", endpoints.stream().map(Endpoint::url).toList());
+    }
+
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /** Picks an endpoint for the model (null = any) and counts the call as outstanding. */
+    public Lease acquire(String model) {
+        long now = System.currentTimeMillis();
+        Endpoint best = null;
+        for (Endpoint e : endpoints) {
+            if (e.ejectedAt(now))
+                continue;
+            if (best == null || better(e, best, model))
+                best = e;
+        }
+        if (best == null) {
+            // everything is ejected: use whichever comes back first rather than failing outright
+            for (Endpoint e : endpoints) {
+                if (best == null || e.ejectedUntil < best.ejectedUntil)
+                    best = e;
+            }
+        }
+        best.outstanding.incrementAndGet();
+        return new Lease(best, model, now);
+    }
+
+    /** True when at least one endpoint is currently admitted. */
+    public boolean anyAvailable() {
+        long now = System.currentTimeMillis();
+        return endpoints.stream().anyMatch(e -> !e.ejectedAt(now));
+    }
+
+    /**
+     * Replaces the endpoint's loaded-model set with what /api/ps reports. From then on that
+     * report, not past traffic, decides residency.
+     */
+    public void updateLoaded(Endpoint e, Set<String> models) {
+        e.loaded = Set.copyOf(models);
+        e.observed.clear();
+    }
+
+    /** True when the model is resident on at least one admitted endpoint. */
+    public boolean isResidentAnywhere(String model) {
+        long now = System.currentTimeMillis();
+        return endpoints.stream().anyMatch(e -> !e.ejectedAt(now) && e.isResident(model));
+    }
+
+    /** Re-admits an ejected endpoint early, e.g. after a successful health probe. */
+    public void readmit(Endpoint e) {
+        e.ejectedUntil = 0;
+        e.strikes.set(0);
+    }
+
+    private boolean better(Endpoint a, Endpoint b, String model) {
+        if (model != null) {
+            boolean ra = a.isResident(model), rb = b.isResident(model);
+            if (ra != rb)
+                return ra;
+        }
+        int oa = a.outstanding.get(), ob = b.outstanding.get();
+        if (oa != ob)
+            return oa < ob;
+        return a.ewmaLatencyMs < b.ewmaLatencyMs;
+    }
+
+    private void record(Lease lease, boolean success) {
+        Endpoint e = lease.endpoint;
+        e.outstanding.decrementAndGet();
+        if (!success && Thread.currentThread().isInterrupted())
+            return; // abandoned by the caller (e.g. a losing hedge): says nothing about the endpoint
+        long latency = System.currentTimeMillis() - lease.startedAt;
+        boolean slow = latency > ejection.getSlowCallMs();
+        if (success) {
+            e.ewmaLatencyMs = e.ewmaLatencyMs == 0 ? latency : (0.8 * e.ewmaLatencyMs + 0.2 * latency);
+            if (lease.model != null)
+                e.observed.add(lease.model);
+        }
+        if (success && !slow) {
+            e.strikes.set(0);
+            return;
+        }
+        int strikes = e.strikes.incrementAndGet();
+        if (strikes >= ejection.getConsecutiveFailures()) {
+            e.ejectedUntil = System.currentTimeMillis() + ejection.getEjectMs();
+            e.strikes.set(0);
+            log.warn("Ejecting Ollama endpoint {} for {}ms after {} {} calls", e.url, ejection.getEjectMs(),
+                    strikes, success ? "slow" : "failed");
+        }
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public static final class Endpoint {
+        private final String url;
+        private final Set<String> configured;
+        private final Set<String> observed = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger strikes = new AtomicInteger();
+        private volatile long ejectedUntil;
+        private volatile double ewmaLatencyMs;
+        private volatile Set<String> loaded = Set.of();
+
+        Endpoint(String url, List<String> models) {
+            this.url = url;
+            this.configured = Collections.unmodifiableSet(new LinkedHashSet<>(models == null ? List.of() : models));
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isResident(String model) {
+            return loaded.contains(model) || configured.contains(model) || observed.contains(model);
+        }
+
+        public Set<String> configuredModels() {
+            return configured;
+        }
+
+        boolean ejectedAt(long now) {
+            return ejectedUntil > now;
+        }
+    }
+
+    /**
+     * One routed call. Mark it {@link #success()} before closing; closing without success
+     * records a failure strike against the endpoint, unless the calling thread was interrupted.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Endpoint endpoint;
+        private final String model;
+        private final long startedAt;
+        private boolean ok;
+        private boolean closed;
+
+        private Lease(Endpoint endpoint, String model, long startedAt) {
+            this.endpoint = endpoint;
+            this.model = model;
+            this.startedAt = startedAt;
+        }
+
+        public String baseUrl() {
+            return endpoint.url;
+        }
+
+        public void success() {
+            ok = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            record(this, ok);
+        }
+    }
+}
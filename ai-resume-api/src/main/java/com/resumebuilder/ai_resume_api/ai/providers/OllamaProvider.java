@@ -5,65 +5,130 @@ import com.resumebuilder.ai_resume_api.ai.AiProvider;
 import com.resumebuilder.ai_resume_api.ai.AiTextRequest;
 import com.resumebuilder.ai_resume_api.ai.AiTextResult;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 @Service
 public class OllamaProvider implements AiProvider {
 
-    private final WebClient client;
-    @SuppressWarnings("unused")
-    private final String baseUrl;
+    private final OllamaClient client;
+    private final OllamaEndpointPool pool;
+    private final OllamaResidencyManager residency;
     private final String defaultModel;
 
-    public OllamaProvider(@Value("${ai.ollama.base:http://localhost:11434}") String baseUrl,
-            @Value("${ai.ollama.model.primary:qwen2.5:3b-instruct}") String defaultModel,
-            WebClient.Builder builder) {
-        this.baseUrl = baseUrl;
+    public OllamaProvider(OllamaClient client, OllamaEndpointPool pool, OllamaResidencyManager residency,
+            @Value("${ai.ollama.model.primary:qwen2.5:3b-instruct}") String defaultModel) {
+        this.client = client;
+        this.pool = pool;
+        this.residency = residency;
         this.defaultModel = defaultModel;
-        this.client = builder.baseUrl(baseUrl).build();
     }
 
     @Override
     public AiTextResult generate(AiTextRequest req, Map<String, Object> options) {
         long start = System.currentTimeMillis();
 
-        String model = (req.model() != null && !req.model().isBlank()) ? req.model() : defaultModel;
+        String model = resolveModel(req);
 
+        OllamaResponse res;
+        try (var lease = pool.acquire(model)) {
+            res = client.postJson(lease.baseUrl(), OllamaClient.GENERATE, payload(req, model, options, false),
+                    client.generateTimeout())
+                    .retrieve()
+                    .bodyToMono(OllamaResponse.class)
+                    .timeout(client.generateTimeout())
+                    .block();
+            lease.success();
+        }
+
+        long latency = System.currentTimeMillis() - start;
+
+        String text = res != null && res.response != null ? res.response.trim() : "";
+        return new AiTextResult(text, res != null ? res.response : "",
+                "Ollama", model, latency, false, meta(res), List.of(), null, null);
+    }
+
+    @Override
+    public AiTextResult generateStream(AiTextRequest req, Map<String, Object> options, Predicate<String> onChunk) {
+        long start = System.currentTimeMillis();
+
+        String model = resolveModel(req);
+        StringBuilder text = new StringBuilder();
+        AtomicReference<OllamaResponse> last = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        // NDJSON stream; takeWhile cancels the subscription, which closes the connection and
+        // makes Ollama stop generating instead of burning the rest of num_predict.
+        // A caller-side cancel is still a healthy call for the endpoint.
+        try (var lease = pool.acquire(model)) {
+            client.postJson(lease.baseUrl(), OllamaClient.GENERATE, payload(req, model, options, true),
+                    client.generateTimeout())
+                    .retrieve()
+                    .bodyToFlux(OllamaResponse.class)
+                    .takeWhile(chunk -> {
+                        last.set(chunk);
+                        if (chunk.response == null || chunk.response.isEmpty())
+                            return true;
+                        text.append(chunk.response);
+                        if (onChunk.test(chunk.response))
+                            return true;
+                        cancelled.set(true);
+                        return false;
+                    })
+                    .blockLast(client.generateTimeout());
+            lease.success();
+        }
+
+        long latency = System.currentTimeMillis() - start;
+
+        var meta = meta(last.get());
+        if (cancelled.get())
+            meta.put("cancelled", true);
+        return new AiTextResult(text.toString().trim(), text.toString(),
+                "Ollama", model, latency, false, meta,
+                cancelled.get() ? List.of("Generation cancelled by caller") : List.of(), null, null);
+    }
+
+    private String resolveModel(AiTextRequest req) {
+        return (req.model() != null && !req.model().isBlank()) ? req.model() : defaultModel;
+    }
+
+    private Map<String, Object> payload(AiTextRequest req, String model, Map<String, Object> options,
+            boolean stream) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("model", model);
         payload.put("prompt", req.prompt());
-        payload.put("stream", false);
+        payload.put("stream", stream);
+        payload.put("keep_alive", residency.keepAlive(model));
         if (options != null)
             payload.put("options", options);
         if (req.format() != null && !req.format().isBlank())
             payload.put("format", req.format());
+        return payload;
+    }
 
-        var res = client.post()
-                .uri("/api/generate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(OllamaResponse.class)
-                .timeout(Duration.ofSeconds(130))
-                .block();
-
-        long latency = System.currentTimeMillis() - start;
-
-        String text = res != null && res.response != null ? res.response.trim() : "";
-        Map<String, Object> meta = Map.of(
-                "total_duration", res != null ? res.total_duration : null,
-                "eval_count", res != null ? res.eval_count : null,
-                "eval_duration", res != null ? res.eval_duration : null);
-
-        return new AiTextResult(text, res != null ? res.response : "",
-                "Ollama", model, latency, false, meta, List.of());
+    // HashMap: fields are absent on cancelled streams and Map.of rejects nulls
+    private Map<String, Object> meta(OllamaResponse res) {
+        Map<String, Object> meta = new HashMap<>();
+        if (res == null)
+            return meta;
+        if (res.total_duration != null)
+            meta.put("total_duration", res.total_duration);
+        if (res.prompt_eval_count != null)
+            meta.put("prompt_eval_count", res.prompt_eval_count);
+        if (res.eval_count != null)
+            meta.put("eval_count", res.eval_count);
+        if (res.eval_duration != null)
+            meta.put("eval_duration", res.eval_duration);
+        if (res.done_reason != null)
+            meta.put("done_reason", res.done_reason);
+        return meta;
     }
 
     @Override
@@ -71,11 +136,29 @@ public class OllamaProvider implements AiProvider {
         return "Ollama";
     }
 
+    /**
+     * Healthy while any endpoint is admitted; no probe on the hot path. When every endpoint
+     * has been ejected, probes them and re-admits the ones that answer.
+     */
     @Override
     public boolean isHealthy() {
+        if (pool.anyAvailable())
+            return true;
+        boolean any = false;
+        for (var endpoint : pool.endpoints()) {
+            if (probe(endpoint.url())) {
+                pool.readmit(endpoint);
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    private boolean probe(String baseUrl) {
         try {
-            var tags = client.get().uri("/api/tags").retrieve().bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(5)).block();
+            var tags = client.get(baseUrl, OllamaClient.TAGS, client.healthTimeout()).retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(client.healthTimeout()).block();
             return tags != null && !tags.isBlank();
         } catch (Exception e) {
             return false;
@@ -87,8 +170,10 @@ public class OllamaProvider implements AiProvider {
         public String model;
         public String response;
         public Boolean done;
+        public String done_reason;
         public Long total_duration;
+        public Long prompt_eval_count;
         public Long eval_count;
         public Long eval_duration;
     }
-}
\ No newline at end of file
+}
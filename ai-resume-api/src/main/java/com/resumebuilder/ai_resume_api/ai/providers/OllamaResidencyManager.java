@@ -0,0 +1,184 @@
+package com.resumebuilder.ai_resume_api.ai.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.resumebuilder.ai_resume_api.ai.KnownModels;
+import com.resumebuilder.ai_resume_api.ai.ModelResidency;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the configured models warm in Ollama.
+ *
+ * - Preloads ai.ollama.model.* on every endpoint at startup (in the background), or the
+ *   endpoint's own model list when it has one.
+ * - Chooses keep_alive per request: the primary model is pinned (-1, never unloaded); models
+ *   with at least busy-threshold requests in the last window get busy-keep-alive, the rest
+ *   idle-keep-alive so rarely used fallbacks release memory sooner.
+ * - Polls /api/ps so routing knows what is actually loaded.
+ */
+@Component
+public class OllamaResidencyManager implements ModelResidency {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaResidencyManager.class);
+
+    private static final String PS = "/api/ps";
+
+    private final OllamaClient client;
+    private final OllamaEndpointPool pool;
+    private final OllamaEndpointsProperties.Residency props;
+    private final KnownModels known;
+    private final String primary;
+    private final List<String> models;
+    private final Map<String, Traffic> traffic = new ConcurrentHashMap<>();
+
+    public OllamaResidencyManager(OllamaClient client, OllamaEndpointPool pool, OllamaEndpointsProperties props,
+            KnownModels known,
+            @Value("${ai.ollama.model.primary:qwen2.5:3b-instruct}") String primary,
+            @Value("${ai.ollama.model.secondary:gemma2:2b}") String secondary,
+            @Value("${ai.ollama.model.fallback:llama3.2:1b}") String fallback,
+            @Value("${ai.ollama.model.tiny:tinyllama:1.1b}") String tiny) {
+        this.client = client;
+        this.pool = pool;
+        this.props = props.getResidency();
+        this.known = known;
+        this.primary = primary;
+        Set<String> all = new LinkedHashSet<>();
+        for (String m : List.of(primary, secondary, fallback, tiny)) {
+            if (m != null && !m.isBlank())
+                all.add(m);
+        }
+        this.models = List.copyOf(all);
+    }
+
+    /** keep_alive for a request to this model; also counts the request as traffic if the model is configured. */
+    public Object keepAlive(String model) {
+        long now = System.currentTimeMillis();
+        if (known.contains(model))
+            traffic.computeIfAbsent(model, k -> new Traffic()).hit(now, props.getWindowMs());
+        return keepAliveFor(model);
+    }
+
+    @Override
+    public boolean isResident(String model) {
+        return pool.isResidentAnywhere(model);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        if (!props.isPreload())
+            return;
+        Thread.ofVirtual().name("ollama-preload").start(this::preload);
+    }
+
+    void preload() {
+        for (var endpoint : pool.endpoints()) {
+            var targets = endpoint.configuredModels().isEmpty() ? models : endpoint.configuredModels();
+            for (String model : targets) {
+                long start = System.currentTimeMillis();
+                try {
+                    // a generate call without a prompt only loads the model
+                    client.postJson(endpoint.url(), OllamaClient.GENERATE,
+                            Map.of("model", model, "keep_alive", keepAliveFor(model)), client.generateTimeout())
+                            .retrieve()
+                            .toBodilessEntity()
+                            .timeout(client.generateTimeout())
+                            .block();
+                    log.info("Preloaded {} on {} in {}ms", model, endpoint.url(), System.currentTimeMillis() - start);
+                } catch (Exception e) {
+                    log.warn("Could not preload {} on {}: {}", model, endpoint.url(), e.toString());
+                }
+            }
+        }
+        refreshLoaded();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.ollama.residency.poll-ms:15000}",
+            initialDelayString = "${ai.ollama.residency.poll-ms:15000}")
+    public void refreshLoaded() {
+        for (var endpoint : pool.endpoints()) {
+            try {
+                var ps = client.get(endpoint.url(), PS, client.healthTimeout())
+                        .retrieve()
+                        .bodyToMono(PsResponse.class)
+                        .timeout(client.healthTimeout())
+                        .block();
+                if (ps == null || ps.models == null)
+                    continue;
+                Set<String> loaded = new HashSet<>();
+                for (var m : ps.models) {
+                    if (m.name != null)
+                        loaded.add(m.name);
+                    if (m.model != null)
+                        loaded.add(m.model);
+                }
+                pool.updateLoaded(endpoint, loaded);
+            } catch (Exception e) {
+                // unreachable endpoints are handled by passive ejection; keep the last known state
+                log.debug("Could not read {}{}: {}", endpoint.url(), PS, e.toString());
+            }
+        }
+    }
+
+    // keep_alive without counting traffic (warm-up is not demand)
+    private Object keepAliveFor(String model) {
+        if (props.isPinPrimary() && model.equals(primary))
+            return -1;
+        return isBusy(model, System.currentTimeMillis()) ? props.getBusyKeepAlive() : props.getIdleKeepAlive();
+    }
+
+    private boolean isBusy(String model, long now) {
+        Traffic t = traffic.get(model);
+        return t != null && t.count(now, props.getWindowMs()) >= props.getBusyThreshold();
+    }
+
+    /** Two-bucket sliding count: current window plus the previous one, weighted by overlap. */
+    private static final class Traffic {
+        private long windowStart;
+        private long current;
+        private long previous;
+
+        synchronized void hit(long now, long windowMs) {
+            roll(now, windowMs);
+            current++;
+        }
+
+        synchronized double count(long now, long windowMs) {
+            roll(now, windowMs);
+            double overlap = 1.0 - (double) (now - windowStart) / windowMs;
+            return current + previous * overlap;
+        }
+
+        private void roll(long now, long windowMs) {
+            long elapsed = now - windowStart;
+            if (elapsed < windowMs)
+                return;
+            previous = elapsed < 2 * windowMs ? current : 0;
+            current = 0;
+            windowStart = now - (elapsed % windowMs);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class PsResponse {
+        public List<PsModel> models;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class PsModel {
+        public String name;
+        public String model;
+    }
+}
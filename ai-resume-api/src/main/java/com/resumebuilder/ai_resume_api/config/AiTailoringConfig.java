@@ -3,6 +3,9 @@ package com.resumebuilder.ai_resume_api.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "ai")
 public class AiTailoringConfig {
@@ -13,6 +16,7 @@ public class AiTailoringConfig {
     private final Keywords keywords = new Keywords();
     private final Generation generation = new Generation();
     private final Tailor tailor = new Tailor();
+    private final Chunking chunking = new Chunking();
 
     public Ats getAts() {
         return ats;
@@ -38,6 +42,60 @@ public class AiTailoringConfig {
         return tailor;
     }
 
+    public Chunking getChunking() {
+        return chunking;
+    }
+
+    // How resume chunks are shaped before embedding (see ChunkingPipeline)
+    public static class Chunking {
+        // Comma-separated strategy names applied in order, per section; others use defaultStrategy
+        private String defaultStrategy = "per-field";
+        private Map<String, String> sections = new HashMap<>();
+        private int minTokens = 8; // merge-small: chunks below this join their neighbours
+        private int maxTokens = 80; // no merged chunk or window above this (~ the 350-char context clamp)
+        private int overlapSentences = 1; // sentence-window: sentences repeated between windows
+
+        public String getDefaultStrategy() {
+            return defaultStrategy;
+        }
+
+        public void setDefaultStrategy(String defaultStrategy) {
+            this.defaultStrategy = defaultStrategy;
+        }
+
+        public Map<String, String> getSections() {
+            return sections;
+        }
+
+        public void setSections(Map<String, String> sections) {
+            this.sections = sections;
+        }
+
+        public int getMinTokens() {
+            return minTokens;
+        }
+
+        public void setMinTokens(int minTokens) {
+            this.minTokens = minTokens;
+        }
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public int getOverlapSentences() {
+            return overlapSentences;
+        }
+
+        public void setOverlapSentences(int overlapSentences) {
+            this.overlapSentences = overlapSentences;
+        }
+    }
+
     // ATS Scoring Weights
     public static class Ats {
         private Weight weight = new Weight();
@@ -204,7 +262,7 @@ public class AiTailoringConfig {
     // Model Generation Parameters
     public static class Generation {
         private double temperature = 0.3;
-        private int numPredict = 900;
+        private int numPredict = 900; // ceiling; TokenBudgeter tightens it per request
         private double topP = 0.9;
         private Single single = new Single();
 
@@ -238,7 +296,7 @@ public class AiTailoringConfig {
 
         public static class Single {
             private double temperature = 0.22;
-            private int numPredict = 360;
+            private int numPredict = 360; // ceiling, as above
 
             public double getTemperature() {
                 return temperature;
@@ -263,6 +321,8 @@ public class AiTailoringConfig {
         private Topk topk = new Topk();
         private int minPatches = 3;
         private Content content = new Content();
+        private Pack pack = new Pack();
+        private Retrieval retrieval = new Retrieval();
 
         public Topk getTopk() {
             return topk;
@@ -280,6 +340,14 @@ public class AiTailoringConfig {
             return content;
         }
 
+        public Pack getPack() {
+            return pack;
+        }
+
+        public Retrieval getRetrieval() {
+            return retrieval;
+        }
+
         public static class Topk {
             private int defaultValue = 8;
             private int max = 20;
@@ -329,5 +397,103 @@ public class AiTailoringConfig {
                 }
             }
         }
+
+        // Chunk retrieval: vector-only, or vector + full-text fused by reciprocal rank in SQL
+        public static class Retrieval {
+            private boolean hybrid = true;
+            private int rrfK = 60; // damping constant from the RRF paper; larger flattens rank differences
+            private boolean inMemory = true; // serve hot resumes from ResumeVectorIndex instead of pgvector
+            private int inMemoryMaxMb = 64;
+            private int inMemoryTtlMinutes = 30; // bounds staleness when another instance reindexes
+
+            public boolean isHybrid() {
+                return hybrid;
+            }
+
+            public void setHybrid(boolean hybrid) {
+                this.hybrid = hybrid;
+            }
+
+            public int getRrfK() {
+                return rrfK;
+            }
+
+            public void setRrfK(int rrfK) {
+                this.rrfK = rrfK;
+            }
+
+            public boolean isInMemory() {
+                return inMemory;
+            }
+
+            public void setInMemory(boolean inMemory) {
+                this.inMemory = inMemory;
+            }
+
+            public int getInMemoryMaxMb() {
+                return inMemoryMaxMb;
+            }
+
+            public void setInMemoryMaxMb(int inMemoryMaxMb) {
+                this.inMemoryMaxMb = inMemoryMaxMb;
+            }
+
+            public int getInMemoryTtlMinutes() {
+                return inMemoryTtlMinutes;
+            }
+
+            public void setInMemoryTtlMinutes(int inMemoryTtlMinutes) {
+                this.inMemoryTtlMinutes = inMemoryTtlMinutes;
+            }
+        }
+
+        // Context packing for the tailor prompt (see ContextPacker)
+        public static class Pack {
+            private int contextTokens = 4096; // model context window the whole prompt must fit in
+            private int minBudgetTokens = 256;
+            private double mmrLambda = 0.7; // 1 = relevance only, 0 = diversity only
+            private double duplicateSimilarity = 0.97; // cosine above which two chunks count as the same line
+            private int overfetch = 2; // candidates fetched per requested line
+
+            public int getContextTokens() {
+                return contextTokens;
+            }
+
+            public void setContextTokens(int contextTokens) {
+                this.contextTokens = contextTokens;
+            }
+
+            public int getMinBudgetTokens() {
+                return minBudgetTokens;
+            }
+
+            public void setMinBudgetTokens(int minBudgetTokens) {
+                this.minBudgetTokens = minBudgetTokens;
+            }
+
+            public double getMmrLambda() {
+                return mmrLambda;
+            }
+
+            public void setMmrLambda(double mmrLambda) {
+                this.mmrLambda = mmrLambda;
+            }
+
+            public double getDuplicateSimilarity() {
+                return duplicateSimilarity;
+            }
+
+            public void setDuplicateSimilarity(double duplicateSimilarity) {
+                this.duplicateSimilarity = duplicateSimilarity;
+            }
+
+            public int getOverfetch() {
+                return overfetch;
+            }
+
+            public void setOverfetch(int overfetch) {
+                this.overfetch = overfetch;
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.resumebuilder.ai_resume_api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ollama inference endpoints. Adding capacity is a config change:
+ *
+ * ai.ollama.endpoints[0].url=http://ollama-a:11434
+ * ai.ollama.endpoints[0].models=qwen2.5:3b-instruct,nomic-embed-text
+ * ai.ollama.endpoints[1].url=http://ollama-b:11434
+ *
+ * With no endpoints configured, ai.ollama.base is used as a single endpoint.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ai.ollama")
+public class OllamaEndpointsProperties {
+
+    private String base = "http://localhost:11434";
+    private List<Endpoint> endpoints = new ArrayList<>();
+    private final Ejection ejection = new Ejection();
+    private final Residency residency = new Residency();
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public Ejection getEjection() {
+        return ejection;
+    }
+
+    public Residency getResidency() {
+        return residency;
+    }
+
+    public static class Endpoint {
+        private String url;
+        private List<String> models = new ArrayList<>(); // models kept loaded there; empty = unknown
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public List<String> getModels() {
+            return models;
+        }
+
+        public void setModels(List<String> models) {
+            this.models = models;
+        }
+    }
+
+    // Passive outlier ejection
+    public static class Ejection {
+        private int consecutiveFailures = 3;
+        private long slowCallMs = 90000;
+        private long ejectMs = 30000;
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+
+        public long getEjectMs() {
+            return ejectMs;
+        }
+
+        public void setEjectMs(long ejectMs) {
+            this.ejectMs = ejectMs;
+        }
+    }
+
+    // Model warm-up and keep_alive; see OllamaResidencyManager
+    public static class Residency {
+        private boolean preload = true;
+        private boolean pinPrimary = true;
+        private String busyKeepAlive = "30m";
+        private String idleKeepAlive = "5m";
+        private int busyThreshold = 5; // requests per window that make a model "busy"
+        private long windowMs = 600000; // sliding window those requests are counted over
+
+        public boolean isPreload() {
+            return preload;
+        }
+
+        public void setPreload(boolean preload) {
+            this.preload = preload;
+        }
+
+        public boolean isPinPrimary() {
+            return pinPrimary;
+        }
+
+        public void setPinPrimary(boolean pinPrimary) {
+            this.pinPrimary = pinPrimary;
+        }
+
+        public String getBusyKeepAlive() {
+            return busyKeepAlive;
+        }
+
+        public void setBusyKeepAlive(String busyKeepAlive) {
+            this.busyKeepAlive = busyKeepAlive;
+        }
+
+        public String getIdleKeepAlive() {
+            return idleKeepAlive;
+        }
+
+        public void setIdleKeepAlive(String idleKeepAlive) {
+            this.idleKeepAlive = idleKeepAlive;
+        }
+
+        public int getBusyThreshold() {
+            return busyThreshold;
+        }
+
+        public void setBusyThreshold(int busyThreshold) {
+            this.busyThreshold = busyThreshold;
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.resumebuilder.ai_resume_api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * HTTP settings shared by every Ollama caller (generation, embeddings, legacy suggestions).
+ * Keys keep the existing ai.http.*TimeoutMs names.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ai.http")
+public class OllamaHttpProperties {
+
+    private int connectTimeoutMs = 5000;
+    private int writeTimeoutMs = 120000;
+    private final Pool pool = new Pool();
+    private final Timeouts timeouts = new Timeouts();
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getWriteTimeoutMs() {
+        return writeTimeoutMs;
+    }
+
+    public void setWriteTimeoutMs(int writeTimeoutMs) {
+        this.writeTimeoutMs = writeTimeoutMs;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    // Reactor Netty connection pool
+    public static class Pool {
+        private int maxConnections = 32;
+        private int pendingAcquireMaxCount = 256;
+        private int pendingAcquireTimeoutMs = 10000;
+        private int maxIdleTimeMs = 30000;
+        private int maxLifeTimeMs = 300000;
+        private int evictInBackgroundMs = 30000;
+        private boolean keepAlive = true;
+        private boolean metrics = true;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public int getPendingAcquireTimeoutMs() {
+            return pendingAcquireTimeoutMs;
+        }
+
+        public void setPendingAcquireTimeoutMs(int pendingAcquireTimeoutMs) {
+            this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs;
+        }
+
+        public int getMaxIdleTimeMs() {
+            return maxIdleTimeMs;
+        }
+
+        public void setMaxIdleTimeMs(int maxIdleTimeMs) {
+            this.maxIdleTimeMs = maxIdleTimeMs;
+        }
+
+        public int getMaxLifeTimeMs() {
+            return maxLifeTimeMs;
+        }
+
+        public void setMaxLifeTimeMs(int maxLifeTimeMs) {
+            this.maxLifeTimeMs = maxLifeTimeMs;
+        }
+
+        public int getEvictInBackgroundMs() {
+            return evictInBackgroundMs;
+        }
+
+        public void setEvictInBackgroundMs(int evictInBackgroundMs) {
+            this.evictInBackgroundMs = evictInBackgroundMs;
+        }
+
+        public boolean isKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public boolean isMetrics() {
+            return metrics;
+        }
+
+        public void setMetrics(boolean metrics) {
+            this.metrics = metrics;
+        }
+    }
+
+    // Per-endpoint response timeouts
+    public static class Timeouts {
+        private int generateMs = 130000;
+        private int embedMs = 30000;
+        private int healthMs = 5000;
+
+        public int getGenerateMs() {
+            return generateMs;
+        }
+
+        public void setGenerateMs(int generateMs) {
+            this.generateMs = generateMs;
+        }
+
+        public int getEmbedMs() {
+            return embedMs;
+        }
+
+        public void setEmbedMs(int embedMs) {
+            this.embedMs = embedMs;
+        }
+
+        public int getHealthMs() {
+            return healthMs;
+        }
+
+        public void setHealthMs(int healthMs) {
+            this.healthMs = healthMs;
+        }
+
+        public Duration generate() {
+            return Duration.ofMillis(generateMs);
+        }
+
+        public Duration embed() {
+            return Duration.ofMillis(embedMs);
+        }
+
+        public Duration health() {
+            return Duration.ofMillis(healthMs);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.resumebuilder.ai_resume_api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local inference server speaking the OpenAI API (llama.cpp server, vLLM, LM Studio...).
+ * The provider is only created when base-url is set:
+ *
+ * ai.openai.base-url=http://vllm:8000
+ * ai.openai.models=Qwen/Qwen2.5-3B-Instruct
+ * ai.openai.embedding-models=nomic-ai/nomic-embed-text-v1.5
+ *
+ * Model ids listed here are routed to this server; everything else stays on Ollama.
+ * HTTP timeouts come from ai.http.*.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ai.openai")
+public class OpenAiCompatProperties {
+
+    private String baseUrl;
+    private String apiKey; // most local servers ignore it; sent as a Bearer token when set
+    private List<String> models = new ArrayList<>(); // empty = serve every model id
+    private List<String> embeddingModels = new ArrayList<>();
+    private int embeddingBatchSize = 64;
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    public List<String> getModels() {
+        return models;
+    }
+
+    public void setModels(List<String> models) {
+        this.models = models;
+    }
+
+    public List<String> getEmbeddingModels() {
+        return embeddingModels;
+    }
+
+    public void setEmbeddingModels(List<String> embeddingModels) {
+        this.embeddingModels = embeddingModels;
+    }
+
+    public int getEmbeddingBatchSize() {
+        return embeddingBatchSize;
+    }
+
+    public void setEmbeddingBatchSize(int embeddingBatchSize) {
+        this.embeddingBatchSize = embeddingBatchSize;
+    }
+}
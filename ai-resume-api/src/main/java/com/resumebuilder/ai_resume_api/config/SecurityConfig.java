@@ -111,8 +111,9 @@ public class SecurityConfig {
                 cfg.setAllowedOrigins(java.util.List.of(allowed.split(",")));
                 cfg.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
                 cfg.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-                cfg.setAllowedHeaders(java.util.List.of("Authorization", "Content-Type", "X-Requested-With"));
-                cfg.setExposedHeaders(java.util.List.of("Authorization"));
+                cfg.setAllowedHeaders(java.util.List.of("Authorization", "Content-Type", "X-Requested-With",
+                                "If-None-Match", "If-Match"));
+                cfg.setExposedHeaders(java.util.List.of("Authorization", "ETag"));
                 cfg.setAllowCredentials(true);
                 var source = new org.springframework.web.cors.UrlBasedCorsConfigurationSource();
                 source.registerCorsConfiguration("/**", cfg);
@@ -1,42 +1,106 @@
 package com.resumebuilder.ai_resume_api.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * One bounded, keep-alive connection pool for all Ollama traffic. With metrics enabled,
+     * Reactor Netty publishes reactor.netty.connection.provider.* gauges (active, idle,
+     * pending, max) to the Micrometer global registry, which Boot bridges to Prometheus.
+     */
+    @Bean(name = "ollamaConnectionProvider", destroyMethod = "dispose")
+    public ConnectionProvider ollamaConnectionProvider(OllamaHttpProperties props) {
+        return connectionProvider("ollama", props);
+    }
+
     @Bean(name = "ollamaWebClient")
     public WebClient ollamaWebClient(
-            @Value("${ai.ollama.base:http://localhost:11434}") String base,
-            @Value("${ai.http.connectTimeoutMs:5000}") int connectTimeoutMs,
-            @Value("${ai.http.readTimeoutMs:120000}") int readTimeoutMs, // 120s
-            @Value("${ai.http.writeTimeoutMs:120000}") int writeTimeoutMs // 120s
-    ) {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
-                .responseTimeout(Duration.ofMillis(readTimeoutMs))
+            @Qualifier("ollamaConnectionProvider") ConnectionProvider connectionProvider,
+            OllamaHttpProperties props) {
+        // No base URL: OllamaEndpointPool picks the server per call.
+        return webClient(connectionProvider, props).build();
+    }
+
+    /** Separate pool so a saturated inference server cannot starve Ollama traffic, or vice versa. */
+    @Bean(name = "openAiConnectionProvider", destroyMethod = "dispose")
+    @ConditionalOnProperty(prefix = "ai.openai", name = "base-url")
+    public ConnectionProvider openAiConnectionProvider(OllamaHttpProperties props) {
+        return connectionProvider("openai", props);
+    }
+
+    @Bean(name = "openAiWebClient")
+    @ConditionalOnProperty(prefix = "ai.openai", name = "base-url")
+    public WebClient openAiWebClient(
+            @Qualifier("openAiConnectionProvider") ConnectionProvider connectionProvider,
+            OllamaHttpProperties props, OpenAiCompatProperties openAi) {
+        var builder = webClient(connectionProvider, props).baseUrl(openAi.getBaseUrl());
+        if (openAi.getApiKey() != null && !openAi.getApiKey().isBlank())
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + openAi.getApiKey());
+        return builder.build();
+    }
+
+    private static ConnectionProvider connectionProvider(String name, OllamaHttpProperties props) {
+        var pool = props.getPool();
+        return ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(pool.getEvictInBackgroundMs()))
+                .metrics(pool.isMetrics())
+                .build();
+    }
+
+    private static WebClient.Builder webClient(ConnectionProvider connectionProvider, OllamaHttpProperties props) {
+        int writeTimeoutMs = props.getWriteTimeoutMs();
+
+        // No ReadTimeoutHandler: every caller sets a per-request responseTimeout (generate,
+        // embed, health), which Reactor Netty applies between reads of that response, so a
+        // fixed channel read timeout could only cut off a slow generation early.
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, props.getConnectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, props.getPool().isKeepAlive())
+                .keepAlive(props.getPool().isKeepAlive())
+                .metrics(props.getPool().isMetrics(), WebClientConfig::uriTag)
                 .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS))
                         .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)));
 
         return WebClient.builder()
-                .baseUrl(base)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(ExchangeStrategies.builder()
                         .codecs(c -> c.defaultCodecs().maxInMemorySize(8 * 1024 * 1024))
-                        .build())
-                .build();
+                        .build());
+    }
+
+    /**
+     * uri tag for the HTTP client meters: the path alone. Callers pass absolute URLs (the
+     * Ollama host comes from the endpoint pool), and the host is already the remote.address
+     * tag; a host or query string in uri would multiply the meters per server and request.
+     */
+    static String uriTag(String uri) {
+        try {
+            String path = URI.create(uri).getRawPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return "/bad-request"; // Reactor Netty's own tag for a path it cannot read
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.resumebuilder.ai_resume_api.config;
+
+import com.resumebuilder.ai_resume_api.controller.resume.ResumeETagInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ResumeETagInterceptor resumeETagInterceptor;
+
+    public WebConfig(ResumeETagInterceptor resumeETagInterceptor) {
+        this.resumeETagInterceptor = resumeETagInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(resumeETagInterceptor).addPathPatterns("/api/resumes/**");
+    }
+}
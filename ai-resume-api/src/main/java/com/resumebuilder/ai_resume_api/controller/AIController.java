@@ -165,7 +165,7 @@ public class AIController {
         // TRACK USAGE after success
         usageTrackingService.trackAtsScore(user, resumeId,
                 java.util.Map.of(
-                        "jobTitle", req.jobTitle(),
+                        "jobTitle", java.util.Objects.toString(req.jobTitle(), ""),
                         "score", res.totalScore(),
                         "timestamp", java.time.Instant.now().toString()));
 
@@ -0,0 +1,34 @@
+package com.resumebuilder.ai_resume_api.controller;
+
+import com.resumebuilder.ai_resume_api.dto.ai.JobPostingRequestDto;
+import com.resumebuilder.ai_resume_api.dto.ai.JobPostingResponseDto;
+import com.resumebuilder.ai_resume_api.service.ai.JobPostingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Job Postings", description = "Saved job descriptions reused by tailoring and ATS scoring")
+@RestController
+@RequestMapping("/api/ai/job-postings")
+public class JobPostingController {
+
+    private final JobPostingService jobPostingService;
+
+    public JobPostingController(JobPostingService jobPostingService) {
+        this.jobPostingService = jobPostingService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Save a job description (deduplicated) and precompute its keywords and embedding")
+    public ResponseEntity<JobPostingResponseDto> create(@Valid @RequestBody JobPostingRequestDto req) {
+        return ResponseEntity.ok(jobPostingService.create(req));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a saved job posting")
+    public ResponseEntity<JobPostingResponseDto> get(@PathVariable Long id) {
+        return ResponseEntity.ok(jobPostingService.get(id));
+    }
+}
@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.AwardRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.AwardResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.AwardUpdateDto;
 import com.resumebuilder.ai_resume_api.service.resume.AwardService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -49,7 +50,7 @@ public class AwardController {
             @PathVariable Long awardId,
             @Valid @RequestBody AwardUpdateDto dto) {
         var res = service.updateAward(resumeId, awardId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete an award")
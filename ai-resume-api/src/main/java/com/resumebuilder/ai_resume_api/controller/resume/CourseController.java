@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.CourseRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.CourseResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.CourseUpdateDto;
 import com.resumebuilder.ai_resume_api.service.resume.CourseService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -49,7 +50,7 @@ public class CourseController {
             @PathVariable Long courseId,
             @Valid @RequestBody CourseUpdateDto dto) {
         var res = service.update(resumeId, courseId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a course")
@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.ReorderRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.*;
 import com.resumebuilder.ai_resume_api.service.resume.CredentialService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -47,7 +48,7 @@ public class CredentialController {
             @PathVariable Long credentialId,
             @Valid @RequestBody CredentialUpdateDto dto) {
         var res = service.update(resumeId, credentialId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a certification/license")
@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.EducationDto;
 import com.resumebuilder.ai_resume_api.dto.resume.EducationResponseDto;
 import com.resumebuilder.ai_resume_api.service.resume.EducationService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -33,7 +34,7 @@ public class EducationController {
             @PathVariable Long educationId,
             @Valid @RequestBody com.resumebuilder.ai_resume_api.dto.resume.EducationUpdateDto educationDto) {
         var dto = educationService.updateEducation(resumeId, educationId, educationDto);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
     }
 
     @Operation(summary = "Delete education from resume")
@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.ExperienceDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ExperienceResponseDto;
 import com.resumebuilder.ai_resume_api.service.resume.ExperienceService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -34,7 +35,7 @@ public class ExperienceController {
             @PathVariable Long experienceId,
             @Valid @RequestBody com.resumebuilder.ai_resume_api.dto.resume.ExperienceUpdateDto experienceDto) {
         var dto = experienceService.updateExperience(resumeId, experienceId, experienceDto);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
     }
 
     @Operation(summary = "Delete experience")
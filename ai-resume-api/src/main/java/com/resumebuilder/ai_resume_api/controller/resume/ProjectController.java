@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.ProjectResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ProjectUpdateDto;
 import com.resumebuilder.ai_resume_api.dto.ReorderRequestDto;
 import com.resumebuilder.ai_resume_api.service.resume.ProjectService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -36,7 +37,7 @@ public class ProjectController {
             @PathVariable Long projectId,
             @Valid @RequestBody ProjectUpdateDto dto) {
         var res = service.updateProject(resumeId, projectId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a project")
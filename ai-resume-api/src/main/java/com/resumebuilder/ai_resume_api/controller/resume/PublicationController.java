@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.PublicationRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.PublicationResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.PublicationUpdateDto;
 import com.resumebuilder.ai_resume_api.service.resume.PublicationService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -50,7 +51,7 @@ public class PublicationController {
             @PathVariable Long publicationId,
             @Valid @RequestBody PublicationUpdateDto dto) {
         var res = service.update(resumeId, publicationId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a publication")
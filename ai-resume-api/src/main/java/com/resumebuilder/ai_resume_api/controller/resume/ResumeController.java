@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto;
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryPageDto;
 import com.resumebuilder.ai_resume_api.service.resume.ResumeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -45,6 +46,14 @@ public class ResumeController {
         return ResponseEntity.ok(resumeService.listMyResumes());
     }
 
+    @Operation(summary = "List my resumes (summary) a page at a time, newest first; pass nextCursor as cursor for the next page")
+    @GetMapping("/page")
+    public ResponseEntity<ResumeSummaryPageDto> getResumePageForCurrentUser(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(resumeService.listMyResumes(cursor, limit));
+    }
+
     @Operation(summary = "Get my resume by id (full)")
     @GetMapping("/{resumeId}")
     public ResponseEntity<ResumeResponseDto> getResumeById(@PathVariable Long resumeId) {
@@ -0,0 +1,89 @@
+package com.resumebuilder.ai_resume_api.controller.resume;
+
+import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.service.resume.ResumeDocumentLoader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conditional GET for a resume and its sections. Before the controller runs, the ETag is read
+ * from the stored resume document (one primary-key lookup): a section item's is its @Version,
+ * anything else under the resume gets the resume's. A matching If-None-Match ends the request
+ * with 304, so no entity is loaded and no DTO built; otherwise the tag goes out with the body.
+ * Tagged responses are marked private, no-cache so browsers keep them and revalidate, in place
+ * of Spring Security's no-store. Resumes without a stored document yet are served unconditionally.
+ */
+@Component
+public class ResumeETagInterceptor implements HandlerInterceptor {
+
+    private static final String RESUME = "/api/resumes/{resumeId}";
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    // URL segment of a section -> its list in the resume document
+    private static final Map<String, String> LISTS = Map.ofEntries(
+            Map.entry("experiences", "experiences"),
+            Map.entry("educations", "educations"),
+            Map.entry("projects", "projects"),
+            Map.entry("skills", "skills"),
+            Map.entry("categories", "skill_categories"),
+            Map.entry("awards", "awards"),
+            Map.entry("publications", "publications"),
+            Map.entry("patents", "patents"),
+            Map.entry("credentials", "credentials"),
+            Map.entry("courses", "courses"),
+            Map.entry("talks", "talks"),
+            Map.entry("volunteering", "volunteerings"),
+            Map.entry("references", "references"));
+
+    private final ResumeDocumentLoader documents;
+
+    public ResumeETagInterceptor(ResumeDocumentLoader documents) {
+        this.documents = documents;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod()))
+            return true;
+        Optional<String> etag = etag(request);
+        if (etag.isEmpty())
+            return true;
+        // Spring Security's cache headers are skipped once the response has its own
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(etag.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<String> etag(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String username = SecurityUtil.currentUsername();
+        if (pattern == null || vars == null || username == null || !pattern.startsWith(RESUME))
+            return Optional.empty();
+        String rest = pattern.substring(RESUME.length());
+        if (!rest.isEmpty() && !rest.startsWith("/"))
+            return Optional.empty();
+        try {
+            Long resumeId = Long.valueOf(vars.get("resumeId"));
+            String[] path = rest.isEmpty() ? new String[0] : rest.substring(1).split("/");
+            if (path.length > 0 && !LISTS.containsKey(path[0]))
+                return Optional.empty();
+            if (path.length == 2 && path[1].startsWith("{") && path[1].endsWith("}")) {
+                Long id = Long.valueOf(vars.get(path[1].substring(1, path[1].length() - 1)));
+                return documents.sectionETag(resumeId, username, LISTS.get(path[0]), id);
+            }
+            return documents.etag(resumeId, username);
+        } catch (NumberFormatException ex) {
+            return Optional.empty(); // the controller answers the bad id
+        }
+    }
+}
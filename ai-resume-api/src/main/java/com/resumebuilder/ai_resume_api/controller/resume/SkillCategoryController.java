@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.SkillCategoryDto;
 import com.resumebuilder.ai_resume_api.dto.resume.SkillCategoryResponseDto;
 import com.resumebuilder.ai_resume_api.service.resume.SkillCategoryService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -34,7 +35,7 @@ public class SkillCategoryController {
             @PathVariable Long categoryId,
             @Valid @RequestBody com.resumebuilder.ai_resume_api.dto.resume.SkillCategoryUpdateDto categoryDto) {
         var dto = categoryService.updateCategory(resumeId, categoryId, categoryDto);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
     }
 
     @Operation(summary = "Delete a skill category")
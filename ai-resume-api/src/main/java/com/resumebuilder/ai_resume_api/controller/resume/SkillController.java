@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.controller.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.SkillRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.SkillResponseDto;
 import com.resumebuilder.ai_resume_api.service.resume.SkillService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -34,7 +35,7 @@ public class SkillController {
             @PathVariable Long skillId,
             @Valid @RequestBody com.resumebuilder.ai_resume_api.dto.resume.SkillUpdateDto skillDto) {
         var dto = skillService.updateSkill(resumeId, skillId, skillDto);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
     }
 
     @Operation(summary = "Delete a skill")
@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.TalkRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.TalkResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.TalkUpdateDto;
 import com.resumebuilder.ai_resume_api.service.resume.TalkService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -49,7 +50,7 @@ public class TalkController {
             @PathVariable Long talkId,
             @Valid @RequestBody TalkUpdateDto dto) {
         var res = service.update(resumeId, talkId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a talk")
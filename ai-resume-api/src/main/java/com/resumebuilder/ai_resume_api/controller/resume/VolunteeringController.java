@@ -5,6 +5,7 @@ import com.resumebuilder.ai_resume_api.dto.resume.VolunteeringRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.VolunteeringResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.VolunteeringUpdateDto;
 import com.resumebuilder.ai_resume_api.service.resume.VolunteeringService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -50,7 +51,7 @@ public class VolunteeringController {
             @PathVariable Long volunteeringId,
             @Valid @RequestBody VolunteeringUpdateDto dto) {
         var res = service.update(resumeId, volunteeringId, dto);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res);
     }
 
     @Operation(summary = "Delete a volunteering entry")
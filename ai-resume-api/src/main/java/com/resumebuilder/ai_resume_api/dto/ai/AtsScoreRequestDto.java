@@ -16,8 +16,8 @@ import java.util.List;
         }
         """)
 public record AtsScoreRequestDto(
-        @NotBlank @Size(max = 128) String jobTitle,
-        @NotBlank @Size(max = 20000) String jobDescription,
+        @Size(max = 128) String jobTitle, // defaults to the posting's title when jobPostingId is set
+        @Size(max = 20000) String jobDescription, // required unless jobPostingId is set
 
         // For v1 we accept resumeText directly for simplicity.
         @NotBlank @Size(max = 30000) String resumeText,
@@ -27,5 +27,8 @@ public record AtsScoreRequestDto(
 
         // Optional: choose model routing key (primary/secondary/fallback/tiny or raw
         // id)
-        String model) {
+        String model,
+
+        // Optional: saved job posting to score against instead of jobDescription
+        Long jobPostingId) {
 }
\ No newline at end of file
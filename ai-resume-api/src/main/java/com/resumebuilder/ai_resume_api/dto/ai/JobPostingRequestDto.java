@@ -0,0 +1,16 @@
+package com.resumebuilder.ai_resume_api.dto.ai;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Save a job description for reuse. Saving the same text again returns the existing posting.", example = """
+        {
+          "title": "Software Engineer",
+          "description": "We are looking for a software engineer with experience in Java, Spring Boot and PostgreSQL..."
+        }
+        """)
+public record JobPostingRequestDto(
+        @Size(max = 128) String title,
+        @NotBlank @Size(max = 20000) String description) {
+}
@@ -0,0 +1,13 @@
+package com.resumebuilder.ai_resume_api.dto.ai;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JobPostingResponseDto(
+        Long id, // pass as jobPostingId to tailor / ATS score
+        String title,
+        String description,
+        List<String> keywords, // most frequent first
+        List<String> phrases, // recurring two-word terms
+        Instant createdAt) {
+}
@@ -1,10 +1,9 @@
 package com.resumebuilder.ai_resume_api.dto.ai;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
-@Schema(description = "Tailor resume to a job description. Reindexes chunks if requested.", example = """
+@Schema(description = "Tailor resume to a job description (or a saved job posting via jobPostingId). Reindexes chunks if requested.", example = """
         {
           "jobDescription": "We are looking for a software engineer with experience in Python and Flask...",
           "topK": 8,
@@ -14,10 +13,11 @@ import jakarta.validation.constraints.Size;
         }
         """)
 public record TailorRequestDto(
-        @NotBlank @Size(max = 20000) String jobDescription,
+        @Size(max = 20000) String jobDescription, // required unless jobPostingId is set
         Integer topK, // default 8
         Boolean reindex, // default false
         String tone, // PROFESSIONAL/TECHNICAL/FRIENDLY (optional)
-        String model // primary/secondary/fallback/tiny or raw model id
+        String model, // primary/secondary/fallback/tiny or raw model id
+        Long jobPostingId // saved posting; skips JD analysis and embedding
 ) {
 }
\ No newline at end of file
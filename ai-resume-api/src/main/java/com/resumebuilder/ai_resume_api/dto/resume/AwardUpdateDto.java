@@ -22,7 +22,7 @@ import java.time.LocalDate;
         }
         """)
 public record AwardUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @Size(max = 255) String title,
         @Size(max = 255) String issuer,
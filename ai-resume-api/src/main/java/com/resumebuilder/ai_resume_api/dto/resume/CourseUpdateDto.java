@@ -44,7 +44,7 @@ import java.util.List;
           ]
         }""")
 public record CourseUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @Size(max = 255) String title,
         @Size(max = 255) String provider,
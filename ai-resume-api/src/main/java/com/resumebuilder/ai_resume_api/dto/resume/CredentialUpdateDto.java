@@ -32,7 +32,7 @@ import java.util.List;
                   ]
         """)
 public record CredentialUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @Size(max = 255) String name,
 
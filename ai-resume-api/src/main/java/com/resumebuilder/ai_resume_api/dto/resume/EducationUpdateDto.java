@@ -1,7 +1,6 @@
 package com.resumebuilder.ai_resume_api.dto.resume;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.List;
@@ -46,7 +45,7 @@ import java.util.List;
 
             """)
 public record EducationUpdateDto(
-        @NotNull @Schema(description = "Current version for optimistic locking", example = "3") Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead", example = "3") Long version,
 
         @NotBlank(message = "Institution is required") String institution,
         String institutionWebsite,
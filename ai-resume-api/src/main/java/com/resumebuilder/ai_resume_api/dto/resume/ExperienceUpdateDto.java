@@ -1,7 +1,6 @@
 package com.resumebuilder.ai_resume_api.dto.resume;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 
 import java.time.LocalDate;
@@ -62,7 +61,7 @@ import java.math.BigDecimal;
         }
                 """)
 public record ExperienceUpdateDto(
-        @NotNull @Schema(description = "Current version for optimistic locking", example = "2") Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead", example = "2") Long version,
 
         @NotBlank(message = "Job Title is required") String jobTitle,
         @NotBlank(message = "Company Name is required") String companyName,
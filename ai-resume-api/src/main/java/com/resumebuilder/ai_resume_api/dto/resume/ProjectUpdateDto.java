@@ -1,7 +1,6 @@
 package com.resumebuilder.ai_resume_api.dto.resume;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 
 import java.math.BigDecimal;
@@ -9,7 +8,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 public record ProjectUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @NotBlank(message = "Title is required") String title,
 
@@ -46,7 +46,7 @@ import java.util.List;
         }
         """)
 public record PublicationUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @Size(max = 512) String title,
 
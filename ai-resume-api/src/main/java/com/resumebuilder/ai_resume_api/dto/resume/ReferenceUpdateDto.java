@@ -24,7 +24,7 @@ import java.time.LocalDate;
           "lastVerifiedOn": "2023-08-15"
         }""")
 public record ReferenceUpdateDto(
-        @NotNull Long version,
+        @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead") Long version,
 
         @Size(max = 255) String name,
         @Size(max = 255) String title,
@@ -0,0 +1,9 @@
+package com.resumebuilder.ai_resume_api.dto.resume;
+
+import java.util.List;
+
+/** One page of the resume listing; nextCursor is null on the last page. */
+public record ResumeSummaryPageDto(
+        List<ResumeSummaryDto> items,
+        String nextCursor) {
+}
@@ -1,14 +1,13 @@
 package com.resumebuilder.ai_resume_api.dto.resume;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.List;
 
 @Schema(description = "Update DTO for Resume with optimistic locking")
 public record ResumeUpdateDto(
-        @NotNull @Schema(description = "Current entity version for optimistic locking", example = "3") Long version,
+        @Schema(description = "Current entity version for optimistic locking; not needed when If-Match carries the ETag from GET", example = "3") Long version,
 
         @NotBlank(message = "Title is required") String title,
         @io.swagger.v3.oas.annotations.media.Schema(allowableValues = {
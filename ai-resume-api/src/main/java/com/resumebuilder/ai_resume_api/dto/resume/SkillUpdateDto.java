@@ -39,7 +39,7 @@ import java.util.List;
       ]
     }""")
 public record SkillUpdateDto(
-    @NotNull @Schema(description = "Current version for optimistic locking", example = "4") Long version,
+    @Schema(description = "Current version for optimistic locking; may be sent as If-Match instead", example = "4") Long version,
 
     @NotBlank(message = "Name is required") String name,
 
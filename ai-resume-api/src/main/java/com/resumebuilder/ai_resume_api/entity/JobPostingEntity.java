@@ -0,0 +1,69 @@
+package com.resumebuilder.ai_resume_api.entity;
+
+import com.resumebuilder.ai_resume_api.entity.base.AuditableEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A job description saved once per user (deduplicated by normalized-text hash) together with
+ * its extracted keywords, phrases and embedding, so AI endpoints can reuse it by id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = { "user", "embedding" })
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+@Entity
+@Table(name = "job_postings", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_job_postings_user_hash", columnNames = { "user_id", "text_hash" })
+})
+public class JobPostingEntity extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    @NotNull
+    @Column(name = "text_hash", nullable = false, length = 64)
+    private String textHash;
+
+    @Size(max = 128)
+    @Column(length = 128)
+    private String title;
+
+    @NotNull
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String description;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<String> keywords = new ArrayList<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<String> phrases = new ArrayList<>();
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "real[]")
+    private float[] embedding;
+
+    @Size(max = 128)
+    @Column(name = "embedding_model", length = 128)
+    private String embeddingModel;
+
+    @Column(name = "analysis_version", nullable = false)
+    private int analysisVersion;
+}
@@ -19,7 +19,7 @@ import java.time.LocalDate;
         @Index(name = "idx_awards_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_awards_resume_date", columnList = "resume_id, date_received")
 })
-public class AwardEntity {
+public class AwardEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,7 +23,7 @@ import java.util.List;
 @Table(name = "resume_courses", indexes = {
         @Index(name = "idx_rcourse_resume_order", columnList = "resume_id, display_order")
 })
-public class CourseEntity {
+public class CourseEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
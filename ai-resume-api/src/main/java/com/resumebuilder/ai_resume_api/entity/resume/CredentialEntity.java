@@ -22,7 +22,7 @@ import java.util.List;
         @Index(name = "idx_rc_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_rc_resume_issue_date", columnList = "resume_id, issue_date")
 })
-public class CredentialEntity {
+public class CredentialEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
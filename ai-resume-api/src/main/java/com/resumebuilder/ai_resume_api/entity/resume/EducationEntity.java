@@ -17,7 +17,7 @@ import java.util.List;
 @Table(name = "educations", indexes = {
         @Index(name = "idx_edu_resume", columnList = "resume_id")
 })
-public class EducationEntity {
+public class EducationEntity implements ResumePart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
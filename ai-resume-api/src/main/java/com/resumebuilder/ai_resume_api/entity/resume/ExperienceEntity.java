@@ -24,7 +24,7 @@ import java.util.List;
         @Index(name = "idx_exp_company", columnList = "company_name"),
         @Index(name = "idx_exp_employment_type", columnList = "employment_type")
 })
-public class ExperienceEntity {
+public class ExperienceEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,7 +22,7 @@ import java.util.List;
         @Index(name = "idx_patents_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_patents_resume_status_date", columnList = "resume_id, status, grant_date")
 })
-public class PatentEntity {
+public class PatentEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,7 +23,7 @@ import java.util.List;
         @Index(name = "idx_projects_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_projects_resume_typedate", columnList = "resume_id, project_type, start_date")
 })
-public class ProjectEntity {
+public class ProjectEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,7 +21,7 @@ import java.util.List;
         @Index(name = "idx_publications_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_publications_resume_type", columnList = "resume_id, publication_type")
 })
-public class PublicationEntity {
+public class PublicationEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
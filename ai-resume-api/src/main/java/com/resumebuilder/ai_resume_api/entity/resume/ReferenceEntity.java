@@ -18,7 +18,7 @@ import java.time.LocalDate;
 @Table(name = "resume_references", indexes = {
         @Index(name = "idx_rref_resume_order", columnList = "resume_id, display_order")
 })
-public class ReferenceEntity {
+public class ReferenceEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,7 +14,7 @@ import lombok.*;
 @Table(name = "resume_custom_links", indexes = {
         @Index(name = "idx_rcl_resume", columnList = "resume_id")
 })
-public class ResumeCustomLinkEntity {
+public class ResumeCustomLinkEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
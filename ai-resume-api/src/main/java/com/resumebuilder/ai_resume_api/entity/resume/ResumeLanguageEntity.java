@@ -16,7 +16,7 @@ import lombok.*;
 }, indexes = {
         @Index(name = "idx_rl_resume", columnList = "resume_id")
 })
-public class ResumeLanguageEntity {
+public class ResumeLanguageEntity implements ResumePart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
@@ -0,0 +1,7 @@
+package com.resumebuilder.ai_resume_api.entity.resume;
+
+/** An entity stored as part of one resume, so its writes change that resume's document. */
+public interface ResumePart {
+
+    ResumeEntity getResume();
+}
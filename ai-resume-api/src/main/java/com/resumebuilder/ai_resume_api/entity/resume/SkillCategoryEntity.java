@@ -19,7 +19,7 @@ import java.util.List;
 }, indexes = {
         @Index(name = "idx_sc_resume", columnList = "resume_id")
 })
-public class SkillCategoryEntity {
+public class SkillCategoryEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,7 +19,7 @@ import java.util.List;
         @Index(name = "idx_sk_resume", columnList = "resume_id"),
         @Index(name = "idx_sk_category", columnList = "category_id")
 })
-public class SkillEntity {
+public class SkillEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,7 +23,7 @@ import java.util.List;
         @Index(name = "idx_rt_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_rt_resume_start_date", columnList = "resume_id, start_date")
 })
-public class TalkEntity {
+public class TalkEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
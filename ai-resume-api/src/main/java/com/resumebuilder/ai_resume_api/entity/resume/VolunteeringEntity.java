@@ -25,7 +25,7 @@ import java.util.List;
         @Index(name = "idx_rvol_resume_order", columnList = "resume_id, display_order"),
         @Index(name = "idx_rvol_resume_start_date", columnList = "resume_id, start_date")
 })
-public class VolunteeringEntity {
+public class VolunteeringEntity implements ResumePart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +29,7 @@ public enum ErrorCode {
     FOREIGN_KEY_VIOLATION,
     CHECK_VIOLATION,
     OPTIMISTIC_LOCK,
+    PRECONDITION_FAILED,
     STALE_OBJECT,
 
     // Generic
@@ -61,6 +61,11 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, ErrorCode.OPTIMISTIC_LOCK, ex.getMessage(), req, ex, null);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest req) {
+        return build(HttpStatus.PRECONDITION_FAILED, ErrorCode.PRECONDITION_FAILED, ex.getMessage(), req, ex, null);
+    }
+
     // --------- Validation / Binding ---------
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
@@ -0,0 +1,8 @@
+package com.resumebuilder.ai_resume_api.exception;
+
+/** An If-Match that no longer names the current version; answered with 412. */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
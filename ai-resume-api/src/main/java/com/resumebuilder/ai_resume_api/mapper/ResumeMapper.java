@@ -147,20 +147,6 @@ public interface ResumeMapper {
     java.util.List<com.resumebuilder.ai_resume_api.dto.resume.ReferenceResponseDto> toReferenceDtoList(
             java.util.List<ReferenceEntity> list);
 
-    // Summaries
-    default ResumeSummaryDto toSummary(ResumeEntity r) {
-        return new ResumeSummaryDto(
-                r.getId(),
-                r.getTitle(),
-                r.getUpdatedAt(),
-                r.getResumeType().name(),
-                r.getBaseResume() != null ? r.getBaseResume().getId() : null);
-    }
-
-    default List<ResumeSummaryDto> toSummaryList(List<ResumeEntity> list) {
-        return list == null ? java.util.List.of() : list.stream().map(this::toSummary).toList();
-    }
-
     // <-------------------------------------------------------------------- Enum ->
     // String conversions for responses
     // ---------------------------------------------------------------
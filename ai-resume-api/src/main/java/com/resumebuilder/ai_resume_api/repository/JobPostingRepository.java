@@ -0,0 +1,16 @@
+package com.resumebuilder.ai_resume_api.repository;
+
+import com.resumebuilder.ai_resume_api.entity.JobPostingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobPostingRepository extends JpaRepository<JobPostingEntity, Long> {
+
+    // Owner-scoped fetch
+    Optional<JobPostingEntity> findByIdAndUser_Username(Long id, String username);
+
+    Optional<JobPostingEntity> findByUser_IdAndTextHash(Long userId, String textHash);
+}
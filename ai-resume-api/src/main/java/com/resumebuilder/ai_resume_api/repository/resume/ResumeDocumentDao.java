@@ -0,0 +1,307 @@
+package com.resumebuilder.ai_resume_api.repository.resume;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A whole resume as one JSON document, built in a single query with jsonb aggregation instead
+ * of one select per lazy collection. Each row is to_jsonb(row), so keys are the column names
+ * (snake_case of the entity properties); columns named differently from their property
+ * (is_primary, is_predefined, is_virtual, abstract, link_type) are added under the property's
+ * name. Collections are nested under their property name in the entities' @OrderBy /
+ * @OrderColumn order.
+ *
+ * The documents are stored in resume_documents by {@link ResumeDocumentListener} as resumes
+ * are written, so reads are a primary-key lookup; a resume without one yet is built here.
+ */
+@Repository
+public class ResumeDocumentDao {
+
+    // Collections of a skill, shared by resumes.skills and skill_categories.skills; needs a CTE r
+    private static final String SKILLS = """
+            sk AS (
+                SELECT s.id, s.resume_id, s.category_id, s.display_order,
+                       to_jsonb(s) || jsonb_build_object(
+                           'primary', s.is_primary,
+                           'keywords', (SELECT coalesce(jsonb_agg(k.keyword ORDER BY k.tag_order), '[]')
+                                        FROM skill_keywords k WHERE k.skill_id = s.id),
+                           'certifications', (SELECT coalesce(jsonb_agg(to_jsonb(c) ORDER BY c.id), '[]')
+                                              FROM certifications c WHERE c.skill_id = s.id)) AS doc
+                FROM skills s JOIN r ON s.resume_id = r.id
+            )
+            """;
+
+    // The document of one row of r
+    private static final String DOCUMENT = """
+            (to_jsonb(r) || jsonb_build_object(
+                'links', (SELECT coalesce(jsonb_agg(to_jsonb(l) ORDER BY l.display_order, l.id), '[]')
+                          FROM resume_custom_links l WHERE l.resume_id = r.id),
+                'target_roles', (SELECT coalesce(jsonb_agg(t.target_role), '[]')
+                                 FROM resume_target_roles t WHERE t.resume_id = r.id),
+                'languages', (SELECT coalesce(jsonb_agg(to_jsonb(l) ORDER BY l.id), '[]')
+                              FROM resume_languages l WHERE l.resume_id = r.id),
+                'skills', (SELECT coalesce(jsonb_agg(sk.doc ORDER BY sk.display_order, sk.id), '[]')
+                           FROM sk WHERE sk.resume_id = r.id),
+                'skill_categories', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(c) || jsonb_build_object(
+                               'predefined', c.is_predefined,
+                               'skills', (SELECT coalesce(jsonb_agg(sk.doc ORDER BY sk.display_order, sk.id), '[]')
+                                          FROM sk WHERE sk.category_id = c.id))
+                           ORDER BY c.display_order, c.id), '[]')
+                    FROM skill_categories c WHERE c.resume_id = r.id),
+                'experiences', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(e) || jsonb_build_object(
+                               'responsibilities', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                                    FROM experience_responsibilities x WHERE x.experience_id = e.id),
+                               'achievements', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                                FROM experience_achievements x WHERE x.experience_id = e.id),
+                               'technologies', (SELECT coalesce(jsonb_agg(x.tag ORDER BY x.tag_order), '[]')
+                                                FROM experience_technologies x WHERE x.experience_id = e.id),
+                               'methods', (SELECT coalesce(jsonb_agg(x.tag ORDER BY x.tag_order), '[]')
+                                           FROM experience_methods x WHERE x.experience_id = e.id),
+                               'links', (SELECT coalesce(jsonb_agg(to_jsonb(x) ORDER BY x.display_order), '[]')
+                                         FROM experience_links x WHERE x.experience_id = e.id))
+                           ORDER BY e.display_order, e.start_date DESC, e.id), '[]')
+                    FROM experiences e WHERE e.resume_id = r.id),
+                'educations', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(e) || jsonb_build_object(
+                               'courses', (SELECT coalesce(jsonb_agg(x.course), '[]')
+                                           FROM education_courses x WHERE x.education_id = e.id),
+                               'awards', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                          FROM education_awards x WHERE x.education_id = e.id),
+                               'projects', (SELECT coalesce(jsonb_agg(to_jsonb(x) ORDER BY x.display_order), '[]')
+                                            FROM education_projects x WHERE x.education_id = e.id))
+                           ORDER BY e.display_order, e.id), '[]')
+                    FROM educations e WHERE e.resume_id = r.id),
+                'projects', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(pr) || jsonb_build_object(
+                               'technologies', (SELECT coalesce(jsonb_agg(x.tag ORDER BY x.tag_order), '[]')
+                                                FROM project_technologies x WHERE x.project_id = pr.id),
+                               'features', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                            FROM project_features x WHERE x.project_id = pr.id),
+                               'links', (SELECT coalesce(jsonb_agg(jsonb_build_object(
+                                                 'type', x.link_type, 'title', x.title, 'url', x.url)
+                                             ORDER BY x.display_order), '[]')
+                                         FROM project_links x WHERE x.project_id = pr.id),
+                               'media', (SELECT coalesce(jsonb_agg(to_jsonb(x) ORDER BY x.display_order), '[]')
+                                         FROM project_media x WHERE x.project_id = pr.id))
+                           ORDER BY pr.display_order, pr.id), '[]')
+                    FROM projects pr WHERE pr.resume_id = r.id),
+                'awards', (SELECT coalesce(jsonb_agg(to_jsonb(a) ORDER BY a.display_order, a.id), '[]')
+                           FROM awards a WHERE a.resume_id = r.id),
+                'publications', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(pu) || jsonb_build_object(
+                               'authors', (SELECT coalesce(jsonb_agg(x.full_name ORDER BY x.author_order), '[]')
+                                           FROM publication_authors x WHERE x.publication_id = pu.id),
+                               'keywords', (SELECT coalesce(jsonb_agg(x.keyword ORDER BY x.tag_order), '[]')
+                                            FROM publication_keywords x WHERE x.publication_id = pu.id))
+                           ORDER BY pu.display_order, pu.id), '[]')
+                    FROM publications pu WHERE pu.resume_id = r.id),
+                'patents', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(pa) || jsonb_build_object(
+                               'inventors', (SELECT coalesce(jsonb_agg(x.full_name ORDER BY x.name_order), '[]')
+                                             FROM patent_inventors x WHERE x.patent_id = pa.id),
+                               'assignees', (SELECT coalesce(jsonb_agg(x.organization ORDER BY x.name_order), '[]')
+                                             FROM patent_assignees x WHERE x.patent_id = pa.id),
+                               'ipc_classes', (SELECT coalesce(jsonb_agg(x.code ORDER BY x.tag_order), '[]')
+                                               FROM patent_ipc_classes x WHERE x.patent_id = pa.id),
+                               'cpc_classes', (SELECT coalesce(jsonb_agg(x.code ORDER BY x.tag_order), '[]')
+                                               FROM patent_cpc_classes x WHERE x.patent_id = pa.id),
+                               'links', (SELECT coalesce(jsonb_agg(jsonb_build_object(
+                                                 'type', x.link_type, 'title', x.title, 'url', x.url)
+                                             ORDER BY x.display_order), '[]')
+                                         FROM patent_links x WHERE x.patent_id = pa.id))
+                           ORDER BY pa.display_order, pa.id), '[]')
+                    FROM patents pa WHERE pa.resume_id = r.id),
+                'credentials', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(c) || jsonb_build_object(
+                               'keywords', (SELECT coalesce(jsonb_agg(x.keyword ORDER BY x.tag_order), '[]')
+                                            FROM resume_credential_keywords x WHERE x.credential_id = c.id))
+                           ORDER BY c.display_order, c.id), '[]')
+                    FROM resume_credentials c WHERE c.resume_id = r.id),
+                'courses', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(c) || jsonb_build_object(
+                               'instructors', (SELECT coalesce(jsonb_agg(x.full_name ORDER BY x.name_order), '[]')
+                                               FROM resume_course_instructors x WHERE x.course_id = c.id),
+                               'topics', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                          FROM resume_course_topics x WHERE x.course_id = c.id),
+                               'links', (SELECT coalesce(jsonb_agg(jsonb_build_object(
+                                                 'type', x.link_type, 'title', x.title, 'url', x.url)
+                                             ORDER BY x.display_order), '[]')
+                                         FROM resume_course_links x WHERE x.course_id = c.id))
+                           ORDER BY c.display_order, c.id), '[]')
+                    FROM resume_courses c WHERE c.resume_id = r.id),
+                'talks', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(t) || jsonb_build_object(
+                               'virtual', t.is_virtual,
+                               'abstract_text', t.abstract,
+                               'co_speakers', (SELECT coalesce(jsonb_agg(x.full_name ORDER BY x.name_order), '[]')
+                                               FROM resume_talk_speakers x WHERE x.talk_id = t.id),
+                               'keywords', (SELECT coalesce(jsonb_agg(x.keyword ORDER BY x.tag_order), '[]')
+                                            FROM resume_talk_keywords x WHERE x.talk_id = t.id),
+                               'links', (SELECT coalesce(jsonb_agg(jsonb_build_object(
+                                                 'type', x.link_type, 'title', x.title, 'url', x.url)
+                                             ORDER BY x.display_order), '[]')
+                                         FROM resume_talk_links x WHERE x.talk_id = t.id))
+                           ORDER BY t.display_order, t.id), '[]')
+                    FROM resume_talks t WHERE t.resume_id = r.id),
+                'volunteerings', (
+                    SELECT coalesce(jsonb_agg(to_jsonb(v) || jsonb_build_object(
+                               'responsibilities', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                                    FROM resume_volunteer_responsibilities x WHERE x.volunteering_id = v.id),
+                               'impacts', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                           FROM resume_volunteer_impacts x WHERE x.volunteering_id = v.id),
+                               'mentees', (SELECT coalesce(jsonb_agg(x.full_name ORDER BY x.name_order), '[]')
+                                           FROM resume_volunteer_mentees x WHERE x.volunteering_id = v.id),
+                               'events', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                          FROM resume_volunteer_events x WHERE x.volunteering_id = v.id),
+                               'teaching_topics', (SELECT coalesce(jsonb_agg(x.line_text ORDER BY x.line_order), '[]')
+                                                   FROM resume_volunteer_teaching_topics x WHERE x.volunteering_id = v.id),
+                               'keywords', (SELECT coalesce(jsonb_agg(x.keyword ORDER BY x.tag_order), '[]')
+                                            FROM resume_volunteer_keywords x WHERE x.volunteering_id = v.id),
+                               'reference_urls', (SELECT coalesce(jsonb_agg(x.url ORDER BY x.url_order), '[]')
+                                                  FROM resume_volunteer_reference_urls x WHERE x.volunteering_id = v.id),
+                               'links', (SELECT coalesce(jsonb_agg(jsonb_build_object(
+                                                 'type', x.link_type, 'title', x.title, 'url', x.url)
+                                             ORDER BY x.display_order), '[]')
+                                         FROM resume_volunteer_links x WHERE x.volunteering_id = v.id))
+                           ORDER BY v.display_order, v.id), '[]')
+                    FROM resume_volunteering v WHERE v.resume_id = r.id),
+                'references', (SELECT coalesce(jsonb_agg(to_jsonb(rf) ORDER BY rf.display_order, rf.id), '[]')
+                               FROM resume_references rf WHERE rf.resume_id = r.id)
+            ))
+            """;
+
+    private static final String BUILD_FOR_USER = """
+            WITH params AS (
+                SELECT ?::bigint AS resume_id, ?::text AS username
+            ),
+            r AS (
+                SELECT r.*
+                FROM resumes r
+                JOIN users u ON u.id = r.user_id
+                JOIN params p ON r.id = p.resume_id AND u.username = p.username
+            ),
+            """ + SKILLS + "SELECT (" + DOCUMENT + ")::text FROM r";
+
+    private static final String BUILD = """
+            WITH r AS (
+                SELECT * FROM resumes WHERE id = ?
+            ),
+            """ + SKILLS + "SELECT (" + DOCUMENT + ")::text FROM r";
+
+    private static final String SNAPSHOT_FOR_USER = """
+            SELECT d.document::text
+            FROM resume_documents d
+            JOIN resumes r ON r.id = d.resume_id
+            JOIN users u ON u.id = r.user_id
+            WHERE d.resume_id = ? AND u.username = ?
+            """;
+
+    private static final String ETAG_FOR_USER = """
+            SELECT d.etag
+            FROM resume_documents d
+            JOIN resumes r ON r.id = d.resume_id
+            JOIN users u ON u.id = r.user_id
+            WHERE d.resume_id = ? AND u.username = ?
+            """;
+
+    private static final String VERSION_FOR_USER = """
+            SELECT jsonb_path_query_first(d.document -> ?::text, '$[*] ? (@.id == $id).version',
+                                          jsonb_build_object('id', ?::bigint))::text
+            FROM resume_documents d
+            JOIN resumes r ON r.id = d.resume_id
+            JOIN users u ON u.id = r.user_id
+            WHERE d.resume_id = ? AND u.username = ?
+            """;
+
+    private static final String SNAPSHOT = "SELECT document::text FROM resume_documents WHERE resume_id = ?";
+
+    // Locks the resumes first: a refresh then reads every change committed before it, and two
+    // transactions editing the same resume write their documents one after the other
+    private static final String LOCK = "SELECT id FROM resumes WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE";
+
+    private static final String REFRESH = """
+            WITH r AS (
+                SELECT * FROM resumes WHERE id = ANY(?)
+            ),
+            """ + SKILLS + """
+            INSERT INTO resume_documents (resume_id, document, refreshed_at)
+            SELECT r.id, """ + DOCUMENT + """
+            , now() FROM r
+            ON CONFLICT (resume_id) DO UPDATE SET document = EXCLUDED.document, refreshed_at = EXCLUDED.refreshed_at
+            """;
+
+    // DO NOTHING: a writer that got there first has the newer document
+    private static final String BACKFILL = """
+            WITH r AS (
+                SELECT * FROM resumes x
+                WHERE NOT EXISTS (SELECT 1 FROM resume_documents d WHERE d.resume_id = x.id)
+                ORDER BY id LIMIT ?
+            ),
+            """ + SKILLS + """
+            INSERT INTO resume_documents (resume_id, document, refreshed_at)
+            SELECT r.id, """ + DOCUMENT + """
+            , now() FROM r
+            ON CONFLICT (resume_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ResumeDocumentDao(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** The resume as JSON if it exists and belongs to username: the stored document, else built. */
+    public Optional<String> findDocument(Long resumeId, String username) {
+        Optional<String> stored = first(SNAPSHOT_FOR_USER, resumeId, username);
+        return stored.isPresent() ? stored : first(BUILD_FOR_USER, resumeId, username);
+    }
+
+    /** Same without the owner check, for callers that have done it. */
+    public Optional<String> findDocument(Long resumeId) {
+        Optional<String> stored = first(SNAPSHOT, resumeId);
+        return stored.isPresent() ? stored : first(BUILD, resumeId);
+    }
+
+    /** The stored document's etag column if the resume belongs to username; empty if none is stored. */
+    public Optional<String> findETag(Long resumeId, String username) {
+        return first(ETAG_FOR_USER, resumeId, username);
+    }
+
+    /**
+     * The @Version of the element with the given id in one of the stored document's lists
+     * (its key, e.g. "experiences"), without reading the section's table.
+     */
+    public Optional<Long> findVersion(Long resumeId, String username, String list, Long id) {
+        return first(VERSION_FOR_USER, list, id, resumeId, username).map(Long::valueOf);
+    }
+
+    /**
+     * Rewrites the stored documents of the given resumes on the connection, i.e. in its
+     * transaction. Resumes that no longer exist are skipped; their documents went with them.
+     */
+    public void refresh(Connection connection, Collection<Long> resumeIds) throws SQLException {
+        var tx = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        Array ids = connection.createArrayOf("bigint", resumeIds.toArray());
+        tx.query(LOCK, rs -> {
+        }, ids);
+        tx.update(REFRESH, ids);
+    }
+
+    /** Stores documents for up to batchSize resumes that have none; returns how many. */
+    public int backfill(int batchSize) {
+        return jdbc.update(BACKFILL, batchSize);
+    }
+
+    private Optional<String> first(String sql, Object... args) {
+        return jdbc.query(sql, (rs, rowNum) -> rs.getString(1), args).stream().findFirst();
+    }
+}
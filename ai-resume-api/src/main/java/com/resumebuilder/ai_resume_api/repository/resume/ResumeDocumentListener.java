@@ -0,0 +1,106 @@
+package com.resumebuilder.ai_resume_api.repository.resume;
+
+import com.resumebuilder.ai_resume_api.entity.resume.CertificationEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumePart;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps resume_documents in step with the entities. Every insert, update or delete of a resume
+ * or one of its parts marks the resume; the marked resumes' documents are rewritten once per
+ * transaction, after Hibernate's final flush and before the commit, on the same connection, so
+ * a document never shows a state that was not committed. Changes to a part's element
+ * collections count too, since they raise the owner's @Version.
+ */
+@Component
+public class ResumeDocumentListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ResumeDocumentDao dao;
+    private final Map<SharedSessionContractImplementor, Refresh> pending = new ConcurrentHashMap<>();
+
+    public ResumeDocumentListener(EntityManagerFactory entityManagerFactory, ResumeDocumentDao dao) {
+        this.dao = dao;
+        var registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        mark(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        mark(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        mark(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void mark(EventSource session, Object entity) {
+        Long resumeId = resumeId(entity);
+        if (resumeId == null)
+            return;
+        pending.computeIfAbsent(session, s -> {
+            var refresh = new Refresh();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) refresh);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) refresh);
+            return refresh;
+        }).resumeIds.add(resumeId);
+    }
+
+    static Long resumeId(Object entity) {
+        if (entity instanceof CertificationEntity c)
+            entity = c.getSkill();
+        ResumeEntity resume = entity instanceof ResumeEntity r ? r
+                : entity instanceof ResumePart p ? p.getResume() : null;
+        return resume == null ? null : resume.getId();
+    }
+
+    // One per session and transaction; ids sorted so concurrent refreshes lock in the same order
+    private final class Refresh implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        private final Set<Long> resumeIds = new TreeSet<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            session.doWork(connection -> dao.refresh(connection, resumeIds));
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(session);
+        }
+    }
+}
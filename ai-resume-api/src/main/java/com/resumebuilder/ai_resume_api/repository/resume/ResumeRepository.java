@@ -1,22 +1,40 @@
 package com.resumebuilder.ai_resume_api.repository.resume;
 
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto;
 import com.resumebuilder.ai_resume_api.entity.resume.*;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.resumebuilder.ai_resume_api.enums.ResumeType;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface ResumeRepository extends JpaRepository<ResumeEntity, Long> {
 
-    // Owner-scoped listings
-    List<ResumeEntity> findAllByUser_UsernameOrderByUpdatedAtDesc(String username);
-
-    Page<ResumeEntity> findAllByUser_UsernameOrderByUpdatedAtDesc(String username, Pageable pageable);
+    // Owner-scoped listings of summary columns only, newest first, on idx_resumes_user_updated_id.
+    // Keyset pages continue after the (updatedAt, id) of the previous page's last row; id breaks ties
+    @Query("""
+            SELECT new com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto(
+                r.id, r.title, r.updatedAt, cast(r.resumeType as String), r.baseResume.id)
+            FROM ResumeEntity r
+            WHERE r.user.username = :username
+            ORDER BY r.updatedAt DESC, r.id DESC
+            """)
+    List<ResumeSummaryDto> findSummaries(@Param("username") String username, Limit limit);
+
+    @Query("""
+            SELECT new com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto(
+                r.id, r.title, r.updatedAt, cast(r.resumeType as String), r.baseResume.id)
+            FROM ResumeEntity r
+            WHERE r.user.username = :username
+              AND (r.updatedAt, r.id) < (:updatedAt, :id)
+            ORDER BY r.updatedAt DESC, r.id DESC
+            """)
+    List<ResumeSummaryDto> findSummariesAfter(@Param("username") String username,
+            @Param("updatedAt") Instant updatedAt, @Param("id") Long id, Limit limit);
 
     // Owner-scoped fetch
     Optional<ResumeEntity> findByIdAndUser_Username(Long id, String username);
@@ -0,0 +1,112 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import org.postgresql.core.BaseConnection;
+import org.postgresql.util.ByteConverter;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A pgvector "vector" value for JDBC. On connections prepared by {@link #register} it is sent
+ * in pgvector's binary format (int16 dims, int16 unused, dims big-endian float4) instead of a
+ * "[0.1,...]" literal the server has to parse, and vector columns come back as PgVector
+ * (binary once the driver has server-prepared the statement, text before that).
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    private static final int HEADER_BYTES = 4;
+
+    private float[] vec;
+
+    public PgVector() {
+        setType("vector");
+    }
+
+    public PgVector(float[] vec) {
+        this();
+        this.vec = vec;
+    }
+
+    /** The components; null for SQL NULL. */
+    public float[] toArray() {
+        return vec;
+    }
+
+    /**
+     * Registers the type and enables binary send and receive for it on this connection.
+     * Cheap once done; returns false for connections that are not PgJDBC, which keep the
+     * text format.
+     */
+    public static boolean register(Connection con) throws SQLException {
+        if (!con.isWrapperFor(BaseConnection.class))
+            return false;
+        BaseConnection pg = con.unwrap(BaseConnection.class);
+        int oid = pg.getTypeInfo().getPGType("vector"); // cached per connection after the first lookup
+        if (!pg.binaryTransferSend(oid)) {
+            pg.addDataType("vector", PgVector.class);
+            pg.getQueryExecutor().addBinarySendOid(oid);
+            pg.getQueryExecutor().addBinaryReceiveOid(oid);
+        }
+        return true;
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return vec == null ? 0 : HEADER_BYTES + 4 * vec.length;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteConverter.int2(bytes, offset, vec.length);
+        ByteConverter.int2(bytes, offset + 2, 0);
+        for (int i = 0, at = offset + HEADER_BYTES; i < vec.length; i++, at += 4)
+            ByteConverter.float4(bytes, at, vec[i]);
+    }
+
+    @Override
+    public void setByteValue(byte[] value, int offset) {
+        int dims = ByteConverter.int2(value, offset);
+        vec = new float[dims];
+        for (int i = 0, at = offset + HEADER_BYTES; i < dims; i++, at += 4)
+            vec[i] = ByteConverter.float4(value, at);
+    }
+
+    // Text format, used when binary transfer is not enabled on the connection
+    @Override
+    public String getValue() {
+        if (vec == null)
+            return null;
+        StringBuilder sb = new StringBuilder(vec.length * 12);
+        sb.append('[');
+        for (int i = 0; i < vec.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(vec[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public void setValue(String value) {
+        if (value == null) {
+            vec = null;
+            return;
+        }
+        String body = value.substring(value.indexOf('[') + 1, value.lastIndexOf(']'));
+        if (body.isBlank()) {
+            vec = new float[0];
+            return;
+        }
+        String[] parts = body.split(",");
+        vec = new float[parts.length];
+        for (int i = 0; i < parts.length; i++)
+            vec[i] = Float.parseFloat(parts[i].trim());
+    }
+
+    @Override
+    public boolean isNull() {
+        return vec == null;
+    }
+}
@@ -1,84 +1,293 @@
 package com.resumebuilder.ai_resume_api.repository.vector;
 
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Repository
 public class ResumeChunkDao {
 
+    // The k nearest (id, distance) of one resume against params.q; binds (resumeId, k). An exact
+    // scan: a resume has a few hundred chunks, and a global ANN index cannot take the resume_id filter
+    private static final String ANN = """
+            SELECT c.id, cc.embedding <=> p.q AS distance
+            FROM resume_chunks c
+            JOIN chunk_contents cc ON cc.id = c.content_id
+            CROSS JOIN params p
+            WHERE c.resume_id = ?
+            ORDER BY distance
+            LIMIT ?
+            """;
+
     private final JdbcTemplate jdbc;
 
     public ResumeChunkDao(JdbcTemplate jdbc) {
         this.jdbc = jdbc;
     }
 
+    /** Removes the resume's chunks, and the contents no other resume shares. */
+    @Transactional
     public void deleteByResumeId(Long resumeId) {
-        jdbc.update("DELETE FROM resume_chunks WHERE resume_id = ?", resumeId);
+        deleteOrphans(jdbc.queryForList("DELETE FROM resume_chunks WHERE resume_id = ? RETURNING content_id",
+                Long.class, resumeId));
+    }
+
+    /**
+     * Swaps the resume's chunks for these in one transaction. Contents are written before the
+     * old chunks are removed, so text the resume keeps is never deleted and re-inserted.
+     */
+    @Transactional
+    public void replaceAll(Long resumeId, String model, List<ResumeVectorIndex.Chunk> chunks) {
+        List<Long> old = jdbc.queryForList("SELECT id FROM resume_chunks WHERE resume_id = ?", Long.class, resumeId);
+        insertAll(resumeId, model, chunks);
+        if (old.isEmpty())
+            return;
+        deleteOrphans(jdbc.queryForList("DELETE FROM resume_chunks WHERE id = ANY(?) RETURNING content_id",
+                Long.class, (Object) old.toArray(Long[]::new)));
     }
 
     public void insert(Long resumeId, String section, String refType, Long refId, int partOrder, String content,
-            float[] embedding) {
-        // Pass vector as text literal '[..]' and cast to ::vector
-        String vec = toVectorLiteral(embedding);
-        String sql = """
-                INSERT INTO resume_chunks (resume_id, section, ref_type, ref_id, part_order, content, embedding)
-                VALUES (?, ?, ?, ?, ?, ?, ?::vector)
+            float[] embedding, String chunking, String model) {
+        insertAll(resumeId, model, List.of(new ResumeVectorIndex.Chunk(null, section, refType, refId, partOrder,
+                content, embedding, chunking)));
+    }
+
+    /**
+     * Two JDBC batches: each distinct content is upserted into chunk_contents by hash (its
+     * vectors replaced only when they came from another model), then one resume_chunks row per
+     * chunk points at it. Vectors go in pgvector's binary format.
+     */
+    @Transactional
+    public void insertAll(Long resumeId, String model, List<ResumeVectorIndex.Chunk> chunks) {
+        String upsert = """
+                INSERT INTO chunk_contents (content_hash, content, model, embedding)
+                VALUES (?, ?, ?, ?::vector)
+                ON CONFLICT (content_hash) DO UPDATE
+                SET model = EXCLUDED.model, embedding = EXCLUDED.embedding
+                WHERE chunk_contents.model IS DISTINCT FROM EXCLUDED.model
                 """;
-        jdbc.update(con -> {
-            PreparedStatement ps = con.prepareStatement(sql);
-            ps.setLong(1, resumeId);
-            ps.setString(2, section);
-            ps.setString(3, refType);
-            if (refId == null)
-                ps.setNull(4, java.sql.Types.BIGINT);
-            else
-                ps.setLong(4, refId);
-            ps.setInt(5, partOrder);
-            ps.setString(6, content);
-            ps.setString(7, vec);
-            return ps;
+        String member = """
+                INSERT INTO resume_chunks (resume_id, section, ref_type, ref_id, part_order, chunking, content_id)
+                SELECT ?, ?, ?, ?, ?, ?, cc.id
+                FROM chunk_contents cc
+                WHERE cc.content_hash = ?
+                """;
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            PgVector.register(con);
+            Map<String, byte[]> hashes = new LinkedHashMap<>();
+            try (PreparedStatement ps = con.prepareStatement(upsert)) {
+                for (var ch : chunks) {
+                    if (hashes.containsKey(ch.content()))
+                        continue;
+                    byte[] hash = contentHash(ch.content());
+                    hashes.put(ch.content(), hash);
+                    ps.setBytes(1, hash);
+                    ps.setString(2, ch.content());
+                    ps.setString(3, model);
+                    ps.setObject(4, new PgVector(ch.embedding()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            // The upsert locked every content row, so a concurrent orphan delete cannot drop one in between
+            try (PreparedStatement ps = con.prepareStatement(member)) {
+                for (var ch : chunks) {
+                    ps.setLong(1, resumeId);
+                    ps.setString(2, ch.section());
+                    ps.setString(3, ch.refType());
+                    if (ch.refId() == null)
+                        ps.setNull(4, java.sql.Types.BIGINT);
+                    else
+                        ps.setLong(4, ch.refId());
+                    ps.setInt(5, ch.partOrder());
+                    ps.setString(6, ch.chunking());
+                    ps.setBytes(7, hashes.get(ch.content()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
         });
     }
 
-    public List<Map<String, Object>> topK(float[] queryEmbedding, int k) {
-        String vec = toVectorLiteral(queryEmbedding);
+    /**
+     * Stored embeddings for those of the contents some resume already has, keyed by content,
+     * so a reindex only embeds new text. Vectors of another model are not returned; legacy
+     * rows without a model are taken as the current one's.
+     */
+    public Map<String, float[]> findEmbeddings(String model, Collection<String> contents) {
+        if (contents.isEmpty())
+            return Map.of();
+        byte[][] hashes = contents.stream().distinct().map(ResumeChunkDao::contentHash).toArray(byte[][]::new);
         String sql = """
-                SELECT id, resume_id, section, ref_type, ref_id, part_order, content,
-                       (embedding <=> ?::vector) AS distance
-                FROM resume_chunks
-                ORDER BY embedding <=> ?::vector
-                LIMIT ?
+                SELECT content, embedding
+                FROM chunk_contents
+                WHERE content_hash = ANY(?)
+                  AND embedding IS NOT NULL
+                  AND (model IS NULL OR model = ?)
                 """;
-        return jdbc.queryForList(sql, vec, vec, k);
+        Map<String, float[]> out = new HashMap<>();
+        for (var r : query(sql, hashes, model))
+            out.put((String) r.get("content"), (float[]) r.get("embedding"));
+        return out;
+    }
+
+    /** Deletes contents no resume_chunks row points at any more, in batches; returns how many went. */
+    public int deleteOrphanContents(int batchSize) {
+        return jdbc.update("""
+                DELETE FROM chunk_contents
+                WHERE id IN (
+                    SELECT cc.id FROM chunk_contents cc
+                    WHERE NOT EXISTS (SELECT 1 FROM resume_chunks rc WHERE rc.content_id = cc.id)
+                    LIMIT ?
+                )
+                """, batchSize);
+    }
+
+    // Of these content ids, deletes the ones nothing references any more
+    private void deleteOrphans(List<Long> contentIds) {
+        if (contentIds.isEmpty())
+            return;
+        jdbc.update("""
+                DELETE FROM chunk_contents cc
+                WHERE cc.id = ANY(?)
+                  AND NOT EXISTS (SELECT 1 FROM resume_chunks rc WHERE rc.content_id = cc.id)
+                """, (Object) contentIds.stream().distinct().toArray(Long[]::new));
     }
 
-    private String toVectorLiteral(float[] vec) {
-        StringBuilder sb = new StringBuilder();
-        sb.append('[');
-        for (int i = 0; i < vec.length; i++) {
-            if (i > 0)
-                sb.append(',');
-            sb.append(Float.toString(vec[i]));
+    static byte[] contentHash(String content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        sb.append(']');
-        return sb.toString();
+    }
+
+    // Every chunk of one resume with its embedding as float[], in chunking order (ResumeVectorIndex loads)
+    public List<Map<String, Object>> findByResumeId(Long resumeId) {
+        String sql = """
+                SELECT c.id, c.resume_id, c.section, c.ref_type, c.ref_id, c.part_order, cc.content, c.chunking,
+                       cc.embedding
+                FROM resume_chunks c
+                JOIN chunk_contents cc ON cc.id = c.content_id
+                WHERE c.resume_id = ?
+                ORDER BY c.id
+                """;
+        return query(sql, resumeId);
+    }
+
+    /** Nearest chunks of one resume; "embedding" comes back as float[] so callers can compare hits. */
+    public List<Map<String, Object>> topK(Long resumeId, float[] queryEmbedding, int k) {
+        PgVector vec = new PgVector(queryEmbedding);
+        String sql = """
+                WITH params AS (
+                    SELECT ?::vector AS q
+                ),
+                ann AS (%s)
+                SELECT c.id, c.resume_id, c.section, c.ref_type, c.ref_id, c.part_order, cc.content, c.chunking,
+                       cc.embedding,
+                       a.distance
+                FROM ann a
+                JOIN resume_chunks c ON c.id = a.id
+                JOIN chunk_contents cc ON cc.id = c.content_id
+                ORDER BY a.distance
+                """.formatted(ANN);
+        return query(sql, vec, resumeId, k);
+    }
+
+    /**
+     * Hybrid retrieval in one query: the k nearest chunks by embedding and the k best full-text
+     * matches for the terms (content_tsv, ts_rank_cd) are fused by reciprocal rank,
+     * sum(1 / (rrfK + rank)), and the top k by that score are returned with an extra "rrf" column.
+     * Chunks only one list found still score, so an exact skill match the embedding misses
+     * can make it into context.
+     */
+    public List<Map<String, Object>> hybridTopK(Long resumeId, float[] queryEmbedding, List<String> terms, int k,
+            int rrfK) {
+        PgVector vec = new PgVector(queryEmbedding);
+        String sql = """
+                WITH params AS (
+                    SELECT ?::vector AS q, websearch_to_tsquery('english', ?) AS tq
+                ),
+                ann AS (
+                    SELECT id, distance, row_number() OVER (ORDER BY distance) AS rnk
+                    FROM (%s) nearest
+                ),
+                lex AS (
+                    SELECT c.id, row_number() OVER (ORDER BY ts_rank_cd(cc.content_tsv, p.tq) DESC) AS rnk
+                    FROM resume_chunks c
+                    JOIN chunk_contents cc ON cc.id = c.content_id
+                    CROSS JOIN params p
+                    WHERE c.resume_id = ? AND cc.content_tsv @@ p.tq
+                    ORDER BY ts_rank_cd(cc.content_tsv, p.tq) DESC
+                    LIMIT ?
+                ),
+                fused AS (
+                    SELECT id, sum(1.0 / (? + rnk)) AS rrf
+                    FROM (SELECT id, rnk FROM ann UNION ALL SELECT id, rnk FROM lex) ranked
+                    GROUP BY id
+                )
+                SELECT c.id, c.resume_id, c.section, c.ref_type, c.ref_id, c.part_order, cc.content, c.chunking,
+                       cc.embedding,
+                       (cc.embedding <=> p.q) AS distance,
+                       f.rrf
+                FROM fused f
+                JOIN resume_chunks c ON c.id = f.id
+                JOIN chunk_contents cc ON cc.id = c.content_id
+                CROSS JOIN params p
+                ORDER BY f.rrf DESC
+                LIMIT ?
+                """.formatted(ANN);
+        // websearch syntax: quoted terms OR-ed together, so "c++" or "node.js" stay one term
+        String query = String.join(" or ", terms.stream().map(t -> '"' + t.replace("\"", " ") + '"').toList());
+        return query(sql, vec, query, resumeId, k, resumeId, k, rrfK, k);
+    }
+
+    // queryForList on a connection with binary vectors enabled; "embedding" comes back as float[]
+    private List<Map<String, Object>> query(String sql, Object... args) {
+        List<Map<String, Object>> rows = jdbc.query(con -> {
+            PgVector.register(con);
+            PreparedStatement ps = con.prepareStatement(sql);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, new ColumnMapRowMapper());
+        rows.forEach(r -> r.computeIfPresent("embedding", (key, v) -> toFloats(v)));
+        return rows;
+    }
+
+    private static float[] toFloats(Object value) {
+        if (value instanceof PgVector v)
+            return v.toArray();
+        var parsed = new PgVector(); // text format from a connection the type is not registered on
+        parsed.setValue(value.toString());
+        return parsed.toArray();
     }
 
     // in com.resumebuilder.ai_resume_api.repository.vector.ResumeChunkDao
 
     public List<BulletRow> findExperienceBullets(Long resumeId, Long experienceId) {
         String sql = """
-                SELECT part_order, content
-                FROM resume_chunks
-                WHERE resume_id = ?
-                  AND section = 'EXPERIENCE'
-                  AND ref_id = ?
-                  AND ref_type IN ('EXPERIENCE_BULLET','EXPERIENCE_ACHIEVEMENT')
-                ORDER BY part_order ASC
+                SELECT c.part_order, cc.content
+                FROM resume_chunks c
+                JOIN chunk_contents cc ON cc.id = c.content_id
+                WHERE c.resume_id = ?
+                  AND c.section = 'EXPERIENCE'
+                  AND c.ref_id = ?
+                  AND c.ref_type IN ('EXPERIENCE_BULLET','EXPERIENCE_ACHIEVEMENT')
+                ORDER BY c.part_order ASC
                 """;
         return jdbc.query(sql, (rs, rowNum) -> new BulletRow(
                 ((Number) rs.getObject("part_order")).intValue(),
@@ -0,0 +1,133 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The text ResumeChunker builds chunks from, read with one UNION ALL query instead of loading
+ * the resume entity graph. Rows come in chunk order (section, entity display order, field,
+ * line order) and carry the raw column values; blank filtering, numbering and formatting are
+ * left to the chunker so both extraction paths produce identical chunks.
+ */
+@Repository
+public class ResumeChunkSourceDao {
+
+    private static final String SQL = """
+            WITH params AS (
+                SELECT ?::bigint AS resume_id
+            ),
+            r AS (
+                SELECT r.id, r.title, r.resume_headline, r.professional_summary
+                FROM resumes r JOIN params p ON r.id = p.resume_id
+            ),
+            exp AS (
+                SELECT e.*, row_number() OVER (ORDER BY e.display_order, e.start_date DESC, e.id) AS ord
+                FROM experiences e JOIN params p ON e.resume_id = p.resume_id
+            ),
+            prj AS (
+                SELECT pr.*, row_number() OVER (ORDER BY pr.display_order, pr.id) AS ord
+                FROM projects pr JOIN params p ON pr.resume_id = p.resume_id
+            ),
+            cat AS (
+                SELECT c.id, c.name, row_number() OVER (ORDER BY c.display_order, c.id) AS ord
+                FROM skill_categories c JOIN params p ON c.resume_id = p.resume_id
+            ),
+            edu AS (
+                SELECT ed.*, row_number() OVER (ORDER BY ed.display_order, ed.id) AS ord
+                FROM educations ed JOIN params p ON ed.resume_id = p.resume_id
+            )
+            SELECT ref_type, ref_id, txt, items FROM (
+                SELECT -1 AS sec, 0::bigint AS ent, 0 AS kind, 0 AS line, 'RESUME' AS ref_type, r.id AS ref_id,
+                       NULL::text AS txt, NULL::text[] AS items FROM r
+                UNION ALL SELECT 0, 0, 0, 0, 'SUMMARY_TEXT', NULL, r.professional_summary, NULL FROM r
+                UNION ALL SELECT 0, 0, 1, 0, 'SUMMARY_HEADLINE', NULL, r.resume_headline, NULL FROM r
+                UNION ALL SELECT 0, 0, 2, 0, 'SUMMARY_TITLE', NULL, r.title, NULL FROM r
+
+                UNION ALL SELECT 1, e.ord, 0, 0, 'EXPERIENCE_HEADER', e.id, NULL,
+                       ARRAY[e.job_title, e.company_name]::text[] FROM exp e
+                UNION ALL SELECT 1, e.ord, 1, l.line_order, 'EXPERIENCE_BULLET', e.id, l.line_text, NULL
+                       FROM exp e JOIN experience_responsibilities l ON l.experience_id = e.id
+                UNION ALL SELECT 1, e.ord, 2, l.line_order, 'EXPERIENCE_ACHIEVEMENT', e.id, l.line_text, NULL
+                       FROM exp e JOIN experience_achievements l ON l.experience_id = e.id
+                UNION ALL SELECT 1, e.ord, 3, 0, 'EXPERIENCE_TECH_STACK', e.id, NULL,
+                       (SELECT array_agg(t.tag ORDER BY t.tag_order) FROM experience_technologies t
+                        WHERE t.experience_id = e.id) FROM exp e
+                UNION ALL SELECT 1, e.ord, 4, 0, 'EXPERIENCE_METHODS', e.id, NULL,
+                       (SELECT array_agg(t.tag ORDER BY t.tag_order) FROM experience_methods t
+                        WHERE t.experience_id = e.id) FROM exp e
+                UNION ALL SELECT 1, e.ord, 5, 0, 'EXPERIENCE_STAR_SITUATION', e.id, e.star_situation, NULL FROM exp e
+                UNION ALL SELECT 1, e.ord, 6, 0, 'EXPERIENCE_STAR_TASK', e.id, e.star_task, NULL FROM exp e
+                UNION ALL SELECT 1, e.ord, 7, 0, 'EXPERIENCE_STAR_ACTION', e.id, e.star_action, NULL FROM exp e
+                UNION ALL SELECT 1, e.ord, 8, 0, 'EXPERIENCE_STAR_RESULT', e.id, e.star_result, NULL FROM exp e
+                UNION ALL SELECT 1, e.ord, 9, 0, 'EXPERIENCE_DESC', e.id, e.description, NULL FROM exp e
+                       WHERE NOT EXISTS (SELECT 1 FROM experience_responsibilities l WHERE l.experience_id = e.id)
+                         AND NOT EXISTS (SELECT 1 FROM experience_achievements l WHERE l.experience_id = e.id)
+
+                UNION ALL SELECT 2, pr.ord, 0, 0, 'PROJECT_HEADER', pr.id, pr.title, NULL FROM prj pr
+                UNION ALL SELECT 2, pr.ord, 1, l.line_order, 'PROJECT_FEATURE', pr.id, l.line_text, NULL
+                       FROM prj pr JOIN project_features l ON l.project_id = pr.id
+                UNION ALL SELECT 2, pr.ord, 2, 0, 'PROJECT_SHORT_DESC', pr.id, pr.short_description, NULL FROM prj pr
+                UNION ALL SELECT 2, pr.ord, 3, 0, 'PROJECT_OUTCOME', pr.id, pr.outcome_summary, NULL FROM prj pr
+                UNION ALL SELECT 2, pr.ord, 4, 0, 'PROJECT_TECH_STACK', pr.id, NULL,
+                       (SELECT array_agg(t.tag ORDER BY t.tag_order) FROM project_technologies t
+                        WHERE t.project_id = pr.id) FROM prj pr
+                UNION ALL SELECT 2, pr.ord, 5, 0, 'PROJECT_IMPACT_METRICS', pr.id, NULL,
+                       ARRAY[pr.downloads_count::text, pr.users_count::text, pr.stars_count::text,
+                             pr.revenue_impact_usd::text] FROM prj pr
+
+                UNION ALL SELECT 3, 0, 0, 0, 'SKILL_LINE', NULL, NULL,
+                       (SELECT array_agg(s.name ORDER BY s.display_order, s.id) FROM skills s JOIN params p
+                        ON s.resume_id = p.resume_id)
+                UNION ALL SELECT 3, c.ord, 1, 0, 'SKILL_CATEGORY_LINE', c.id, c.name,
+                       (SELECT array_agg(s.name ORDER BY s.display_order, s.id) FROM skills s
+                        WHERE s.category_id = c.id) FROM cat c
+
+                UNION ALL SELECT 4, ed.ord, 0, 0, 'EDU_LINE', ed.id, NULL,
+                       ARRAY[ed.degree, ed.field_of_study, ed.institution]::text[] FROM edu ed
+                UNION ALL SELECT 4, ed.ord, 1, 0, 'EDU_DESC', ed.id, ed.description, NULL FROM edu ed
+                UNION ALL SELECT 4, ed.ord, 2, 0, 'EDU_COURSE_LINE', ed.id, NULL,
+                       (SELECT array_agg(c.course) FROM education_courses c WHERE c.education_id = ed.id) FROM edu ed
+                UNION ALL SELECT 4, ed.ord, 3, 0, 'EDU_HONORS', ed.id, ed.honors, NULL FROM edu ed
+                       WHERE ed.show_honors
+                UNION ALL SELECT 4, ed.ord, 4, 0, 'EDU_GPA', ed.id, ed.gpa::text, NULL FROM edu ed
+                       WHERE ed.show_gpa AND ed.gpa IS NOT NULL
+                UNION ALL SELECT 4, ed.ord, 5, 0, 'EDU_GRADE_CLASS', ed.id, ed.grade_class, NULL FROM edu ed
+            ) rows
+            ORDER BY sec, ent, kind, line
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ResumeChunkSourceDao(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * One chunk source: text for single-value fields, items for lists and multi-column
+     * headers (nulls kept, in column order).
+     */
+    public record SourceRow(String refType, Long refId, String text, List<String> items) {
+    }
+
+    /** Streams the resume's rows to the consumer; false when the resume does not exist. */
+    public boolean forEach(Long resumeId, Consumer<SourceRow> consumer) {
+        boolean[] found = { false };
+        jdbc.query(SQL, rs -> {
+            String refType = rs.getString("ref_type");
+            if ("RESUME".equals(refType)) {
+                found[0] = true;
+                return;
+            }
+            Array items = rs.getArray("items");
+            Long refId = rs.getObject("ref_id") instanceof Number n ? n.longValue() : null;
+            consumer.accept(new SourceRow(refType, refId, rs.getString("txt"),
+                    items == null ? null : Arrays.asList((String[]) items.getArray())));
+        }, resumeId);
+        return found[0];
+    }
+}
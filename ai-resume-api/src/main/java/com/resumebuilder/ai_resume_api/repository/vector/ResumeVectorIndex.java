@@ -0,0 +1,243 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-process copy of the chunk vectors of recently tailored resumes, in front of
+ * {@link ResumeChunkDao#topK} and {@link ResumeChunkDao#hybridTopK}. A resume has at most a
+ * few hundred chunks, so an exact scan over one contiguous float[] (unit rows, SIMD dot via
+ * {@link VectorMath}) beats the round trip to pgvector.
+ *
+ * A resume is loaded on first retrieval and replaced by {@link #put} when it is reindexed.
+ * Entries expire after ai.tailor.retrieval.in-memory-ttl-minutes, which bounds staleness when
+ * another instance did the reindex, and the whole index is capped at in-memory-max-mb.
+ * Results have the same columns as the DAO's. The lexical side of hybrid retrieval matches
+ * whole terms case-insensitively instead of Postgres' stemmed tsquery.
+ */
+@Component
+public class ResumeVectorIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumeVectorIndex.class);
+
+    private final ResumeChunkDao dao;
+    private final boolean enabled;
+    private final Cache<Long, Snapshot> cache;
+
+    public ResumeVectorIndex(ResumeChunkDao dao, AiTailoringConfig config) {
+        var retrieval = config.getTailor().getRetrieval();
+        this.dao = dao;
+        this.enabled = retrieval.isInMemory();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(retrieval.getInMemoryMaxMb() * 1024L * 1024L)
+                .weigher((Long id, Snapshot s) -> s.bytes())
+                .expireAfterWrite(Duration.ofMinutes(retrieval.getInMemoryTtlMinutes()))
+                .build();
+        // spring-boot:run and the tests add the module; a plain java -jar does not
+        if (enabled && !VectorMath.SIMD)
+            log.info("In-memory retrieval uses scalar similarity; start the JVM with "
+                    + "--add-modules jdk.incubator.vector (e.g. via JDK_JAVA_OPTIONS) for SIMD");
+    }
+
+    /** One chunk as the reindex path wrote it. */
+    public record Chunk(Long id, String section, String refType, Long refId, int partOrder, String content,
+            float[] embedding, String chunking) {
+    }
+
+    /** Nearest chunks of one resume by cosine distance, like {@link ResumeChunkDao#topK}. */
+    public List<Map<String, Object>> topK(Long resumeId, float[] queryEmbedding, int k) {
+        Snapshot s = snapshot(resumeId, queryEmbedding);
+        if (s == null)
+            return dao.topK(resumeId, queryEmbedding, k);
+        float[] distance = s.distances(queryEmbedding);
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (int i : nearest(distance, k))
+            out.add(s.row(resumeId, i, distance[i]));
+        return out;
+    }
+
+    /** Vector and term ranks fused by reciprocal rank, like {@link ResumeChunkDao#hybridTopK}. */
+    public List<Map<String, Object>> hybridTopK(Long resumeId, float[] queryEmbedding, List<String> terms, int k,
+            int rrfK) {
+        Snapshot s = snapshot(resumeId, queryEmbedding);
+        if (s == null)
+            return dao.hybridTopK(resumeId, queryEmbedding, terms, k, rrfK);
+        float[] distance = s.distances(queryEmbedding);
+
+        Map<Integer, Double> fused = new HashMap<>();
+        int[] ann = nearest(distance, k);
+        for (int r = 0; r < ann.length; r++)
+            fused.merge(ann[r], 1.0 / (rrfK + r + 1), Double::sum);
+
+        float[] negMatches = new float[s.size()]; // negated so nearest() ranks most matches first
+        int matched = 0;
+        for (int i = 0; i < s.size(); i++) {
+            negMatches[i] = -termMatches(s.contentLc[i], terms);
+            if (negMatches[i] < 0)
+                matched++;
+        }
+        int[] lex = nearest(negMatches, Math.min(k, matched));
+        for (int r = 0; r < lex.length; r++)
+            fused.merge(lex[r], 1.0 / (rrfK + r + 1), Double::sum);
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        fused.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                .limit(k)
+                .forEach(e -> {
+                    Map<String, Object> row = s.row(resumeId, e.getKey(), distance[e.getKey()]);
+                    row.put("rrf", e.getValue());
+                    out.add(row);
+                });
+        return out;
+    }
+
+    /** Replaces the resume's entry after a reindex, so the next retrieval needs no load. */
+    public void put(Long resumeId, List<Chunk> chunks) {
+        if (enabled)
+            cache.put(resumeId, Snapshot.of(chunks));
+    }
+
+    public void invalidate(Long resumeId) {
+        cache.invalidate(resumeId);
+    }
+
+    // Null when the DAO has to answer: index off, or vectors of another model's dimension
+    private Snapshot snapshot(Long resumeId, float[] query) {
+        if (!enabled)
+            return null;
+        Snapshot s = cache.get(resumeId, this::load);
+        return s.size() == 0 || s.dims == query.length ? s : null;
+    }
+
+    private Snapshot load(Long resumeId) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (var r : dao.findByResumeId(resumeId)) {
+            if (!(r.get("embedding") instanceof float[] v))
+                continue;
+            chunks.add(new Chunk(
+                    r.get("id") instanceof Number n ? n.longValue() : null,
+                    (String) r.get("section"),
+                    (String) r.get("ref_type"),
+                    r.get("ref_id") instanceof Number n ? n.longValue() : null,
+                    r.get("part_order") instanceof Number n ? n.intValue() : 0,
+                    (String) r.get("content"),
+                    v,
+                    (String) r.get("chunking")));
+        }
+        return Snapshot.of(chunks);
+    }
+
+    // Indexes of the k smallest values, smallest first (insertion into a k-sized sorted window)
+    static int[] nearest(float[] values, int k) {
+        int n = Math.min(k, values.length);
+        int[] idx = new int[n];
+        int filled = 0;
+        for (int i = 0; i < values.length; i++) {
+            float v = values[i];
+            if (filled == n && (n == 0 || v >= values[idx[n - 1]]))
+                continue;
+            int j = filled < n ? filled++ : n - 1;
+            while (j > 0 && values[idx[j - 1]] > v) {
+                idx[j] = idx[j - 1];
+                j--;
+            }
+            idx[j] = i;
+        }
+        return idx;
+    }
+
+    // Occurrences of the terms as whole words; "java" does not match "javascript"
+    static int termMatches(String contentLc, List<String> terms) {
+        int count = 0;
+        for (String t : terms) {
+            String term = t.toLowerCase(Locale.ROOT);
+            if (term.isEmpty())
+                continue;
+            for (int at = contentLc.indexOf(term); at >= 0; at = contentLc.indexOf(term, at + 1)) {
+                int end = at + term.length();
+                if ((at == 0 || !Character.isLetterOrDigit(contentLc.charAt(at - 1)))
+                        && (end == contentLc.length() || !Character.isLetterOrDigit(contentLc.charAt(end))))
+                    count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class Snapshot {
+        private final int dims;
+        private final float[] vectors; // row i at [i * dims, (i + 1) * dims), unit length
+        private final Chunk[] chunks;
+        private final String[] contentLc;
+
+        private Snapshot(int dims, float[] vectors, Chunk[] chunks, String[] contentLc) {
+            this.dims = dims;
+            this.vectors = vectors;
+            this.chunks = chunks;
+            this.contentLc = contentLc;
+        }
+
+        static Snapshot of(List<Chunk> chunks) {
+            int dims = chunks.isEmpty() ? 0 : chunks.get(0).embedding().length;
+            List<Chunk> kept = chunks.stream().filter(c -> c.embedding().length == dims).toList();
+            float[] vectors = new float[kept.size() * dims];
+            String[] lc = new String[kept.size()];
+            for (int i = 0; i < kept.size(); i++) {
+                System.arraycopy(kept.get(i).embedding(), 0, vectors, i * dims, dims);
+                VectorMath.normalize(vectors, i * dims, dims);
+                lc[i] = kept.get(i).content() == null ? "" : kept.get(i).content().toLowerCase(Locale.ROOT);
+            }
+            return new Snapshot(dims, vectors, kept.toArray(Chunk[]::new), lc);
+        }
+
+        int size() {
+            return chunks.length;
+        }
+
+        int bytes() {
+            long text = 0;
+            for (String s : contentLc)
+                text += 2L * s.length() * 2; // content and its lowercase copy
+            return (int) Math.min(Integer.MAX_VALUE, 4L * vectors.length + text + 64L * chunks.length);
+        }
+
+        // Cosine distance (1 - cosine) of every row to the query
+        float[] distances(float[] query) {
+            float[] q = Arrays.copyOf(query, query.length);
+            VectorMath.normalize(q, 0, dims);
+            float[] out = new float[chunks.length];
+            for (int i = 0; i < out.length; i++)
+                out[i] = 1 - VectorMath.dot(vectors, i * dims, q, dims);
+            return out;
+        }
+
+        Map<String, Object> row(Long resumeId, int i, float distance) {
+            Chunk c = chunks[i];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", c.id());
+            row.put("resume_id", resumeId);
+            row.put("section", c.section());
+            row.put("ref_type", c.refType());
+            row.put("ref_id", c.refId());
+            row.put("part_order", c.partOrder());
+            row.put("content", c.content());
+            row.put("chunking", c.chunking());
+            row.put("embedding", Arrays.copyOfRange(vectors, i * dims, (i + 1) * dims));
+            row.put("distance", (double) distance);
+            return row;
+        }
+    }
+}
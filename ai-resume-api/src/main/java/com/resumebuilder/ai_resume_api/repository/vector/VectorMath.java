@@ -0,0 +1,47 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+/**
+ * Dot products over rows of a contiguous float array. Uses the Vector API (SIMD) when the JVM
+ * runs with --add-modules jdk.incubator.vector, and an unrolled scalar loop otherwise or with
+ * -Dai.vector.scalar=true. The SIMD class is only loaded when the module is present.
+ */
+public final class VectorMath {
+
+    public static final boolean SIMD = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("ai.vector.scalar");
+
+    private VectorMath() {
+    }
+
+    /** a[aOffset..aOffset+length) . b[0..length) */
+    public static float dot(float[] a, int aOffset, float[] b, int length) {
+        return SIMD ? SimdVectorMath.dot(a, aOffset, b, length) : dotScalar(a, aOffset, b, length);
+    }
+
+    static float dotScalar(float[] a, int aOffset, float[] b, int length) {
+        // four accumulators so the adds do not wait on each other
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int upper = length & ~3; i < upper; i += 4) {
+            s0 += a[aOffset + i] * b[i];
+            s1 += a[aOffset + i + 1] * b[i + 1];
+            s2 += a[aOffset + i + 2] * b[i + 2];
+            s3 += a[aOffset + i + 3] * b[i + 3];
+        }
+        for (; i < length; i++)
+            s0 += a[aOffset + i] * b[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /** Scales v[offset..offset+length) to unit length in place; a zero vector stays zero. */
+    public static void normalize(float[] v, int offset, int length) {
+        double norm = 0;
+        for (int i = offset; i < offset + length; i++)
+            norm += v[i] * v[i];
+        if (norm == 0)
+            return;
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int i = offset; i < offset + length; i++)
+            v[i] *= inv;
+    }
+}
@@ -1,27 +1,31 @@
 package com.resumebuilder.ai_resume_api.service;
 
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaClient;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaEndpointPool;
 import com.resumebuilder.ai_resume_api.dto.OllamaRequestDto;
 import com.resumebuilder.ai_resume_api.dto.OllamaResponseDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AIService {
 
     private static final Logger log = LoggerFactory.getLogger(AIService.class);
 
-    private final RestTemplate restTemplate;
-    private final String apiUrl;
+    private final OllamaClient client;
+    private final OllamaEndpointPool pool;
     private final String model;
 
-    public AIService(RestTemplate restTemplate,
-            @Value("${ai.ollama.url:http://localhost:11434/api/generate}") String apiUrl,
+    public AIService(OllamaClient client, OllamaEndpointPool pool,
             @Value("${ai.ollama.model:qwen2.5-coder:3b}") String model) {
-        this.restTemplate = restTemplate;
-        this.apiUrl = apiUrl;
+        this.client = client;
+        this.pool = pool;
         this.model = model;
     }
 
@@ -43,23 +47,30 @@ public class AIService {
                 jobTitle.trim(), descriptionDraft.trim());
 
         var requestDto = new OllamaRequestDto(model, prompt, false);
-        var headers = new org.springframework.http.HttpHeaders();
-        headers.set(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/json");
-        var requestEntity = new org.springframework.http.HttpEntity<>(requestDto, headers);
 
-        try {
-            log.debug("Calling Ollama at {} with model {}", apiUrl, model);
-            var response = restTemplate.postForObject(apiUrl, requestEntity, OllamaResponseDto.class);
+        try (var lease = pool.acquire(model)) {
+            log.debug("Calling Ollama {}{} with model {}", lease.baseUrl(), OllamaClient.GENERATE, model);
+            var response = client.postJson(lease.baseUrl(), OllamaClient.GENERATE, requestDto,
+                    client.generateTimeout())
+                    .retrieve()
+                    .bodyToMono(OllamaResponseDto.class)
+                    .timeout(client.generateTimeout())
+                    .block();
+            lease.success();
             if (response == null) {
-                log.warn("AI response is null from {}", apiUrl);
+                log.warn("AI response is null from {}", OllamaClient.GENERATE);
                 return "AI model returned an empty response.";
             }
             var text = response.response();
             return (text != null && !text.isBlank()) ? text.trim() : "AI model returned an empty response.";
-        } catch (org.springframework.web.client.ResourceAccessException e) {
-            log.error("Timeout or connection error calling Ollama: {}", e.getMessage());
+        } catch (WebClientRequestException e) {
+            log.error("Connection error calling Ollama: {}", e.getMessage());
             throw new RuntimeException("AI service is unavailable. Please try again later.", e);
         } catch (Exception e) {
+            if (Exceptions.unwrap(e) instanceof TimeoutException) {
+                log.error("Timeout calling Ollama: {}", e.getMessage());
+                throw new RuntimeException("AI service is unavailable. Please try again later.", e);
+            }
             log.error("Error calling Ollama", e);
             throw new RuntimeException("Error communicating with the local AI model.", e);
         }
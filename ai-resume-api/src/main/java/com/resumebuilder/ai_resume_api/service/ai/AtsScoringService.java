@@ -1,7 +1,6 @@
 package com.resumebuilder.ai_resume_api.service.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resumebuilder.ai_resume_api.ai.AIOrchestrator;
 import com.resumebuilder.ai_resume_api.dto.ai.*;
 import org.springframework.stereotype.Service;
@@ -14,17 +13,19 @@ import java.util.stream.Collectors;
 public class AtsScoringService {
 
     private final AIOrchestrator orchestrator;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final JobPostingService jobPostings;
 
-    public AtsScoringService(AIOrchestrator orchestrator) {
+    public AtsScoringService(AIOrchestrator orchestrator, JobPostingService jobPostings) {
         this.orchestrator = orchestrator;
+        this.jobPostings = jobPostings;
     }
 
     public AtsScoreResponseDto score(Long resumeId, AtsScoreRequestDto req) {
-        // 1) Keyword extraction from JD (simple heuristic unless provided)
+        // 1) JD keywords: provided, precomputed on a saved posting, or extracted from the text
+        var jd = jobPostings.resolve(req.jobPostingId(), req.jobTitle(), req.jobDescription());
         List<String> jdKeywords = req.targetKeywords() != null && !req.targetKeywords().isEmpty()
                 ? normalizeList(req.targetKeywords())
-                : extractKeywords(req.jobDescription(), 20);
+                : jd.keywords(20);
 
         // 2) Match vs resume text
         String resumeText = safe(req.resumeText()).toLowerCase(Locale.ROOT);
@@ -62,18 +63,18 @@ public class AtsScoringService {
         // 4) LLM critique for suggestions (structured JSON)
         String truncated = truncate(req.resumeText(), 6000); // keep prompt small
         Map<String, Object> vars = new HashMap<>();
-        vars.put("jobTitle", req.jobTitle());
-        vars.put("jobDescription", truncate(req.jobDescription(), 6000));
+        vars.put("jobTitle", jd.title() == null ? "" : jd.title());
+        vars.put("jobDescription", truncate(jd.text(), 6000));
         vars.put("resumeText", truncated);
 
         var ai = orchestrator.generate(
                 "ats_critique_json_v1",
                 vars,
                 req.model(), // preferred model route or null
-                Map.of("temperature", 0.3, "num_predict", 900, "top_p", 0.9),
+                Map.of("temperature", 0.3, "num_predict", 900, "top_p", 0.9), // num_predict is a ceiling
                 true);
 
-        List<AtsSuggestionDto> suggestions = parseSuggestions(ai.content());
+        List<AtsSuggestionDto> suggestions = parseSuggestions(ai.json());
 
         return new AtsScoreResponseDto(
                 clamp(total, 0, 100),
@@ -85,39 +86,11 @@ public class AtsScoringService {
                 ai.provider(),
                 ai.model(),
                 ai.latencyMs(),
-                "1.0");
+                ai.promptVersion());
     }
 
     // ----------------- Heuristics -----------------
 
-    private static final Set<String> STOP = Set.of(
-            "the", "and", "for", "with", "that", "from", "this", "have", "has", "had", "into", "your", "you", "are",
-            "our", "their",
-            "will", "can", "able", "using", "use", "used", "such", "about", "over", "under", "within", "without", "per",
-            "etc",
-            "a", "an", "to", "in", "of", "by", "as", "on", "at", "be", "is", "was", "were", "or", "it", "we", "they",
-            "i", "my", "me");
-
-    private List<String> extractKeywords(String text, int limit) {
-        if (text == null)
-            return List.of();
-        String[] tokens = text.toLowerCase(Locale.ROOT).split("[^a-z0-9+.#/\\-]+");
-        Map<String, Integer> freq = new HashMap<>();
-        for (String t : tokens) {
-            String k = t.trim();
-            if (k.length() < 3)
-                continue;
-            if (STOP.contains(k))
-                continue;
-            freq.merge(k, 1, Integer::sum);
-        }
-        return freq.entrySet().stream()
-                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-    }
-
     private double skillDensity(String text) {
         // crude: count separators and known tech markers
         int hits = 0;
@@ -190,9 +163,10 @@ public class AtsScoringService {
 
     // ----------------- Helpers -----------------
 
-    private List<AtsSuggestionDto> parseSuggestions(String json) {
+    private List<AtsSuggestionDto> parseSuggestions(JsonNode root) {
+        if (root == null)
+            return List.of();
         try {
-            JsonNode root = mapper.readTree(json);
             JsonNode arr = root.path("suggestions");
             if (!arr.isArray())
                 return List.of();
@@ -1,7 +1,6 @@
 package com.resumebuilder.ai_resume_api.service.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resumebuilder.ai_resume_api.ai.AIOrchestrator;
 import com.resumebuilder.ai_resume_api.dto.ai.BulletRewriteRequestDto;
 import com.resumebuilder.ai_resume_api.dto.ai.BulletRewriteResponseDto;
@@ -17,7 +16,6 @@ import java.util.Map;
 public class BulletRewriterService {
 
     private final AIOrchestrator orchestrator;
-    private final ObjectMapper mapper = new ObjectMapper();
 
     public BulletRewriterService(AIOrchestrator orchestrator) {
         this.orchestrator = orchestrator;
@@ -32,11 +30,34 @@ public class BulletRewriterService {
                 "bullet_rewrite_json_v1",
                 vars,
                 preferredModelKey, // may be null or "primary"/"secondary"/"tiny"/raw model id
-                Map.of("temperature", 0.5, "num_predict", 400),
-                true // expectJson
+                Map.of("temperature", 0.5, "num_predict", 400), // num_predict is a ceiling, see TokenBudgeter
+                true, // expectJson
+                res -> validate(parseBullets(res.json())) // the cascade escalates while this finds problems
         );
 
-        List<BulletSuggestionDto> bullets = parseBullets(ai.content());
+        List<BulletSuggestionDto> bullets = parseBullets(ai.json());
+        List<String> warnings = validate(bullets);
+
+        double confidence = 0.95 - 0.10 * warnings.size();
+        if (confidence < 0.50)
+            confidence = 0.50;
+        if (bullets.isEmpty())
+            confidence = 0.40;
+
+        return new BulletRewriteResponseDto(
+                req.jobTitle(),
+                req.draft(),
+                bullets,
+                confidence,
+                warnings,
+                ai.provider(),
+                ai.model(),
+                ai.latencyMs(),
+                ai.promptVersion(),
+                ai.content());
+    }
+
+    private List<String> validate(List<BulletSuggestionDto> bullets) {
         List<String> warnings = new ArrayList<>();
 
         // Validation rules
@@ -56,24 +77,7 @@ public class BulletRewriterService {
             if (!startsWithActionVerb(b.text()))
                 warnings.add("Bullet " + (i + 1) + " may not start with a strong verb.");
         }
-
-        double confidence = 0.95 - 0.10 * warnings.size();
-        if (confidence < 0.50)
-            confidence = 0.50;
-        if (bullets.isEmpty())
-            confidence = 0.40;
-
-        return new BulletRewriteResponseDto(
-                req.jobTitle(),
-                req.draft(),
-                bullets,
-                confidence,
-                warnings,
-                ai.provider(),
-                ai.model(),
-                ai.latencyMs(),
-                "1.0",
-                ai.content());
+        return warnings;
     }
 
     private int wordCount(String s) {
@@ -103,9 +107,10 @@ public class BulletRewriterService {
         return Character.isUpperCase(first.isEmpty() ? 'A' : first.charAt(0)); // lenient fallback
     }
 
-    private List<BulletSuggestionDto> parseBullets(String json) {
+    private List<BulletSuggestionDto> parseBullets(JsonNode root) {
+        if (root == null)
+            return List.of();
         try {
-            JsonNode root = mapper.readTree(json);
             JsonNode arr = root.path("bullets");
             if (!arr.isArray() || arr.size() == 0)
                 return List.of();
@@ -0,0 +1,45 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.repository.vector.ResumeChunkDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes chunk_contents rows no resume points at any more. A reindex cleans up after itself;
+ * deleting a resume cascades only its resume_chunks rows, so its unshared contents wait here.
+ */
+@Component
+public class ChunkContentSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkContentSweeper.class);
+
+    private final ResumeChunkDao chunkDao;
+    private final int batchSize;
+
+    public ChunkContentSweeper(ResumeChunkDao chunkDao,
+            @Value("${ai.chunks.sweep.batch-size:1000}") int batchSize) {
+        this.chunkDao = chunkDao;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.chunks.sweep.delay-ms:3600000}",
+            initialDelayString = "${ai.chunks.sweep.delay-ms:3600000}")
+    public void run() {
+        try {
+            int deleted;
+            long total = 0;
+            do {
+                deleted = chunkDao.deleteOrphanContents(batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
+            if (total > 0)
+                log.info("Deleted {} unreferenced chunk contents", total);
+        } catch (Exception ex) {
+            // e.g. a reindex referenced a content between the check and the delete; next run retries
+            log.warn("Chunk content sweep failed, will retry: {}", ex.toString());
+        }
+    }
+}
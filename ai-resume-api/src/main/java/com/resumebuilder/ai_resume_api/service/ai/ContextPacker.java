@@ -0,0 +1,154 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.ai.TokenBudgeter;
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptRegistry;
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Chooses which retrieved chunks go into a prompt's context block:
+ * 1. duplicate lines are dropped (same normalized text, or embeddings closer than
+ * ai.tailor.pack.duplicate-similarity),
+ * 2. lines are picked by MMR over the chunk embeddings, so near-identical bullets do not
+ * crowd out the rest of the resume,
+ * 3. picking stops at maxLines or when the token budget is spent.
+ *
+ * The budget is what the model's context window (ai.tailor.pack.context-tokens) leaves after
+ * the prompt template, the other variables and the num_predict ceiling, using the
+ * chars-per-token TokenBudgeter has learned for the model.
+ */
+@Component
+public class ContextPacker {
+
+    // "12) [EXPERIENCE/EXPERIENCE_BULLET id=123 idx=4] " without the section and type names
+    private static final int LINE_OVERHEAD_CHARS = 24;
+    private static final double KEYWORD_BONUS = 0.02;
+
+    private final AiTailoringConfig config;
+    private final TokenBudgeter budgeter;
+    private final PromptRegistry prompts;
+
+    public ContextPacker(AiTailoringConfig config, TokenBudgeter budgeter, PromptRegistry prompts) {
+        this.config = config;
+        this.budgeter = budgeter;
+        this.prompts = prompts;
+    }
+
+    /**
+     * A retrieved chunk. relevance is in [0, 1]: 1 - cosine distance to the query, or for hybrid
+     * retrieval the fused rank score relative to the best hit.
+     */
+    public record Candidate(String section, String refType, Long refId, Integer bulletIndex, String content,
+            double relevance, float[] embedding) {
+    }
+
+    /** Tokens left for context lines in promptId once the template, other variables and output are reserved. */
+    public int budgetTokens(String promptId, String model, int variableChars, int numPredict) {
+        var pack = config.getTailor().getPack();
+        int fixedChars = prompts.get(promptId).template().length() + variableChars;
+        int fixedTokens = (int) Math.ceil(fixedChars / budgeter.charsPerToken(model));
+        return Math.max(pack.getMinBudgetTokens(), pack.getContextTokens() - fixedTokens - numPredict);
+    }
+
+    /**
+     * Picked candidates in selection order (most useful first). Never empty unless candidates is.
+     * keywords add a small bonus per match; pass none when retrieval already ranked lexically.
+     */
+    public List<Candidate> pack(List<Candidate> candidates, List<String> keywords, int maxLines, int budgetTokens,
+            String model) {
+        var pack = config.getTailor().getPack();
+        List<Candidate> pool = dedupe(candidates, pack.getDuplicateSimilarity());
+        int n = pool.size();
+
+        List<String> kw = keywords.stream().map(k -> k.toLowerCase(Locale.ROOT)).toList();
+        double[] relevance = new double[n];
+        for (int i = 0; i < n; i++) {
+            String lc = pool.get(i).content().toLowerCase(Locale.ROOT);
+            int overlap = 0;
+            for (String k : kw) {
+                if (lc.contains(k))
+                    overlap++;
+            }
+            relevance[i] = pool.get(i).relevance() + KEYWORD_BONUS * overlap;
+        }
+
+        double lambda = pack.getMmrLambda();
+        double charsPerToken = budgeter.charsPerToken(model);
+        double[] redundancy = new double[n]; // max similarity to anything already picked
+        boolean[] done = new boolean[n];
+        List<Candidate> picked = new ArrayList<>();
+        int spent = 0;
+
+        while (picked.size() < maxLines) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (done[i])
+                    continue;
+                double mmr = lambda * relevance[i] - (1 - lambda) * redundancy[i];
+                if (mmr > bestScore) {
+                    bestScore = mmr;
+                    best = i;
+                }
+            }
+            if (best < 0)
+                break;
+            done[best] = true;
+
+            Candidate c = pool.get(best);
+            int cost = tokens(c, charsPerToken);
+            if (spent + cost > budgetTokens && !picked.isEmpty())
+                continue; // does not fit; a shorter line further down still might
+            picked.add(c);
+            spent += cost;
+            for (int i = 0; i < n; i++) {
+                if (!done[i])
+                    redundancy[i] = Math.max(redundancy[i], cosine(pool.get(i).embedding(), c.embedding()));
+            }
+        }
+        return picked;
+    }
+
+    private static List<Candidate> dedupe(List<Candidate> candidates, double duplicateSimilarity) {
+        Set<String> seen = new HashSet<>();
+        List<Candidate> out = new ArrayList<>();
+        for (Candidate c : candidates) {
+            String key = c.content().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+            if (key.isEmpty() || !seen.add(key))
+                continue;
+            boolean nearDuplicate = false;
+            for (Candidate kept : out) {
+                if (cosine(kept.embedding(), c.embedding()) >= duplicateSimilarity) {
+                    nearDuplicate = true;
+                    break;
+                }
+            }
+            if (!nearDuplicate)
+                out.add(c);
+        }
+        return out;
+    }
+
+    private static int tokens(Candidate c, double charsPerToken) {
+        int chars = LINE_OVERHEAD_CHARS + c.section().length() + c.refType().length() + c.content().length();
+        return (int) Math.ceil(chars / charsPerToken);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        if (a == null || b == null || a.length == 0 || a.length != b.length)
+            return 0;
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return na == 0 || nb == 0 ? 0 : dot / Math.sqrt(na * nb);
+    }
+}
@@ -1,40 +1,76 @@
 package com.resumebuilder.ai_resume_api.service.ai;
 
+import com.resumebuilder.ai_resume_api.ai.TextEmbedder;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaClient;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaEndpointPool;
+import com.resumebuilder.ai_resume_api.ai.providers.OpenAiCompatProvider;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 @Service
-public class EmbeddingService {
+public class EmbeddingService implements TextEmbedder {
 
-    private final WebClient client;
-    @SuppressWarnings("unused")
-    private final String base;
+    private final OllamaClient client;
+    private final OllamaEndpointPool pool;
+    private final OpenAiCompatProvider openAi; // null unless ai.openai.base-url is set
     private final String model;
 
-    public EmbeddingService(@Value("${ai.ollama.base:http://localhost:11434}") String base,
-            @Value("${ai.embeddings.model:nomic-embed-text}") String model,
-            org.springframework.web.reactive.function.client.WebClient.Builder builder) {
-        this.base = base;
+    public EmbeddingService(OllamaClient client, OllamaEndpointPool pool,
+            ObjectProvider<OpenAiCompatProvider> openAi,
+            @Value("${ai.embeddings.model:nomic-embed-text}") String model) {
+        this.client = client;
+        this.pool = pool;
+        this.openAi = openAi.getIfAvailable();
         this.model = model;
-        this.client = builder.baseUrl(base).build();
     }
 
+    /** The embedding model id; vectors from different models are not comparable. */
+    public String model() {
+        return model;
+    }
+
+    @Override
     public float[] embed(String text) {
+        if (servedByOpenAi())
+            return openAi.embed(model, List.of(text)).get(0);
+        return embedOllama(text);
+    }
+
+    /**
+     * Embeds many texts, in input order. An OpenAI-compatible server takes them in batched
+     * requests; Ollama gets one request per text.
+     */
+    public List<float[]> embedAll(List<String> texts) {
+        if (texts.isEmpty())
+            return List.of();
+        if (servedByOpenAi())
+            return openAi.embed(model, texts);
+        List<float[]> out = new ArrayList<>(texts.size());
+        for (String text : texts)
+            out.add(embedOllama(text));
+        return out;
+    }
+
+    private boolean servedByOpenAi() {
+        return openAi != null && openAi.supportsEmbeddings(model);
+    }
+
+    private float[] embedOllama(String text) {
         var payload = Map.of("model", model, "prompt", text);
-        var res = client.post()
-                .uri("/api/embeddings")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .timeout(Duration.ofSeconds(30))
-                .block();
+        Map<?, ?> res;
+        try (var lease = pool.acquire(model)) {
+            res = client.postJson(lease.baseUrl(), OllamaClient.EMBEDDINGS, payload, client.embedTimeout())
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .timeout(client.embedTimeout())
+                    .block();
+            lease.success();
+        }
         if (res == null || !res.containsKey("embedding")) {
             throw new IllegalStateException("Embedding API returned null");
         }
@@ -0,0 +1,114 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyword and phrase extraction for job descriptions, shared by tailoring and ATS scoring.
+ * The results are stored on saved job postings, so a change here should bump
+ * {@link #ANALYSIS_VERSION} to have stored postings re-analyzed on next use.
+ */
+@Component
+public class JobDescriptionAnalyzer {
+
+    private static final Logger log = LoggerFactory.getLogger(JobDescriptionAnalyzer.class);
+
+    public static final int ANALYSIS_VERSION = 1;
+
+    // stored per posting, so every caller's limit (ai.keywords.jd.*, ATS) must fit in it
+    static final int MAX_KEYWORDS = 50;
+    static final int MAX_PHRASES = 20;
+
+    private static final Set<String> STOP = Set.of(
+            "the", "and", "for", "with", "that", "from", "this", "have", "has", "had", "into", "your", "you", "are",
+            "our", "their",
+            "will", "can", "able", "using", "use", "used", "such", "about", "over", "under", "within", "without", "per",
+            "etc",
+            "a", "an", "to", "in", "of", "by", "as", "on", "at", "be", "is", "was", "were", "or", "it", "we", "they",
+            "i", "my", "me",
+            // Job posting noise words
+            "looking", "seeking", "candidate", "ideal", "strong", "excellent", "good", "great", "must", "should",
+            "preferred", "nice", "plus", "bonus", "role", "position", "job", "opportunity", "required",
+            // Generic resume noise
+            "experience", "experienced", "engineer", "engineering", "developer", "development", "software", "project",
+            "projects", "team", "teams", "requirements", "requirement", "responsibilities", "responsibility",
+            "lead", "leading", "leadership", "work", "working", "skills", "ability", "knowledge");
+
+    public JobDescriptionAnalyzer(AiTailoringConfig config) {
+        var jd = config.getKeywords().getJd();
+        int wanted = Math.max(jd.getLimit(), jd.getContext().getLimit());
+        if (wanted > MAX_KEYWORDS)
+            log.warn("ai.keywords.jd limit {} exceeds the {} keywords kept per job description; {} will be used",
+                    wanted, MAX_KEYWORDS, MAX_KEYWORDS);
+    }
+
+    /**
+     * A job description with its extracted terms; embedding is null until computed.
+     * postingId is set when it comes from a saved job posting.
+     */
+    public record Analysis(Long postingId, String title, String text, List<String> keywords, List<String> phrases,
+            float[] embedding) {
+
+        /** The top keywords, most frequent first. */
+        public List<String> keywords(int limit) {
+            return keywords.size() <= limit ? keywords : keywords.subList(0, limit);
+        }
+    }
+
+    /** Keywords and phrases only; the caller decides whether the embedding is needed. */
+    public Analysis analyze(String title, String text) {
+        return new Analysis(null, title, text, keywords(text, MAX_KEYWORDS), phrases(text, MAX_PHRASES), null);
+    }
+
+    public List<String> keywords(String text, int limit) {
+        Map<String, Integer> freq = new LinkedHashMap<>();
+        for (String k : tokens(text)) {
+            if (k != null)
+                freq.merge(k, 1, Integer::sum);
+        }
+        return top(freq, limit, 1);
+    }
+
+    /** Two-word terms ("spring boot", "distributed systems") seen at least twice. */
+    public List<String> phrases(String text, int limit) {
+        Map<String, Integer> freq = new LinkedHashMap<>();
+        String prev = null;
+        for (String k : tokens(text)) {
+            if (prev != null && k != null)
+                freq.merge(prev + " " + k, 1, Integer::sum);
+            prev = k;
+        }
+        return top(freq, limit, 2);
+    }
+
+    // Lowercased terms in order; null marks a dropped token so phrases do not span it
+    private static List<String> tokens(String text) {
+        if (text == null)
+            return List.of();
+        List<String> out = new ArrayList<>();
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+.#/\\-]+")) {
+            // Strip trailing punctuation
+            String k = t.trim().replaceAll("[.,;:!?]+$", "");
+            out.add(k.length() < 3 || STOP.contains(k) ? null : k);
+        }
+        return out;
+    }
+
+    private static List<String> top(Map<String, Integer> freq, int limit, int minCount) {
+        return freq.entrySet().stream()
+                .filter(e -> e.getValue() >= minCount)
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.ai.AIOrchestrator;
+import com.resumebuilder.ai_resume_api.dto.ai.JobPostingRequestDto;
+import com.resumebuilder.ai_resume_api.dto.ai.JobPostingResponseDto;
+import com.resumebuilder.ai_resume_api.entity.JobPostingEntity;
+import com.resumebuilder.ai_resume_api.exception.BadRequestException;
+import com.resumebuilder.ai_resume_api.exception.NotFoundException;
+import com.resumebuilder.ai_resume_api.repository.JobPostingRepository;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Saved job postings: the description is analyzed and embedded once, and tailoring or ATS
+ * scoring against the posting id reuses that work instead of redoing it per request.
+ * Methods are not transactional as a whole: the embedding call can take seconds, so it runs
+ * before the repository write opens its own short transaction.
+ */
+@Service
+public class JobPostingService {
+
+    private final JobPostingRepository postings;
+    private final UserRepository userRepository;
+    private final JobDescriptionAnalyzer analyzer;
+    private final EmbeddingService embeddings;
+
+    public JobPostingService(JobPostingRepository postings, UserRepository userRepository,
+            JobDescriptionAnalyzer analyzer, EmbeddingService embeddings) {
+        this.postings = postings;
+        this.userRepository = userRepository;
+        this.analyzer = analyzer;
+        this.embeddings = embeddings;
+    }
+
+    /** Saves the posting, or returns the caller's existing one with the same normalized text. */
+    public JobPostingResponseDto create(JobPostingRequestDto req) {
+        String username = SecurityUtil.currentUsername();
+        var user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new NotFoundException("User not found: " + username));
+
+        String hash = AIOrchestrator.hashKey(normalize(req.description()));
+        var existing = postings.findByUser_IdAndTextHash(user.getId(), hash);
+        if (existing.isPresent())
+            return toDto(refreshIfStale(existing.get()));
+
+        var p = new JobPostingEntity();
+        p.setUser(user);
+        p.setTextHash(hash);
+        p.setTitle(req.title());
+        p.setDescription(req.description());
+        analyze(p);
+        try {
+            return toDto(postings.save(p));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent create of the same text won uq_job_postings_user_hash; return its row
+            return postings.findByUser_IdAndTextHash(user.getId(), hash).map(this::toDto).orElseThrow(() -> e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public JobPostingResponseDto get(Long id) {
+        return toDto(owned(id));
+    }
+
+    /**
+     * The job description for an AI request: the saved posting when postingId is set (title
+     * defaults to the posting's), otherwise the raw text analyzed on the spot without an
+     * embedding.
+     */
+    public JobDescriptionAnalyzer.Analysis resolve(Long postingId, String title, String text) {
+        if (postingId == null) {
+            if (text == null || text.isBlank())
+                throw new BadRequestException("Either jobPostingId or jobDescription is required");
+            return analyzer.analyze(title, text);
+        }
+        var p = refreshIfStale(owned(postingId));
+        return new JobDescriptionAnalyzer.Analysis(p.getId(), title != null && !title.isBlank() ? title : p.getTitle(),
+                p.getDescription(), p.getKeywords(), p.getPhrases(), p.getEmbedding());
+    }
+
+    private JobPostingEntity owned(Long id) {
+        return postings.findByIdAndUser_Username(id, SecurityUtil.currentUsername())
+                .orElseThrow(() -> new NotFoundException("Job posting not found: " + id));
+    }
+
+    // Re-analyzes postings saved by an older analyzer or embedded with a different model
+    private JobPostingEntity refreshIfStale(JobPostingEntity p) {
+        if (p.getAnalysisVersion() == JobDescriptionAnalyzer.ANALYSIS_VERSION
+                && embeddings.model().equals(p.getEmbeddingModel()) && p.getEmbedding() != null)
+            return p;
+        analyze(p);
+        return postings.save(p);
+    }
+
+    private void analyze(JobPostingEntity p) {
+        var a = analyzer.analyze(p.getTitle(), p.getDescription());
+        p.setKeywords(new ArrayList<>(a.keywords()));
+        p.setPhrases(new ArrayList<>(a.phrases()));
+        p.setEmbedding(embeddings.embed(p.getDescription()));
+        p.setEmbeddingModel(embeddings.model());
+        p.setAnalysisVersion(JobDescriptionAnalyzer.ANALYSIS_VERSION);
+    }
+
+    private JobPostingResponseDto toDto(JobPostingEntity p) {
+        return new JobPostingResponseDto(p.getId(), p.getTitle(), p.getDescription(), p.getKeywords(),
+                p.getPhrases(), p.getCreatedAt());
+    }
+
+    private static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
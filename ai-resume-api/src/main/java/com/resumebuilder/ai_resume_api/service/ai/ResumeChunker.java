@@ -1,257 +1,286 @@
 package com.resumebuilder.ai_resume_api.service.ai;
 
 import com.resumebuilder.ai_resume_api.entity.resume.*;
+import com.resumebuilder.ai_resume_api.exception.NotFoundException;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
+import com.resumebuilder.ai_resume_api.repository.vector.ResumeChunkSourceDao;
+import com.resumebuilder.ai_resume_api.repository.vector.ResumeChunkSourceDao.SourceRow;
+import com.resumebuilder.ai_resume_api.service.resume.ResumeDocumentLoader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional; // add this import
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 
+/**
+ * Turns a resume into retrieval chunks. By default the source text comes from the stored resume
+ * document ({@link ResumeDocumentLoader}); ai.chunks.extraction=sql reads it with one set-based
+ * query ({@link ResumeChunkSourceDao}) and =jpa walks the managed entity graph. All produce the
+ * same {@link ResumeChunkSourceDao.SourceRow} sequence and share {@link #assemble}, so the
+ * chunks are identical either way.
+ */
 @Service
 public class ResumeChunker {
 
     private final ResumeRepository resumeRepository;
+    private final ResumeChunkSourceDao sourceDao;
+    private final ResumeDocumentLoader documentLoader;
+    private final String extraction;
 
-    public ResumeChunker(ResumeRepository resumeRepository) {
+    public ResumeChunker(ResumeRepository resumeRepository, ResumeChunkSourceDao sourceDao,
+            ResumeDocumentLoader documentLoader, @Value("${ai.chunks.extraction:document}") String extraction) {
         this.resumeRepository = resumeRepository;
+        this.sourceDao = sourceDao;
+        this.documentLoader = documentLoader;
+        this.extraction = extraction.toLowerCase(Locale.ROOT);
     }
 
-    // ADD THIS ANNOTATION
     @Transactional(readOnly = true)
     public List<Chunk> buildChunks(Long resumeId) {
+        return switch (extraction) {
+            case "jpa" -> buildChunksFromEntities(resumeId);
+            case "sql" -> buildChunksFromSql(resumeId);
+            default -> buildChunksFromDocument(resumeId);
+        };
+    }
+
+    /** The stored resume document, bound to a detached graph; no lazy loading. */
+    public List<Chunk> buildChunksFromDocument(Long resumeId) {
+        ResumeEntity resume = documentLoader.loadEntity(resumeId)
+                .orElseThrow(() -> new NotFoundException("Resume not found"));
+        var assembler = new Assembler(resumeId);
+        sourceRows(resume).forEach(assembler::accept);
+        return assembler.out;
+    }
+
+    /** One query, no entities loaded. */
+    public List<Chunk> buildChunksFromSql(Long resumeId) {
+        var assembler = new Assembler(resumeId);
+        if (!sourceDao.forEach(resumeId, assembler::accept))
+            throw new NotFoundException("Resume not found");
+        return assembler.out;
+    }
+
+    /** The entity graph path; must run inside a transaction for the lazy collections. */
+    @Transactional(readOnly = true)
+    public List<Chunk> buildChunksFromEntities(Long resumeId) {
         ResumeEntity resume = resumeRepository.findById(resumeId)
-                .orElseThrow(() -> new com.resumebuilder.ai_resume_api.exception.NotFoundException("Resume not found"));
+                .orElseThrow(() -> new NotFoundException("Resume not found"));
+        var assembler = new Assembler(resumeId);
+        sourceRows(resume).forEach(assembler::accept);
+        return assembler.out;
+    }
 
-        List<Chunk> out = new ArrayList<>();
-        int order = 0;
+    // The entity graph as the rows ResumeChunkSourceDao reads, in the same order
+    private List<SourceRow> sourceRows(ResumeEntity resume) {
+        List<SourceRow> rows = new ArrayList<>();
+        rows.add(new SourceRow("SUMMARY_TEXT", null, resume.getProfessionalSummary(), null));
+        rows.add(new SourceRow("SUMMARY_HEADLINE", null, resume.getResumeHeadline(), null));
+        rows.add(new SourceRow("SUMMARY_TITLE", null, resume.getTitle(), null));
 
-        // SUMMARY
-        if (notBlank(resume.getProfessionalSummary())) {
-            out.add(new Chunk(resume.getId(), "SUMMARY", "SUMMARY_TEXT", null, order++,
-                    normalize(resume.getProfessionalSummary())));
+        for (ExperienceEntity exp : nonNull(resume.getExperiences())) {
+            Long id = exp.getId();
+            rows.add(new SourceRow("EXPERIENCE_HEADER", id, null, Arrays.asList(exp.getJobTitle(),
+                    exp.getCompanyName())));
+            nonNull(exp.getResponsibilities()).forEach(b -> rows.add(new SourceRow("EXPERIENCE_BULLET", id, b, null)));
+            nonNull(exp.getAchievements()).forEach(a -> rows.add(new SourceRow("EXPERIENCE_ACHIEVEMENT", id, a, null)));
+            rows.add(new SourceRow("EXPERIENCE_TECH_STACK", id, null, exp.getTechnologies()));
+            rows.add(new SourceRow("EXPERIENCE_METHODS", id, null, exp.getMethods()));
+            rows.add(new SourceRow("EXPERIENCE_STAR_SITUATION", id, exp.getStarSituation(), null));
+            rows.add(new SourceRow("EXPERIENCE_STAR_TASK", id, exp.getStarTask(), null));
+            rows.add(new SourceRow("EXPERIENCE_STAR_ACTION", id, exp.getStarAction(), null));
+            rows.add(new SourceRow("EXPERIENCE_STAR_RESULT", id, exp.getStarResult(), null));
+            if (nonNull(exp.getResponsibilities()).isEmpty() && nonNull(exp.getAchievements()).isEmpty())
+                rows.add(new SourceRow("EXPERIENCE_DESC", id, exp.getDescription(), null));
         }
-        if (notBlank(resume.getResumeHeadline())) {
-            out.add(new Chunk(resume.getId(), "SUMMARY", "SUMMARY_HEADLINE", null, order++,
-                    normalize(resume.getResumeHeadline())));
+
+        for (ProjectEntity pr : nonNull(resume.getProjects())) {
+            Long id = pr.getId();
+            rows.add(new SourceRow("PROJECT_HEADER", id, pr.getTitle(), null));
+            nonNull(pr.getFeatures()).forEach(f -> rows.add(new SourceRow("PROJECT_FEATURE", id, f, null)));
+            rows.add(new SourceRow("PROJECT_SHORT_DESC", id, pr.getShortDescription(), null));
+            rows.add(new SourceRow("PROJECT_OUTCOME", id, pr.getOutcomeSummary(), null));
+            rows.add(new SourceRow("PROJECT_TECH_STACK", id, null, pr.getTechnologies()));
+            rows.add(new SourceRow("PROJECT_IMPACT_METRICS", id, null, Arrays.asList(
+                    Objects.toString(pr.getDownloadsCount(), null), Objects.toString(pr.getUsersCount(), null),
+                    Objects.toString(pr.getStarsCount(), null), Objects.toString(pr.getRevenueImpactUsd(), null))));
         }
-        if (notBlank(resume.getTitle())) {
-            out.add(new Chunk(resume.getId(), "SUMMARY", "SUMMARY_TITLE", null, order++, normalize(resume.getTitle())));
+
+        if (!nonNull(resume.getSkills()).isEmpty())
+            rows.add(new SourceRow("SKILL_LINE", null, null,
+                    resume.getSkills().stream().map(SkillEntity::getName).toList()));
+        for (SkillCategoryEntity cat : nonNull(resume.getSkillCategories())) {
+            rows.add(new SourceRow("SKILL_CATEGORY_LINE", cat.getId(), cat.getName(),
+                    nonNull(cat.getSkills()).isEmpty() ? null
+                            : cat.getSkills().stream().map(SkillEntity::getName).toList()));
         }
 
-        // EXPERIENCE
-        if (resume.getExperiences() != null) {
-            for (ExperienceEntity exp : resume.getExperiences()) {
-                String header = buildExpHeader(exp);
-                if (notBlank(header)) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_HEADER", exp.getId(), 0, header));
-                }
+        for (EducationEntity ed : nonNull(resume.getEducations())) {
+            Long id = ed.getId();
+            rows.add(new SourceRow("EDU_LINE", id, null, Arrays.asList(ed.getDegree(), ed.getFieldOfStudy(),
+                    ed.getInstitution())));
+            rows.add(new SourceRow("EDU_DESC", id, ed.getDescription(), null));
+            rows.add(new SourceRow("EDU_COURSE_LINE", id, null, ed.getCourses()));
+            if (ed.isShowHonors())
+                rows.add(new SourceRow("EDU_HONORS", id, ed.getHonors(), null));
+            if (ed.isShowGpa() && ed.getGpa() != null)
+                rows.add(new SourceRow("EDU_GPA", id, ed.getGpa().toString(), null));
+            rows.add(new SourceRow("EDU_GRADE_CLASS", id, ed.getGradeClass(), null));
+        }
+        return rows;
+    }
 
-                int bi = 0;
-                if (exp.getResponsibilities() != null) {
-                    for (String b : exp.getResponsibilities()) {
-                        if (notBlank(b)) {
-                            out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_BULLET", exp.getId(), bi++,
-                                    normalize(b)));
-                        }
-                    }
-                }
+    // Builds chunks from source rows in order: skips blanks, numbers bullets and formats lines
+    private final class Assembler {
+        private final Long resumeId;
+        private final List<Chunk> out = new ArrayList<>();
+        private int summaryOrder;
+        private int bulletIndex;
+        private int achievementIndex;
+        private int featureIndex;
 
-                int ai = 0;
-                if (exp.getAchievements() != null) {
-                    for (String a : exp.getAchievements()) {
-                        if (notBlank(a)) {
-                            out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_ACHIEVEMENT", exp.getId(), ai++,
-                                    normalize(a)));
-                        }
-                    }
-                }
+        Assembler(Long resumeId) {
+            this.resumeId = resumeId;
+        }
 
-                String techLine = joinList(exp.getTechnologies(), ", ", 64);
-                if (notBlank(techLine)) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_TECH_STACK", exp.getId(), 0, techLine));
+        void accept(SourceRow row) {
+            String t = row.text();
+            List<String> items = row.items();
+            switch (row.refType()) {
+                case "SUMMARY_TEXT", "SUMMARY_HEADLINE", "SUMMARY_TITLE" -> {
+                    if (notBlank(t))
+                        add("SUMMARY", row, summaryOrder++, normalize(t));
                 }
-                String methodsLine = joinList(exp.getMethods(), ", ", 64);
-                if (notBlank(methodsLine)) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_METHODS", exp.getId(), 0, methodsLine));
+                case "EXPERIENCE_HEADER" -> {
+                    bulletIndex = 0;
+                    achievementIndex = 0;
+                    addIfNotBlank("EXPERIENCE", row, 0, buildExpHeader(item(items, 0), item(items, 1)));
                 }
-
-                if (notBlank(exp.getStarSituation())) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_STAR_SITUATION", exp.getId(), 0,
-                            normalize(exp.getStarSituation())));
+                case "EXPERIENCE_BULLET" -> {
+                    if (notBlank(t))
+                        add("EXPERIENCE", row, bulletIndex++, normalize(t));
                 }
-                if (notBlank(exp.getStarTask())) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_STAR_TASK", exp.getId(), 0,
-                            normalize(exp.getStarTask())));
+                case "EXPERIENCE_ACHIEVEMENT" -> {
+                    if (notBlank(t))
+                        add("EXPERIENCE", row, achievementIndex++, normalize(t));
                 }
-                if (notBlank(exp.getStarAction())) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_STAR_ACTION", exp.getId(), 0,
-                            normalize(exp.getStarAction())));
+                case "EXPERIENCE_TECH_STACK", "EXPERIENCE_METHODS" ->
+                    addIfNotBlank("EXPERIENCE", row, 0, joinList(items, ", ", 64));
+                case "EXPERIENCE_STAR_SITUATION", "EXPERIENCE_STAR_TASK", "EXPERIENCE_STAR_ACTION",
+                        "EXPERIENCE_STAR_RESULT", "EXPERIENCE_DESC" -> {
+                    if (notBlank(t))
+                        add("EXPERIENCE", row, 0, normalize(t));
                 }
-                if (notBlank(exp.getStarResult())) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_STAR_RESULT", exp.getId(), 0,
-                            normalize(exp.getStarResult())));
+                case "PROJECT_HEADER" -> {
+                    featureIndex = 0;
+                    addIfNotBlank("PROJECT", row, 0, buildProjectHeader(t));
                 }
-
-                boolean hasResp = exp.getResponsibilities() != null && !exp.getResponsibilities().isEmpty();
-                boolean hasAch = exp.getAchievements() != null && !exp.getAchievements().isEmpty();
-                if (!hasResp && !hasAch && notBlank(exp.getDescription())) {
-                    out.add(new Chunk(resume.getId(), "EXPERIENCE", "EXPERIENCE_DESC", exp.getId(), 0,
-                            normalize(exp.getDescription())));
+                case "PROJECT_FEATURE" -> {
+                    if (notBlank(t))
+                        add("PROJECT", row, featureIndex++, normalize(t));
                 }
-            }
-        }
-
-        // PROJECTS
-        if (resume.getProjects() != null) {
-            for (ProjectEntity pr : resume.getProjects()) {
-                String pHeader = buildProjectHeader(pr);
-                if (notBlank(pHeader)) {
-                    out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_HEADER", pr.getId(), 0, pHeader));
+                case "PROJECT_SHORT_DESC", "PROJECT_OUTCOME" -> {
+                    if (notBlank(t))
+                        add("PROJECT", row, featureIndex, normalize(t));
                 }
-
-                int fi = 0;
-                if (pr.getFeatures() != null) {
-                    for (String f : pr.getFeatures()) {
-                        if (notBlank(f)) {
-                            out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_FEATURE", pr.getId(), fi++,
-                                    normalize(f)));
-                        }
-                    }
+                case "PROJECT_TECH_STACK" -> addIfNotBlank("PROJECT", row, 0, joinList(items, ", ", 64));
+                case "PROJECT_IMPACT_METRICS" -> addIfNotBlank("PROJECT", row, 0, buildProjectImpact(items));
+                case "SKILL_LINE" -> {
+                    String skillLine = joinList(items, ", ", 128);
+                    if (notBlank(skillLine))
+                        add("SKILL", row, 0, normalize(skillLine));
                 }
-                if (notBlank(pr.getShortDescription())) {
-                    out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_SHORT_DESC", pr.getId(), fi,
-                            normalize(pr.getShortDescription())));
+                case "SKILL_CATEGORY_LINE" -> {
+                    if (items != null && !items.isEmpty()) {
+                        String catName = safe(t);
+                        String catLine = (catName.isEmpty() ? "" : (catName + ": ")) + joinList(items, ", ", 64);
+                        if (notBlank(catLine))
+                            add("SKILL", row, 0, normalize(catLine));
+                    }
                 }
-                if (notBlank(pr.getOutcomeSummary())) {
-                    out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_OUTCOME", pr.getId(), fi,
-                            normalize(pr.getOutcomeSummary())));
+                case "EDU_LINE" ->
+                    addIfNotBlank("EDUCATION", row, 0, buildEduHeader(item(items, 0), item(items, 1), item(items, 2)));
+                case "EDU_DESC" -> {
+                    if (notBlank(t))
+                        add("EDUCATION", row, 1, normalize(t));
                 }
-
-                String projTech = joinList(pr.getTechnologies(), ", ", 64);
-                if (notBlank(projTech)) {
-                    out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_TECH_STACK", pr.getId(), 0, projTech));
+                case "EDU_COURSE_LINE" -> addIfNotBlank("EDUCATION", row, 2, joinList(items, ", ", 32));
+                case "EDU_HONORS" -> {
+                    if (notBlank(t))
+                        add("EDUCATION", row, 3, normalize(t));
                 }
-
-                String impact = buildProjectImpact(pr);
-                if (notBlank(impact)) {
-                    out.add(new Chunk(resume.getId(), "PROJECT", "PROJECT_IMPACT_METRICS", pr.getId(), 0, impact));
+                case "EDU_GPA" -> add("EDUCATION", row, 4,
+                        "GPA: " + String.format(Locale.US, "%.2f", Double.parseDouble(t)));
+                case "EDU_GRADE_CLASS" -> {
+                    if (notBlank(t))
+                        add("EDUCATION", row, 5, normalize(t));
                 }
+                default -> throw new IllegalStateException("Unknown chunk source " + row.refType());
             }
         }
 
-        // SKILLS
-        if (resume.getSkills() != null && !resume.getSkills().isEmpty()) {
-            String skillLine = resume.getSkills().stream()
-                    .map(SkillEntity::getName)
-                    .filter(Objects::nonNull)
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .distinct()
-                    .limit(128)
-                    .reduce((a, b) -> a + ", " + b)
-                    .orElse(null);
-            if (notBlank(skillLine)) {
-                out.add(new Chunk(resume.getId(), "SKILL", "SKILL_LINE", null, 0, normalize(skillLine)));
-            }
+        private void addIfNotBlank(String section, SourceRow row, int partOrder, String content) {
+            if (notBlank(content))
+                add(section, row, partOrder, content);
         }
 
-        if (resume.getSkillCategories() != null) {
-            for (SkillCategoryEntity cat : resume.getSkillCategories()) {
-                String catName = safe(cat.getName());
-                if (cat.getSkills() != null && !cat.getSkills().isEmpty()) {
-                    String catSkills = cat.getSkills().stream()
-                            .map(SkillEntity::getName)
-                            .filter(Objects::nonNull)
-                            .map(String::trim)
-                            .filter(s -> !s.isEmpty())
-                            .distinct()
-                            .limit(64)
-                            .reduce((a, b) -> a + ", " + b)
-                            .orElse("");
-                    String catLine = (catName.isEmpty() ? "" : (catName + ": ")) + catSkills;
-                    if (notBlank(catLine)) {
-                        out.add(new Chunk(resume.getId(), "SKILL", "SKILL_CATEGORY_LINE", cat.getId(), 0,
-                                normalize(catLine)));
-                    }
-                }
-            }
+        private void add(String section, SourceRow row, int partOrder, String content) {
+            out.add(new Chunk(resumeId, section, row.refType(), row.refId(), partOrder, content));
         }
-
-        // EDUCATION
-        if (resume.getEducations() != null) {
-            for (EducationEntity ed : resume.getEducations()) {
-                String header = buildEduHeader(ed);
-                if (notBlank(header)) {
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_LINE", ed.getId(), 0, header));
-                }
-                if (notBlank(ed.getDescription())) {
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_DESC", ed.getId(), 1,
-                            normalize(ed.getDescription())));
-                }
-                String courses = joinList(ed.getCourses(), ", ", 32);
-                if (notBlank(courses)) {
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_COURSE_LINE", ed.getId(), 2, courses));
-                }
-                if (ed.isShowHonors() && notBlank(ed.getHonors())) {
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_HONORS", ed.getId(), 3,
-                            normalize(ed.getHonors())));
-                }
-                if (ed.isShowGpa() && ed.getGpa() != null) {
-                    String gpaLine = "GPA: " + String.format(Locale.US, "%.2f", ed.getGpa());
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_GPA", ed.getId(), 4, gpaLine));
-                }
-                if (notBlank(ed.getGradeClass())) {
-                    out.add(new Chunk(resume.getId(), "EDUCATION", "EDU_GRADE_CLASS", ed.getId(), 5,
-                            normalize(ed.getGradeClass())));
-                }
-            }
-        }
-
-        return out;
     }
 
-    private String buildExpHeader(ExperienceEntity exp) {
-        String title = safe(exp.getJobTitle());
-        String company = safe(exp.getCompanyName());
+    private String buildExpHeader(String jobTitle, String companyName) {
+        String title = safe(jobTitle);
+        String company = safe(companyName);
         if (title.isEmpty() && company.isEmpty())
             return "";
         String base = (title.isEmpty() ? "" : title) + (company.isEmpty() ? "" : " at " + company);
         return base.trim();
     }
 
-    private String buildProjectHeader(ProjectEntity pr) {
-        String title = safe(pr.getTitle());
+    private String buildProjectHeader(String projectTitle) {
+        String title = safe(projectTitle);
         if (title.isEmpty())
             return "";
         return ("Project: " + title).trim();
     }
 
-    private String buildProjectImpact(ProjectEntity pr) {
+    // downloads, users, stars, revenue impact (USD) as text, each possibly null
+    private String buildProjectImpact(List<String> metrics) {
         List<String> lines = new ArrayList<>();
-        if (pr.getDownloadsCount() != null)
-            lines.add("Downloads: " + pr.getDownloadsCount());
-        if (pr.getUsersCount() != null)
-            lines.add("Users: " + pr.getUsersCount());
-        if (pr.getStarsCount() != null)
-            lines.add("Stars: " + pr.getStarsCount());
-        if (pr.getRevenueImpactUsd() != null)
-            lines.add("Revenue impact: $" + pr.getRevenueImpactUsd());
+        if (item(metrics, 0) != null)
+            lines.add("Downloads: " + metrics.get(0));
+        if (item(metrics, 1) != null)
+            lines.add("Users: " + metrics.get(1));
+        if (item(metrics, 2) != null)
+            lines.add("Stars: " + metrics.get(2));
+        if (item(metrics, 3) != null)
+            lines.add("Revenue impact: $" + metrics.get(3));
         return String.join(", ", lines);
     }
 
-    private String buildEduHeader(EducationEntity ed) {
-        String degree = safe(ed.getDegree());
-        String field = safe(ed.getFieldOfStudy());
-        String inst = safe(ed.getInstitution());
+    private String buildEduHeader(String degreeName, String fieldOfStudy, String institution) {
+        String degree = safe(degreeName);
+        String field = safe(fieldOfStudy);
+        String inst = safe(institution);
         String header = (degree + " " + field).trim();
         if (!inst.isEmpty())
             header = (header.isEmpty() ? "" : header + " ") + "at " + inst;
         return header.trim();
     }
 
+    private static String item(List<String> items, int index) {
+        return items == null || items.size() <= index ? null : items.get(index);
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
     private boolean notBlank(String s) {
         return s != null && !s.trim().isEmpty();
     }
@@ -2,10 +2,12 @@ package com.resumebuilder.ai_resume_api.service.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resumebuilder.ai_resume_api.ai.AIOrchestrator;
+import com.resumebuilder.ai_resume_api.ai.AiMetrics;
 import com.resumebuilder.ai_resume_api.dto.ai.*;
 import com.resumebuilder.ai_resume_api.repository.vector.ResumeChunkDao;
+import com.resumebuilder.ai_resume_api.repository.vector.ResumeVectorIndex;
+import com.resumebuilder.ai_resume_api.service.ai.chunking.ChunkingPipeline;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,48 +21,69 @@ public class TailoringService {
     private static final Logger log = LoggerFactory.getLogger(TailoringService.class);
 
     private final ResumeChunker chunker;
+    private final ChunkingPipeline chunking;
     private final EmbeddingService embeddings;
     private final ResumeChunkDao chunkDao;
+    private final ResumeVectorIndex vectorIndex;
     private final AIOrchestrator orchestrator;
-    private final ObjectMapper mapper = new ObjectMapper();
     private final VariantValidator variantValidator;
     private final AiTailoringConfig config;
-
-    public TailoringService(ResumeChunker chunker, EmbeddingService embeddings, ResumeChunkDao chunkDao,
-            AIOrchestrator orchestrator, VariantValidator variantValidator, AiTailoringConfig config) {
+    private final AiMetrics metrics;
+    private final ContextPacker contextPacker;
+    private final JobPostingService jobPostings;
+
+    public TailoringService(ResumeChunker chunker, ChunkingPipeline chunking, EmbeddingService embeddings,
+            ResumeChunkDao chunkDao, ResumeVectorIndex vectorIndex, AIOrchestrator orchestrator,
+            VariantValidator variantValidator, AiTailoringConfig config, AiMetrics metrics,
+            ContextPacker contextPacker, JobPostingService jobPostings) {
         this.chunker = chunker;
+        this.chunking = chunking;
         this.embeddings = embeddings;
         this.chunkDao = chunkDao;
+        this.vectorIndex = vectorIndex;
         this.orchestrator = orchestrator;
         this.variantValidator = variantValidator;
         this.config = config;
+        this.metrics = metrics;
+        this.contextPacker = contextPacker;
+        this.jobPostings = jobPostings;
     }
 
-    // Build/rebuild chunks + embeddings
+    // Build/rebuild chunks + embeddings; text already stored for any resume (the base, other tailored copies) is reused
     public int reindex(Long resumeId) {
-        var chunks = chunker.buildChunks(resumeId);
-        chunkDao.deleteByResumeId(resumeId);
-        int inserted = 0;
-        for (var ch : chunks) {
-            float[] vec = embeddings.embed(ch.content());
-            chunkDao.insert(ch.resumeId(), ch.section(), ch.refType(), ch.refId(), ch.partOrder(), ch.content(), vec);
-            inserted++;
+        var chunks = chunking.apply(chunker.buildChunks(resumeId));
+        String model = embeddings.model();
+        List<String> contents = chunks.stream().map(t -> t.chunk().content()).toList();
+        Map<String, float[]> vectors = new HashMap<>(chunkDao.findEmbeddings(model, contents));
+        List<String> missing = contents.stream().distinct().filter(c -> !vectors.containsKey(c)).toList();
+        var fresh = embeddings.embedAll(missing);
+        for (int i = 0; i < missing.size(); i++)
+            vectors.put(missing.get(i), fresh.get(i));
+        log.debug("Reindex resume {}: {} chunks, {} embedded, {} reused", resumeId, chunks.size(), missing.size(),
+                vectors.size() - missing.size());
+
+        List<ResumeVectorIndex.Chunk> indexed = new ArrayList<>(chunks.size());
+        for (var t : chunks) {
+            var ch = t.chunk();
+            indexed.add(new ResumeVectorIndex.Chunk(null, ch.section(), ch.refType(), ch.refId(), ch.partOrder(),
+                    ch.content(), vectors.get(ch.content()), t.chunking()));
         }
-        return inserted;
-    }
-
-    record ScoredCtx(CtxLine ctx, double score) {
+        chunkDao.replaceAll(resumeId, model, indexed);
+        vectorIndex.put(resumeId, indexed);
+        return indexed.size();
     }
 
     public TailorPlanDto tailor(Long resumeId, TailorRequestDto req) {
-        log.info("Tailoring resume {} with topK={}, model={}, reindex={}",
-                resumeId, req.topK(), req.model(), req.reindex());
+        log.info("Tailoring resume {} with topK={}, model={}, reindex={}, jobPostingId={}",
+                resumeId, req.topK(), req.model(), req.reindex(), req.jobPostingId());
 
         long startTime = System.currentTimeMillis();
 
         // Reindex if asked
         if (Boolean.TRUE.equals(req.reindex())) {
+            var reindexStage = metrics.startStage();
             int chunks = reindex(resumeId);
+            metrics.endStage(reindexStage, "reindex");
             log.info("Reindexed resume {} - {} chunks created", resumeId, chunks);
         }
 
@@ -68,84 +91,71 @@ public class TailoringService {
                 ? config.getTailor().getTopk().getDefaultValue()
                 : req.topK();
 
-        // Build context lines (ranked) and keep metadata for mapping
-        float[] jd = embeddings.embed(req.jobDescription());
-        var hits = chunkDao.topK(jd, topK);
-
-        // Build raw ctxLines from hits
-        List<CtxLine> rawLines = new ArrayList<>();
-        int rankCounter = 1;
+        // A saved posting comes with keywords and embedding; raw text is analyzed here
+        var jd = jobPostings.resolve(req.jobPostingId(), null, req.jobDescription());
+        List<String> jdKeywords = jd.keywords(config.getKeywords().getJd().getContext().getLimit());
+        String keywordsJoined = jdKeywords.stream().collect(Collectors.joining(", "));
+        String jdClamped = clamp(jd.text(), config.getTailor().getContent().getClamp().getJd());
+
+        var stage = metrics.startStage();
+        float[] jdVector = jd.embedding() != null ? jd.embedding() : embeddings.embed(jd.text());
+        metrics.endStage(stage, "embed");
+
+        // Over-fetch, then let the packer dedupe, diversify and fit the token budget
+        stage = metrics.startStage();
+        var retrieval = config.getTailor().getRetrieval();
+        int fetch = topK * Math.max(1, config.getTailor().getPack().getOverfetch());
+        var hits = retrieval.isHybrid() && !jdKeywords.isEmpty()
+                ? vectorIndex.hybridTopK(resumeId, jdVector, jdKeywords, fetch, retrieval.getRrfK())
+                : vectorIndex.topK(resumeId, jdVector, fetch);
+        double bestRrf = hits.stream()
+                .mapToDouble(h -> h.get("rrf") instanceof Number n ? n.doubleValue() : 0)
+                .max().orElse(0);
+
+        int chunkClamp = config.getTailor().getContent().getClamp().getChunk();
+        List<ContextPacker.Candidate> candidates = new ArrayList<>();
         for (var h : hits) {
-            String section = Objects.toString(h.get("section"), "");
-            String refType = Objects.toString(h.get("ref_type"), "");
-            String rawcontent = Objects.toString(h.get("content"), "");
-            String content = clamp(rawcontent, config.getTailor().getContent().getClamp().getChunk());
-
-            Long refId = null;
-            Object refIdObj = h.get("ref_id");
-            if (refIdObj instanceof Number n)
-                refId = n.longValue();
-
-            Integer idx = null;
-            Object partOrderObj = h.get("part_order");
-            if (partOrderObj instanceof Number n)
-                idx = n.intValue();
-
-            rawLines.add(new CtxLine(rankCounter++, section, refType, refId, idx, content));
+            Long refId = h.get("ref_id") instanceof Number n ? n.longValue() : null;
+            Integer idx = h.get("part_order") instanceof Number n ? n.intValue() : null;
+            double relevance = bestRrf > 0 && h.get("rrf") instanceof Number rrf ? rrf.doubleValue() / bestRrf
+                    : h.get("distance") instanceof Number d ? 1 - d.doubleValue() : 0;
+            candidates.add(new ContextPacker.Candidate(
+                    Objects.toString(h.get("section"), ""),
+                    Objects.toString(h.get("ref_type"), ""),
+                    refId,
+                    idx,
+                    clamp(Objects.toString(h.get("content"), ""), chunkClamp),
+                    relevance,
+                    h.get("embedding") instanceof float[] v ? v : null));
         }
 
-        // Compute JD keywords for reranking
-        List<String> jdKeywords = extractKeywords(req.jobDescription(),
-                config.getKeywords().getJd().getContext().getLimit());
-
-        // Build raw ctxLines (already done) → keep a local mutable copy for scoring
-        List<ScoredCtx> scored = new ArrayList<>();
-        for (var line : rawLines) {
-            int overlap = 0;
-            String lc = line.content().toLowerCase(Locale.ROOT);
-            for (String k : jdKeywords) {
-                if (lc.contains(k.toLowerCase(Locale.ROOT)))
-                    overlap++;
-            }
-            // Vector similarity already applied by topK; we only add a small keyword bonus
-            double score = overlap; // 0..N
-            scored.add(new ScoredCtx(line, score));
-        }
-        // Sort: bullets first (we already separate), then by score desc while keeping
-        scored.sort((a, b) -> Double.compare(b.score, a.score));
-
-        // then rebuild 'display' from scored in that order
-        List<CtxLine> display = scored.stream().map(sc -> sc.ctx).collect(Collectors.toList());
-
-        // Reorder: bullet-like first to increase likelihood of multiple patches
-        List<CtxLine> bulletLike = new ArrayList<>();
-        List<CtxLine> others = new ArrayList<>();
-        for (CtxLine c : rawLines) {
-            if ("EXPERIENCE".equalsIgnoreCase(c.section()) && isBulletLike(c.refType()))
-                bulletLike.add(c);
-            else
-                others.add(c);
-        }
-        // List<CtxLine> display = new ArrayList<>();
-        display.addAll(bulletLike);
+        int budget = contextPacker.budgetTokens("tailor_patch_json_v1", req.model(),
+                jdClamped.length() + keywordsJoined.length(), config.getGeneration().getNumPredict());
+        var packed = contextPacker.pack(candidates, bestRrf > 0 ? List.of() : jdKeywords, topK, budget, req.model());
+
+        // Bullet-like lines first to increase likelihood of multiple patches; ranks are assigned once
+        List<ContextPacker.Candidate> display = new ArrayList<>(packed.size());
+        List<ContextPacker.Candidate> others = new ArrayList<>();
+        for (var c : packed)
+            ("EXPERIENCE".equalsIgnoreCase(c.section()) && isBulletLike(c.refType()) ? display : others).add(c);
         display.addAll(others);
 
-        // Rebuild ranks and context string
         List<CtxLine> ctxLines = new ArrayList<>();
         StringBuilder ctx = new StringBuilder();
-        int newRank = 1;
-        for (CtxLine c : display) {
-            CtxLine nc = new CtxLine(newRank, c.section(), c.refType(), c.refId(), c.bulletIndex(), c.content());
+        for (var c : display) {
+            CtxLine nc = new CtxLine(ctxLines.size() + 1, c.section(), c.refType(), c.refId(), c.bulletIndex(),
+                    c.content());
             ctxLines.add(nc);
-            ctx.append(newRank).append(") [")
+            ctx.append(nc.rank()).append(") [")
                     .append(nc.section()).append("/").append(nc.refType())
                     .append(" id=").append(nc.refId() == null ? "null" : nc.refId())
                     .append(" idx=").append(nc.bulletIndex() == null ? "null" : nc.bulletIndex())
                     .append("] ")
                     .append(nc.content())
                     .append("\n");
-            newRank++;
         }
+        log.debug("Packed {} of {} retrieved chunks into ~{} context tokens", ctxLines.size(), hits.size(), budget);
+        metrics.endStage(stage, "retrieve");
 
         // Log context at DEBUG level (won't show in production unless explicitly
         if (log.isDebugEnabled()) {
@@ -157,16 +167,15 @@ public class TailoringService {
             }
         }
 
-        String keywordsJoined = jdKeywords.stream().collect(Collectors.joining(", "));
-
         log.debug("Extracted {} JD keywords: {}", jdKeywords.size(), keywordsJoined);
         log.debug("Context lines built: {}", ctxLines.size());
 
         Map<String, Object> vars = new HashMap<>();
-        vars.put("jobDescription", clamp(req.jobDescription(), config.getTailor().getContent().getClamp().getJd()));
+        vars.put("jobDescription", jdClamped);
         vars.put("targetKeywords", keywordsJoined);
         vars.put("context", ctx.toString());
 
+        stage = metrics.startStage();
         var ai = orchestrator.generate(
                 "tailor_patch_json_v1",
                 vars,
@@ -174,21 +183,25 @@ public class TailoringService {
                 Map.of("temperature", config.getGeneration().getTemperature(),
                         "num_predict", config.getGeneration().getNumPredict(),
                         "top_p", config.getGeneration().getTopP()),
-                true);
+                true,
+                res -> planProblems(res.json()));
 
         log.info("Model generated plan: provider={}, model={}, latency={}ms",
                 ai.provider(), ai.model(), ai.latencyMs());
 
-        TailorPlanDto rawPlan = parsePlan(ai.content());
+        TailorPlanDto rawPlan = parsePlan(ai.json(), ai.content());
         log.debug("Raw plan: {} patches, atsScore={}->{}",
                 rawPlan.bulletPatches() == null ? 0 : rawPlan.bulletPatches().size(),
                 rawPlan.atsScoreBefore(), rawPlan.atsScoreAfter());
 
-        TailorPlanDto patchedPlan = enrichPlanWithContext(rawPlan, ctxLines, ai.content(), resumeId);
+        TailorPlanDto patchedPlan = enrichPlanWithContext(rawPlan, ctxLines, ai.json(), resumeId);
         log.debug("After enrichment: {} patches",
                 patchedPlan.bulletPatches() == null ? 0 : patchedPlan.bulletPatches().size());
+        metrics.endStage(stage, "generate");
 
-        TailorPlanDto augmented = augmentIfSparse(patchedPlan, ctxLines, req.jobDescription(), keywordsJoined,
+        stage = metrics.startStage();
+
+        TailorPlanDto augmented = augmentIfSparse(patchedPlan, ctxLines, jd.text(), keywordsJoined,
                 req.model(), resumeId, config.getTailor().getMinPatches());
         log.debug("After augmentation: {} patches",
                 augmented.bulletPatches() == null ? 0 : augmented.bulletPatches().size());
@@ -210,8 +223,11 @@ public class TailoringService {
                 augmented.promptVersion(),
                 augmented.raw());
 
+        metrics.endStage(stage, "augment");
+
         // Compute ATS scores AFTER augmentation (final patch count)
-        int[] ats = computeAtsScores(deduped, resumeId, req.jobDescription());
+        stage = metrics.startStage();
+        int[] ats = computeAtsScores(deduped, resumeId, jd);
         double before = ats[0];
         double after = ats[1];
         log.info("ATS scores computed: before={}, after={} (delta={})", before, after, (after - before));
@@ -232,14 +248,14 @@ public class TailoringService {
         }
 
         // Compute real global keywords (don't trust model)
-        GlobalKeywordAnalysis realKeywords = analyzeGlobalKeywords(req.jobDescription(), resumeId, dedupedPatches);
+        GlobalKeywordAnalysis realKeywords = analyzeGlobalKeywords(jd, resumeId, dedupedPatches);
 
         log.info("Real keywords - to add: {}, missing: {}",
                 String.join(", ", realKeywords.toAdd()),
                 String.join(", ", realKeywords.missing()));
 
         // Fix keywordsAdded for each patch (validate against actual variant content)
-        List<String> jdKeywordss = extractKeywords(req.jobDescription(), config.getKeywords().getJd().getLimit());
+        List<String> jdKeywordss = jd.keywords(config.getKeywords().getJd().getLimit());
         List<TailorPlanDto.BulletPatch> validatedPatches = dedupedPatches.stream()
                 .map(bp -> {
                     List<String> actualKeywords = computeActualKeywordsInVariants(bp.variants(), jdKeywordss);
@@ -266,6 +282,7 @@ public class TailoringService {
                     );
                 })
                 .collect(Collectors.toList());
+        metrics.endStage(stage, "score");
 
         return new TailorPlanDto(
                 before,
@@ -277,7 +294,7 @@ public class TailoringService {
                 ai.provider(),
                 ai.model(),
                 ai.latencyMs(),
-                "1.2",
+                ai.promptVersion(),
                 ai.content());
     }
 
@@ -405,6 +422,25 @@ public class TailoringService {
                 plan.raw());
     }
 
+    // Cascade gates: a small model's plan is kept only if most patches survive VariantValidator
+    private List<String> planProblems(JsonNode json) {
+        JsonNode patches = json == null ? null : json.path("bulletPatches");
+        if (patches == null || !patches.isArray() || patches.isEmpty())
+            return List.of("No bullet patches");
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < patches.size(); i++)
+            problems.addAll(variantProblems(patches.get(i), "Patch " + (i + 1)));
+        return problems.size() * 2 > patches.size() ? problems : List.of();
+    }
+
+    private List<String> variantProblems(JsonNode patch, String label) {
+        if (patch == null || !patch.isObject())
+            return List.of(label + " is missing");
+        if (variantValidator.cleanVariants(toList(patch.path("variants"))).isEmpty())
+            return List.of(label + " has no variant in resume voice");
+        return List.of();
+    }
+
     private TailorPlanDto.BulletPatch generateSinglePatchFromCtx(String jobDescription, String targetKeywordsCsv,
             CtxLine c, String modelKey) {
         String tag = String.format("%d) [%s/%s id=%s idx=%s]",
@@ -426,10 +462,13 @@ public class TailoringService {
                 Map.of("temperature", config.getGeneration().getSingle().getTemperature(),
                         "num_predict", config.getGeneration().getSingle().getNumPredict(),
                         "top_p", config.getGeneration().getTopP()),
-                true);
+                true,
+                res -> variantProblems(res.json() == null ? null : res.json().path("patch"), "Patch"));
 
+        JsonNode root = ai.json();
+        if (root == null)
+            return null;
         try {
-            JsonNode root = mapper.readTree(ai.content());
             JsonNode p = root.path("patch");
             if (!p.isObject())
                 return null;
@@ -551,7 +590,7 @@ public class TailoringService {
         return s.length() <= max ? s : s.substring(0, max);
     }
 
-    private TailorPlanDto enrichPlanWithContext(TailorPlanDto plan, List<CtxLine> ctxLines, String rawJson,
+    private TailorPlanDto enrichPlanWithContext(TailorPlanDto plan, List<CtxLine> ctxLines, JsonNode json,
             Long resumeId) {
         if (plan == null || plan.bulletPatches() == null || plan.bulletPatches().isEmpty())
             return plan;
@@ -569,7 +608,7 @@ public class TailoringService {
         }
 
         Map<Integer, CtxLine> byRank = ctxLines.stream().collect(Collectors.toMap(CtxLine::rank, c -> c));
-        List<List<Integer>> ranksPerPatch = extractSourceRanks(rawJson, plan.bulletPatches().size());
+        List<List<Integer>> ranksPerPatch = extractSourceRanks(json, plan.bulletPatches().size());
 
         List<TailorPlanDto.BulletPatch> fixed = new ArrayList<>();
         for (int i = 0; i < plan.bulletPatches().size(); i++) {
@@ -773,9 +812,8 @@ public class TailoringService {
                 "EXPERIENCE_ACHIEVEMENT".equalsIgnoreCase(refType);
     }
 
-    private List<List<Integer>> extractSourceRanks(String rawJson, int expectedSize) {
+    private List<List<Integer>> extractSourceRanks(JsonNode root, int expectedSize) {
         try {
-            JsonNode root = mapper.readTree(rawJson);
             JsonNode arr = root.path("bulletPatches");
             List<List<Integer>> out = new ArrayList<>();
             if (arr.isArray()) {
@@ -870,11 +908,11 @@ public class TailoringService {
      * Before = current resume state
      * After = resume with top patch variant applied per bullet
      */
-    private int[] computeAtsScores(TailorPlanDto plan, Long resumeId, String jobDescription) {
+    private int[] computeAtsScores(TailorPlanDto plan, Long resumeId, JobDescriptionAnalyzer.Analysis jd) {
         log.debug("Computing ATS scores for resume {}", resumeId);
 
-        // Extract JD keywords for matching
-        List<String> jdKeywords = extractKeywords(jobDescription, config.getKeywords().getJd().getLimit());
+        String jobDescription = jd.text();
+        List<String> jdKeywords = jd.keywords(config.getKeywords().getJd().getLimit());
         log.debug("Extracted {} JD keywords for ATS scoring", jdKeywords.size());
 
         // Build current resume text
@@ -1021,12 +1059,11 @@ public class TailoringService {
      * This overrides model's hallucinated globalKeywordsToAdd
      */
     private GlobalKeywordAnalysis analyzeGlobalKeywords(
-            String jobDescription,
+            JobDescriptionAnalyzer.Analysis jd,
             Long resumeId,
             List<TailorPlanDto.BulletPatch> patches) {
 
-        // Extract JD keywords
-        List<String> jdKeywords = extractKeywords(jobDescription, config.getKeywords().getJd().getLimit());
+        List<String> jdKeywords = jd.keywords(config.getKeywords().getJd().getLimit());
 
         // Get current resume text
         List<ResumeChunker.Chunk> allChunks = chunker.buildChunks(resumeId);
@@ -1224,52 +1261,16 @@ public class TailoringService {
         return count;
     }
 
-    private static final java.util.Set<String> STOP = java.util.Set.of(
-            "the", "and", "for", "with", "that", "from", "this", "have", "has", "had", "into", "your", "you", "are",
-            "our", "their",
-            "will", "can", "able", "using", "use", "used", "such", "about", "over", "under", "within", "without", "per",
-            "etc",
-            "a", "an", "to", "in", "of", "by", "as", "on", "at", "be", "is", "was", "were", "or", "it", "we", "they",
-            "i", "my", "me",
-            // Job posting noise words
-            "looking", "seeking", "candidate", "ideal", "strong", "excellent", "good", "great", "must", "should",
-            "preferred", "nice", "plus", "bonus", "role", "position", "job", "opportunity", "required",
-            // Generic resume noise
-            "experience", "experienced", "engineer", "engineering", "developer", "development", "software", "project",
-            "projects", "team", "teams", "requirements", "requirement", "responsibilities", "responsibility",
-            "lead", "leading", "leadership", "work", "working", "skills", "ability", "knowledge");
-
-    private List<String> extractKeywords(String text, int limit) {
-        if (text == null)
-            return List.of();
-        String[] tokens = text.toLowerCase(Locale.ROOT).split("[^a-z0-9+.#/\\-]+");
-        Map<String, Integer> freq = new HashMap<>();
-        for (String t : tokens) {
-            String k = t.trim();
-            // Strip trailing punctuation
-            k = k.replaceAll("[.,;:!?]+$", "");
-            if (k.length() < 3)
-                continue;
-            if (STOP.contains(k))
-                continue;
-            freq.merge(k, 1, Integer::sum);
-        }
-        return freq.entrySet().stream()
-                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-    }
-
     private record CtxLine(int rank, String section, String refType, Long refId, Integer bulletIndex, String content) {
     }
 
     private record MappedRef(Long refId, Integer bulletIndex) {
     }
 
-    private TailorPlanDto parsePlan(String json) {
+    private TailorPlanDto parsePlan(JsonNode root, String json) {
+        if (root == null)
+            return new TailorPlanDto(0, 0, List.of(), List.of(), List.of(), List.of(), null, null, null, "1.0", json);
         try {
-            JsonNode root = mapper.readTree(json);
             double before = root.path("atsScoreBefore").asDouble(0.0);
             double after = root.path("atsScoreAfter").asDouble(before);
             var globals = toList(root.path("globalKeywordsToAdd"));
@@ -0,0 +1,40 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits and token estimate shared by the strategies. charsPerToken is what TokenBudgeter has
+ * learned for the embedding model.
+ */
+public record ChunkingContext(double charsPerToken, int minTokens, int maxTokens, int overlapSentences) {
+
+    public int tokens(String text) {
+        return text == null ? 0 : (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    /** Pieces of at most maxTokens, cut at spaces where possible; IN_PLACE chunks are returned whole. */
+    public List<Chunk> cap(Chunk c) {
+        int maxChars = Math.max(1, (int) (maxTokens * charsPerToken));
+        if (ChunkingStrategy.IN_PLACE.contains(c.refType()) || c.content().length() <= maxChars)
+            return List.of(c);
+        List<Chunk> out = new ArrayList<>();
+        String rest = c.content();
+        while (rest.length() > maxChars) {
+            int cut = rest.lastIndexOf(' ', maxChars);
+            if (cut <= 0)
+                cut = maxChars;
+            out.add(withContent(c, rest.substring(0, cut).trim()));
+            rest = rest.substring(cut).trim();
+        }
+        if (!rest.isEmpty())
+            out.add(withContent(c, rest));
+        return out;
+    }
+
+    static Chunk withContent(Chunk c, String content) {
+        return new Chunk(c.resumeId(), c.section(), c.refType(), c.refId(), c.partOrder(), content);
+    }
+}
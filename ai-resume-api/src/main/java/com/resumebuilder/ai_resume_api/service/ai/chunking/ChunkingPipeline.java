@@ -0,0 +1,91 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.ai.AiMetrics;
+import com.resumebuilder.ai_resume_api.ai.TokenBudgeter;
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import com.resumebuilder.ai_resume_api.service.ai.EmbeddingService;
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the configured {@link ChunkingStrategy} chain to each section of a resume's chunks.
+ * ai.chunking.sections.EXPERIENCE=merge-small,sentence-window sets a section's chain;
+ * unlisted sections use ai.chunking.default-strategy. Every chunk is tagged with its chain and
+ * strategy versions ("merge-small@1+sentence-window@1"), stored in resume_chunks.chunking, and
+ * counted in ai.chunks.indexed / ai.chunks.size per section and tag, so two configurations
+ * can be compared on index size and, through the tag on retrieved rows, on retrieval quality.
+ */
+@Component
+public class ChunkingPipeline {
+
+    private final Map<String, ChunkingStrategy> strategies;
+    private final AiTailoringConfig config;
+    private final TokenBudgeter budgeter;
+    private final EmbeddingService embeddings;
+    private final AiMetrics metrics;
+
+    public ChunkingPipeline(List<ChunkingStrategy> strategies, AiTailoringConfig config, TokenBudgeter budgeter,
+            EmbeddingService embeddings, AiMetrics metrics) {
+        this.strategies = strategies.stream().collect(Collectors.toMap(ChunkingStrategy::name, Function.identity()));
+        this.config = config;
+        this.budgeter = budgeter;
+        this.embeddings = embeddings;
+        this.metrics = metrics;
+        chain(config.getChunking().getDefaultStrategy());
+        config.getChunking().getSections().values().forEach(this::chain); // fail at startup on unknown names
+    }
+
+    /** A chunk and the tag of the chain that produced it. */
+    public record Tagged(Chunk chunk, String chunking) {
+    }
+
+    public List<Tagged> apply(List<Chunk> chunks) {
+        var cfg = config.getChunking();
+        var ctx = new ChunkingContext(budgeter.charsPerToken(embeddings.model()), cfg.getMinTokens(),
+                cfg.getMaxTokens(), cfg.getOverlapSentences());
+
+        Map<String, List<Chunk>> bySection = new LinkedHashMap<>();
+        for (Chunk c : chunks)
+            bySection.computeIfAbsent(c.section(), k -> new ArrayList<>()).add(c);
+
+        List<Tagged> out = new ArrayList<>(chunks.size());
+        bySection.forEach((section, sectionChunks) -> {
+            List<ChunkingStrategy> chain = chain(cfg.getSections()
+                    .getOrDefault(section.toUpperCase(Locale.ROOT), cfg.getDefaultStrategy()));
+            String tag = chain.stream().map(s -> s.name() + "@" + s.version()).collect(Collectors.joining("+"));
+            List<Chunk> shaped = sectionChunks;
+            for (ChunkingStrategy s : chain)
+                shaped = s.apply(shaped, ctx);
+            int chars = 0;
+            for (Chunk c : shaped) {
+                out.add(new Tagged(c, tag));
+                chars += c.content().length();
+            }
+            metrics.chunksIndexed(section, tag, shaped.size(), chars);
+        });
+        return out;
+    }
+
+    private List<ChunkingStrategy> chain(String names) {
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .map(n -> {
+                    ChunkingStrategy s = strategies.get(n);
+                    if (s == null)
+                        throw new IllegalStateException("Unknown chunking strategy '" + n + "', known: "
+                                + strategies.keySet());
+                    return s;
+                })
+                .toList();
+    }
+}
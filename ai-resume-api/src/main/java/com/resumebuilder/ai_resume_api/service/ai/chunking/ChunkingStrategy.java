@@ -0,0 +1,31 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reshapes one section's chunks before they are embedded. Implementations are Spring beans,
+ * picked by {@link #name()} in ai.chunking.sections.&lt;SECTION&gt; (or default-strategy).
+ *
+ * Chunks of {@link #IN_PLACE} types must come out unchanged: tailoring patches address them by
+ * part order and original text. Bump {@link #version()} whenever the output for the same input
+ * changes, so indexes built with the old behaviour can be told apart.
+ */
+public interface ChunkingStrategy {
+
+    /** Lines a patch rewrites in place; never merged, split or reworded. */
+    Set<String> IN_PLACE = Set.of("EXPERIENCE_BULLET", "EXPERIENCE_ACHIEVEMENT", "PROJECT_FEATURE");
+
+    /** Lines a patch may turn into a new bullet; merged only with chunks of the same type. */
+    Set<String> PATCH_SOURCES = Set.of("EXPERIENCE_DESC", "PROJECT_SHORT_DESC", "PROJECT_OUTCOME",
+            "PROJECT_IMPACT_METRICS");
+
+    String name();
+
+    int version();
+
+    /** chunks are one section's, in resume order; the result must keep that order. */
+    List<Chunk> apply(List<Chunk> chunks, ChunkingContext ctx);
+}
@@ -0,0 +1,58 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Joins chunks under ai.chunking.min-tokens to their neighbours from the same entity (a GPA
+ * line to its degree, a headline to the summary), up to max-tokens. The merged chunk keeps the
+ * first member's type and part order. Patch sources only merge with their own type.
+ */
+@Component
+public class MergeSmallChunking implements ChunkingStrategy {
+
+    @Override
+    public String name() {
+        return "merge-small";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public List<Chunk> apply(List<Chunk> chunks, ChunkingContext ctx) {
+        List<Chunk> out = new ArrayList<>(chunks.size());
+        Chunk group = null;
+        for (Chunk c : chunks) {
+            if (group != null && mergeable(group, c, ctx)) {
+                group = ChunkingContext.withContent(group, group.content() + "; " + c.content());
+                continue;
+            }
+            if (group != null)
+                out.add(group);
+            group = c;
+        }
+        if (group != null)
+            out.add(group);
+        return out;
+    }
+
+    private static boolean mergeable(Chunk group, Chunk c, ChunkingContext ctx) {
+        if (IN_PLACE.contains(group.refType()) || IN_PLACE.contains(c.refType()))
+            return false;
+        if (!Objects.equals(group.refId(), c.refId()))
+            return false;
+        if (!group.refType().equals(c.refType())
+                && (PATCH_SOURCES.contains(group.refType()) || PATCH_SOURCES.contains(c.refType())))
+            return false;
+        int g = ctx.tokens(group.content());
+        int n = ctx.tokens(c.content());
+        return (g < ctx.minTokens() || n < ctx.minTokens()) && g + n <= ctx.maxTokens();
+    }
+}
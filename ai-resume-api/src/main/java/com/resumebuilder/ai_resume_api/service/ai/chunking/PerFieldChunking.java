@@ -0,0 +1,26 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** One chunk per bullet, feature or field, whatever its length: the original behaviour and A/B baseline. */
+@Component
+public class PerFieldChunking implements ChunkingStrategy {
+
+    @Override
+    public String name() {
+        return "per-field";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public List<Chunk> apply(List<Chunk> chunks, ChunkingContext ctx) {
+        return chunks;
+    }
+}
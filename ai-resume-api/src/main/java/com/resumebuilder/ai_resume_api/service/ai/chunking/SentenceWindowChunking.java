@@ -0,0 +1,55 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits narrative fields longer than ai.chunking.max-tokens (summaries, descriptions, STAR
+ * fields) into windows of whole sentences that fit the limit, each starting
+ * overlap-sentences before the previous one ended, so no sentence loses its context at a
+ * boundary. Every window keeps the field's type and part order.
+ */
+@Component
+public class SentenceWindowChunking implements ChunkingStrategy {
+
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+");
+
+    @Override
+    public String name() {
+        return "sentence-window";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public List<Chunk> apply(List<Chunk> chunks, ChunkingContext ctx) {
+        List<Chunk> out = new ArrayList<>(chunks.size());
+        for (Chunk c : chunks) {
+            if (IN_PLACE.contains(c.refType()) || ctx.tokens(c.content()) <= ctx.maxTokens()) {
+                out.add(c);
+                continue;
+            }
+            String[] sentences = SENTENCE_END.split(c.content());
+            int start = 0;
+            while (start < sentences.length) {
+                StringBuilder window = new StringBuilder(sentences[start]);
+                int end = start + 1;
+                while (end < sentences.length
+                        && ctx.tokens(window + " " + sentences[end]) <= ctx.maxTokens())
+                    window.append(' ').append(sentences[end++]);
+                out.addAll(ctx.cap(ChunkingContext.withContent(c, window.toString())));
+                if (end >= sentences.length)
+                    break;
+                start = Math.max(start + 1, end - ctx.overlapSentences());
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,30 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Splits chunks longer than ai.chunking.max-tokens at word boundaries instead of clamping them later. */
+@Component
+public class TokenCapChunking implements ChunkingStrategy {
+
+    @Override
+    public String name() {
+        return "token-cap";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public List<Chunk> apply(List<Chunk> chunks, ChunkingContext ctx) {
+        List<Chunk> out = new ArrayList<>(chunks.size());
+        for (Chunk c : chunks)
+            out.addAll(ctx.cap(c));
+        return out;
+    }
+}
@@ -11,6 +11,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.AwardRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -85,13 +86,7 @@ public class AwardService {
         var a = awardRepository.findByIdAndResume_Id(awardId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The award does not belong to the specified resume."));
 
-        if (dto.version() == null) {
-            throw new BadRequestException("Award version is required for update.");
-        }
-        if (!dto.version().equals(a.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for award id=" + awardId);
-        }
+        ETags.requireVersion(dto.version(), a.getVersion(), "Award", awardId);
 
         if (dto.title() != null)
             a.setTitle(dto.title());
@@ -114,7 +109,7 @@ public class AwardService {
         if (dto.linkUrl() != null)
             a.setLinkUrl(dto.linkUrl());
 
-        a = awardRepository.save(a);
+        a = awardRepository.saveAndFlush(a);
         return resumeMapper.toDto(a);
     }
 
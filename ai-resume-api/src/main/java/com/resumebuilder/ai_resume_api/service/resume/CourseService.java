@@ -17,6 +17,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.CourseRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -125,12 +126,7 @@ public class CourseService {
         var e = courseRepository.findByIdAndResume_Id(courseId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The course does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Course version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for course id=" + courseId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Course", courseId);
 
         // Determine future state for validation
         LocalDate newStart = dto.startDate() != null ? dto.startDate() : e.getStartDate();
@@ -197,7 +193,7 @@ public class CourseService {
         if (dto.links() != null)
             e.setLinks(mapLinks(dto.links()));
 
-        e = courseRepository.save(e);
+        e = courseRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
@@ -11,6 +11,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.CredentialRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -106,12 +107,7 @@ public class CredentialService {
                 .orElseThrow(
                         () -> new AccessDeniedException("The credential does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Credential version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for credential id=" + credentialId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Credential", credentialId);
 
         LocalDate newIssue = dto.issueDate() != null ? dto.issueDate() : e.getIssueDate();
         LocalDate newExpiry = dto.expiryDate() != null ? dto.expiryDate() : e.getExpiryDate();
@@ -161,7 +157,7 @@ public class CredentialService {
         if (dto.keywords() != null)
             e.setKeywords(new ArrayList<>(dto.keywords()));
 
-        e = credentialRepository.save(e);
+        e = credentialRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
@@ -8,6 +8,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.EducationRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -94,14 +95,7 @@ public class EducationService {
         var e = educationRepository.findByIdAndResume_Id(eduId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The education does not belong to the specified resume."));
 
-        if (dto.version() == null) {
-            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException(
-                    "Education version is required for update.");
-        }
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for education id=" + eduId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Education", eduId);
 
         if (dto.institution() != null)
             e.setInstitution(dto.institution());
@@ -165,7 +159,7 @@ public class EducationService {
             e.setProjects(links);
         }
 
-        e = educationRepository.save(e);
+        e = educationRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
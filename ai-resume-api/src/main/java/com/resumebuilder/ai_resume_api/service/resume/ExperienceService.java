@@ -8,6 +8,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ExperienceRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -117,14 +118,7 @@ public class ExperienceService {
                 .orElseThrow(
                         () -> new AccessDeniedException("The experience does not belong to the specified resume."));
 
-        if (dto.version() == null) {
-            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException(
-                    "Experience version is required for update.");
-        }
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for experience id=" + experienceId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Experience", experienceId);
 
         if (dto.jobTitle() != null)
             e.setJobTitle(dto.jobTitle());
@@ -215,7 +209,7 @@ public class ExperienceService {
         if (dto.kpiArrUsd() != null)
             e.setKpiArrUsd(dto.kpiArrUsd());
 
-        e = experienceRepository.save(e);
+        e = experienceRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
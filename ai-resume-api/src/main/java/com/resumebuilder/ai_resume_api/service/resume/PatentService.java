@@ -13,6 +13,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.PatentRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -119,12 +120,7 @@ public class PatentService {
         var e = patentRepository.findByIdAndResume_Id(patentId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The patent does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Patent version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for patent id=" + patentId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Patent", patentId);
 
         if (dto.title() != null)
             e.setTitle(dto.title());
@@ -184,7 +180,7 @@ public class PatentService {
             e.setLinks(links);
         }
 
-        e = patentRepository.save(e);
+        e = patentRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
@@ -15,6 +15,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ProjectRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -112,11 +113,7 @@ public class ProjectService {
         var p = projectRepository.findByIdAndResume_Id(projectId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The project does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Project version is required for update.");
-        if (!dto.version().equals(p.getVersion()))
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for project id=" + projectId);
+        ETags.requireVersion(dto.version(), p.getVersion(), "Project", projectId);
 
         if (dto.title() != null)
             p.setTitle(dto.title());
@@ -181,7 +178,7 @@ public class ProjectService {
         if (dto.licenseUrl() != null)
             p.setLicenseUrl(dto.licenseUrl());
 
-        p = projectRepository.save(p);
+        p = projectRepository.saveAndFlush(p);
         return resumeMapper.toDto(p);
     }
 
@@ -13,6 +13,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.PublicationRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -112,12 +113,7 @@ public class PublicationService {
                 .orElseThrow(
                         () -> new AccessDeniedException("The publication does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Publication version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for publication id=" + publicationId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Publication", publicationId);
 
         if (dto.title() != null)
             e.setTitle(dto.title());
@@ -179,7 +175,7 @@ public class PublicationService {
         if (dto.keywords() != null)
             e.setKeywords(new ArrayList<>(dto.keywords()));
 
-        e = publicationRepository.save(e);
+        e = publicationRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
@@ -11,6 +11,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ReferenceRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -95,12 +96,7 @@ public class ReferenceService {
         var e = referenceRepository.findByIdAndResume_Id(referenceId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The reference does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Reference version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for reference id=" + referenceId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Reference", referenceId);
 
         if (dto.name() != null)
             e.setName(dto.name());
@@ -138,7 +134,7 @@ public class ReferenceService {
         validateVisibilityConsent(e.isVisible(), e.isConsentToShare(), e.getEmail(), e.getPhone(), e.getLinkedinUrl(),
                 e.getWebsiteUrl());
 
-        e = referenceRepository.save(e);
+        e = referenceRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
@@ -0,0 +1,47 @@
+package com.resumebuilder.ai_resume_api.service.resume;
+
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeDocumentDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores resume_documents rows for resumes last written before V52, one batch per run. Until a
+ * resume has one, reads build its document on the fly. Stops querying once a run finds nothing
+ * left; every write after V52 stores the document itself.
+ */
+@Component
+public class ResumeDocumentBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumeDocumentBackfill.class);
+
+    private final ResumeDocumentDao dao;
+    private final int batchSize;
+    private volatile boolean done;
+    private long total;
+
+    public ResumeDocumentBackfill(ResumeDocumentDao dao,
+            @Value("${app.resumes.documents.backfill.batch-size:200}") int batchSize) {
+        this.dao = dao;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.resumes.documents.backfill.delay-ms:2000}",
+            initialDelayString = "${app.resumes.documents.backfill.delay-ms:2000}")
+    public void run() {
+        if (done)
+            return;
+        try {
+            int stored = dao.backfill(batchSize);
+            total += stored;
+            if (stored < batchSize) {
+                done = true;
+                log.info("Resume document backfill complete: {} documents stored", total);
+            }
+        } catch (Exception ex) {
+            log.warn("Resume document backfill failed, will retry: {}", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.resumebuilder.ai_resume_api.service.resume;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeResponseDto;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.SkillCategoryEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.SkillEntity;
+import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeDocumentDao;
+import com.resumebuilder.ai_resume_api.util.ETags;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read path for GET /api/resumes/{id} and chunking: the document from {@link ResumeDocumentDao}
+ * (one primary-key lookup once it is stored) is bound to a detached ResumeEntity graph and
+ * mapped by ResumeMapper, so durations, locations and enum names come out exactly as on the
+ * JPA path. The relations the entities keep out of JSON (user, a skill's category) are linked
+ * back from the document's ids.
+ */
+@Component
+public class ResumeDocumentLoader {
+
+    private final ResumeDocumentDao dao;
+    private final ResumeMapper resumeMapper;
+    private final ObjectMapper json;
+
+    public ResumeDocumentLoader(ResumeDocumentDao dao, ResumeMapper resumeMapper, ObjectMapper objectMapper) {
+        this.dao = dao;
+        this.resumeMapper = resumeMapper;
+        this.json = objectMapper.copy()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public Optional<ResumeResponseDto> load(Long resumeId, String username) {
+        return dao.findDocument(resumeId, username).map(this::toDto);
+    }
+
+    /** The resume's ETag if it belongs to username and its document is stored. */
+    public Optional<String> etag(Long resumeId, String username) {
+        return dao.findETag(resumeId, username).map(ETags::of);
+    }
+
+    /** The quoted @Version of one section list element, e.g. ("experiences", 31), from the stored document. */
+    public Optional<String> sectionETag(Long resumeId, String username, String section, Long id) {
+        return dao.findVersion(resumeId, username, section, id).map(ETags::of);
+    }
+
+    /** The resume as a detached entity graph with every collection filled, no owner check. */
+    public Optional<ResumeEntity> loadEntity(Long resumeId) {
+        return dao.findDocument(resumeId).map(this::toEntity);
+    }
+
+    ResumeResponseDto toDto(String document) {
+        return resumeMapper.toResponseDto(toEntity(document));
+    }
+
+    ResumeEntity toEntity(String document) {
+        try {
+            JsonNode tree = json.readTree(document);
+            ResumeEntity resume = json.treeToValue(tree, ResumeEntity.class);
+
+            UserEntity user = new UserEntity();
+            user.setId(tree.path("user_id").asLong());
+            resume.setUser(user);
+
+            Map<Long, SkillCategoryEntity> categories = new HashMap<>();
+            for (SkillCategoryEntity c : resume.getSkillCategories()) {
+                categories.put(c.getId(), c);
+                c.getSkills().forEach(s -> s.setCategory(c));
+            }
+            JsonNode skills = tree.path("skills");
+            for (int i = 0; i < resume.getSkills().size(); i++) {
+                JsonNode categoryId = skills.path(i).path("category_id");
+                if (!categoryId.isNumber())
+                    continue;
+                SkillEntity s = resume.getSkills().get(i);
+                s.setCategory(categories.computeIfAbsent(categoryId.asLong(), id -> {
+                    var c = new SkillCategoryEntity();
+                    c.setId(id);
+                    return c;
+                }));
+            }
+            return resume;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable resume document", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.resumebuilder.ai_resume_api.service.resume;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeRequestDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeResponseDto;
 import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto;
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryPageDto;
 import com.resumebuilder.ai_resume_api.entity.resume.*;
 import com.resumebuilder.ai_resume_api.enums.ResumeType;
 import com.resumebuilder.ai_resume_api.exception.NotFoundException;
@@ -13,16 +14,24 @@ import com.resumebuilder.ai_resume_api.security.SecurityUtil;
 import com.resumebuilder.ai_resume_api.service.FeatureGateService;
 import com.resumebuilder.ai_resume_api.service.TailorPlanCacheService;
 import com.resumebuilder.ai_resume_api.service.UsageTrackingService;
+import com.resumebuilder.ai_resume_api.util.ETags;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @Service
 @Transactional
 public class ResumeService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ResumeRepository resumeRepository;
     private final UserRepository userRepository;
     private final ResumeMapper resumeMapper;
@@ -31,11 +40,15 @@ public class ResumeService {
     private final UsageTrackingService usageTrackingService;
     private final TailorPlanCacheService tailorPlanCache;
     private final com.resumebuilder.ai_resume_api.service.ai.TailoringService tailoringService;
+    private final ResumeDocumentLoader documentLoader;
+    private final boolean sqlDocumentLoader;
 
     public ResumeService(ResumeRepository resumeRepository, UserRepository userRepository, ResumeMapper resumeMapper,
             FeatureGateService featureGateService, UsageTrackingService usageTrackingService,
             TailorPlanCacheService tailorPlanCache,
-            com.resumebuilder.ai_resume_api.service.ai.TailoringService tailoringService) {
+            com.resumebuilder.ai_resume_api.service.ai.TailoringService tailoringService,
+            ResumeDocumentLoader documentLoader,
+            @Value("${app.resumes.document-loader:sql}") String documentLoaderMode) {
         this.resumeRepository = resumeRepository;
         this.userRepository = userRepository;
         this.resumeMapper = resumeMapper;
@@ -43,6 +56,9 @@ public class ResumeService {
         this.usageTrackingService = usageTrackingService;
         this.tailorPlanCache = tailorPlanCache;
         this.tailoringService = tailoringService;
+        this.documentLoader = documentLoader;
+        // app.resumes.document-loader=jpa maps the entity graph instead
+        this.sqlDocumentLoader = !"jpa".equalsIgnoreCase(documentLoaderMode);
     }
 
     public ResumeResponseDto createResume(ResumeRequestDto requestDto) {
@@ -149,14 +165,9 @@ public class ResumeService {
         var r = resumeRepository.findByIdAndUser_Username(resumeId, username)
                 .orElseThrow(() -> new NotFoundException("Resume not found"));
 
-        if (dto.version() == null) {
-            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException(
-                    "Resume version is required for update.");
-        }
-        if (!dto.version().equals(r.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for resume. Please refresh and retry.");
-        }
+        // A resume's ETag covers its sections, so If-Match fails after any edit since the GET
+        ETags.requireVersion(dto.version(), r.getVersion(),
+                () -> documentLoader.etag(resumeId, username).orElse(null), "Resume", resumeId);
 
         // Scalars (PUT semantics: null clears)
         r.setTitle(dto.title());
@@ -288,16 +299,60 @@ public class ResumeService {
         }
     }
 
+    /** All of the current user's resumes, most recently updated first; summary columns only. */
     @Transactional(readOnly = true)
     public List<ResumeSummaryDto> listMyResumes() {
+        return resumeRepository.findSummaries(SecurityUtil.currentUsername(), Limit.unlimited());
+    }
+
+    /**
+     * One page of the current user's resumes, most recently updated first. Only the summary
+     * columns are read, starting after the cursor (keyset, not offset), so a page costs the
+     * same however deep it is.
+     */
+    @Transactional(readOnly = true)
+    public ResumeSummaryPageDto listMyResumes(String cursor, int limit) {
         String username = SecurityUtil.currentUsername();
-        var list = resumeRepository.findAllByUser_UsernameOrderByUpdatedAtDesc(username);
-        return resumeMapper.toSummaryList(list);
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        Limit fetch = Limit.of(size + 1); // one extra row tells whether there is a next page
+        List<ResumeSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = resumeRepository.findSummaries(username, fetch);
+        } else {
+            var after = decodeCursor(cursor);
+            rows = resumeRepository.findSummariesAfter(username, after.updatedAt(), after.id(), fetch);
+        }
+        if (rows.size() <= size)
+            return new ResumeSummaryPageDto(rows, null);
+        var last = rows.get(size - 1);
+        return new ResumeSummaryPageDto(List.copyOf(rows.subList(0, size)), encodeCursor(last));
+    }
+
+    private record Cursor(Instant updatedAt, Long id) {
+    }
+
+    // Opaque to clients: base64url of "<updatedAt>|<id>" of the page's last row
+    private static String encodeCursor(ResumeSummaryDto last) {
+        String raw = last.updatedAt() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Cursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException("Invalid cursor");
+        }
     }
 
     @Transactional(readOnly = true)
     public ResumeResponseDto getMyResume(Long resumeId) {
         String username = SecurityUtil.currentUsername();
+        if (sqlDocumentLoader)
+            return documentLoader.load(resumeId, username)
+                    .orElseThrow(() -> new NotFoundException("Resume not found"));
         var r = resumeRepository.findByIdAndUser_Username(resumeId, username)
                 .orElseThrow(() -> new NotFoundException("Resume not found"));
         return resumeMapper.toResponseDto(r);
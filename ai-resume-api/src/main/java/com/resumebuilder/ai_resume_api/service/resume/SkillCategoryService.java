@@ -8,6 +8,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.SkillCategoryRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,14 +58,7 @@ public class SkillCategoryService {
         var c = categoryRepository.findByIdAndResume_Id(categoryId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("This category does not belong to the specified resume."));
 
-        if (dto.version() == null) {
-            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException(
-                    "Category version is required for update.");
-        }
-        if (!dto.version().equals(c.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for category id=" + categoryId);
-        }
+        ETags.requireVersion(dto.version(), c.getVersion(), "Category", categoryId);
 
         if (dto.name() != null && !c.getName().equalsIgnoreCase(dto.name())
                 && categoryRepository.existsByResume_IdAndNameIgnoreCase(resume.getId(), dto.name())) {
@@ -73,7 +67,7 @@ public class SkillCategoryService {
         }
 
         c.setName(dto.name());
-        c = categoryRepository.save(c);
+        c = categoryRepository.saveAndFlush(c);
         return resumeMapper.toDto(c);
     }
 
@@ -10,6 +10,7 @@ import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.SkillCategoryRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.SkillRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -111,14 +112,7 @@ public class SkillService {
         var s = skillRepository.findByIdAndResume_Id(skillId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("This skill does not belong to the specified resume."));
 
-        if (dto.version() == null) {
-            throw new com.resumebuilder.ai_resume_api.exception.BadRequestException(
-                    "Skill version is required for update.");
-        }
-        if (!dto.version().equals(s.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for skill id=" + skillId);
-        }
+        ETags.requireVersion(dto.version(), s.getVersion(), "Skill", skillId);
 
         if (dto.name() != null)
             s.setName(dto.name());
@@ -192,7 +186,7 @@ public class SkillService {
             }
         }
 
-        s = skillRepository.save(s);
+        s = skillRepository.saveAndFlush(s);
         return resumeMapper.toDto(s);
     }
 
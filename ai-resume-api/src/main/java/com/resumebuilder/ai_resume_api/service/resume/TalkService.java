@@ -14,6 +14,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.TalkRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -122,12 +123,7 @@ public class TalkService {
         var e = talkRepository.findByIdAndResume_Id(talkId, resume.getId())
                 .orElseThrow(() -> new AccessDeniedException("The talk does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Talk version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for talk id=" + talkId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Talk", talkId);
 
         LocalDate newStart = dto.startDate() != null ? dto.startDate() : e.getStartDate();
         LocalDate newEnd = dto.endDate() != null ? dto.endDate() : e.getEndDate();
@@ -197,7 +193,7 @@ public class TalkService {
             e.setStatus(deriveStatus(e.getStartDate(), e.getEndDate()));
         }
 
-        e = talkRepository.save(e);
+        e = talkRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
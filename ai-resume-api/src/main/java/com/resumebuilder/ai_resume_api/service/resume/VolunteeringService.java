@@ -11,6 +11,7 @@ import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
 import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
 import com.resumebuilder.ai_resume_api.repository.resume.VolunteeringRepository;
 import com.resumebuilder.ai_resume_api.security.SecurityUtil;
+import com.resumebuilder.ai_resume_api.util.ETags;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -124,12 +125,7 @@ public class VolunteeringService {
                 .orElseThrow(() -> new AccessDeniedException(
                         "The volunteering entry does not belong to the specified resume."));
 
-        if (dto.version() == null)
-            throw new BadRequestException("Volunteering version is required for update.");
-        if (!dto.version().equals(e.getVersion())) {
-            throw new com.resumebuilder.ai_resume_api.exception.OptimisticLockingException(
-                    "Version mismatch for volunteering id=" + volunteeringId);
-        }
+        ETags.requireVersion(dto.version(), e.getVersion(), "Volunteering", volunteeringId);
 
         LocalDate newStart = dto.startDate() != null ? dto.startDate() : e.getStartDate();
         LocalDate newEnd = dto.endDate() != null ? dto.endDate() : e.getEndDate();
@@ -194,7 +190,7 @@ public class VolunteeringService {
         if (dto.status() == null)
             e.setStatus(deriveStatus(e.getStartDate(), e.getEndDate()));
 
-        e = volunteeringRepository.save(e);
+        e = volunteeringRepository.saveAndFlush(e);
         return resumeMapper.toDto(e);
     }
 
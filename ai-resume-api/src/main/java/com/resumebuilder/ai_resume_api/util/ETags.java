@@ -0,0 +1,68 @@
+package com.resumebuilder.ai_resume_api.util;
+
+import com.resumebuilder.ai_resume_api.exception.BadRequestException;
+import com.resumebuilder.ai_resume_api.exception.OptimisticLockingException;
+import com.resumebuilder.ai_resume_api.exception.PreconditionFailedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags for resumes and their sections. A section entity's tag is its @Version; a whole
+ * resume's is resume_documents.etag, which covers the versions of all its parts.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    /** The quoted tag for a version or a stored hash. */
+    public static String of(Object value) {
+        return "\"" + value + "\"";
+    }
+
+    /** Whether an If-Match header lists the tag; strong comparison, so W/ tags never match. */
+    public static boolean matches(String header, String etag) {
+        if (header == null || etag == null)
+            return false;
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    /** The If-Match header of the current request, if any. */
+    public static String ifMatch() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)
+            return attrs.getRequest().getHeader(HttpHeaders.IF_MATCH);
+        return null;
+    }
+
+    /** Optimistic check of an update whose target's ETag is its version. */
+    public static void requireVersion(Long bodyVersion, Long current, String entity, Long id) {
+        requireVersion(bodyVersion, current, () -> of(current), entity, id);
+    }
+
+    /**
+     * Optimistic check of an update: against If-Match when the request sends one (412 on
+     * mismatch), else against the version in the body (409), which is then required.
+     */
+    public static void requireVersion(Long bodyVersion, Long current, Supplier<String> currentETag, String entity,
+            Long id) {
+        String ifMatch = ifMatch();
+        if (ifMatch != null) {
+            if (!matches(ifMatch, currentETag.get()))
+                throw new PreconditionFailedException(entity + " id=" + id + " has changed; If-Match is stale.");
+            return;
+        }
+        if (bodyVersion == null)
+            throw new BadRequestException(entity + " version is required for update (or send If-Match).");
+        if (!bodyVersion.equals(current))
+            throw new OptimisticLockingException(
+                    "Version mismatch for " + entity.toLowerCase(Locale.ROOT) + " id=" + id);
+    }
+}
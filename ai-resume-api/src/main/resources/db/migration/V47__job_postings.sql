@@ -0,0 +1,17 @@
+-- V47__job_postings.sql
+-- Saved job descriptions with their precomputed analysis, reused by tailoring and ATS scoring
+CREATE TABLE job_postings (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    text_hash VARCHAR(64) NOT NULL, -- hash of the lowercased, whitespace-collapsed description
+    title VARCHAR(128),
+    description TEXT NOT NULL,
+    keywords JSONB NOT NULL DEFAULT '[]',
+    phrases JSONB NOT NULL DEFAULT '[]',
+    embedding REAL[], -- query vector only; never searched, so no pgvector index
+    embedding_model VARCHAR(128),
+    analysis_version INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_job_postings_user_hash UNIQUE (user_id, text_hash)
+);
@@ -0,0 +1,8 @@
+-- V50__resume_chunks_chunking.sql
+-- Chunking strategy chain that produced each chunk (e.g. 'merge-small@1+sentence-window@1'),
+-- so indexes built under different ai.chunking settings can be compared and told apart.
+-- Existing rows were all built one chunk per field.
+ALTER TABLE resume_chunks
+ADD COLUMN IF NOT EXISTS chunking varchar(128) NOT NULL DEFAULT 'per-field@1';
+
+ALTER TABLE resume_chunks ALTER COLUMN chunking DROP DEFAULT;
@@ -0,0 +1,44 @@
+-- V51__chunk_contents.sql
+-- Chunk text and its embeddings stored once per distinct content and shared by every resume
+-- containing it; a base resume and its tailored copies mostly do. resume_chunks keeps the
+-- per-resume placement (section, ref, order, chunking) and points at its content, so
+-- retrieval stays scoped by resume_chunks.resume_id.
+CREATE TABLE IF NOT EXISTS chunk_contents (
+    id bigserial PRIMARY KEY,
+    content_hash bytea NOT NULL UNIQUE, -- sha256 of the UTF-8 content
+    content text NOT NULL,
+    model varchar(128), -- embedding model; NULL for vectors carried over from resume_chunks
+    embedding vector (768),
+    content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('english', coalesce(content, ''))) STORED,
+    created_at timestamptz DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_cc_content_tsv ON chunk_contents USING gin (content_tsv);
+
+-- One content row per distinct text, taking the newest embedded copy
+INSERT INTO chunk_contents (content_hash, content, embedding)
+SELECT DISTINCT ON (h) h, content, embedding
+FROM (
+    SELECT sha256(convert_to(content, 'UTF8')) AS h, content, embedding, id
+    FROM resume_chunks
+) rc
+ORDER BY h, embedding IS NULL, id DESC
+ON CONFLICT (content_hash) DO NOTHING;
+
+ALTER TABLE resume_chunks
+ADD COLUMN IF NOT EXISTS content_id bigint REFERENCES chunk_contents (id);
+
+UPDATE resume_chunks rc
+SET content_id = cc.id
+FROM chunk_contents cc
+WHERE cc.content_hash = sha256(convert_to(rc.content, 'UTF8'));
+
+ALTER TABLE resume_chunks ALTER COLUMN content_id SET NOT NULL;
+
+-- Orphan checks after a reindex or resume delete
+CREATE INDEX IF NOT EXISTS idx_rc_content ON resume_chunks (content_id);
+
+-- idx_rc_hnsw goes with embedding
+ALTER TABLE resume_chunks
+DROP COLUMN embedding,
+DROP COLUMN content;
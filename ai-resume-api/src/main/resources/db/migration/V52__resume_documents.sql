@@ -0,0 +1,10 @@
+-- V52__resume_documents.sql
+-- Each resume materialized as the JSON document ResumeDocumentDao builds, so a read is one
+-- primary-key lookup instead of an aggregation over every section table. Rewritten in the
+-- writing transaction whenever the resume or one of its sections changes; resumes that
+-- predate this table are filled in by ResumeDocumentBackfill and built on the fly until then.
+CREATE TABLE IF NOT EXISTS resume_documents (
+    resume_id bigint PRIMARY KEY REFERENCES resumes (id) ON DELETE CASCADE,
+    document jsonb NOT NULL,
+    refreshed_at timestamptz NOT NULL DEFAULT now()
+);
@@ -0,0 +1,12 @@
+-- V53__resume_documents_etag.sql
+-- Strong validator for conditional requests on a resume and its sections: a hash of every
+-- id and @Version in the stored document, i.e. of the resume's version and its parts'.
+-- Element-collection edits raise their owner's version, so any change to the representation
+-- changes it. Generated, so it can never disagree with the document.
+ALTER TABLE resume_documents
+ADD COLUMN IF NOT EXISTS etag text GENERATED ALWAYS AS (
+    md5(
+        jsonb_path_query_array(document, 'strict $.**.id')::text || '/' ||
+        jsonb_path_query_array(document, 'strict $.**.version')::text
+    )
+) STORED;
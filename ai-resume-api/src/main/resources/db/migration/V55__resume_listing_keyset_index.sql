@@ -0,0 +1,7 @@
+-- V55__resume_listing_keyset_index.sql
+-- Keyset pages of the resume listing order by (updated_at DESC, id DESC) and continue after
+-- the row value (updated_at, id); with id in the index the cursor predicate is one range scan
+-- and no page needs a sort. It also covers everything idx_resumes_user_updatedat served.
+CREATE INDEX IF NOT EXISTS idx_resumes_user_updated_id ON resumes (user_id, updated_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_resumes_user_updatedat;
@@ -0,0 +1,41 @@
+package com.resumebuilder.ai_resume_api;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The application against a throwaway Postgres with pgvector, migrated by Flyway, for tests of
+ * SQL that mocks cannot check. One container per Spring test context; the tests are skipped
+ * when no Docker daemon is available.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@ActiveProfiles("it")
+@Import(PostgresIntegrationTest.Container.class)
+@Testcontainers(disabledWithoutDocker = true)
+public @interface PostgresIntegrationTest {
+
+    @TestConfiguration(proxyBeanMethods = false)
+    class Container {
+
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer<?> postgres() {
+            return new PostgreSQLContainer<>(
+                    DockerImageName.parse("pgvector/pgvector:pg16").asCompatibleSubstituteFor("postgres"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptRegistry;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The cascade against a stub provider: models are tried smallest first until the check accepts. */
+class AIOrchestratorCascadeTest {
+
+    private static final String PROMPT = "bullet_rewrite_json_v1";
+    private static final OutputCheck NOT_WEAK = r -> r.content().equals("weak") ? List.of("too vague") : List.of();
+
+    private final KnownModels known = new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(),
+            "big", "mid", "small", "tiny");
+    private final CascadeTracker tracker = new CascadeTracker();
+    private final StubProvider provider = new StubProvider();
+
+    @Test
+    void smallestModelThatPassesAnswersWithoutEscalating() {
+        provider.answers = Map.of("tiny", "good");
+
+        var res = orchestrator().generate(PROMPT, Map.of(), null, Map.of(), false, NOT_WEAK);
+
+        assertThat(res.model()).isEqualTo("tiny");
+        assertThat(res.warnings()).isEmpty();
+        assertThat(provider.calls).containsExactly("tiny");
+        assertThat(tracker.report().get(PROMPT))
+                .containsEntry("calls", 1L)
+                .containsEntry("escalationRate", 0.0)
+                .containsEntry("answeredBy", Map.of("tiny", 1L));
+    }
+
+    @Test
+    void rejectedAndFailedAnswersEscalateToTheNextLargerModel() {
+        provider.answers = Map.of("tiny", "weak", "mid", "good", "big", "good");
+        provider.failing = Set.of("small");
+
+        var res = orchestrator().generate(PROMPT, Map.of(), null, Map.of(), false, NOT_WEAK);
+
+        assertThat(res.model()).isEqualTo("mid");
+        assertThat(res.content()).isEqualTo("good");
+        assertThat(res.warnings()).containsExactly("Cascade escalated 2 time(s) to mid");
+        assertThat(provider.calls).containsExactly("tiny", "small", "mid");
+        assertThat(tracker.report().get(PROMPT))
+                .containsEntry("escalationRate", 1.0)
+                .containsEntry("rejectedByAllModels", 0L)
+                .containsEntry("answeredBy", Map.of("mid", 1L));
+    }
+
+    @Test
+    void whenNoModelPassesTheLargestAnswerIsReturnedWithItsProblems() {
+        provider.answers = Map.of("tiny", "weak", "small", "weak", "mid", "weak", "big", "weak");
+
+        var res = orchestrator().generate(PROMPT, Map.of(), null, Map.of(), false, NOT_WEAK);
+
+        assertThat(res.model()).isEqualTo("big");
+        assertThat(res.warnings()).containsExactly("Cascade: no model passed validation", "too vague");
+        assertThat(provider.calls).containsExactly("tiny", "small", "mid", "big");
+        assertThat(tracker.report().get(PROMPT))
+                .containsEntry("rejectedByAllModels", 1L)
+                .containsEntry("answeredBy", Map.of("big", 1L));
+    }
+
+    @Test
+    void preferredModelOrUnlistedPromptSkipsTheCascade() {
+        provider.answers = Map.of("big", "weak", "tiny", "good");
+
+        assertThat(orchestrator().generate(PROMPT, Map.of(), "primary", Map.of(), false, NOT_WEAK).model())
+                .isEqualTo("big");
+        assertThat(orchestrator().generate("ats_critique_json_v1", Map.of(), null, Map.of(), false, NOT_WEAK)
+                .model()).isEqualTo("big");
+        assertThat(provider.calls).containsExactly("big", "big");
+        assertThat(tracker.report()).isEmpty();
+    }
+
+    private AIOrchestrator orchestrator() {
+        var latency = new ModelLatencyTracker(known, 64, 5);
+        var selector = new ModelSelector(latency, new StaticListableBeanFactory().getBeanProvider(ModelResidency.class),
+                "big", "mid", "small", "tiny");
+        var metrics = new AiMetrics(new SimpleMeterRegistry(), known);
+        var budgeter = new TokenBudgeter(known, true, 10, 1.2, 64, 1024, new int[] { 2048, 4096 });
+        var cache = new SemanticCache(text -> new float[] { 1f }, metrics, false, Set.of(), 0.97, 10, 60, 0, 0.85);
+        return new AIOrchestrator(List.of(provider), new PromptRegistry(""), selector, latency, budgeter, tracker,
+                metrics, cache, 1, false, 1000, true, Set.of(PROMPT), 6000);
+    }
+
+    // Answers each model with a fixed text, or fails it
+    private static final class StubProvider implements AiProvider {
+        Map<String, String> answers = Map.of();
+        Set<String> failing = Set.of();
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public AiTextResult generate(AiTextRequest req, Map<String, Object> options) {
+            calls.add(req.model());
+            if (failing.contains(req.model()))
+                throw new IllegalStateException(req.model() + " is down");
+            String text = answers.getOrDefault(req.model(), "");
+            return new AiTextResult(text, text, "Stub", req.model(), 5, false, Map.of(), List.of(), null, null);
+        }
+
+        @Override
+        public String providerName() {
+            return "Stub";
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+    }
+}
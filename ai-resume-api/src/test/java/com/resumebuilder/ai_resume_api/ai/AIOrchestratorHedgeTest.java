@@ -0,0 +1,199 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptRegistry;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaClient;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaEndpointPool;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaProvider;
+import com.resumebuilder.ai_resume_api.ai.providers.OllamaResidencyManager;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OllamaHttpProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The hedged path of AIOrchestrator against stub Ollama servers: "p" is the primary model with a
+ * learned p95, "b" its backup, each served by its own endpoint. Which server answers, and when,
+ * is fixed by latches rather than sleeps.
+ */
+class AIOrchestratorHedgeTest {
+
+    private static final String PROMPT = "ats_critique_json_v1";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final CountDownLatch releaseHung = new CountDownLatch(1);
+    private final KnownModels known = new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(),
+            "p", "b", "", "");
+    private final ModelLatencyTracker latency = spy(new ModelLatencyTracker(known, 64, 5));
+
+    private OllamaEndpointPool pool;
+
+    @AfterEach
+    void stop() {
+        releaseHung.countDown();
+        servers.forEach(s -> s.stop(0));
+    }
+
+    @Test
+    void primaryAnsweringBeforeTheDelayIsNeverHedged() throws IOException {
+        var backupHits = new AtomicInteger();
+        var orchestrator = orchestrator(stub(200, "from-p", null, null), stub(200, "from-b", backupHits, null),
+                10_000);
+
+        var res = orchestrator.generate(PROMPT, Map.of(), null, Map.of(), false);
+
+        assertThat(res.model()).isEqualTo("p");
+        assertThat(res.content()).isEqualTo("from-p");
+        assertThat(res.warnings()).noneMatch(w -> w.startsWith("Hedged request"));
+        assertThat(backupHits).hasValue(0);
+    }
+
+    @Test
+    void slowPrimaryLosesToTheHedgeAndIsCancelled() throws Exception {
+        var primaryCalled = new CountDownLatch(1);
+        var orchestrator = orchestrator(hung(primaryCalled), stub(200, "from-b", null, null), 50);
+
+        var res = orchestrator.generate(PROMPT, Map.of(), null, Map.of(), false);
+
+        assertThat(res.model()).isEqualTo("b");
+        assertThat(res.content()).isEqualTo("from-b");
+        assertThat(res.warnings()).contains("Hedged request: b answered before p");
+        assertThat(primaryCalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // the loser is interrupted: its time counts as a latency sample, not as a failure
+        verify(latency, timeout(5_000)).recordAbandoned(eq("p"), eq(PROMPT), anyLong());
+        verify(latency, never()).recordFailure(eq("p"), eq(PROMPT), anyLong());
+        verify(latency).recordSuccess(eq("b"), eq(PROMPT), anyLong());
+
+        // and its lease is released without a strike, though one strike would eject the endpoint
+        awaitNoOutstanding();
+        assertThat(pool.isResidentAnywhere("p")).isTrue();
+    }
+
+    @Test
+    void bothFailingIsOneFailureForTheCallerAndAStrikeForEachEndpoint() throws IOException {
+        var backupCalled = new CountDownLatch(1);
+        // the primary only fails once the hedge has started, so both are raced
+        var orchestrator = orchestrator(stub(500, "", null, backupCalled), stub(500, "", null, null, backupCalled),
+                50);
+
+        assertThatThrownBy(() -> orchestrator.generate(PROMPT, Map.of(), null, Map.of(), false))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Models failed: p, b");
+
+        verify(latency).recordFailure(eq("p"), eq(PROMPT), anyLong());
+        verify(latency).recordFailure(eq("b"), eq(PROMPT), anyLong());
+        verify(latency, never()).recordAbandoned(eq("p"), eq(PROMPT), anyLong());
+        assertThat(pool.endpoints()).allMatch(e -> e.outstanding() == 0);
+        assertThat(pool.anyAvailable()).isFalse();
+    }
+
+    private AIOrchestrator orchestrator(String primaryUrl, String backupUrl, long hedgeMinDelayMs) {
+        for (int i = 0; i < 5; i++)
+            latency.recordSuccess("p", PROMPT, 10); // p95 known, so p is hedged after hedgeMinDelayMs
+
+        var props = new OllamaEndpointsProperties();
+        props.setEndpoints(List.of(endpoint(primaryUrl, "p"), endpoint(backupUrl, "b")));
+        props.getEjection().setConsecutiveFailures(1);
+        pool = new OllamaEndpointPool(props);
+        var client = new OllamaClient(WebClient.create(), new OllamaHttpProperties());
+        var residency = new OllamaResidencyManager(client, pool, props, known, "p", "b", "", "");
+        var provider = new OllamaProvider(client, pool, residency, "p");
+
+        var selector = new ModelSelector(latency, new StaticListableBeanFactory().getBeanProvider(ModelResidency.class),
+                "p", "b", "", "");
+        var metrics = new AiMetrics(new SimpleMeterRegistry(), known);
+        var budgeter = new TokenBudgeter(known, true, 10, 1.2, 64, 1024, new int[] { 2048, 4096 });
+        var cache = new SemanticCache(text -> new float[] { 1f }, metrics, false, Set.of(), 0.97, 10, 60, 0, 0.85);
+        return new AIOrchestrator(List.of(provider), new PromptRegistry(""), selector, latency, budgeter,
+                new CascadeTracker(), metrics, cache, 1, true, hedgeMinDelayMs, false, Set.of(), 6000);
+    }
+
+    private void awaitNoOutstanding() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.endpoints().stream().anyMatch(e -> e.outstanding() > 0)
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertThat(pool.endpoints()).allMatch(e -> e.outstanding() == 0);
+    }
+
+    // Accepts the request and never answers until the test ends
+    private String hung(CountDownLatch called) throws IOException {
+        return server(ex -> {
+            ex.getRequestBody().readAllBytes();
+            called.countDown();
+            try {
+                releaseHung.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ex.close();
+        });
+    }
+
+    private String stub(int status, String text, AtomicInteger hits, CountDownLatch waitFor) throws IOException {
+        return stub(status, text, hits, waitFor, null);
+    }
+
+    private String stub(int status, String text, AtomicInteger hits, CountDownLatch waitFor, CountDownLatch signal)
+            throws IOException {
+        return server(ex -> {
+            if (hits != null)
+                hits.incrementAndGet();
+            if (signal != null)
+                signal.countDown();
+            ex.getRequestBody().readAllBytes();
+            try {
+                if (waitFor != null && !waitFor.await(5, TimeUnit.SECONDS))
+                    throw new IllegalStateException("hedge never started");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"model\":\"m\",\"response\":\"" + text + "\",\"done\":true}")
+                    .getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(status, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+    }
+
+    private String server(com.sun.net.httpserver.HttpHandler handler) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", handler);
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static OllamaEndpointsProperties.Endpoint endpoint(String url, String model) {
+        var e = new OllamaEndpointsProperties.Endpoint();
+        e.setUrl(url);
+        e.setModels(List.of(model));
+        return e;
+    }
+}
@@ -0,0 +1,124 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptRegistry;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** generateStructured against a streaming stub: off-schema output is cut off and repaired with json_repair_v1. */
+class AIOrchestratorStructuredTest {
+
+    private static final String PROMPT = "bullet_rewrite_json_v1";
+    private static final String VALID = "{\"bullets\": [{\"text\": \"Led the billing migration\", \"confidence\": \"HIGH\"}]}";
+
+    private final StubProvider provider = new StubProvider();
+    private final AIOrchestrator orchestrator = orchestrator();
+
+    @Test
+    void onSchemaOutputIsNotRepaired() {
+        provider.streams.put(PROMPT, List.of(VALID));
+
+        var res = orchestrator.generate(PROMPT, Map.of(), null, Map.of(), true);
+
+        assertThat(res.json().path("bullets").get(0).path("confidence").asText()).isEqualTo("HIGH");
+        assertThat(res.warnings()).isEmpty();
+        assertThat(provider.requests).hasSize(1);
+    }
+
+    @Test
+    void offSchemaStreamIsCancelledAndRepaired() {
+        provider.streams.put(PROMPT, List.of("{\"bullets\": [", "{\"text\": \"Led the billing migration\", ",
+                "\"confidence\": \"Very high\"}", ", {\"text\": \"never sent\"}", "]}"));
+        provider.streams.put("json_repair_v1", List.of(VALID.substring(0, 20), VALID.substring(20)));
+
+        var res = orchestrator.generate(PROMPT, Map.of(), null, Map.of("temperature", 0.7), true);
+
+        assertThat(provider.chunksSent.get(0)).isEqualTo(3); // cut at the enum violation
+        assertThat(res.json().path("bullets").get(0).path("text").asText()).isEqualTo("Led the billing migration");
+        assertThat(res.warnings()).containsExactly("Output repaired with json_repair_v1");
+
+        var repair = provider.requests.get(1);
+        assertThat(repair.meta()).containsEntry("promptId", "json_repair_v1").containsEntry("repairOf", PROMPT);
+        assertThat(repair.prompt())
+                .contains("Problem: Off-schema output: \"Very high\" is not one of [\"LOW\", \"MED\", \"HIGH\", null]")
+                .contains("\"confidence\": \"Very high\"}")
+                .doesNotContain("never sent")
+                .contains("\"maxItems\": 3");
+        assertThat(provider.options.get(1)).containsEntry("temperature", 0.0);
+    }
+
+    @Test
+    void failedRepairFailsTheModel() {
+        provider.streams.put(PROMPT, List.of("{\"bullets\": [{\"text\": 42}]}"));
+        provider.streams.put("json_repair_v1", List.of("{\"bullets\": []}"));
+
+        assertThatThrownBy(() -> orchestrator.generate(PROMPT, Map.of(), null, Map.of(), true))
+                .hasMessageContaining("Provider did not return valid JSON: Off-schema output: fewer than 1 items");
+        assertThat(provider.requests).extracting(r -> r.meta().get("promptId"))
+                .containsExactly(PROMPT, "json_repair_v1");
+    }
+
+    private AIOrchestrator orchestrator() {
+        var known = new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(), "m", "", "", "");
+        var latency = new ModelLatencyTracker(known, 64, 5);
+        var selector = new ModelSelector(latency, new StaticListableBeanFactory().getBeanProvider(ModelResidency.class),
+                "m", "", "", "");
+        var metrics = new AiMetrics(new SimpleMeterRegistry(), known);
+        var budgeter = new TokenBudgeter(known, true, 10, 1.2, 64, 1024, new int[] { 2048, 4096 });
+        var cache = new SemanticCache(text -> new float[] { 1f }, metrics, false, Set.of(), 0.97, 10, 60, 0, 0.85);
+        return new AIOrchestrator(List.of(provider), new PromptRegistry(""), selector, latency, budgeter,
+                new CascadeTracker(), metrics, cache, 1, false, 1000, false, Set.of(), 6000);
+    }
+
+    // Streams a scripted response per prompt id, stopping where the orchestrator cancels
+    private static final class StubProvider implements AiProvider {
+        final Map<String, List<String>> streams = new HashMap<>();
+        final List<AiTextRequest> requests = new ArrayList<>();
+        final List<Map<String, Object>> options = new ArrayList<>();
+        final List<Integer> chunksSent = new ArrayList<>();
+
+        @Override
+        public AiTextResult generateStream(AiTextRequest req, Map<String, Object> opts, Predicate<String> onChunk) {
+            requests.add(req);
+            options.add(opts);
+            var text = new StringBuilder();
+            int sent = 0;
+            for (String chunk : streams.get((String) req.meta().get("promptId"))) {
+                sent++;
+                text.append(chunk);
+                if (!onChunk.test(chunk))
+                    break;
+            }
+            chunksSent.add(sent);
+            return new AiTextResult(text.toString(), text.toString(), "Stub", req.model(), 5, false, Map.of(),
+                    List.of(), null, null);
+        }
+
+        @Override
+        public AiTextResult generate(AiTextRequest req, Map<String, Object> opts) {
+            throw new UnsupportedOperationException("structured calls stream");
+        }
+
+        @Override
+        public String providerName() {
+            return "Stub";
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+    }
+}
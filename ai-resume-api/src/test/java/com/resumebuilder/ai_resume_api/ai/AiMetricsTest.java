@@ -0,0 +1,52 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiMetricsTest {
+
+    private final KnownModels known = known();
+
+    private static KnownModels known() {
+        var openAi = new OpenAiCompatProperties();
+        openAi.setModels(List.of("Qwen/Qwen2.5-3B-Instruct"));
+        return new KnownModels(new OllamaEndpointsProperties(), openAi, "qwen2.5:3b-instruct", "gemma2:2b", "", "");
+    }
+
+    @Test
+    void clientSuppliedModelIdsShareOneTag() {
+        var registry = new SimpleMeterRegistry();
+        var metrics = new AiMetrics(registry, known);
+        for (int i = 0; i < 50; i++) {
+            metrics.generationFinished(metrics.generationStarted(), "p", "made-up-" + i, "ollama", "success",
+                    Map.of("eval_count", 10, "eval_duration", 1_000_000));
+            metrics.fallback("p", "made-up-" + i);
+        }
+        metrics.fallback("p", "gemma2:2b");
+        metrics.fallback("p", "Qwen/Qwen2.5-3B-Instruct");
+
+        assertThat(registry.find("ai.generation").timers()).hasSize(1);
+        assertThat(registry.get("ai.generation").tag("model", KnownModels.OTHER).timer().count()).isEqualTo(50);
+        assertThat(registry.find("ai.generation.tokens.per.second").summaries()).hasSize(1);
+        assertThat(registry.find("ai.fallbacks").counters())
+                .extracting(c -> c.getId().getTag("model"))
+                .containsExactlyInAnyOrder(KnownModels.OTHER, "gemma2:2b", "Qwen/Qwen2.5-3B-Instruct");
+    }
+
+    @Test
+    void latencyTrackerKeysUnknownModelsTogether() {
+        var tracker = new ModelLatencyTracker(known, 8, 1);
+        tracker.recordSuccess("made-up-1", "p", 100);
+        tracker.recordSuccess("made-up-2", "p", 300);
+
+        assertThat(tracker.snapshot("made-up-3", "p").calls()).isEqualTo(2);
+        assertThat(tracker.snapshot("gemma2:2b", "p")).isNull();
+    }
+}
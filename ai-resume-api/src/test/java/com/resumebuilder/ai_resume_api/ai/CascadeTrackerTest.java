@@ -0,0 +1,47 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CascadeTrackerTest {
+
+    private final CascadeTracker tracker = new CascadeTracker();
+
+    @Test
+    void countsEscalationsRejectionsAndAnsweringModels() {
+        tracker.record("bullet", "tiny", 0, true, 100, 400);
+        tracker.record("bullet", "mid", 2, true, 500, 400);
+        tracker.record("bullet", "big", 3, false, 900, 400);
+        tracker.record("bullet", "tiny", 0, true, 100, 400);
+
+        assertThat(tracker.report().get("bullet"))
+                .containsEntry("calls", 4L)
+                .containsEntry("escalationRate", 0.5)
+                .containsEntry("rejectedByAllModels", 1L)
+                .containsEntry("avgLatencyMs", 400L)
+                .containsEntry("avgLatencySavedMs", 0L)
+                .containsEntry("answeredBy", Map.of("big", 1L, "mid", 1L, "tiny", 2L));
+    }
+
+    @Test
+    void latencySavedOnlyCountsCallsWithAPrimaryBaseline() {
+        tracker.record("tailor", "tiny", 0, true, 100, -1);
+        tracker.record("tailor", "tiny", 0, true, 100, 700);
+
+        assertThat(tracker.report().get("tailor"))
+                .containsEntry("avgLatencyMs", 100L)
+                .containsEntry("avgLatencySavedMs", 600L);
+    }
+
+    @Test
+    void promptIdsAreReportedSeparately() {
+        tracker.record("b", "tiny", 0, true, 10, 0);
+        tracker.record("a", "big", 1, true, 10, 0);
+
+        assertThat(tracker.report()).containsOnlyKeys("a", "b");
+        assertThat(tracker.report().get("a")).containsEntry("escalationRate", 1.0);
+    }
+}
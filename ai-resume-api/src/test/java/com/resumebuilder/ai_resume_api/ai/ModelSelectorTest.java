@@ -0,0 +1,45 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelSelectorTest {
+
+    @Test
+    void smallestFirstRunsFromTinyToPrimary() {
+        assertThat(selector("big", "mid", "small", "tiny").smallestFirst())
+                .containsExactly("tiny", "small", "mid", "big");
+    }
+
+    @Test
+    void smallestFirstSkipsUnsetSlotsAndDuplicates() {
+        assertThat(selector("big", "mid", "", "mid").smallestFirst()).containsExactly("mid", "big");
+    }
+
+    @Test
+    void smallestFirstIgnoresObservedLatency() {
+        var latency = new ModelLatencyTracker(known(), 64, 1);
+        latency.recordSuccess("big", "p", 1);
+        latency.recordSuccess("tiny", "p", 10_000);
+        var selector = new ModelSelector(latency, new StaticListableBeanFactory().getBeanProvider(ModelResidency.class),
+                "big", "mid", "small", "tiny");
+
+        assertThat(selector.ordered(null, "p")).startsWith("big");
+        assertThat(selector.smallestFirst()).containsExactly("tiny", "small", "mid", "big");
+    }
+
+    private static ModelSelector selector(String primary, String secondary, String fallback, String tiny) {
+        return new ModelSelector(new ModelLatencyTracker(known(), 64, 5),
+                new StaticListableBeanFactory().getBeanProvider(ModelResidency.class), primary, secondary, fallback,
+                tiny);
+    }
+
+    private static KnownModels known() {
+        return new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(), "big", "mid", "small",
+                "tiny");
+    }
+}
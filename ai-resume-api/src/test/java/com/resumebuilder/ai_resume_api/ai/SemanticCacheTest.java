@@ -0,0 +1,65 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.ai.prompts.PromptTemplate;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import com.resumebuilder.ai_resume_api.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticCacheTest {
+
+    private static final PromptTemplate PROMPT =
+            new PromptTemplate("bullet_rewrite_json_v1", "rewrite", "1", "{{draft}}");
+
+    private final SemanticCache cache = new SemanticCache(text -> new float[] { 1f, 0f },
+            new AiMetrics(new SimpleMeterRegistry(), new KnownModels(new OllamaEndpointsProperties(),
+                    new OpenAiCompatProperties(), "m", "", "", "")),
+            true, Set.of(PROMPT.id()), 0.97, 100, 60, 0.0, 0.85);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void answersAreNotSharedBetweenUsers() {
+        signIn(1L);
+        var first = cache.lookup(PROMPT, Map.of("draft", "Led a team of engineers"), null, Map.of());
+        assertThat(first.hit()).isNull();
+        cache.put(first, answer());
+        assertThat(cache.lookup(PROMPT, Map.of("draft", "led a team of  engineers"), null, Map.of()).hit())
+                .isNotNull();
+        assertThat(cache.lookup(PROMPT, Map.of("draft", "Led a team of software engineers"), null, Map.of()).hit())
+                .isNotNull();
+
+        signIn(2L);
+        assertThat(cache.lookup(PROMPT, Map.of("draft", "Led a team of engineers"), null, Map.of()).hit()).isNull();
+        assertThat(cache.lookup(PROMPT, Map.of("draft", "Led a team of software engineers"), null, Map.of()).hit())
+                .isNull();
+    }
+
+    @Test
+    void anonymousCallsBypassTheCache() {
+        assertThat(cache.lookup(PROMPT, Map.of("draft", "x"), null, Map.of())).isNull();
+    }
+
+    private static void signIn(Long id) {
+        var principal = new UserPrincipal(id, "user" + id, "", true, true, true, true, List.of());
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static AiTextResult answer() {
+        return new AiTextResult("{}", "{}", "ollama", "m", 10, false, Map.of(), List.of(), null, "1");
+    }
+}
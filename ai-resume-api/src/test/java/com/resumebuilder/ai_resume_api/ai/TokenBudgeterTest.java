@@ -0,0 +1,121 @@
+package com.resumebuilder.ai_resume_api.ai;
+
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class TokenBudgeterTest {
+
+    private static final String PROMPT = "bullet_rewrite_json_v1";
+    private static final TokenBudgeter.Budget FIXED = new TokenBudgeter.Budget(Map.of(), false, 1024);
+
+    private final TokenBudgeter budgeter = new TokenBudgeter(
+            new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(), "m", "", "", ""),
+            true, 10, 1.2, 64, 1024, new int[] { 4096, 2048, 8192 });
+
+    @Test
+    void coldStartSendsTheCallersOptionsUnchanged() {
+        Map<String, Object> options = Map.of("temperature", 0.2, "num_predict", 300);
+
+        var budget = budgeter.plan(PROMPT, "m", "prompt", options);
+
+        assertThat(budget.adaptive()).isFalse();
+        assertThat(budget.options()).isSameAs(options);
+        assertThat(budget.numPredict()).isEqualTo(300);
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", null).numPredict()).isEqualTo(1024);
+    }
+
+    @Test
+    void learnedBudgetStartsAtMinSamples() {
+        for (int i = 0; i < 9; i++)
+            budgeter.record(PROMPT, "m", 100, FIXED, result(200));
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", Map.of()).adaptive()).isFalse();
+
+        budgeter.record(PROMPT, "m", 100, FIXED, result(200));
+        var budget = budgeter.plan(PROMPT, "m", "prompt", Map.of());
+
+        assertThat(budget.adaptive()).isTrue();
+        assertThat(budget.numPredict()).isEqualTo(256); // ceil(200 * 1.2) + 16
+        assertThat(budget.options()).containsEntry("num_predict", 256);
+        // other prompt ids have their own samples
+        assertThat(budgeter.plan("other", "m", "prompt", Map.of()).adaptive()).isFalse();
+    }
+
+    @Test
+    void numPredictIsThePercentile95WithHeadroomWithinFloorAndCeiling() {
+        for (int i = 0; i < 19; i++)
+            budgeter.record(PROMPT, "m", 100, FIXED, result(200));
+        budgeter.record(PROMPT, "m", 100, FIXED, result(5000)); // one runaway is above the p95
+
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", Map.of()).numPredict()).isEqualTo(256);
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", Map.of("num_predict", 150)).numPredict()).isEqualTo(150);
+
+        var tiny = new TokenBudgeter(new KnownModels(new OllamaEndpointsProperties(), new OpenAiCompatProperties(),
+                "m", "", "", ""), true, 1, 1.2, 64, 1024, new int[] { 2048 });
+        tiny.record(PROMPT, "m", 100, FIXED, result(10));
+        assertThat(tiny.plan(PROMPT, "m", "prompt", Map.of()).numPredict()).isEqualTo(64);
+    }
+
+    @Test
+    void truncatedLearnedBudgetsGrowAndCancelledCallsAreIgnored() {
+        for (int i = 0; i < 10; i++)
+            budgeter.record(PROMPT, "m", 100, FIXED, result(200));
+        var learned = budgeter.plan(PROMPT, "m", "prompt", Map.of());
+
+        for (int i = 0; i < 10; i++)
+            budgeter.record(PROMPT, "m", 100, learned, result(256, Map.of("done_reason", "length")));
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", Map.of()).numPredict()).isEqualTo(477); // ceil(384 * 1.2) + 16
+
+        for (int i = 0; i < 20; i++)
+            budgeter.record(PROMPT, "m", 100, learned, result(900, Map.of("cancelled", true)));
+        assertThat(budgeter.plan(PROMPT, "m", "prompt", Map.of()).numPredict()).isEqualTo(477);
+    }
+
+    @Test
+    void numCtxIsRoundedUpToABucket() {
+        for (int i = 0; i < 10; i++)
+            budgeter.record(PROMPT, "m", 100, FIXED, result(200));
+        // 4 chars per token until observed; ctx = prompt tokens + 256 + 64
+
+        assertThat(ctx("x".repeat(4 * 1728))).isEqualTo(2048); // exactly 2048
+        assertThat(ctx("x".repeat(4 * 1728 + 1))).isEqualTo(4096); // one token over
+        assertThat(ctx("x".repeat(4 * 3776))).isEqualTo(4096);
+        assertThat(ctx("x".repeat(4 * 3777))).isEqualTo(8192);
+        assertThat(ctx("x".repeat(100_000))).isEqualTo(8192); // beyond the largest: the largest
+        assertThat(budgeter.plan(PROMPT, "m", "x", Map.of("num_ctx", 3000)).options())
+                .containsEntry("num_ctx", 3000);
+    }
+
+    @Test
+    void charsPerTokenIsLearnedPerModel() {
+        assertThat(budgeter.charsPerToken("m")).isEqualTo(4.0);
+
+        budgeter.record(PROMPT, "m", 300, FIXED, result(200, Map.of("prompt_eval_count", 100)));
+        assertThat(budgeter.charsPerToken("m")).isEqualTo(3.0);
+        budgeter.record(PROMPT, "m", 400, FIXED, result(200, Map.of("prompt_eval_count", 100)));
+        assertThat(budgeter.charsPerToken("m")).isCloseTo(3.1, offset(1e-9));
+
+        assertThat(budgeter.charsPerToken("unconfigured")).isEqualTo(4.0);
+    }
+
+    private int ctx(String prompt) {
+        return (Integer) budgeter.plan(PROMPT, "m", prompt, Map.of()).options().get("num_ctx");
+    }
+
+    private static AiTextResult result(int evalCount) {
+        return result(evalCount, Map.of());
+    }
+
+    private static AiTextResult result(int evalCount, Map<String, Object> extra) {
+        Map<String, Object> meta = new HashMap<>(extra);
+        meta.put("eval_count", evalCount);
+        return new AiTextResult("", "", "Ollama", "m", 10, false, meta, List.of(), null, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.resumebuilder.ai_resume_api.ai.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Schema violations stop a streamed reader at the offending chunk, as the orchestrator's cancel predicate sees it. */
+class JsonSchemaTest {
+
+    private static final JsonSchema SCHEMA = JsonSchema.parse("""
+            {
+              "type": "object",
+              "required": ["bullets"],
+              "properties": {
+                "bullets": {
+                  "type": "array", "maxItems": 2,
+                  "items": {
+                    "type": "object",
+                    "properties": {
+                      "text": { "type": "string", "maxLength": 10 },
+                      "confidence": { "type": ["string", "null"], "enum": ["LOW", "MED", "HIGH", null] },
+                      "score": { "type": "integer" }
+                    }
+                  }
+                }
+              }
+            }
+            """);
+
+    @Test
+    void onSchemaStreamIsReadToTheEnd() {
+        var chunks = List.of("{\"bullets\": [", "{\"text\": \"Led team\", ", "\"confidence\": null, ",
+                "\"score\": 3}", "]}");
+
+        assertThat(chunksRead(chunks)).isEqualTo(chunks.size());
+    }
+
+    @Test
+    void wrongTypeCancelsTheStream() {
+        var chunks = List.of("{\"bullets\": [", "{\"score\": \"high\"}", "]}");
+
+        var reader = new TolerantJsonReader(SCHEMA);
+        assertThat(chunksRead(reader, chunks)).isEqualTo(2);
+        assertThat(reader.error()).contains("expected integer but got string");
+    }
+
+    @Test
+    void valueOutsideTheEnumCancelsTheStream() {
+        var chunks = List.of("{\"bullets\": [", "{\"confidence\": \"Medium\"}", "]}");
+
+        var reader = new TolerantJsonReader(SCHEMA);
+        assertThat(chunksRead(reader, chunks)).isEqualTo(2);
+        assertThat(reader.error()).contains("\"Medium\" is not one of");
+        assertThat(new TolerantJsonReader(SCHEMA).feed("{\"bullets\": [{\"confidence\": \"MED\"}]}").complete())
+                .isTrue();
+    }
+
+    @Test
+    void runawayStringCancelsTheStreamBeforeItCloses() {
+        // the string is still open when the limit is passed
+        var chunks = List.of("{\"bullets\": [{\"text\": \"Led the", " migration of", " billing\"}]}");
+
+        var reader = new TolerantJsonReader(SCHEMA);
+        assertThat(chunksRead(reader, chunks)).isEqualTo(2);
+        assertThat(reader.error()).contains("string longer than 10");
+    }
+
+    @Test
+    void tooManyItemsAndMissingRequiredMembersFailToo() {
+        assertThatThrownBy(() -> TolerantJsonReader.readObject("{\"bullets\": [{}, {}, {}]}", SCHEMA))
+                .hasMessageContaining("more than 2 items");
+        assertThatThrownBy(() -> TolerantJsonReader.readObject("{\"other\": 1}", SCHEMA))
+                .hasMessageContaining("missing required \"bullets\"");
+    }
+
+    private static int chunksRead(List<String> chunks) {
+        return chunksRead(new TolerantJsonReader(SCHEMA), chunks);
+    }
+
+    // Feeds chunks the way AIOrchestrator's stream predicate does, stopping once the reader fails
+    private static int chunksRead(TolerantJsonReader reader, List<String> chunks) {
+        int read = 0;
+        for (String chunk : chunks) {
+            read++;
+            if (reader.feed(chunk).failed())
+                break;
+        }
+        return read;
+    }
+}
@@ -0,0 +1,80 @@
+package com.resumebuilder.ai_resume_api.ai.json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** The repairs TolerantJsonReader promises for model output, read whole and streamed. */
+class TolerantJsonReaderTest {
+
+    @Test
+    void skipsFencesAndProse() {
+        var node = TolerantJsonReader.readObject("""
+                Here is the JSON:
+                ```json
+                {"title": "Engineer", "skills": ["Java", "SQL"]}
+                ```
+                Let me know if you need changes.
+                """);
+        assertThat(node.path("title").asText()).isEqualTo("Engineer");
+        assertThat(node.path("skills")).hasSize(2);
+    }
+
+    @Test
+    void dropsTrailingCommas() {
+        var node = TolerantJsonReader.readObject("{\"a\": [1, 2, 3,], \"b\": {\"c\": true,},}");
+        assertThat(node.path("a")).hasSize(3);
+        assertThat(node.path("b").path("c").asBoolean()).isTrue();
+    }
+
+    @Test
+    void readsSingleQuotedStrings() {
+        var node = TolerantJsonReader.readObject("{'name': 'O\\'Brien', 'tags': ['a', \"b\"]}");
+        assertThat(node.path("name").asText()).isEqualTo("O'Brien");
+        assertThat(node.path("tags").get(0).asText()).isEqualTo("a");
+    }
+
+    @Test
+    void reportsTruncation() {
+        String cut = "{\"bullets\": [\"Led the migration\", \"Cut latency by";
+        assertThatThrownBy(() -> TolerantJsonReader.readObject(cut))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("truncated");
+
+        var reader = new TolerantJsonReader().feed(cut);
+        assertThat(reader.failed()).isFalse();
+        assertThat(reader.complete()).isFalse();
+        var partial = reader.finish();
+        assertThat(reader.truncated()).isTrue();
+        assertThat(partial.path("bullets").get(1).asText()).isEqualTo("Cut latency by");
+    }
+
+    @Test
+    void repairsMismatchedClosers() {
+        var flat = TolerantJsonReader.readObject("{\"a\":1]");
+        assertThat(flat.path("a").asInt()).isEqualTo(1);
+
+        var nested = TolerantJsonReader.readObject("{\"a\": {\"b\": [1, 2}, \"c\": 3}");
+        assertThat(nested.path("a").path("b")).hasSize(2);
+        assertThat(nested.path("c").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsColonsInUnquotedValues() {
+        var node = TolerantJsonReader.readObject("{url: https://example.com:8080/a?b=c, next: 2}");
+        assertThat(node.path("url").asText()).isEqualTo("https://example.com:8080/a?b=c");
+        assertThat(node.path("next").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void streamsCharacterByCharacter() {
+        String text = "```json\n{'a': [1, 2,], \"b\": https://x.io}\n```";
+        var reader = new TolerantJsonReader();
+        for (char c : text.toCharArray())
+            reader.feed(String.valueOf(c));
+        assertThat(reader.complete()).isTrue();
+        assertThat(reader.repaired()).isTrue();
+        assertThat(reader.finish().path("b").asText()).isEqualTo("https://x.io");
+    }
+}
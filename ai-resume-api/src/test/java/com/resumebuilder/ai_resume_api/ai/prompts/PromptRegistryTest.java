@@ -0,0 +1,114 @@
+package com.resumebuilder.ai_resume_api.ai.prompts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptRegistryTest {
+
+    private static final String ID = "bullet_rewrite_json_v1";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledPromptsLoadWithTheirSchemas() {
+        var registry = new PromptRegistry("");
+
+        var pt = registry.get(ID);
+        assertThat(pt.name()).isEqualTo("Bullet Rewrite JSON");
+        assertThat(pt.version()).isEqualTo("1.0");
+        assertThat(pt.template()).doesNotStartWith("id:").contains("{{");
+        assertThat(pt.schema()).isNotNull();
+        assertThat(registry.all()).containsKeys(ID, "json_repair_v1");
+        assertThatThrownBy(() -> registry.get("nope")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Prompt not found: nope");
+    }
+
+    @Test
+    void parsesTheHeaderAndKeepsTheTemplateVerbatim() {
+        var pt = PromptRegistry.parse("""
+                # a comment
+                id: demo
+
+                version: 2.1
+                schema: demo.schema.json
+                ---
+                Line one: {{x}}
+                ---
+                """, file -> file.equals("demo.schema.json") ? "{\"type\": \"object\"}" : null);
+
+        assertThat(pt.id()).isEqualTo("demo");
+        assertThat(pt.name()).isEqualTo("demo"); // defaults to the id
+        assertThat(pt.version()).isEqualTo("2.1");
+        assertThat(pt.template()).isEqualTo("Line one: {{x}}\n---\n");
+        assertThat(pt.schema().source()).isEqualTo("{\"type\": \"object\"}");
+        assertThat(PromptRegistry.parse("id: a\nversion: 1\n---\nt", f -> null).schema()).isNull();
+    }
+
+    @Test
+    void rejectsBrokenHeaders() {
+        assertThatThrownBy(() -> PromptRegistry.parse("id: a\nversion: 1\n", f -> null))
+                .hasMessageContaining("Missing '---'");
+        assertThatThrownBy(() -> PromptRegistry.parse("id: a\n---\nt", f -> null))
+                .hasMessage("Missing 'version' in prompt header");
+        assertThatThrownBy(() -> PromptRegistry.parse("version: 1\n---\nt", f -> null))
+                .hasMessage("Missing 'id' in prompt header");
+        assertThatThrownBy(() -> PromptRegistry.parse("id a\n---\nt", f -> null))
+                .hasMessage("Bad header line: id a");
+    }
+
+    @Test
+    void overrideDirWinsOverTheClasspath() throws IOException {
+        write("id: " + ID + "\nversion: 2.0\nschema: custom.schema.json\n---\nRewrite {{draft}}", 1);
+        Files.writeString(dir.resolve("custom.schema.json"), "{\"type\": \"object\", \"required\": [\"x\"]}");
+        Files.writeString(dir.resolve("notes.txt"), "not a prompt");
+
+        var registry = new PromptRegistry(dir.toString());
+
+        var pt = registry.get(ID);
+        assertThat(pt.version()).isEqualTo("2.0");
+        assertThat(pt.render(Map.of("draft", "it"))).isEqualTo("Rewrite it");
+        assertThat(pt.schema().source()).contains("\"required\": [\"x\"]");
+        assertThat(registry.get("json_repair_v1").version()).isEqualTo("1.0"); // others stay bundled
+    }
+
+    @Test
+    void reloadPicksUpNewVersionsKeepsTheLastGoodOneAndRestoresTheBundledPrompt() throws IOException {
+        var registry = new PromptRegistry(dir.toString());
+        assertThat(registry.get(ID).version()).isEqualTo("1.0");
+
+        Path file = write("id: " + ID + "\nversion: 1.1\n---\nv1.1 {{draft}}", 1);
+        registry.reloadOverrides();
+        assertThat(registry.get(ID).version()).isEqualTo("1.1");
+
+        write("id: " + ID + "\nversion: 1.2\n---\nv1.2 {{draft}}", 2);
+        registry.reloadOverrides();
+        assertThat(registry.get(ID).template()).isEqualTo("v1.2 {{draft}}");
+
+        write("id: " + ID + "\n---\nno version", 3);
+        registry.reloadOverrides();
+        assertThat(registry.get(ID).version()).isEqualTo("1.2");
+
+        Files.delete(file);
+        registry.reloadOverrides();
+        assertThat(registry.get(ID).version()).isEqualTo("1.0");
+    }
+
+    // Distinct mtimes per step, so the change is seen however coarse the file system clock is
+    private Path write(String content, int step) throws IOException {
+        Path file = dir.resolve(ID + ".prompt");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(step)));
+        return file;
+    }
+}
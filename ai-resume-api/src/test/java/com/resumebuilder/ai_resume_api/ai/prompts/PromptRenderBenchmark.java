@@ -0,0 +1,73 @@
+package com.resumebuilder.ai_resume_api.ai.prompts;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Render microbenchmark: the compiled {@link PromptTemplate#render} against the previous
+ * String.replace-per-variable loop, on the bundled tailoring prompt with realistically sized
+ * context. Not a test (surefire skips it): run main() on the test classpath. Warm-up and
+ * measurement rounds are interleaved so both variants see the same JIT state.
+ */
+public final class PromptRenderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 20_000;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) {
+        PromptTemplate pt = new PromptRegistry("").get("tailor_patch_json_v1");
+        Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("jobDescription", "Senior Java engineer, Spring Boot, Postgres, Kubernetes. ".repeat(60));
+        vars.put("context", "- Built a pgvector retrieval service handling 2k req/s\n".repeat(80));
+        vars.put("targetKeywords", "java, spring boot, postgres, kubernetes, kafka, aws, ci/cd, observability");
+
+        if (!replaceLoop(pt.template(), vars).equals(pt.render(vars)))
+            throw new IllegalStateException("Renderers disagree");
+
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            runReplace(pt.template(), vars);
+            runCompiled(pt, vars);
+        }
+        long replaceNs = 0;
+        long compiledNs = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            replaceNs += runReplace(pt.template(), vars);
+            compiledNs += runCompiled(pt, vars);
+        }
+
+        double replaceUs = replaceNs / 1e3 / ROUNDS / ITERATIONS;
+        double compiledUs = compiledNs / 1e3 / ROUNDS / ITERATIONS;
+        System.out.printf("prompt=%s chars=%d%n", pt.id(), pt.render(vars).length());
+        System.out.printf("replace loop : %8.2f us/render%n", replaceUs);
+        System.out.printf("compiled     : %8.2f us/render (%.1fx)%n", compiledUs, replaceUs / compiledUs);
+    }
+
+    private static long runReplace(String template, Map<String, Object> vars) {
+        long start = System.nanoTime();
+        int acc = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            acc += replaceLoop(template, vars).length();
+        sink = acc;
+        return System.nanoTime() - start;
+    }
+
+    private static long runCompiled(PromptTemplate pt, Map<String, Object> vars) {
+        long start = System.nanoTime();
+        int acc = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            acc += pt.render(vars).length();
+        sink = acc;
+        return System.nanoTime() - start;
+    }
+
+    // The pre-compilation renderer: one full copy of the prompt per variable
+    private static String replaceLoop(String template, Map<String, Object> vars) {
+        String out = template;
+        for (var e : vars.entrySet())
+            out = out.replace("{{" + e.getKey() + "}}", String.valueOf(e.getValue()));
+        return out;
+    }
+}
@@ -0,0 +1,45 @@
+package com.resumebuilder.ai_resume_api.ai.prompts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptTemplateTest {
+
+    @Test
+    void substitutesEveryOccurrence() {
+        var pt = new PromptTemplate("p", "p", "1", "Hi {{name}}, {{name}} works at {{company_1}}.");
+
+        assertThat(pt.render(Map.of("name", "Sam", "company_1", "Acme"))).isEqualTo("Hi Sam, Sam works at Acme.");
+    }
+
+    @Test
+    void missingPlaceholdersAreKeptVerbatim() {
+        var pt = new PromptTemplate("p", "p", "1", "Role: {{role}}; JD: {{jd}}");
+
+        assertThat(pt.render(Map.of("role", "SRE"))).isEqualTo("Role: SRE; JD: {{jd}}");
+        assertThat(pt.render(null)).isEqualTo("Role: {{role}}; JD: {{jd}}");
+
+        Map<String, Object> nullValue = new HashMap<>();
+        nullValue.put("role", null);
+        assertThat(pt.render(nullValue)).isEqualTo("Role: null; JD: {{jd}}");
+    }
+
+    @Test
+    void valuesAreNotRescanned() {
+        var pt = new PromptTemplate("p", "p", "1", "{{a}} and {{b}}");
+
+        assertThat(pt.render(Map.of("a", "{{b}}", "b", "B"))).isEqualTo("{{b}} and B");
+    }
+
+    @Test
+    void bracesThatAreNotPlaceholdersStayLiteral() {
+        var pt = new PromptTemplate("p", "p", "1", "Shape: {{ \"bullets\": [] }} for {{who}} {{unclosed");
+
+        assertThat(pt.render(Map.of("who", "Sam"))).isEqualTo("Shape: {{ \"bullets\": [] }} for Sam {{unclosed");
+        assertThat(pt.render(Map.of())).isEqualTo(pt.template());
+    }
+}
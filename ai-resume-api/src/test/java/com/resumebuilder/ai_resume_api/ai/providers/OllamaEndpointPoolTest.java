@@ -0,0 +1,121 @@
+package com.resumebuilder.ai_resume_api.ai.providers;
+
+import com.resumebuilder.ai_resume_api.ai.AiTextRequest;
+import com.resumebuilder.ai_resume_api.ai.KnownModels;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OllamaHttpProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Routes OllamaProvider calls against local stub servers standing in for Ollama. */
+class OllamaEndpointPoolTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        servers.forEach(s -> s.stop(0));
+    }
+
+    @Test
+    void routesToEndpointWithModelResident() throws IOException {
+        var a = new AtomicInteger();
+        var b = new AtomicInteger();
+        String urlA = stub(a, 200, "from-a");
+        String urlB = stub(b, 200, "from-b");
+
+        var provider = provider(pool(endpoint(urlA, List.of()), endpoint(urlB, List.of("small-model"))));
+
+        for (int i = 0; i < 3; i++) {
+            var res = provider.generate(new AiTextRequest("small-model", "hi", false, null, Map.of()), null);
+            assertThat(res.content()).isEqualTo("from-b");
+        }
+        assertThat(a.get()).isZero();
+        assertThat(b.get()).isEqualTo(3);
+    }
+
+    @Test
+    void prefersLeastOutstanding() throws IOException {
+        var pool = pool(endpoint("http://a", List.of()), endpoint("http://b", List.of()));
+
+        try (var first = pool.acquire("m"); var second = pool.acquire("m")) {
+            assertThat(first.baseUrl()).isNotEqualTo(second.baseUrl());
+            first.success();
+            second.success();
+        }
+        assertThat(pool.endpoints()).allMatch(e -> e.outstanding() == 0);
+    }
+
+    @Test
+    void ejectsFailingEndpointAndFailsOver() throws IOException {
+        var bad = new AtomicInteger();
+        var good = new AtomicInteger();
+        String urlBad = stub(bad, 500, "");
+        String urlGood = stub(good, 200, "ok");
+
+        // the failing endpoint claims the model, so it wins routing until it is ejected
+        var pool = pool(endpoint(urlBad, List.of("m")), endpoint(urlGood, List.of()));
+        var provider = provider(pool);
+        var req = new AiTextRequest("m", "hi", false, null, Map.of());
+
+        for (int i = 0; i < 3; i++)
+            assertThatThrownBy(() -> provider.generate(req, null)).isInstanceOf(RuntimeException.class);
+
+        assertThat(provider.generate(req, null).content()).isEqualTo("ok");
+        assertThat(bad.get()).isEqualTo(3);
+        assertThat(good.get()).isEqualTo(1);
+        assertThat(provider.isHealthy()).isTrue();
+    }
+
+    private String stub(AtomicInteger hits, int status, String text) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", ex -> {
+            hits.incrementAndGet();
+            ex.getRequestBody().readAllBytes();
+            byte[] body = ("{\"model\":\"m\",\"response\":\"" + text + "\",\"done\":true}")
+                    .getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(status, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static OllamaEndpointsProperties.Endpoint endpoint(String url, List<String> models) {
+        var e = new OllamaEndpointsProperties.Endpoint();
+        e.setUrl(url);
+        e.setModels(models);
+        return e;
+    }
+
+    private static OllamaEndpointPool pool(OllamaEndpointsProperties.Endpoint... endpoints) {
+        var props = new OllamaEndpointsProperties();
+        props.setEndpoints(List.of(endpoints));
+        return new OllamaEndpointPool(props);
+    }
+
+    private static OllamaProvider provider(OllamaEndpointPool pool) {
+        var client = new OllamaClient(WebClient.create(), new OllamaHttpProperties());
+        var props = new OllamaEndpointsProperties();
+        var known = new KnownModels(props, new OpenAiCompatProperties(), "m", "", "", "");
+        var residency = new OllamaResidencyManager(client, pool, props, known, "m", "", "", "");
+        return new OllamaProvider(client, pool, residency, "m");
+    }
+}
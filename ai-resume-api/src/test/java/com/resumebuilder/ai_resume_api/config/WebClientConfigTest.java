@@ -0,0 +1,53 @@
+package com.resumebuilder.ai_resume_api.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientConfigTest {
+
+    @Test
+    void uriTagIsThePathAlone() {
+        assertThat(WebClientConfig.uriTag("http://10.0.0.7:11434/api/generate")).isEqualTo("/api/generate");
+        assertThat(WebClientConfig.uriTag("/api/tags?verbose=1")).isEqualTo("/api/tags");
+        assertThat(WebClientConfig.uriTag("http://ollama:11434")).isEqualTo("/");
+        assertThat(WebClientConfig.uriTag("/api/ bad")).isEqualTo("/bad-request");
+    }
+
+    @Test
+    void ollamaClientMetersAreTaggedByPathNotHost() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry); // where Reactor Netty publishes
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/tags", ex -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            ex.sendResponseHeaders(200, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+        server.start();
+        var config = new WebClientConfig();
+        var props = new OllamaHttpProperties();
+        var pool = config.ollamaConnectionProvider(props);
+        try {
+            config.ollamaWebClient(pool, props).get()
+                    .uri("http://127.0.0.1:" + server.getAddress().getPort() + "/api/tags?verbose=1")
+                    .retrieve().bodyToMono(String.class).block();
+
+            assertThat(registry.find("reactor.netty.http.client.response.time").meters())
+                    .isNotEmpty()
+                    .map(m -> m.getId().getTag("uri"))
+                    .containsOnly("/api/tags");
+        } finally {
+            server.stop(0);
+            pool.dispose();
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
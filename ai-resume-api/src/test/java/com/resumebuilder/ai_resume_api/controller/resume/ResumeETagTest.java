@@ -0,0 +1,116 @@
+package com.resumebuilder.ai_resume_api.controller.resume;
+
+import com.resumebuilder.ai_resume_api.PostgresIntegrationTest;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.SkillEntity;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
+import com.resumebuilder.ai_resume_api.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Conditional GETs through ResumeETagInterceptor, with tags read from the stored document. */
+@PostgresIntegrationTest
+@AutoConfigureMockMvc
+class ResumeETagTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ResumeRepository resumes;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private UserPrincipal principal;
+    private String resumeUrl;
+    private String skillUrl;
+
+    @BeforeEach
+    void seed() {
+        String username = "etag-" + UUID.randomUUID().toString().substring(0, 8);
+        tx.executeWithoutResult(status -> {
+            UserEntity user = new UserEntity();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setFullName("Sam Doe");
+            users.save(user);
+
+            ResumeEntity resume = new ResumeEntity();
+            resume.setUser(user);
+            resume.setTitle("Backend");
+            SkillEntity skill = new SkillEntity();
+            skill.setResume(resume);
+            skill.setName("Java");
+            skill.setProficiencyLevel(4);
+            resume.getSkills().add(skill);
+            resumes.save(resume);
+
+            principal = UserPrincipal.from(user);
+            resumeUrl = "/api/resumes/" + resume.getId();
+            skillUrl = resumeUrl + "/skills/" + skill.getId();
+        });
+    }
+
+    @Test
+    void staleTagGetsTheNewDocumentAfterASectionUpdate() throws Exception {
+        String resumeTag = mvc.perform(get(resumeUrl).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String skillTag = mvc.perform(get(skillUrl).with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(resumeTag).isNotBlank();
+        assertThat(skillTag).isEqualTo("\"0\"");
+
+        mvc.perform(get(resumeUrl).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, resumeTag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(put(skillUrl).with(user(principal))
+                        .header(HttpHeaders.IF_MATCH, skillTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Kotlin\", \"proficiencyLevel\": 5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        String newTag = mvc.perform(get(resumeUrl).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, resumeTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newTag).isNotBlank().isNotEqualTo(resumeTag);
+
+        mvc.perform(get(skillUrl).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, skillTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void corsPreflightAllowsConditionalHeaders() throws Exception {
+        mvc.perform(options(resumeUrl)
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "if-none-match, if-match"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("ETag")));
+    }
+}
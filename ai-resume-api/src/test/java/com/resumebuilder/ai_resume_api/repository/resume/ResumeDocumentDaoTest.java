@@ -0,0 +1,114 @@
+package com.resumebuilder.ai_resume_api.repository.resume;
+
+import com.resumebuilder.ai_resume_api.PostgresIntegrationTest;
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeResponseDto;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.CertificationEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.SkillEntity;
+import com.resumebuilder.ai_resume_api.mapper.ResumeMapper;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import com.resumebuilder.ai_resume_api.service.resume.ResumeDocumentLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** findDocument's SQL against the migrated schema: the stored document, the built one, the owner check. */
+@PostgresIntegrationTest
+class ResumeDocumentDaoTest {
+
+    @Autowired
+    private ResumeDocumentDao dao;
+    @Autowired
+    private ResumeDocumentLoader loader;
+    @Autowired
+    private ResumeMapper resumeMapper;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ResumeRepository resumes;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private String username;
+    private Long resumeId;
+
+    @BeforeEach
+    void seed() {
+        username = "doc-" + UUID.randomUUID().toString().substring(0, 8);
+        resumeId = tx.execute(status -> {
+            UserEntity user = new UserEntity();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setFullName("Sam Doe");
+            users.save(user);
+
+            ResumeEntity resume = new ResumeEntity();
+            resume.setUser(user);
+            resume.setTitle("Backend");
+            resume.setTargetRoles(new ArrayList<>(List.of("Staff Engineer")));
+
+            SkillEntity skill = new SkillEntity();
+            skill.setResume(resume);
+            skill.setName("Java");
+            skill.setProficiencyLevel(5);
+            skill.setKeywords(new ArrayList<>(List.of("jvm")));
+            CertificationEntity cert = new CertificationEntity();
+            cert.setSkill(skill);
+            cert.setName("OCP");
+            skill.getCertifications().add(cert);
+            resume.getSkills().add(skill);
+            return resumes.save(resume).getId();
+        });
+    }
+
+    @Test
+    void storedDocumentIsWrittenOnCommit() {
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM resume_documents WHERE resume_id = ?",
+                Integer.class, resumeId)).isEqualTo(1);
+
+        assertThat(dao.findDocument(resumeId, username)).get().asString()
+                .contains("\"Java\"", "\"OCP\"", "\"jvm\"", "\"Staff Engineer\"");
+        assertThat(loader.load(resumeId, username)).contains(mapped());
+    }
+
+    @Test
+    void buildsTheDocumentWhenNoneIsStored() {
+        jdbc.update("DELETE FROM resume_documents WHERE resume_id = ?", resumeId);
+
+        assertThat(dao.findDocument(resumeId, username)).isPresent();
+        assertThat(dao.findDocument(resumeId)).isPresent();
+        assertThat(loader.load(resumeId, username)).contains(mapped());
+    }
+
+    @Test
+    void otherUsersGetNothing() {
+        assertThat(dao.findDocument(resumeId, "someone-else")).isEmpty();
+
+        jdbc.update("DELETE FROM resume_documents WHERE resume_id = ?", resumeId);
+        assertThat(dao.findDocument(resumeId, "someone-else")).isEmpty();
+    }
+
+    @Test
+    void unknownResumeIsEmpty() {
+        assertThat(dao.findDocument(Long.MAX_VALUE)).isEmpty();
+        assertThat(dao.findDocument(Long.MAX_VALUE, username)).isEmpty();
+    }
+
+    // The JPA path the document replaces, for parity
+    private ResumeResponseDto mapped() {
+        return tx.execute(status -> resumeMapper.toResponseDto(
+                resumes.findByIdAndUser_Username(resumeId, username).orElseThrow()));
+    }
+}
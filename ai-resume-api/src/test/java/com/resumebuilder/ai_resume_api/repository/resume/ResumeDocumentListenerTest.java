@@ -0,0 +1,131 @@
+package com.resumebuilder.ai_resume_api.repository.resume;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumebuilder.ai_resume_api.PostgresIntegrationTest;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.CertificationEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.SkillEntity;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes through JPA, each in its own transaction, then reads resume_documents: the listener's
+ * LOCK and REFRESH must leave the stored document matching what was committed.
+ */
+@PostgresIntegrationTest
+class ResumeDocumentListenerTest {
+
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ResumeRepository resumes;
+    @Autowired
+    private SkillRepository skills;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate tx;
+    @Autowired
+    private ObjectMapper json;
+
+    private Long resumeId;
+
+    @BeforeEach
+    void seed() {
+        String username = "sync-" + UUID.randomUUID().toString().substring(0, 8);
+        resumeId = tx.execute(status -> {
+            UserEntity user = new UserEntity();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setFullName("Sam Doe");
+            users.save(user);
+
+            ResumeEntity resume = new ResumeEntity();
+            resume.setUser(user);
+            resume.setTitle("Backend");
+            return resumes.save(resume).getId();
+        });
+    }
+
+    @Test
+    void sectionCreateUpdateDelete() {
+        Long skillId = tx.execute(status -> {
+            SkillEntity skill = new SkillEntity();
+            skill.setResume(resumes.getReferenceById(resumeId));
+            skill.setName("Java");
+            skill.setProficiencyLevel(4);
+            return skills.save(skill).getId();
+        });
+        assertThat(stored().path("skills")).hasSize(1);
+        assertThat(stored().at("/skills/0/name").asText()).isEqualTo("Java");
+
+        tx.executeWithoutResult(status -> skills.findById(skillId).orElseThrow().setName("Kotlin"));
+        JsonNode updated = stored().at("/skills/0");
+        assertThat(updated.path("name").asText()).isEqualTo("Kotlin");
+        assertThat(updated.path("version").asLong()).isEqualTo(1);
+
+        tx.executeWithoutResult(status -> skills.deleteById(skillId));
+        assertThat(stored().path("skills")).isEmpty();
+    }
+
+    @Test
+    void certificationCreateUpdateDelete() {
+        Long skillId = tx.execute(status -> {
+            SkillEntity skill = new SkillEntity();
+            skill.setResume(resumes.getReferenceById(resumeId));
+            skill.setName("Java");
+            return skills.save(skill).getId();
+        });
+
+        tx.executeWithoutResult(status -> {
+            SkillEntity skill = skills.findById(skillId).orElseThrow();
+            CertificationEntity cert = new CertificationEntity();
+            cert.setSkill(skill);
+            cert.setName("OCP");
+            skill.getCertifications().add(cert);
+        });
+        assertThat(stored().at("/skills/0/certifications")).hasSize(1);
+        assertThat(stored().at("/skills/0/certifications/0/name").asText()).isEqualTo("OCP");
+
+        tx.executeWithoutResult(status ->
+                skills.findById(skillId).orElseThrow().getCertifications().get(0).setName("OCP 21"));
+        assertThat(stored().at("/skills/0/certifications/0/name").asText()).isEqualTo("OCP 21");
+
+        tx.executeWithoutResult(status -> skills.findById(skillId).orElseThrow().getCertifications().clear());
+        assertThat(stored().at("/skills/0/certifications")).isEmpty();
+    }
+
+    @Test
+    void elementCollectionAddChangeRemove() {
+        tx.executeWithoutResult(status -> resumes.findById(resumeId).orElseThrow().getTargetRoles().add("Staff Engineer"));
+        assertThat(stored().path("target_roles")).extracting(JsonNode::asText).containsExactly("Staff Engineer");
+
+        tx.executeWithoutResult(status -> resumes.findById(resumeId).orElseThrow().getTargetRoles().set(0, "Principal Engineer"));
+        assertThat(stored().path("target_roles")).extracting(JsonNode::asText).containsExactly("Principal Engineer");
+
+        tx.executeWithoutResult(status -> resumes.findById(resumeId).orElseThrow().getTargetRoles().clear());
+        assertThat(stored().path("target_roles")).isEmpty();
+    }
+
+    // The stored row only; findDocument would hide a missing one by building it
+    private JsonNode stored() {
+        try {
+            return json.readTree(jdbc.queryForObject(
+                    "SELECT document::text FROM resume_documents WHERE resume_id = ?", String.class, resumeId));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import com.resumebuilder.ai_resume_api.PostgresIntegrationTest;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** chunk_contents sharing against the migrated schema: the sha256 upsert and orphan cleanup. */
+@PostgresIntegrationTest
+class ResumeChunkDaoTest {
+
+    private static final int DIMS = 768;
+
+    @Autowired
+    private ResumeChunkDao dao;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ResumeRepository resumes;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private String tag;
+    private Long base;
+    private Long tailored;
+
+    @BeforeEach
+    void seed() {
+        tag = UUID.randomUUID().toString().substring(0, 8);
+        List<Long> ids = tx.execute(status -> {
+            UserEntity user = new UserEntity();
+            user.setUsername("chunk-" + tag);
+            user.setEmail("chunk-" + tag + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setFullName("Sam Doe");
+            users.save(user);
+            return List.of(resume(user, "Base"), resume(user, "Tailored"));
+        });
+        base = ids.get(0);
+        tailored = ids.get(1);
+    }
+
+    @Test
+    void sharedTextIsStoredOnceUnderItsSha256() {
+        String text = "Built the billing service " + tag;
+        dao.insertAll(base, "nomic", List.of(chunk(text, 0, 1f), chunk(text, 1, 1f)));
+        dao.insertAll(tailored, "nomic", List.of(chunk(text, 0, 1f)));
+
+        assertThat(contentIds(text)).hasSize(1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM resume_chunks WHERE content_id = ?",
+                Integer.class, contentIds(text).get(0))).isEqualTo(3);
+        // V51 keys the migrated rows with Postgres' sha256, the DAO with Java's: they must agree
+        assertThat(jdbc.queryForObject(
+                "SELECT content_hash = sha256(convert_to(content, 'UTF8')) FROM chunk_contents WHERE id = ?",
+                Boolean.class, contentIds(text).get(0))).isTrue();
+    }
+
+    @Test
+    void vectorsAreReplacedOnlyForAnotherModel() {
+        String text = "Led a team of five " + tag;
+        dao.insertAll(base, "nomic", List.of(chunk(text, 0, 1f)));
+        dao.insertAll(tailored, "nomic", List.of(chunk(text, 0, 2f)));
+
+        assertThat(dao.findEmbeddings("nomic", List.of(text)).get(text)[0]).isEqualTo(1f);
+        assertThat(dao.findEmbeddings("other", List.of(text))).isEmpty();
+
+        dao.insertAll(tailored, "other", List.of(chunk(text, 1, 3f)));
+
+        assertThat(dao.findEmbeddings("other", List.of(text)).get(text)[0]).isEqualTo(3f);
+        assertThat(dao.findEmbeddings("nomic", List.of(text))).isEmpty();
+        assertThat(contentIds(text)).hasSize(1);
+    }
+
+    @Test
+    void deletingAResumeKeepsTextAnotherResumeShares() {
+        String shared = "Migrated to Kubernetes " + tag;
+        String own = "Wrote the style guide " + tag;
+        dao.insertAll(base, "nomic", List.of(chunk(shared, 0, 1f), chunk(own, 1, 1f)));
+        dao.insertAll(tailored, "nomic", List.of(chunk(shared, 0, 1f)));
+
+        dao.deleteByResumeId(base);
+
+        assertThat(contentIds(shared)).hasSize(1);
+        assertThat(contentIds(own)).isEmpty();
+        assertThat(dao.findByResumeId(base)).isEmpty();
+        assertThat(dao.findByResumeId(tailored)).extracting(r -> r.get("content")).containsExactly(shared);
+    }
+
+    @Test
+    void replaceAllKeepsRetainedContentRows() {
+        String kept = "Cut p99 latency by 40% " + tag;
+        String dropped = "Maintained the wiki " + tag;
+        dao.insertAll(base, "nomic", List.of(chunk(kept, 0, 1f), chunk(dropped, 1, 1f)));
+        Long keptId = contentIds(kept).get(0);
+
+        dao.replaceAll(base, "nomic", List.of(chunk(kept, 0, 1f), chunk("Added tracing " + tag, 1, 1f)));
+
+        assertThat(contentIds(kept)).containsExactly(keptId);
+        assertThat(contentIds(dropped)).isEmpty();
+        assertThat(dao.findByResumeId(base)).extracting(r -> r.get("content"))
+                .containsExactly(kept, "Added tracing " + tag);
+    }
+
+    @Test
+    void orphanContentsAreDeletedInBatches() {
+        List<String> texts = List.of("One " + tag, "Two " + tag, "Three " + tag);
+        dao.insertAll(base, "nomic", List.of(chunk(texts.get(0), 0, 1f), chunk(texts.get(1), 1, 1f),
+                chunk(texts.get(2), 2, 1f)));
+        dao.insertAll(tailored, "nomic", List.of(chunk(texts.get(0), 0, 1f)));
+        // What a crash between the chunk delete and the cleanup leaves behind
+        jdbc.update("DELETE FROM resume_chunks WHERE resume_id = ?", base);
+
+        assertThat(dao.deleteOrphanContents(1)).isEqualTo(1);
+        assertThat(dao.deleteOrphanContents(Integer.MAX_VALUE)).isPositive();
+
+        assertThat(contentIds(texts.get(0))).hasSize(1);
+        assertThat(contentIds(texts.get(1))).isEmpty();
+        assertThat(contentIds(texts.get(2))).isEmpty();
+    }
+
+    private Long resume(UserEntity user, String title) {
+        ResumeEntity resume = new ResumeEntity();
+        resume.setUser(user);
+        resume.setTitle(title);
+        return resumes.save(resume).getId();
+    }
+
+    private List<Long> contentIds(String content) {
+        return jdbc.queryForList("SELECT id FROM chunk_contents WHERE content = ?", Long.class, content);
+    }
+
+    private static ResumeVectorIndex.Chunk chunk(String content, int partOrder, float first) {
+        float[] embedding = new float[DIMS];
+        embedding[0] = first;
+        embedding[1] = 1f;
+        return new ResumeVectorIndex.Chunk(null, "EXPERIENCE", "EXPERIENCE_BULLET", 1L, partOrder, content,
+                embedding, "per-field@1");
+    }
+}
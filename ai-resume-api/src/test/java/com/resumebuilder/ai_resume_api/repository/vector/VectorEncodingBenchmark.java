@@ -0,0 +1,74 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Allocation and time per 768-dim embedding for the two ways {@link PgVector} crosses the wire:
+ * the "[0.1,...]" text literal the DAO used to build (and parse back) and pgvector's binary
+ * format, encoded the way PgJDBC does it (one byte[] of lengthInBytes()). Allocation comes from
+ * the thread allocation counter, so it covers everything the encoder creates. Not a test
+ * (surefire skips it): run main() on the test classpath.
+ */
+public final class VectorEncodingBenchmark {
+
+    private static final int DIMS = 768;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        Random rnd = new Random(3);
+        float[] v = new float[DIMS];
+        for (int i = 0; i < DIMS; i++)
+            v[i] = (float) rnd.nextGaussian() * 0.05f;
+        PgVector vec = new PgVector(v);
+
+        String text = vec.getValue();
+        byte[] binary = encode(vec);
+        PgVector fromText = new PgVector();
+        fromText.setValue(text);
+        PgVector fromBinary = new PgVector();
+        fromBinary.setByteValue(binary, 0);
+        if (!Arrays.equals(v, fromText.toArray()) || !Arrays.equals(v, fromBinary.toArray()))
+            throw new IllegalStateException("Round trip changed the vector");
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] names = { "text encode", "binary encode", "text decode", "binary decode" };
+        Runnable[] ops = {
+                () -> sink = vec.getValue().length(),
+                () -> sink = encode(vec).length,
+                () -> {
+                    PgVector p = new PgVector();
+                    p.setValue(text);
+                    sink = p.toArray().length;
+                },
+                () -> {
+                    PgVector p = new PgVector();
+                    p.setByteValue(binary, 0);
+                    sink = p.toArray().length;
+                } };
+
+        System.out.printf("dims=%d text=%d chars binary=%d bytes%n", DIMS, text.length(), binary.length);
+        for (int o = 0; o < ops.length; o++) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++)
+                ops[o].run();
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++)
+                ops[o].run();
+            long ns = System.nanoTime() - start;
+            long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            System.out.printf("%-14s: %8.2f us, %8d B allocated per vector%n", names[o], ns / 1e3 / ITERATIONS,
+                    bytes / ITERATIONS);
+        }
+    }
+
+    private static byte[] encode(PgVector vec) {
+        byte[] out = new byte[vec.lengthInBytes()];
+        vec.toBytes(out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,113 @@
+package com.resumebuilder.ai_resume_api.repository.vector;
+
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Retrieval microbenchmark: {@link ResumeVectorIndex#topK} over a synthetic resume
+ * (300 chunks x 768 dims) with the SIMD and the scalar dot product, and optionally
+ * {@link ResumeChunkDao#topK} against a real database for the same k. Not a test (surefire
+ * skips it): run main() on the test classpath with --add-modules jdk.incubator.vector.
+ * For the SQL path pass -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=...
+ * and -Dbench.resume-id= of an indexed resume.
+ */
+public final class VectorIndexBenchmark {
+
+    private static final int CHUNKS = 300;
+    private static final int DIMS = 768;
+    private static final int K = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 2_000;
+    private static final int SQL_ITERATIONS = 200;
+
+    private static volatile float sink;
+
+    public static void main(String[] args) {
+        Random rnd = new Random(42);
+        List<ResumeVectorIndex.Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < CHUNKS; i++)
+            chunks.add(new ResumeVectorIndex.Chunk((long) i, "EXPERIENCE", "EXPERIENCE_BULLET", 1L, i,
+                    "Built service " + i, randomVector(rnd), "per-field@1"));
+        float[] query = randomVector(rnd);
+
+        var index = new ResumeVectorIndex(null, new AiTailoringConfig());
+        index.put(1L, chunks);
+        float[] rows = new float[CHUNKS * DIMS];
+        for (int i = 0; i < CHUNKS; i++)
+            System.arraycopy(chunks.get(i).embedding(), 0, rows, i * DIMS, DIMS);
+
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            runScan(rows, query, false);
+            if (VectorMath.SIMD)
+                runScan(rows, query, true);
+            runTopK(index, query);
+        }
+        long scalarNs = 0;
+        long simdNs = 0;
+        long topKNs = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            scalarNs += runScan(rows, query, false);
+            if (VectorMath.SIMD)
+                simdNs += runScan(rows, query, true);
+            topKNs += runTopK(index, query);
+        }
+
+        System.out.printf("chunks=%d dims=%d k=%d simd=%s%n", CHUNKS, DIMS, K, VectorMath.SIMD);
+        System.out.printf("scalar scan  : %8.2f us/query%n", scalarNs / 1e3 / ROUNDS / ITERATIONS);
+        if (VectorMath.SIMD)
+            System.out.printf("simd scan    : %8.2f us/query%n", simdNs / 1e3 / ROUNDS / ITERATIONS);
+        System.out.printf("index topK   : %8.2f us/query (normalize + scan + select + rows)%n",
+                topKNs / 1e3 / ROUNDS / ITERATIONS);
+
+        String url = System.getProperty("bench.jdbc.url");
+        if (url != null) {
+            var ds = new DriverManagerDataSource(url, System.getProperty("bench.jdbc.user", ""),
+                    System.getProperty("bench.jdbc.password", ""));
+            var dao = new ResumeChunkDao(new JdbcTemplate(ds));
+            Long resumeId = Long.getLong("bench.resume-id");
+            var rowsDb = dao.findByResumeId(resumeId);
+            float[] q = rowsDb.isEmpty() ? query : (float[]) rowsDb.get(0).get("embedding");
+            for (int i = 0; i < SQL_ITERATIONS; i++)
+                dao.topK(resumeId, q, K);
+            long start = System.nanoTime();
+            for (int i = 0; i < SQL_ITERATIONS; i++)
+                dao.topK(resumeId, q, K);
+            System.out.printf("pgvector topK: %8.2f us/query (%d chunks)%n",
+                    (System.nanoTime() - start) / 1e3 / SQL_ITERATIONS, rowsDb.size());
+        }
+    }
+
+    private static long runScan(float[] rows, float[] query, boolean simd) {
+        long start = System.nanoTime();
+        float acc = 0;
+        for (int it = 0; it < ITERATIONS; it++) {
+            for (int i = 0; i < CHUNKS; i++)
+                acc += simd ? SimdVectorMath.dot(rows, i * DIMS, query, DIMS)
+                        : VectorMath.dotScalar(rows, i * DIMS, query, DIMS);
+        }
+        sink = acc;
+        return System.nanoTime() - start;
+    }
+
+    private static long runTopK(ResumeVectorIndex index, float[] query) {
+        long start = System.nanoTime();
+        float acc = 0;
+        for (int it = 0; it < ITERATIONS; it++)
+            acc += index.topK(1L, query, K).size();
+        sink = acc;
+        return System.nanoTime() - start;
+    }
+
+    private static float[] randomVector(Random rnd) {
+        float[] v = new float[DIMS];
+        for (int i = 0; i < DIMS; i++)
+            v[i] = (float) rnd.nextGaussian();
+        return v;
+    }
+}
@@ -0,0 +1,58 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.AiResumeApiApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.List;
+
+/**
+ * {@link ResumeChunker} extraction paths against a real database: JDBC statements issued
+ * (Hibernate statistics for the entity path; the SQL path is one statement by construction),
+ * time per call, and whether both produce the same chunks. Not a test (surefire skips it):
+ * run main() on the test classpath with the application's datasource settings and
+ * -Dbench.resume-id= of a populated resume.
+ */
+public final class ChunkExtractionBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+
+    public static void main(String[] args) {
+        Long resumeId = Long.getLong("bench.resume-id");
+        try (var ctx = new SpringApplicationBuilder(AiResumeApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=true")
+                .run(args)) {
+            ResumeChunker chunker = ctx.getBean(ResumeChunker.class);
+            var stats = ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            List<ResumeChunker.Chunk> viaJpa = chunker.buildChunksFromEntities(resumeId);
+            List<ResumeChunker.Chunk> viaSql = chunker.buildChunksFromSql(resumeId);
+            System.out.printf("resume=%d chunks jpa=%d sql=%d identical=%s%n", resumeId, viaJpa.size(),
+                    viaSql.size(), viaJpa.equals(viaSql));
+
+            stats.clear();
+            chunker.buildChunksFromEntities(resumeId);
+            System.out.printf("jpa statements: %d (%d entities, %d collections loaded)%n",
+                    stats.getPrepareStatementCount(), stats.getEntityLoadCount(), stats.getCollectionLoadCount());
+            System.out.println("sql statements: 1");
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                chunker.buildChunksFromEntities(resumeId);
+                chunker.buildChunksFromSql(resumeId);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++)
+                chunker.buildChunksFromEntities(resumeId);
+            double jpaMs = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++)
+                chunker.buildChunksFromSql(resumeId);
+            double sqlMs = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+            System.out.printf("jpa: %8.3f ms/call%nsql: %8.3f ms/call (%.1fx)%n", jpaMs, sqlMs, jpaMs / sqlMs);
+        }
+    }
+}
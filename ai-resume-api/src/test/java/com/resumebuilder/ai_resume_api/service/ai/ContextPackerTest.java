@@ -0,0 +1,108 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.ai.TokenBudgeter;
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import com.resumebuilder.ai_resume_api.service.ai.ContextPacker.Candidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** MMR packing of retrieved chunks; one char per token, so a line costs 26 + its length. */
+class ContextPackerTest {
+
+    private final AiTailoringConfig config = new AiTailoringConfig();
+    private final TokenBudgeter budgeter = mock(TokenBudgeter.class);
+    private final ContextPacker packer = new ContextPacker(config, budgeter, null);
+
+    @BeforeEach
+    void oneCharPerToken() {
+        when(budgeter.charsPerToken("m")).thenReturn(1.0);
+    }
+
+    @Test
+    void duplicateAndNearDuplicateLinesAreDropped() {
+        var picked = pack(List.of(
+                candidate("Led the migration", 0.9, 1f, 0f, 0f),
+                candidate("led the migration!", 0.8, 0f, 1f, 0f), // same text once normalized
+                candidate("Moved billing to Postgres", 0.7, 0.999f, 0.01f, 0f), // same embedding in all but name
+                candidate("Wrote the runbooks", 0.6, 0f, 1f, 0f)), 10, 10_000);
+
+        assertThat(picked).extracting(Candidate::content).containsExactly("Led the migration", "Wrote the runbooks");
+    }
+
+    @Test
+    void diverseLinesBeatNearIdenticalOnes() {
+        var candidates = List.of(
+                candidate("Cut p99 latency by 40%", 0.9, 1f, 0f),
+                candidate("Cut p95 latency by 30%", 0.85, 0.9f, 0.436f), // close to the first, under 0.97
+                candidate("Mentored two engineers", 0.6, 0f, 1f));
+
+        assertThat(pack(candidates, 2, 10_000)).extracting(Candidate::content)
+                .containsExactly("Cut p99 latency by 40%", "Mentored two engineers");
+
+        config.getTailor().getPack().setMmrLambda(1.0); // relevance only
+        assertThat(pack(candidates, 2, 10_000)).extracting(Candidate::content)
+                .containsExactly("Cut p99 latency by 40%", "Cut p95 latency by 30%");
+    }
+
+    @Test
+    void linesThatDoNotFitAreSkippedForShorterOnes() {
+        String forty = "x".repeat(40);
+        var picked = pack(List.of(
+                candidate("A" + forty, 0.9, 1f, 0f, 0f), // 67 tokens
+                candidate("B" + forty, 0.8, 0f, 1f, 0f), // 67: over the remaining 33
+                candidate("Go", 0.7, 0f, 0f, 1f)), 10, 100); // 28
+
+        assertThat(picked).extracting(Candidate::content).containsExactly("A" + forty, "Go");
+        assertThat(picked.stream().mapToInt(c -> 26 + c.content().length()).sum()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void theFirstLineIsKeptEvenOverBudget() {
+        var picked = pack(List.of(candidate("x".repeat(500), 0.9, 1f), candidate("short", 0.5, 1f)), 10, 100);
+
+        assertThat(picked).hasSize(1);
+        assertThat(picked.get(0).content()).hasSize(500);
+    }
+
+    @Test
+    void orderIsByUsefulnessAndStableOnTies() {
+        List<Candidate> candidates = new ArrayList<>(List.of(
+                candidate("Third", 0.5, 0f, 0f, 1f, 0f),
+                candidate("First", 0.9, 1f, 0f, 0f, 0f),
+                candidate("Tie one", 0.7, 0f, 1f, 0f, 0f),
+                candidate("Tie two", 0.7, 0f, 0f, 0f, 1f)));
+
+        var picked = pack(candidates, 10, 10_000);
+        assertThat(picked).extracting(Candidate::content).containsExactly("First", "Tie one", "Tie two", "Third");
+        assertThat(pack(candidates, 10, 10_000)).isEqualTo(picked);
+
+        Collections.swap(candidates, 2, 3); // equal scores keep retrieval order
+        assertThat(pack(candidates, 10, 10_000)).extracting(Candidate::content)
+                .containsExactly("First", "Tie two", "Tie one", "Third");
+    }
+
+    @Test
+    void keywordsBreakCloseCalls() {
+        var candidates = List.of(candidate("Built dashboards", 0.71, 1f, 0f),
+                candidate("Built Kafka pipelines", 0.70, 0f, 1f));
+
+        assertThat(packer.pack(candidates, List.of("kafka"), 1, 10_000, "m")).extracting(Candidate::content)
+                .containsExactly("Built Kafka pipelines");
+    }
+
+    private List<Candidate> pack(List<Candidate> candidates, int maxLines, int budgetTokens) {
+        return packer.pack(candidates, List.of(), maxLines, budgetTokens, "m");
+    }
+
+    private static Candidate candidate(String content, double relevance, float... embedding) {
+        return new Candidate("S", "T", 1L, null, content, relevance, embedding);
+    }
+}
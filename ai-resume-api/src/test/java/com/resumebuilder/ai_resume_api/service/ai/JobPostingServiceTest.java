@@ -0,0 +1,60 @@
+package com.resumebuilder.ai_resume_api.service.ai;
+
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import com.resumebuilder.ai_resume_api.dto.ai.JobPostingRequestDto;
+import com.resumebuilder.ai_resume_api.entity.JobPostingEntity;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.repository.JobPostingRepository;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobPostingServiceTest {
+
+    private final JobPostingRepository postings = mock(JobPostingRepository.class);
+    private final UserRepository users = mock(UserRepository.class);
+    private final EmbeddingService embeddings = mock(EmbeddingService.class);
+    private final JobPostingService service = new JobPostingService(postings, users,
+            new JobDescriptionAnalyzer(new AiTailoringConfig()), embeddings);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentCreateOfSameTextReturnsTheWinner() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        var user = new UserEntity();
+        user.setId(7L);
+        when(users.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(embeddings.model()).thenReturn("nomic-embed-text");
+        when(embeddings.embed(anyString())).thenReturn(new float[] { 1f });
+
+        var winner = new JobPostingEntity();
+        winner.setId(42L);
+        winner.setTitle("Backend");
+        winner.setDescription("Java and Postgres");
+        when(postings.findByUser_IdAndTextHash(eq(7L), anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(postings.save(any())).thenThrow(new DataIntegrityViolationException("uq_job_postings_user_hash"));
+
+        var res = service.create(new JobPostingRequestDto("Backend", "Java and  Postgres"));
+        assertThat(res.id()).isEqualTo(42L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.ai.AiMetrics;
+import com.resumebuilder.ai_resume_api.ai.KnownModels;
+import com.resumebuilder.ai_resume_api.ai.TokenBudgeter;
+import com.resumebuilder.ai_resume_api.config.AiTailoringConfig;
+import com.resumebuilder.ai_resume_api.config.OllamaEndpointsProperties;
+import com.resumebuilder.ai_resume_api.config.OpenAiCompatProperties;
+import com.resumebuilder.ai_resume_api.service.ai.EmbeddingService;
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkingPipelineTest {
+
+    private final AiTailoringConfig config = new AiTailoringConfig();
+    private final TokenBudgeter budgeter = mock(TokenBudgeter.class);
+    private final EmbeddingService embeddings = mock(EmbeddingService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiMetrics metrics = new AiMetrics(registry, new KnownModels(new OllamaEndpointsProperties(),
+            new OpenAiCompatProperties(), "m", "", "", ""));
+
+    @BeforeEach
+    void limits() {
+        when(embeddings.model()).thenReturn("nomic-embed-text");
+        when(budgeter.charsPerToken("nomic-embed-text")).thenReturn(1.0);
+        config.getChunking().setMinTokens(5);
+        config.getChunking().setMaxTokens(10);
+    }
+
+    @Test
+    void eachSectionRunsItsChainInOrderAndIsTaggedWithIt() {
+        config.getChunking().setSections(Map.of("EXPERIENCE", "merge-small, token-cap"));
+
+        var out = pipeline().apply(List.of(
+                chunk("EXPERIENCE", "EXPERIENCE_HEADER", 0, "Acme"),
+                chunk("EXPERIENCE", "EXPERIENCE_TECH_STACK", 1, "Go"),
+                chunk("SUMMARY", "SUMMARY_TEXT", 0, "Twelve chars"),
+                chunk("EXPERIENCE", "EXPERIENCE_STAR_RESULT", 2, "Cut costs by half")));
+
+        assertThat(out).extracting(t -> t.chunk().content(), ChunkingPipeline.Tagged::chunking).containsExactly(
+                tuple("Acme; Go", "merge-small@1+token-cap@1"),
+                tuple("Cut costs", "merge-small@1+token-cap@1"),
+                tuple("by half", "merge-small@1+token-cap@1"),
+                tuple("Twelve chars", "per-field@1"));
+        assertThat(registry.get("ai.chunks.indexed").tags("section", "EXPERIENCE").counter().count()).isEqualTo(3);
+        assertThat(registry.get("ai.chunks.size").tags("section", "SUMMARY").summary().totalAmount())
+                .isEqualTo(12);
+    }
+
+    @Test
+    void sectionKeysAreMatchedCaseInsensitively() {
+        config.getChunking().setSections(Map.of("SKILL", "token-cap"));
+
+        var out = pipeline().apply(List.of(chunk("skill", "SKILL_LINE", 0, "Java Kotlin Scala")));
+
+        assertThat(out).extracting(t -> t.chunk().content()).containsExactly("Java", "Kotlin", "Scala");
+        assertThat(out).extracting(ChunkingPipeline.Tagged::chunking).containsOnly("token-cap@1");
+    }
+
+    @Test
+    void unknownStrategyFailsAtStartup() {
+        config.getChunking().setSections(Map.of("EXPERIENCE", "merge-small,paragraphs"));
+
+        assertThatThrownBy(this::pipeline).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'paragraphs'");
+    }
+
+    private ChunkingPipeline pipeline() {
+        return new ChunkingPipeline(List.of(new PerFieldChunking(), new MergeSmallChunking(),
+                new SentenceWindowChunking(), new TokenCapChunking()), config, budgeter, embeddings, metrics);
+    }
+
+    private static Chunk chunk(String section, String refType, int partOrder, String content) {
+        return new Chunk(1L, section, refType, 9L, partOrder, content);
+    }
+}
@@ -0,0 +1,73 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** One token per character: min 5, max 20. */
+class MergeSmallChunkingTest {
+
+    private final MergeSmallChunking strategy = new MergeSmallChunking();
+    private final ChunkingContext ctx = new ChunkingContext(1.0, 5, 20, 1);
+
+    @Test
+    void smallChunkJoinsItsNeighbourUnderTheFirstMembersTypeAndOrder() {
+        var out = strategy.apply(List.of(chunk("EDU_LINE", 7L, 0, "BSc Physics"), chunk("EDU_GPA", 7L, 1, "3.9")),
+                ctx);
+
+        assertThat(out).containsExactly(chunk("EDU_LINE", 7L, 0, "BSc Physics; 3.9"));
+    }
+
+    @Test
+    void onlyChunksBelowMinTokensMerge() {
+        assertThat(strategy.apply(List.of(chunk("EDU_LINE", 7L, 0, "abcde"), chunk("EDU_GPA", 7L, 1, "fghij")), ctx))
+                .hasSize(2);
+        assertThat(strategy.apply(List.of(chunk("EDU_LINE", 7L, 0, "abcde"), chunk("EDU_GPA", 7L, 1, "fghi")), ctx))
+                .hasSize(1);
+    }
+
+    @Test
+    void mergedTokensMayReachMaxTokensButNotExceedIt() {
+        assertThat(strategy.apply(List.of(chunk("EDU_GPA", 7L, 0, "3.9"), chunk("EDU_LINE", 7L, 1, "a".repeat(17))),
+                ctx)).hasSize(1);
+        assertThat(strategy.apply(List.of(chunk("EDU_GPA", 7L, 0, "3.9"), chunk("EDU_LINE", 7L, 1, "a".repeat(18))),
+                ctx)).hasSize(2);
+    }
+
+    @Test
+    void runsOfSmallChunksKeepMergingWhileTheyFit() {
+        var out = strategy.apply(List.of(chunk("SKILL_LINE", 1L, 0, "Go"), chunk("SKILL_LINE", 1L, 1, "Java"),
+                chunk("SKILL_LINE", 1L, 2, "Rust"), chunk("SKILL_LINE", 1L, 3, "Kotlin")), ctx);
+
+        assertThat(out).extracting(Chunk::content).containsExactly("Go; Java; Rust", "Kotlin");
+    }
+
+    @Test
+    void chunksOfDifferentEntitiesStayApart() {
+        assertThat(strategy.apply(List.of(chunk("EDU_LINE", 7L, 0, "BSc"), chunk("EDU_LINE", 8L, 0, "MSc")), ctx))
+                .hasSize(2);
+    }
+
+    @Test
+    void inPlaceLinesAreNeverMerged() {
+        var in = List.of(chunk("EXPERIENCE_BULLET", 3L, 0, "Led"), chunk("EXPERIENCE_BULLET", 3L, 1, "Hired"),
+                chunk("EXPERIENCE_HEADER", 3L, 2, "Acme"));
+
+        assertThat(strategy.apply(in, ctx)).isEqualTo(in);
+    }
+
+    @Test
+    void patchSourcesMergeOnlyWithTheirOwnType() {
+        assertThat(strategy.apply(List.of(chunk("EXPERIENCE_DESC", 3L, 0, "Built"),
+                chunk("EXPERIENCE_TECH_STACK", 3L, 1, "Go")), ctx)).hasSize(2);
+        assertThat(strategy.apply(List.of(chunk("EXPERIENCE_DESC", 3L, 0, "Built"),
+                chunk("EXPERIENCE_DESC", 3L, 1, "it")), ctx)).extracting(Chunk::content).containsExactly("Built; it");
+    }
+
+    private static Chunk chunk(String refType, Long refId, int partOrder, String content) {
+        return new Chunk(1L, "EDUCATION", refType, refId, partOrder, content);
+    }
+}
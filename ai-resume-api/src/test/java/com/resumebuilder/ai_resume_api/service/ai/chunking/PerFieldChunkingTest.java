@@ -0,0 +1,19 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerFieldChunkingTest {
+
+    @Test
+    void chunksPassThroughWhateverTheirLength() {
+        var in = List.of(new Chunk(1L, "SUMMARY", "SUMMARY_TITLE", null, 0, "Go"),
+                new Chunk(1L, "SUMMARY", "SUMMARY_TEXT", null, 1, "x".repeat(500)));
+
+        assertThat(new PerFieldChunking().apply(in, new ChunkingContext(1.0, 8, 80, 1))).isEqualTo(in);
+    }
+}
@@ -0,0 +1,67 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** One token per character; four five-character sentences, two of which fit max-tokens 11. */
+class SentenceWindowChunkingTest {
+
+    private static final String TEXT = "Aaaa. Bbbb! Cccc? Dddd.";
+
+    private final SentenceWindowChunking strategy = new SentenceWindowChunking();
+
+    @Test
+    void fieldWithinMaxTokensIsKept() {
+        var c = chunk("EXPERIENCE_DESC", TEXT);
+
+        assertThat(strategy.apply(List.of(c), ctx(TEXT.length(), 1))).containsExactly(c);
+    }
+
+    @Test
+    void windowsOverlapByTheConfiguredSentences() {
+        var out = strategy.apply(List.of(chunk("EXPERIENCE_DESC", TEXT)), ctx(11, 1));
+
+        assertThat(out).containsExactly(chunk("EXPERIENCE_DESC", "Aaaa. Bbbb!"),
+                chunk("EXPERIENCE_DESC", "Bbbb! Cccc?"), chunk("EXPERIENCE_DESC", "Cccc? Dddd."));
+    }
+
+    @Test
+    void withoutOverlapWindowsAreDisjoint() {
+        var out = strategy.apply(List.of(chunk("EXPERIENCE_DESC", TEXT)), ctx(11, 0));
+
+        assertThat(out).extracting(Chunk::content).containsExactly("Aaaa. Bbbb!", "Cccc? Dddd.");
+    }
+
+    @Test
+    void overlapAsLargeAsTheWindowStillAdvances() {
+        var out = strategy.apply(List.of(chunk("EXPERIENCE_DESC", TEXT)), ctx(11, 5));
+
+        assertThat(out).extracting(Chunk::content).containsExactly("Aaaa. Bbbb!", "Bbbb! Cccc?", "Cccc? Dddd.");
+    }
+
+    @Test
+    void sentenceLongerThanMaxTokensIsCappedAtSpaces() {
+        var out = strategy.apply(List.of(chunk("SUMMARY_TEXT", "Shipped the new billing pipeline. Ok.")), ctx(16, 0));
+
+        assertThat(out).extracting(Chunk::content).containsExactly("Shipped the new", "billing", "pipeline.", "Ok.");
+    }
+
+    @Test
+    void inPlaceLinesAreKeptWhole() {
+        var bullet = chunk("EXPERIENCE_BULLET", TEXT);
+
+        assertThat(strategy.apply(List.of(bullet), ctx(5, 0))).containsExactly(bullet);
+    }
+
+    private static ChunkingContext ctx(int maxTokens, int overlapSentences) {
+        return new ChunkingContext(1.0, 1, maxTokens, overlapSentences);
+    }
+
+    private static Chunk chunk(String refType, String content) {
+        return new Chunk(1L, "EXPERIENCE", refType, 4L, 3, content);
+    }
+}
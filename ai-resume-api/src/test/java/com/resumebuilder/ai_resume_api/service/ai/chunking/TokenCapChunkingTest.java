@@ -0,0 +1,56 @@
+package com.resumebuilder.ai_resume_api.service.ai.chunking;
+
+import com.resumebuilder.ai_resume_api.service.ai.ResumeChunker.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenCapChunkingTest {
+
+    private final TokenCapChunking strategy = new TokenCapChunking();
+
+    @Test
+    void chunkOfExactlyMaxTokensIsKept() {
+        var c = chunk("SUMMARY_TEXT", "abcd efghi");
+
+        assertThat(strategy.apply(List.of(c), ctx(1.0, 10))).containsExactly(c);
+    }
+
+    @Test
+    void longerChunkIsCutAtTheLastSpaceWithinTheLimit() {
+        var out = strategy.apply(List.of(chunk("SUMMARY_TEXT", "abcd efghi jk")), ctx(1.0, 10));
+
+        assertThat(out).containsExactly(chunk("SUMMARY_TEXT", "abcd efghi"), chunk("SUMMARY_TEXT", "jk"));
+    }
+
+    @Test
+    void wordsLongerThanTheLimitAreCutHard() {
+        var out = strategy.apply(List.of(chunk("SUMMARY_TEXT", "abcdefghijklmnopqrstuvw")), ctx(1.0, 10));
+
+        assertThat(out).extracting(Chunk::content).containsExactly("abcdefghij", "klmnopqrst", "uvw");
+    }
+
+    @Test
+    void limitIsMaxTokensTimesCharsPerToken() {
+        var out = strategy.apply(List.of(chunk("SUMMARY_TEXT", "abcdefghijkl")), ctx(2.5, 4));
+
+        assertThat(out).extracting(Chunk::content).containsExactly("abcdefghij", "kl");
+    }
+
+    @Test
+    void inPlaceLinesAreKeptWhole() {
+        var bullet = chunk("EXPERIENCE_BULLET", "x".repeat(50));
+
+        assertThat(strategy.apply(List.of(bullet), ctx(1.0, 10))).containsExactly(bullet);
+    }
+
+    private static ChunkingContext ctx(double charsPerToken, int maxTokens) {
+        return new ChunkingContext(charsPerToken, 1, maxTokens, 0);
+    }
+
+    private static Chunk chunk(String refType, String content) {
+        return new Chunk(1L, "SUMMARY", refType, null, 2, content);
+    }
+}
@@ -0,0 +1,132 @@
+package com.resumebuilder.ai_resume_api.service.resume;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumebuilder.ai_resume_api.mapper.ResumeMapperImpl;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeDocumentDao;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** GET /api/resumes/{id} on the document loader: statements per fetch and parity with ResumeMapper. */
+class ResumeDocumentLoaderTest {
+
+    // Shaped like ResumeDocumentDao's output: to_jsonb rows plus the nested and renamed keys
+    private static final String DOCUMENT = """
+            {
+              "id": 7, "version": 3, "user_id": 42, "base_resume_id": null, "resume_type": "BASE",
+              "title": "Backend", "skill_proficiency_type": "STRING", "full_name": "Sam Doe",
+              "professional_summary": "Builds APIs.", "references_on_request": true,
+              "created_at": "2025-01-02T03:04:05.123456+00:00", "updated_at": "2025-02-03T04:05:06+00:00",
+              "links": [{"id": 1, "resume_id": 7, "title": "Blog", "url": "https://b.example", "version": 0, "display_order": 0}],
+              "target_roles": ["Staff Engineer"],
+              "languages": [{"id": 2, "resume_id": 7, "language_name": "German", "proficiency": "NATIVE", "version": 0, "display_order": 0}],
+              "skills": [
+                {"id": 11, "resume_id": 7, "category_id": 5, "name": "Java", "proficiency_level": 5,
+                 "proficiency_name": "EXPERT", "is_primary": true, "primary": true, "version": 1, "display_order": 0,
+                 "keywords": ["jvm"], "certifications": [{"id": 21, "skill_id": 11, "name": "OCP", "version": 0}]},
+                {"id": 12, "resume_id": 7, "category_id": null, "name": "SQL", "proficiency_level": 3,
+                 "is_primary": false, "primary": false, "version": 0, "display_order": 1, "keywords": [], "certifications": []}
+              ],
+              "skill_categories": [
+                {"id": 5, "resume_id": 7, "name": "Languages", "is_predefined": true, "predefined": true, "version": 0,
+                 "display_order": 0, "skills": [
+                   {"id": 11, "resume_id": 7, "category_id": 5, "name": "Java", "proficiency_level": 5,
+                    "is_primary": true, "primary": true, "version": 1, "display_order": 0, "keywords": ["jvm"],
+                    "certifications": []}]}
+              ],
+              "experiences": [
+                {"id": 31, "resume_id": 7, "job_title": "Engineer", "company_name": "Acme",
+                 "start_date": "2020-01-15", "end_date": "2021-03-20", "currently_working": false,
+                 "employment_type": "FULL_TIME", "kpi_revenue_impact_usd": 1250000.00, "display_order": 0,
+                 "version": 2, "remote": true, "confidential": false,
+                 "responsibilities": ["Built the billing API"], "achievements": [], "technologies": ["Java"],
+                 "methods": [], "links": [{"title": "Case study", "url": "https://c.example", "display_order": 0}]}
+              ],
+              "educations": [], "projects": [], "awards": [], "publications": [], "patents": [],
+              "credentials": [], "courses": [],
+              "talks": [
+                {"id": 41, "resume_id": 7, "title": "Fast reads", "event_name": "JConf", "start_date": "2024-05-01",
+                 "end_date": "2024-05-02", "is_virtual": true, "virtual": true, "abstract": "About reads.",
+                 "abstract_text": "About reads.", "display_order": 0, "version": 0, "co_speakers": ["Kim"],
+                 "keywords": [], "links": [{"type": "SLIDES", "title": "Slides", "url": "https://s.example"}]}
+              ],
+              "volunteerings": [], "references": []
+            }
+            """;
+
+    @Test
+    void loadsWholeResumeWithOneStatement() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getString(1)).thenReturn(DOCUMENT);
+
+        var loader = new ResumeDocumentLoader(new ResumeDocumentDao(new JdbcTemplate(dataSource)),
+                new ResumeMapperImpl(), new ObjectMapper().findAndRegisterModules());
+        var dto = loader.load(7L, "sam").orElseThrow();
+
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(statement, times(1)).executeQuery();
+        assertThat(dto.id()).isEqualTo(7L);
+        assertThat(dto.experiences()).hasSize(1);
+        assertThat(dto.talks()).hasSize(1);
+    }
+
+    @Test
+    void mapsDocumentLikeResumeMapper() {
+        var loader = new ResumeDocumentLoader(null, new ResumeMapperImpl(), new ObjectMapper().findAndRegisterModules());
+        var dto = loader.toDto(DOCUMENT);
+
+        assertThat(dto.userId()).isEqualTo(42L);
+        assertThat(dto.version()).isEqualTo(3L);
+        assertThat(dto.resumeType()).isEqualTo("BASE");
+        assertThat(dto.createdAt()).isEqualTo(Instant.parse("2025-01-02T03:04:05.123456Z"));
+        assertThat(dto.targetRoles()).containsExactly("Staff Engineer");
+        assertThat(dto.links()).singleElement().satisfies(l -> assertThat(l.url()).isEqualTo("https://b.example"));
+
+        assertThat(dto.skills()).extracting(s -> s.categoryId()).containsExactly(5L, null);
+        assertThat(dto.skills().get(0).primary()).isTrue();
+        assertThat(dto.skills().get(0).proficiencyName()).isEqualTo("EXPERT");
+        assertThat(dto.skills().get(0).certifications()).singleElement()
+                .satisfies(c -> assertThat(c.name()).isEqualTo("OCP"));
+        assertThat(dto.skillCategories()).singleElement().satisfies(c -> {
+            assertThat(c.isPredefined()).isTrue();
+            assertThat(c.skills()).singleElement().satisfies(s -> assertThat(s.categoryId()).isEqualTo(5L));
+        });
+
+        var exp = dto.experiences().get(0);
+        assertThat(exp.startDate()).isEqualTo(LocalDate.of(2020, 1, 15));
+        assertThat(exp.durationMonths()).isEqualTo(14);
+        assertThat(exp.durationHumanized()).isEqualTo("1 yr 2 mos");
+        assertThat(exp.employmentType()).isEqualTo("FULL_TIME");
+        assertThat(exp.kpiRevenueImpactUsd()).isEqualByComparingTo(new BigDecimal("1250000.00"));
+        assertThat(exp.responsibilities()).containsExactly("Built the billing API");
+        assertThat(exp.links()).singleElement().satisfies(l -> assertThat(l.title()).isEqualTo("Case study"));
+
+        var talk = dto.talks().get(0);
+        assertThat(talk.abstractText()).isEqualTo("About reads.");
+        assertThat(talk.locationDisplay()).isEqualTo("Virtual");
+        assertThat(talk.durationDays()).isEqualTo(2);
+        assertThat(talk.coSpeakers()).containsExactly("Kim");
+        assertThat(talk.links()).singleElement().satisfies(l -> assertThat(l.type()).isEqualTo("SLIDES"));
+    }
+}
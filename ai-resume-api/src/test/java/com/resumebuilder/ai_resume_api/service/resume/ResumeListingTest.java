@@ -0,0 +1,68 @@
+package com.resumebuilder.ai_resume_api.service.resume;
+
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto;
+import com.resumebuilder.ai_resume_api.exception.BadRequestException;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** GET /api/resumes and its keyset pages (/page): the cursor resumes after the last row of the previous page. */
+class ResumeListingTest {
+
+    private final ResumeRepository repository = mock(ResumeRepository.class);
+    private final ResumeService service = new ResumeService(repository, null, null, null, null, null, null, null,
+            "sql");
+
+    @Test
+    void cursorContinuesAfterLastRowOfPage() {
+        Instant t = Instant.parse("2025-03-04T05:06:07.123456Z");
+        when(repository.findSummaries(any(), eq(Limit.of(3)))).thenReturn(rows(t, 3));
+
+        var first = service.listMyResumes(null, 2);
+        assertThat(first.items()).extracting(ResumeSummaryDto::id).containsExactly(10L, 9L);
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(repository.findSummariesAfter(any(), eq(t.minusSeconds(1)), eq(9L), eq(Limit.of(3))))
+                .thenReturn(List.of(rows(t, 3).get(2)));
+        var second = service.listMyResumes(first.nextCursor(), 2);
+        assertThat(second.items()).extracting(ResumeSummaryDto::id).containsExactly(8L);
+        assertThat(second.nextCursor()).isNull();
+        verify(repository).findSummariesAfter(any(), eq(t.minusSeconds(1)), eq(9L), eq(Limit.of(3)));
+    }
+
+    @Test
+    void clampsPageSizeAndRejectsBadCursors() {
+        when(repository.findSummaries(any(), any())).thenReturn(List.of());
+        service.listMyResumes(null, 10_000);
+        verify(repository).findSummaries(any(), eq(Limit.of(101)));
+
+        assertThatThrownBy(() -> service.listMyResumes("not-a-cursor", 20)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void fullListingIsUnbounded() {
+        Instant t = Instant.parse("2025-03-04T05:06:07Z");
+        when(repository.findSummaries(any(), eq(Limit.unlimited()))).thenReturn(rows(t, 3));
+
+        assertThat(service.listMyResumes()).extracting(ResumeSummaryDto::id).containsExactly(10L, 9L, 8L);
+    }
+
+    // ids 10, 9, 8, ... each one second older than the previous
+    private static List<ResumeSummaryDto> rows(Instant newest, int n) {
+        return LongStream.range(0, n)
+                .mapToObj(i -> new ResumeSummaryDto(10 - i, "Resume " + i, newest.minusSeconds(i), "BASE", null))
+                .toList();
+    }
+}
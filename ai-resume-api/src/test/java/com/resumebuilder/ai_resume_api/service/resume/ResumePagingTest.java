@@ -0,0 +1,102 @@
+package com.resumebuilder.ai_resume_api.service.resume;
+
+import com.resumebuilder.ai_resume_api.PostgresIntegrationTest;
+import com.resumebuilder.ai_resume_api.dto.resume.ResumeSummaryDto;
+import com.resumebuilder.ai_resume_api.entity.UserEntity;
+import com.resumebuilder.ai_resume_api.entity.resume.ResumeEntity;
+import com.resumebuilder.ai_resume_api.repository.UserRepository;
+import com.resumebuilder.ai_resume_api.repository.resume.ResumeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Keyset pages of the resume listing against Postgres, where updated_at ties are broken by id. */
+@PostgresIntegrationTest
+class ResumePagingTest {
+
+    @Autowired
+    private ResumeService service;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ResumeRepository resumes;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate tx;
+
+    private List<Long> ids;
+    private Long oldest;
+
+    @BeforeEach
+    void seed() {
+        String username = "page-" + UUID.randomUUID().toString().substring(0, 8);
+        ids = tx.execute(status -> {
+            UserEntity user = new UserEntity();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setFullName("Sam Doe");
+            users.save(user);
+            return IntStream.range(0, 6).mapToObj(i -> {
+                ResumeEntity resume = new ResumeEntity();
+                resume.setUser(user);
+                resume.setTitle("Resume " + i);
+                return resumes.save(resume).getId();
+            }).toList();
+        });
+        // Five resumes share one timestamp (microseconds, as Postgres stores it), one is older
+        Instant tie = Instant.parse("2025-03-04T05:06:07.123456Z");
+        oldest = ids.get(0);
+        jdbc.update("UPDATE resumes SET updated_at = ? WHERE id = ANY(?)", Timestamp.from(tie),
+                ids.subList(1, 6).toArray(Long[]::new));
+        jdbc.update("UPDATE resumes SET updated_at = ? WHERE id = ?", Timestamp.from(tie.minusSeconds(60)), oldest);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pagesThroughEqualTimestampsWithoutSkippingOrRepeating() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = service.listMyResumes(cursor, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            page.items().forEach(r -> seen.add(r.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>(ids.subList(1, 6));
+        expected.sort(Comparator.reverseOrder());
+        expected.add(oldest);
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void fullListingMatchesThePages() {
+        assertThat(service.listMyResumes()).extracting(ResumeSummaryDto::id).hasSize(6).endsWith(oldest);
+    }
+}
@@ -0,0 +1,69 @@
+package com.resumebuilder.ai_resume_api.util;
+
+import com.resumebuilder.ai_resume_api.exception.BadRequestException;
+import com.resumebuilder.ai_resume_api.exception.OptimisticLockingException;
+import com.resumebuilder.ai_resume_api.exception.PreconditionFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** If-Match on updates, falling back to the body's version. */
+class ETagsTest {
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void ifMatchDecidesWhenSent() {
+        withIfMatch("\"4\", \"5\"");
+        assertThatCode(() -> ETags.requireVersion(null, 5L, "Experience", 31L)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> ETags.requireVersion(6L, 6L, "Experience", 31L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        withIfMatch("W/\"6\"");
+        assertThatThrownBy(() -> ETags.requireVersion(6L, 6L, "Experience", 31L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        withIfMatch("*");
+        assertThatCode(() -> ETags.requireVersion(null, 9L, "Experience", 31L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void bodyVersionWithoutIfMatch() {
+        withIfMatch(null);
+        assertThatCode(() -> ETags.requireVersion(2L, 2L, "Award", 1L)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> ETags.requireVersion(1L, 2L, "Award", 1L))
+                .isInstanceOf(OptimisticLockingException.class)
+                .hasMessage("Version mismatch for award id=1");
+        assertThatThrownBy(() -> ETags.requireVersion(null, 2L, "Award", 1L))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void resumeTagIsOnlyLookedUpForIfMatch() {
+        withIfMatch(null);
+        ETags.requireVersion(3L, 3L, () -> {
+            throw new AssertionError("looked up");
+        }, "Resume", 7L);
+
+        withIfMatch("\"abc\"");
+        assertThat(ETags.ifMatch()).isEqualTo("\"abc\"");
+        assertThatCode(() -> ETags.requireVersion(null, 3L, () -> ETags.of("abc"), "Resume", 7L))
+                .doesNotThrowAnyException();
+    }
+
+    private static void withIfMatch(String value) {
+        var request = new MockHttpServletRequest("PUT", "/api/resumes/7");
+        if (value != null)
+            request.addHeader("If-Match", value);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,50 @@
+-- Test-only (src/test/resources/db/it). Databases in the field got these tables from Hibernate
+-- ddl-auto before Flyway managed them: V11 reads language_proficiencies and V12 onwards alter the
+-- resume tables, but no migration creates either. They are created here at their entity shape so
+-- an empty database can run the real chain from V1.
+
+CREATE TABLE IF NOT EXISTS language_proficiencies (id bigint PRIMARY KEY, language varchar(64) NOT NULL, proficiency_level varchar(32) NOT NULL, personal_info_id bigint NOT NULL);
+
+CREATE TABLE IF NOT EXISTS resumes (references_on_request boolean not null, base_resume_id bigint, created_at timestamp(6) with time zone not null, id bigint generated by default as identity, updated_at timestamp(6) with time zone not null, user_id bigint not null, version bigint, resume_type varchar(16) not null check (resume_type in ('BASE','TAILORED')), skill_proficiency_type varchar(16) not null check (skill_proficiency_type in ('NUMERIC','STRING')), phone_number varchar(32), work_preference varchar(32), zip varchar(32), preferred_contact_method varchar(64), city varchar(128), country varchar(128), state varchar(128), title varchar(150) not null, photo_url varchar(1024), email varchar(255), facebook_url varchar(255), full_name varchar(255), github_url varchar(255), instagram_url varchar(255), job_description TEXT, linkedin_url varchar(255), professional_summary TEXT, resume_headline varchar(255), telegram_url varchar(255), twitter_url varchar(255), website_url varchar(255), whatsapp_url varchar(255), primary key (id));
+
+CREATE TABLE IF NOT EXISTS skill_categories (display_order integer not null, is_predefined boolean not null, id bigint generated by default as identity, resume_id bigint not null, version bigint, name varchar(128) not null, primary key (id), constraint uk_skill_category_name unique (resume_id, name));
+
+CREATE TABLE IF NOT EXISTS skills (display_order integer not null, is_primary boolean not null, last_used date, proficiency_level integer not null, years_of_experience integer, category_id bigint, id bigint generated by default as identity, resume_id bigint not null, version bigint, proficiency_name varchar(32) check (proficiency_name in ('NOVICE','INTERMEDIATE','ADVANCED','EXPERT')), name varchar(128) not null, primary key (id));
+
+CREATE TABLE IF NOT EXISTS certifications (id bigint generated by default as identity, skill_id bigint not null, version bigint, document_url varchar(2048), url varchar(2048), name varchar(255), primary key (id));
+
+CREATE TABLE IF NOT EXISTS experiences (confidential boolean not null, currently_working boolean not null, display_order integer not null, end_date date, kpi_arr_usd numeric(19,2), kpi_percent_improvement numeric(5,2), kpi_revenue_impact_usd numeric(19,2), kpi_time_saved_hours integer, kpi_users integer, remote boolean not null, start_date date, team_size integer, id bigint generated by default as identity, resume_id bigint not null, version bigint, employment_type varchar(32) check (employment_type in ('FULL_TIME','PART_TIME','CONTRACT','FREELANCE','INTERNSHIP','TEMPORARY')), seniority_level varchar(32) check (seniority_level in ('INTERN','JUNIOR','MID','SENIOR','LEAD','STAFF','PRINCIPAL','MANAGER','DIRECTOR','VP','C_LEVEL','OTHER')), location_city varchar(128), location_country varchar(128), location_state varchar(128), manager_name varchar(128), reports_to_title varchar(128), company_name varchar(255), company_website varchar(255), description TEXT, job_title varchar(255), location varchar(255), manager_contact varchar(255), star_action TEXT, star_result TEXT, star_situation TEXT, star_task TEXT, primary key (id));
+
+CREATE TABLE IF NOT EXISTS educations (currently_enrolled boolean not null, display_order integer not null, expected_graduation boolean not null, gpa float(53), show_gpa boolean not null, show_honors boolean not null, id bigint generated by default as identity, resume_id bigint not null, version bigint, end_date varchar(64), grade_class varchar(64), graduation_date varchar(64), start_date varchar(64), location_city varchar(128), location_country varchar(128), degree varchar(255), description TEXT, field_of_study varchar(255), honors TEXT, institution varchar(255), institution_website varchar(255), primary key (id));
+
+CREATE TABLE IF NOT EXISTS education_courses (education_id bigint not null, course varchar(255));
+
+CREATE TABLE IF NOT EXISTS resume_custom_links (display_order integer not null, id bigint generated by default as identity, resume_id bigint not null, version bigint, url varchar(2048) not null, title varchar(255) not null, primary key (id));
+
+CREATE TABLE IF NOT EXISTS resume_languages (display_order integer not null, id bigint generated by default as identity, resume_id bigint not null, version bigint, language_name varchar(64) not null, proficiency varchar(64) not null check (proficiency in ('ELEMENTARY','LIMITED_WORKING','PROFESSIONAL_WORKING','FULL_PROFESSIONAL','NATIVE')), primary key (id), constraint uk_resume_language_name unique (resume_id, language_name));
+
+CREATE TABLE IF NOT EXISTS resume_target_roles (resume_id bigint not null, target_role varchar(255));
+
+ALTER TABLE certifications ADD CONSTRAINT FK6cc08o19frar74wtwqpdo9s33 foreign key (skill_id) references skills;
+
+ALTER TABLE education_courses ADD CONSTRAINT FK6wpoti0nd3rebnvoum44imdkn foreign key (education_id) references educations;
+
+ALTER TABLE educations ADD CONSTRAINT FKo2o6l2a14fq9hkoo9io2st374 foreign key (resume_id) references resumes;
+
+ALTER TABLE experiences ADD CONSTRAINT FKhhketaibrcmn9m582gb8jwipv foreign key (resume_id) references resumes;
+
+ALTER TABLE resume_custom_links ADD CONSTRAINT FK2p6q0dh6xyctg97nmgv3mwdvs foreign key (resume_id) references resumes;
+
+ALTER TABLE resume_languages ADD CONSTRAINT FKit63iswkjr2441j76k4q3i9q foreign key (resume_id) references resumes;
+
+ALTER TABLE resume_target_roles ADD CONSTRAINT FKgeb4ed8bqobpotvpetwf8a2f5 foreign key (resume_id) references resumes;
+
+ALTER TABLE resumes ADD CONSTRAINT FK3mc0ecmbnfgsj62tfjm6g0n5r foreign key (base_resume_id) references resumes;
+
+ALTER TABLE resumes ADD CONSTRAINT FK340nuaivxiy99hslr3sdydfvv foreign key (user_id) references users;
+
+ALTER TABLE skill_categories ADD CONSTRAINT FKr4qcl3knvc0o9qmwqr6vm4ta1 foreign key (resume_id) references resumes;
+
+ALTER TABLE skills ADD CONSTRAINT FKl16l87m9kquuuuecnq1fx5hem foreign key (category_id) references skill_categories;
+
+ALTER TABLE skills ADD CONSTRAINT FK8lvpcbo92i34gfp0h0ydq5vcm foreign key (resume_id) references resumes;